@@ -0,0 +1,42 @@
+package application;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import java.util.Arrays;
+
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks in source folder benchmark/ and writes the results as JSON, so that
+ * they can be compared across releases. JMH and its dependencies are in dependencies/jmh-1.21; the annotation
+ * processor generating the benchmark harness is enabled via .factorypath. The benchmarks use the same classpath as src/.
+ * Outside of Eclipse, compile src/ and benchmark/ together with these jars (and javac's annotation processing) on the classpath.
+ * Usage: BenchmarkRunner [output file, default: benchmark-results.json] [benchmark regex, default: all] [JMH options, e.g. -p param=a,b -f 1 -i 5].
+ * Alternatively, org.openjdk.jmh.Main can be run directly (-rf json -rff file).
+ * @author RM
+ *
+ */
+public class BenchmarkRunner
+{
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException
+	{
+		final String outputFile		= args.length > 0 ? args[0] : "benchmark-results.json";
+		final String includeRegex	= args.length > 1 ? args[1] : "model\\..*Benchmark";
+		// Remaining arguments are passed to JMH (e.g. to restrict parameters or shorten iterations).
+		final String[] jmhArgs		= args.length > 2 ? Arrays.copyOfRange(args, 2, args.length) : new String[0];
+		
+		ChainedOptionsBuilder options = new OptionsBuilder()
+											.parent(new CommandLineOptions(jmhArgs))
+											.include(includeRegex)
+											.resultFormat(ResultFormatType.JSON)
+											.result(outputFile);
+		
+		new Runner(options.build()).run();
+		
+		System.out.println("Results written to " + outputFile + ".");
+	}
+}
@@ -0,0 +1,133 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+import model.LDAConfiguration;
+import model.topic.KeywordDictionary;
+import model.topic.Topic;
+import model.workspace.Dataset;
+import model.workspace.DatasetDistance;
+
+/**
+ * Compares the single-pass dataset distance calculation (one evaluation per topic pair,
+ * both directions derived from the topic distance matrix) with the former two-pass
+ * calculation (one full evaluation of all topic pairs per direction) on a synthetic workspace.
+ * Usage: DatasetDistanceBenchmark [numberOfDatasets] [numberOfTopics] [numberOfKeywords] [repetitions]
+ * @author RM
+ *
+ */
+public class DatasetDistanceBenchmark
+{
+	public static void main(String[] args)
+	{
+		final int numberOfDatasets	= args.length > 0 ? Integer.parseInt(args[0]) : 50;
+		final int numberOfTopics	= args.length > 1 ? Integer.parseInt(args[1]) : 20;
+		final int numberOfKeywords	= args.length > 2 ? Integer.parseInt(args[2]) : 5000;
+		final int repetitions		= args.length > 3 ? Integer.parseInt(args[3]) : 3;
+		
+		// -----------------------------------------------
+		// 			Generate synthetic workspace
+		// -----------------------------------------------
+		
+		SyntheticDatasetGenerator generator				= new SyntheticDatasetGenerator(numberOfDatasets, numberOfTopics, numberOfKeywords, 42);
+		KeywordDictionary dictionary					= generator.generateDictionary();
+		Map<LDAConfiguration, Dataset> datasetMap		= generator.generateDatasets(dictionary);
+		ArrayList<LDAConfiguration> ldaConfigurations	= generator.generateLDAConfigurations();
+		
+		Dataset[] datasets = new Dataset[numberOfDatasets];
+		for (int i = 0; i < numberOfDatasets; i++) {
+			datasets[i] = datasetMap.get(ldaConfigurations.get(i));
+		}
+		
+		// -----------------------------------------------
+		// 				Run benchmark
+		// -----------------------------------------------
+		
+		long bestTwoPassTime	= Long.MAX_VALUE;
+		long bestSinglePassTime	= Long.MAX_VALUE;
+		double maxDifference	= 0;
+		
+		// First repetition doubles as warm-up.
+		for (int repetition = 0; repetition <= repetitions; repetition++) {
+			double[] twoPassDistances		= new double[numberOfDatasets * numberOfDatasets];
+			double[] singlePassDistances	= new double[numberOfDatasets * numberOfDatasets];
+			
+			long start = System.nanoTime();
+			for (int i = 0; i < numberOfDatasets; i++) {
+				for (int j = i; j < numberOfDatasets; j++) {
+					double[][] topicDistances = new double[numberOfTopics][numberOfTopics];
+					twoPassDistances[i * numberOfDatasets + j] = calculateTwoPassHausdorffDistance(datasets[i], datasets[j], topicDistances);
+				}
+			}
+			long twoPassTime = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			for (int i = 0; i < numberOfDatasets; i++) {
+				for (int j = i; j < numberOfDatasets; j++) {
+					double[][] topicDistances = datasets[i].calculateTopicDistances(datasets[j]);
+					singlePassDistances[i * numberOfDatasets + j] = Dataset.calculateDatasetDistance(topicDistances, DatasetDistance.HausdorffDistance);
+				}
+			}
+			long singlePassTime = System.nanoTime() - start;
+			
+			// Make sure both variants yield the same results.
+			for (int i = 0; i < twoPassDistances.length; i++) {
+				maxDifference = Math.max(maxDifference, Math.abs(twoPassDistances[i] - singlePassDistances[i]));
+			}
+			
+			if (repetition > 0) {
+				bestTwoPassTime		= Math.min(bestTwoPassTime, twoPassTime);
+				bestSinglePassTime	= Math.min(bestSinglePassTime, singlePassTime);
+			}
+		}
+		
+		final long numberOfPairs		= (long)numberOfDatasets * (numberOfDatasets + 1) / 2;
+		final long topicEvaluations		= numberOfPairs * numberOfTopics * numberOfTopics;
+		
+		System.out.println("# Dataset distance benchmark (Hausdorff, Bhattacharyya):");
+		System.out.println("# \tDatasets = " + numberOfDatasets + ", topics = " + numberOfTopics + ", keywords = " + numberOfKeywords + ", repetitions = " + repetitions);
+		System.out.println("# \tTwo-pass:\t" + (2 * topicEvaluations) + " topic distance evaluations, best time (ms) = " + bestTwoPassTime / 1000000.0);
+		System.out.println("# \tSingle-pass:\t" + topicEvaluations + " topic distance evaluations, best time (ms) = " + bestSinglePassTime / 1000000.0);
+		System.out.println("# \tSpeedup = " + (double)bestTwoPassTime / bestSinglePassTime);
+		System.out.println("# \tMax. difference between results = " + maxDifference);
+	}
+	
+	/**
+	 * Former calculation: Each direction evaluates all topic pairs and adds half of the
+	 * distance into the topic distance matrix.
+	 * @param dataset1
+	 * @param dataset2
+	 * @param topicDistances
+	 * @return
+	 */
+	private static double calculateTwoPassHausdorffDistance(final Dataset dataset1, final Dataset dataset2, double[][] topicDistances)
+	{
+		return (calculateDirectedHausdorffDistance(dataset1, dataset2, topicDistances, false) + calculateDirectedHausdorffDistance(dataset2, dataset1, topicDistances, true)) / 2;
+	}
+	
+	private static double calculateDirectedHausdorffDistance(final Dataset dataset1, final Dataset dataset2, double[][] topicDistances, boolean reversedCallOrder)
+	{
+		double maxMinDistance		= 0;
+		ArrayList<Topic> topics1	= dataset1.getTopics();
+		ArrayList<Topic> topics2	= dataset2.getTopics();
+		
+		for (int i = 0; i < topics1.size(); i++) {
+			double minDistance = Double.MAX_VALUE;
+			
+			for (int j = 0; j < topics2.size(); j++) {
+				double distance	= topics1.get(i).calculateBhattacharyyaDistance(topics2.get(j));
+				minDistance		= minDistance > distance ? distance : minDistance;
+				
+				if (!reversedCallOrder)
+					topicDistances[i][j] += distance / 2;
+				else
+					topicDistances[j][i] += distance / 2;
+			}
+			
+			maxMinDistance = maxMinDistance < minDistance ? minDistance : maxMinDistance;
+		}
+		
+		return maxMinDistance;
+	}
+}
@@ -0,0 +1,127 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import model.LDAConfiguration;
+import model.topic.KeywordDictionary;
+import model.topic.Topic;
+import model.workspace.Dataset;
+
+/**
+ * Generates synthetic workspaces (datasets with dense topics over a shared keyword dictionary)
+ * for benchmarking purposes. Topic distributions are drawn from a skewed distribution, so that
+ * a small number of keywords carries most of the probability mass - similar to LDA output.
+ * Generation is deterministic for a given seed.
+ * @author RM
+ *
+ */
+public class SyntheticDatasetGenerator
+{
+	/**
+	 * Number of datasets/topic models to generate.
+	 */
+	private int numberOfDatasets;
+	/**
+	 * Number of topics per dataset.
+	 */
+	private int numberOfTopics;
+	/**
+	 * Number of keywords in dictionary.
+	 */
+	private int numberOfKeywords;
+	/**
+	 * Random number generator.
+	 */
+	private Random random;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	public SyntheticDatasetGenerator(int numberOfDatasets, int numberOfTopics, int numberOfKeywords, long seed)
+	{
+		this.numberOfDatasets	= numberOfDatasets;
+		this.numberOfTopics		= numberOfTopics;
+		this.numberOfKeywords	= numberOfKeywords;
+		this.random				= new Random(seed);
+	}
+	
+	/**
+	 * @return Dictionary with keywords "kw0", "kw1", ...; keyword IDs correspond to columns.
+	 */
+	public KeywordDictionary generateDictionary()
+	{
+		int[] keywordIDs	= new int[numberOfKeywords];
+		String[] keywords	= new String[numberOfKeywords];
+		
+		for (int i = 0; i < numberOfKeywords; i++) {
+			keywordIDs[i]	= i;
+			keywords[i]		= "kw" + i;
+		}
+		
+		return new KeywordDictionary(keywordIDs, keywords);
+	}
+	
+	/**
+	 * Generates one normalized, strictly positive probability vector.
+	 * @return
+	 */
+	public float[] generateProbabilities()
+	{
+		float[] probabilities	= new float[numberOfKeywords];
+		double sum				= 0;
+		
+		// Cubed exponential variates yield a heavy-tailed distribution of probability mass.
+		for (int i = 0; i < numberOfKeywords; i++) {
+			final double value	= -Math.log(1 - random.nextDouble());
+			probabilities[i]	= (float)(value * value * value + 1e-6);
+			sum					+= probabilities[i];
+		}
+		
+		for (int i = 0; i < numberOfKeywords; i++) {
+			probabilities[i] /= sum;
+		}
+		
+		return probabilities;
+	}
+	
+	/**
+	 * Generates datasets with configuration IDs 0..n-1 and random parameter values.
+	 * @param dictionary
+	 * @return
+	 */
+	public Map<LDAConfiguration, Dataset> generateDatasets(final KeywordDictionary dictionary)
+	{
+		Map<LDAConfiguration, Dataset> datasetMap = new HashMap<LDAConfiguration, Dataset>(numberOfDatasets * 2);
+		
+		for (LDAConfiguration ldaConfig : generateLDAConfigurations()) {
+			ArrayList<Topic> topics = new ArrayList<Topic>(numberOfTopics);
+			for (int topicID = 0; topicID < numberOfTopics; topicID++) {
+				topics.add(new Topic(topicID, dictionary, generateProbabilities()));
+			}
+			
+			datasetMap.put(ldaConfig, new Dataset(ldaConfig, topics));
+		}
+		
+		return datasetMap;
+	}
+	
+	/**
+	 * @return List of LDA configurations with IDs 0..n-1.
+	 */
+	public ArrayList<LDAConfiguration> generateLDAConfigurations()
+	{
+		// Use separate generator, so that configurations are reproducible independently of generated topics.
+		Random parameterRandom							= new Random(numberOfDatasets);
+		ArrayList<LDAConfiguration> ldaConfigurations	= new ArrayList<LDAConfiguration>(numberOfDatasets);
+		
+		for (int i = 0; i < numberOfDatasets; i++) {
+			ldaConfigurations.add(new LDAConfiguration(i, numberOfTopics, parameterRandom.nextDouble() * 100, parameterRandom.nextDouble() * 100));
+		}
+		
+		return ldaConfigurations;
+	}
+}
@@ -0,0 +1,100 @@
+package model.topic;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import application.SyntheticDatasetGenerator;
+
+/**
+ * Measures a single topic-to-topic comparison of sparse topics (see {@link SparseTopicVector}) for each metric
+ * supported by {@link SparseTopicDistanceKernels}, depending on the retained probability mass.
+ * Compare with the "prepared" representation in {@link TopicDistanceBenchmark}.
+ * @author RM
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SparseTopicDistanceBenchmark
+{
+	/**
+	 * Number of topics in pool.
+	 */
+	private static final int POOL_SIZE = 16;
+	
+	/**
+	 * Size of vocabulary.
+	 */
+	@Param({"1000", "10000", "50000"})
+	public int numberOfKeywords;
+	/**
+	 * Share of probability mass retained per topic.
+	 */
+	@Param({"0.99", "0.999", "0.9999"})
+	public double mass;
+	
+	private Topic[] topics;
+	private int position;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	@Setup
+	public void setup()
+	{
+		SyntheticDatasetGenerator generator	= new SyntheticDatasetGenerator(1, POOL_SIZE, numberOfKeywords, 42);
+		KeywordDictionary dictionary		= generator.generateDictionary();
+		
+		topics = new Topic[POOL_SIZE];
+		for (int i = 0; i < POOL_SIZE; i++) {
+			topics[i] = new Topic(i, dictionary, generator.generateProbabilities()).toSparseTopic(mass);
+		}
+		
+		position = 0;
+	}
+	
+	/**
+	 * @return First topic of next pair.
+	 */
+	private Topic nextTopic()
+	{
+		position = (position + 1) % POOL_SIZE;
+		
+		return topics[position];
+	}
+	
+	/**
+	 * @return Second topic of current pair.
+	 */
+	private Topic otherTopic()
+	{
+		return topics[(position + POOL_SIZE / 2) % POOL_SIZE];
+	}
+	
+	@Benchmark
+	public double hellinger()
+	{
+		return nextTopic().calculateHellingerDistance(otherTopic());
+	}
+	
+	@Benchmark
+	public double bhattacharyya()
+	{
+		return nextTopic().calculateBhattacharyyaDistance(otherTopic());
+	}
+	
+	@Benchmark
+	public double jensenShannon()
+	{
+		return nextTopic().calculateJensenShannonDivergence(otherTopic());
+	}
+}
@@ -0,0 +1,142 @@
+package model.topic;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import application.SyntheticDatasetGenerator;
+
+/**
+ * Measures a single topic-to-topic comparison for each supported {@link TopicDistance},
+ * for dense topics (shared keyword dictionary) with and without precalculated per-topic terms as well as for map-based topics, and all metrics
+ * evaluated one after another compared with all metrics evaluated in one pass.
+ * Cycles through a small pool of topics, so that consecutive calls don't compare the same pair.
+ * Gain of precalculated terms: BenchmarkRunner topic-distances.json "model\.topic\.TopicDistanceBenchmark" -p representation=dense,prepared
+ * @author RM
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TopicDistanceBenchmark
+{
+	/**
+	 * Number of topics in pool.
+	 */
+	private static final int POOL_SIZE = 16;
+	
+	/**
+	 * Size of vocabulary.
+	 */
+	@Param({"1000", "10000", "50000"})
+	public int numberOfKeywords;
+	/**
+	 * Topic representation: "dense" (probability vectors over a shared dictionary), "prepared" (dense with precalculated
+	 * square roots and logarithms, see {@link TopicVectors}) or "map" (keyword-probability maps).
+	 */
+	@Param({"dense", "prepared", "map"})
+	public String representation;
+	
+	private Topic[] topics;
+	private int position;
+	private double[] results;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	@Setup
+	public void setup()
+	{
+		SyntheticDatasetGenerator generator	= new SyntheticDatasetGenerator(1, POOL_SIZE, numberOfKeywords, 42);
+		KeywordDictionary dictionary		= generator.generateDictionary();
+		
+		topics = new Topic[POOL_SIZE];
+		for (int i = 0; i < POOL_SIZE; i++) {
+			Topic topic = new Topic(i, dictionary, generator.generateProbabilities());
+			topics[i]	= representation.equals("map") ? new Topic(i, topic.getKeywordProbabilityMap()) : topic;
+			
+			if (representation.equals("prepared"))
+				topics[i].precalculateVectors(TopicDistance.values());
+		}
+		
+		position	= 0;
+		results		= new double[TopicDistance.values().length];
+	}
+	
+	/**
+	 * @return First topic of next pair.
+	 */
+	private Topic nextTopic()
+	{
+		position = (position + 1) % POOL_SIZE;
+		
+		return topics[position];
+	}
+	
+	/**
+	 * @return Second topic of current pair.
+	 */
+	private Topic otherTopic()
+	{
+		return topics[(position + POOL_SIZE / 2) % POOL_SIZE];
+	}
+	
+	@Benchmark
+	public double l2()
+	{
+		return nextTopic().calculateL2Distance(otherTopic());
+	}
+	
+	@Benchmark
+	public double hellinger()
+	{
+		return nextTopic().calculateHellingerDistance(otherTopic());
+	}
+	
+	@Benchmark
+	public double bhattacharyya()
+	{
+		return nextTopic().calculateBhattacharyyaDistance(otherTopic());
+	}
+	
+	@Benchmark
+	public double kullbackLeibler()
+	{
+		return nextTopic().calculateKullbackLeiblerDistance(otherTopic());
+	}
+	
+	@Benchmark
+	public double jensenShannon()
+	{
+		return nextTopic().calculateJensenShannonDivergence(otherTopic());
+	}
+	
+	@Benchmark
+	public double[] allMetricsSeparately()
+	{
+		Topic topic			= nextTopic();
+		Topic otherTopic	= otherTopic();
+		
+		for (int i = 0; i < results.length; i++) {
+			results[i] = topic.calculateDistance(otherTopic, TopicDistance.values()[i]);
+		}
+		
+		return results;
+	}
+	
+	@Benchmark
+	public double[] allMetricsInOnePass()
+	{
+		nextTopic().calculateDistances(otherTopic(), TopicDistance.values(), results);
+		
+		return results;
+	}
+}
@@ -0,0 +1,102 @@
+package model.workspace;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import application.SyntheticDatasetGenerator;
+import model.LDAConfiguration;
+import model.topic.KeywordDictionary;
+
+/**
+ * Measures the comparison of two datasets: Calculation of the topic distance matrix and
+ * derivation of each {@link DatasetDistance} from it, separately and combined.
+ * @author RM
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DatasetDistanceAggregateBenchmark
+{
+	/**
+	 * Number of topics per dataset.
+	 */
+	@Param({"20", "50", "100"})
+	public int numberOfTopics;
+	/**
+	 * Size of vocabulary.
+	 */
+	@Param({"1000", "10000"})
+	public int numberOfKeywords;
+	/**
+	 * Aggregate used to derive dataset distances from topic distances.
+	 */
+	@Param({"MinimalDistance", "HausdorffDistance"})
+	public DatasetDistance distanceType;
+	
+	private Dataset dataset1;
+	private Dataset dataset2;
+	/**
+	 * Topic distance matrix of dataset1 and dataset2. Filled once in setup, reused as target by benchmarks writing into it.
+	 */
+	private double[][] topicDistances;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	@Setup
+	public void setup()
+	{
+		SyntheticDatasetGenerator generator				= new SyntheticDatasetGenerator(2, numberOfTopics, numberOfKeywords, 42);
+		KeywordDictionary dictionary					= generator.generateDictionary();
+		Map<LDAConfiguration, Dataset> datasetMap		= generator.generateDatasets(dictionary);
+		ArrayList<LDAConfiguration> ldaConfigurations	= generator.generateLDAConfigurations();
+		
+		dataset1		= datasetMap.get(ldaConfigurations.get(0));
+		dataset2		= datasetMap.get(ldaConfigurations.get(1));
+		topicDistances	= dataset1.calculateTopicDistances(dataset2);
+	}
+	
+	/**
+	 * Aggregate only (topic distances precalculated).
+	 * @return
+	 */
+	@Benchmark
+	public double aggregate()
+	{
+		return Dataset.calculateDatasetDistance(topicDistances, distanceType);
+	}
+	
+	/**
+	 * Topic distance matrix only.
+	 * @return
+	 */
+	@Benchmark
+	public double[][] topicDistanceMatrix()
+	{
+		dataset1.calculateTopicDistances(dataset2, topicDistances);
+		
+		return topicDistances;
+	}
+	
+	/**
+	 * Topic distance matrix and aggregate, i.e. one cell of the dataset distance matrix.
+	 * @return
+	 */
+	@Benchmark
+	public double datasetPair()
+	{
+		return dataset1.calculateDatasetDistance(dataset2, distanceType, topicDistances);
+	}
+}
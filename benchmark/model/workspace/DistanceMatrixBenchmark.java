@@ -0,0 +1,106 @@
+package model.workspace;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javafx.util.Pair;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import application.SyntheticDatasetGenerator;
+import model.LDAConfiguration;
+import model.topic.TopicDistance;
+
+/**
+ * Measures end-to-end construction of the dataset distance matrix of a synthetic workspace,
+ * i.e. the work done by Task_CalculateDistances apart from database I/O.
+ * @author RM
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DistanceMatrixBenchmark
+{
+	/**
+	 * Number of datasets/topic models.
+	 */
+	@Param({"50", "200"})
+	public int numberOfDatasets;
+	/**
+	 * Number of topics per dataset.
+	 */
+	@Param({"20", "50"})
+	public int numberOfTopics;
+	/**
+	 * Size of vocabulary.
+	 */
+	@Param({"1000", "10000"})
+	public int numberOfKeywords;
+	/**
+	 * Number of worker threads (0: number of available cores).
+	 */
+	@Param({"1", "0"})
+	public int numberOfThreads;
+	
+	private ArrayList<LDAConfiguration> ldaConfigurations;
+	private Map<LDAConfiguration, Dataset> datasetMap;
+	private DatasetDistanceEngine engine;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		SyntheticDatasetGenerator generator	= new SyntheticDatasetGenerator(numberOfDatasets, numberOfTopics, numberOfKeywords, 42);
+		datasetMap							= generator.generateDatasets(generator.generateDictionary());
+		ldaConfigurations					= generator.generateLDAConfigurations();
+		engine								= new DatasetDistanceEngine(numberOfThreads, 0);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		engine.shutdown();
+	}
+	
+	@Benchmark
+	public DistanceMatrix calculateDistanceMatrix() throws Exception
+	{
+		final int n							= ldaConfigurations.size();
+		PackedDistanceMatrix distances		= new PackedDistanceMatrix(n);
+		
+		final Map<Pair<LDAConfiguration, LDAConfiguration>, double[][]> topicDistances = new HashMap<Pair<LDAConfiguration, LDAConfiguration>, double[][]>(n * (n + 1));
+		
+		engine.calculateDistances(	ldaConfigurations, datasetMap, new DistanceMetricSet(TopicDistance.Bhattacharyya, DatasetDistance.HausdorffDistance), null, distances, 
+									new ITopicDistanceConsumer() {
+										@Override
+										public void consumeTopicDistances(TopicDistance topicDistance, Map<Pair<LDAConfiguration, LDAConfiguration>, double[][]> blockTopicDistances)
+										{
+											topicDistances.putAll(blockTopicDistances);
+										}
+									}, 
+									null, null);
+		
+		return distances;
+	}
+}
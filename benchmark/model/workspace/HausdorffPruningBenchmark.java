@@ -0,0 +1,103 @@
+package model.workspace;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import application.SyntheticDatasetGenerator;
+import model.LDAConfiguration;
+import model.topic.ITopicDistanceMetric;
+import model.topic.KeywordDictionary;
+import model.topic.TopicDistance;
+import model.topic.TopicDistanceMetrics;
+
+/**
+ * Measures the Hausdorff distance of two datasets: Derived from the complete topic distance matrix vs. calculated
+ * from the needed topic pairs only (see {@link Dataset#calculateHausdorffDistance(Dataset, ITopicDistanceMetric)}).
+ * Both variants use precalculated per-topic terms; signature size 0 disables lower bounds.
+ * @author RM
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HausdorffPruningBenchmark
+{
+	/**
+	 * Number of topics per dataset.
+	 */
+	@Param({"20", "50", "100"})
+	public int numberOfTopics;
+	/**
+	 * Size of vocabulary.
+	 */
+	@Param({"10000"})
+	public int numberOfKeywords;
+	/**
+	 * Topic distance metric.
+	 */
+	@Param({"Bhattacharyya", "JensenShannon"})
+	public TopicDistance topicDistance;
+	/**
+	 * Number of keywords per topic signature.
+	 */
+	@Param({"0", "32"})
+	public int signatureSize;
+	
+	private Dataset dataset1;
+	private Dataset dataset2;
+	private ITopicDistanceMetric[] metrics;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	@Setup
+	public void setup()
+	{
+		SyntheticDatasetGenerator generator				= new SyntheticDatasetGenerator(2, numberOfTopics, numberOfKeywords, 42);
+		KeywordDictionary dictionary					= generator.generateDictionary();
+		Map<LDAConfiguration, Dataset> datasetMap		= generator.generateDatasets(dictionary);
+		ArrayList<LDAConfiguration> ldaConfigurations	= generator.generateLDAConfigurations();
+		
+		dataset1	= datasetMap.get(ldaConfigurations.get(0));
+		dataset2	= datasetMap.get(ldaConfigurations.get(1));
+		metrics		= new ITopicDistanceMetric[] {TopicDistanceMetrics.get(topicDistance)};
+		
+		for (Dataset dataset : new Dataset[] {dataset1, dataset2}) {
+			dataset.precalculateTopicVectors(new TopicDistance[] {topicDistance});
+			
+			if (signatureSize > 0)
+				dataset.precalculateTopicSignatures(signatureSize);
+		}
+	}
+	
+	/**
+	 * Complete topic distance matrix and aggregate.
+	 * @return
+	 */
+	@Benchmark
+	public double complete()
+	{
+		return Dataset.calculateDatasetDistance(dataset1.calculateTopicDistances(dataset2, metrics)[0], DatasetDistance.HausdorffDistance);
+	}
+	
+	/**
+	 * Needed topic pairs only.
+	 * @return
+	 */
+	@Benchmark
+	public double pruned()
+	{
+		return dataset1.calculateHausdorffDistance(dataset2, metrics[0]);
+	}
+}
@@ -21,8 +21,14 @@ CREATE TABLE topics (topicID INTEGER, ldaConfigurationID INTEGER, PRIMARY KEY (t
 -- Table: datasetDistances
 CREATE TABLE datasetDistances (ldaConfigurationID_1 INT REFERENCES ldaConfigurations (ldaConfigurationID), ldaConfigurationID_2 INT REFERENCES ldaConfigurations (ldaConfigurationID), distance DOUBLE, PRIMARY KEY (ldaConfigurationID_1 ASC, ldaConfigurationID_2 ASC) ON CONFLICT REPLACE)
 
+-- Table: distanceMetric
+CREATE TABLE distanceMetric (topicDistance VARCHAR (50), datasetDistance VARCHAR (50), approximationMass DOUBLE, topicDistances VARCHAR (200), datasetDistances VARCHAR (200), topicDistancesComplete INTEGER)
+
 -- Table: keywordInTopic
-CREATE TABLE keywordInTopic (topicID INTEGER, keywordID INTEGER, probability DOUBLE, ldaConfigurationID INTEGER, PRIMARY KEY (topicID, keywordID, ldaConfigurationID) ON CONFLICT REPLACE, FOREIGN KEY (topicID, ldaConfigurationID) REFERENCES topics (topicID, ldaConfigurationID))
+CREATE TABLE keywordInTopic (topicID INTEGER, keywordID INTEGER, probability DOUBLE, ldaConfigurationID INTEGER, rank INTEGER, PRIMARY KEY (topicID, keywordID, ldaConfigurationID) ON CONFLICT REPLACE, FOREIGN KEY (topicID, ldaConfigurationID) REFERENCES topics (topicID, ldaConfigurationID))
+
+-- Table: topKeywordsInTopic
+CREATE TABLE topKeywordsInTopic (ldaConfigurationID INTEGER, topicID INTEGER, rank INTEGER, keywordID INTEGER, probability DOUBLE, PRIMARY KEY (ldaConfigurationID, topicID, rank)) WITHOUT ROWID
 
 -- Index:  combinedLDAConfigurationIndex
 CREATE INDEX " combinedLDAConfigurationIndex" ON datasetDistances (ldaConfigurationID_1 ASC, ldaConfigurationID_2 ASC)
@@ -48,5 +54,14 @@ CREATE INDEX keywordID_KIT_index ON keywordInTopic (keywordID ASC)
 -- Index: ldaConfigurationID_KIT_index
 CREATE INDEX ldaConfigurationID_KIT_index ON keywordInTopic (ldaConfigurationID ASC)
 
+-- Index: keywordInTopic_topicRank_index
+CREATE INDEX keywordInTopic_topicRank_index ON keywordInTopic (ldaConfigurationID, topicID, rank)
+
+-- Index: keywordInTopic_keywordRank_index
+CREATE INDEX keywordInTopic_keywordRank_index ON keywordInTopic (keywordID, rank)
+
+-- Index: topKeywordsInTopic_keywordRank_index
+CREATE INDEX topKeywordsInTopic_keywordRank_index ON topKeywordsInTopic (keywordID, rank)
+
 COMMIT TRANSACTION;
 PRAGMA foreign_keys = on;
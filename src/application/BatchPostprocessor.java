@@ -0,0 +1,245 @@
+package application;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.topic.TopicDistance;
+import model.workspace.DatasetDistance;
+import model.workspace.DatasetDistanceEngine;
+import model.workspace.DistanceMetricSet;
+import model.workspace.MDSAlgorithm;
+import model.workspace.Workspace;
+import model.workspace.WorkspacePipeline;
+
+/**
+ * Headless post-processing of a workspace (e.g. on a server): Collects metadata, calculates and loads dataset distances
+ * and calculates MDS coordinates, i.e. executes the same steps as the post-processing view without JavaFX toolkit.
+ * Raw data is streamed from the database. Several metrics may be specified as comma-separated lists, the first one of each list is
+ * the primary metric (see @DistanceMetricSet); without --metric/--aggregate, the metrics of the existing distances are used.
+ * --approximate approximates topic distances based on sparse topics retaining the specified share of probability mass (e.g. 0.999; 0: exact distances).
+ * --dataset-distances-only skips saving topic distances (they are recorded as incomplete); Hausdorff distances are then calculated from the needed topic pairs only.
+ * Usage: BatchPostprocessor <workspaceDirectory> [--metric <TopicDistance>[,...]] [--aggregate <DatasetDistance>[,...]] [--threads n]
+ * [--tile-size n] [--window n] [--incremental] [--approximate mass] [--dataset-distances-only] [--mds-algorithm <MDSAlgorithm>] [--landmarks n] [--skip-mds]
+ * Timings are written to stdout as tab-separated lines ("step=<step>\tms=<duration>\t..."), progress and statement statistics to stderr.
+ * Exit codes: 0 on success, 1 on failure, 2 on invalid arguments.
+ * @author RM
+ *
+ */
+public class BatchPostprocessor
+{
+	/**
+	 * Stream timings are written to (original stdout).
+	 */
+	private static PrintStream timingStream;
+	
+	public static void main(String[] args)
+	{
+		// -----------------------------------------------
+		// 				Parse arguments
+		// -----------------------------------------------
+		
+		String directory					= null;
+		List<TopicDistance> topicDistances		= new ArrayList<TopicDistance>();
+		List<DatasetDistance> datasetDistances	= new ArrayList<DatasetDistance>();
+		MDSAlgorithm mdsAlgorithm			= null;
+		int numberOfThreads					= 0;
+		int tileSize						= 0;
+		int windowSize						= DatasetDistanceEngine.DEFAULT_WINDOW_SIZE;
+		int numberOfLandmarks				= 0;
+		double approximationMass			= 0;
+		boolean isIncremental				= false;
+		boolean datasetDistancesOnly		= false;
+		boolean calculateMDS				= true;
+		
+		try {
+			for (int i = 0; i < args.length; i++) {
+				switch (args[i]) {
+					case "--metric":
+						for (String topicDistance : args[++i].split(",")) {
+							topicDistances.add(TopicDistance.valueOf(topicDistance));
+						}
+					break;
+					
+					case "--aggregate":
+						for (String datasetDistance : args[++i].split(",")) {
+							datasetDistances.add(DatasetDistance.valueOf(datasetDistance));
+						}
+					break;
+					
+					case "--threads":
+						numberOfThreads	= Integer.parseInt(args[++i]);
+					break;
+					
+					case "--tile-size":
+						tileSize		= Integer.parseInt(args[++i]);
+					break;
+					
+					case "--window":
+						windowSize		= Integer.parseInt(args[++i]);
+					break;
+					
+					case "--incremental":
+						isIncremental	= true;
+					break;
+					
+					case "--approximate":
+						approximationMass = Double.parseDouble(args[++i]);
+					break;
+					
+					case "--dataset-distances-only":
+						datasetDistancesOnly = true;
+					break;
+					
+					case "--mds-algorithm":
+						mdsAlgorithm	= MDSAlgorithm.valueOf(args[++i]);
+					break;
+					
+					case "--landmarks":
+						numberOfLandmarks = Integer.parseInt(args[++i]);
+					break;
+					
+					case "--skip-mds":
+						calculateMDS	= false;
+					break;
+					
+					default:
+						if (args[i].startsWith("--") || directory != null)
+							throw new IllegalArgumentException("Unknown argument " + args[i] + ".");
+						directory = args[i];
+				}
+			}
+			
+			if (directory == null)
+				throw new IllegalArgumentException("No workspace directory specified.");
+			
+			// Raw data is always streamed, since there is no need to keep it in memory after distances were calculated.
+			if (windowSize <= 0 || numberOfThreads < 0 || tileSize < 0 || numberOfLandmarks < 0)
+				throw new IllegalArgumentException("Window size must be positive, thread count, tile size and number of landmarks must not be negative.");
+			
+			// Mass is passed on in parts per million.
+			if (approximationMass < 0 || approximationMass > 1)
+				throw new IllegalArgumentException("Retained probability mass has to be in [0, 1] (0: exact distances).");
+			if (approximationMass > 0 && Math.round(approximationMass * 1000000) == 0)
+				throw new IllegalArgumentException("Retained probability mass " + approximationMass + " is below the resolution of 1e-6.");
+			
+			// Metrics have to be specified together.
+			if (topicDistances.isEmpty() != datasetDistances.isEmpty())
+				throw new IllegalArgumentException("Topic distance and dataset distance have to be specified together.");
+		}
+		
+		catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			System.err.println("### ERROR ### " + (e instanceof ArrayIndexOutOfBoundsException ? "Missing value for argument." : e.getMessage()));
+			System.err.println("Usage: BatchPostprocessor <workspaceDirectory> [--metric <TopicDistance>[,...]] [--aggregate <DatasetDistance>[,...]] [--threads n] " +
+								"[--tile-size n] [--window n] [--incremental] [--approximate mass] [--dataset-distances-only] [--mds-algorithm <MDSAlgorithm>] [--landmarks n] [--skip-mds]");
+			System.exit(2);
+		}
+		
+		// -----------------------------------------------
+		// 				Execute pipeline
+		// -----------------------------------------------
+		
+		Map<String, Integer> distanceOptionSet = new HashMap<String, Integer>();
+		distanceOptionSet.put("forceDistanceRecalculation", isIncremental ? 0 : 1);
+		if (!topicDistances.isEmpty())
+			new DistanceMetricSet(topicDistances, datasetDistances).addToOptionSet(distanceOptionSet);
+		distanceOptionSet.put("numberOfThreads", numberOfThreads);
+		distanceOptionSet.put("distanceTileSize", tileSize);
+		distanceOptionSet.put("rawDataWindowSize", windowSize);
+		distanceOptionSet.put("approximationMass", (int)Math.round(approximationMass * 1000000));
+		distanceOptionSet.put("datasetDistancesOnly", datasetDistancesOnly ? 1 : 0);
+		
+		Map<String, Integer> mdsOptionSet = new HashMap<String, Integer>();
+		mdsOptionSet.put("mdsAlgorithm", mdsAlgorithm != null ? mdsAlgorithm.ordinal() : -1);
+		mdsOptionSet.put("mdsLandmarks", numberOfLandmarks);
+		mdsOptionSet.put("numberOfThreads", numberOfThreads);
+		
+		// Keep stdout free of log output, so that only timings are written to it.
+		timingStream = System.out;
+		System.setOut(System.err);
+		
+		ConsoleProgressReporter progressReporter	= new ConsoleProgressReporter(System.err, ConsoleProgressReporter.DEFAULT_INTERVAL);
+		Workspace workspace							= new Workspace(directory);
+		int exitCode								= 0;
+		long start									= System.nanoTime();
+		
+		try {
+			workspace.setDirectory(directory);
+			WorkspacePipeline pipeline = new WorkspacePipeline(workspace);
+			
+			/* 1. Collect metadata. */
+			long stepStart = System.nanoTime();
+			progressReporter.setStep("collectMetadata");
+			int numberOfDatasets = pipeline.collectMetadata(progressReporter);
+			printTiming("collectMetadata", stepStart, "datasets=" + numberOfDatasets);
+			
+			/* 2. Calculate distances. */
+			stepStart = System.nanoTime();
+			progressReporter.setStep("calculateDistances");
+			long numberOfPairs = pipeline.calculateDistances(distanceOptionSet, progressReporter);
+			printTiming("calculateDistances", stepStart, "pairs=" + numberOfPairs + "\tmetric=" + (topicDistances.isEmpty() ? "stored" : join(topicDistances)) +
+														"\taggregate=" + (datasetDistances.isEmpty() ? "stored" : join(datasetDistances)) + "\tincremental=" + isIncremental +
+														"\tapproximationMass=" + approximationMass + "\tdatasetDistancesOnly=" + datasetDistancesOnly);
+			
+			/* 3. Load distances, if they weren't transferred to workspace by distance calculation. */
+			if (!workspace.isDistanceDataLoaded()) {
+				stepStart = System.nanoTime();
+				progressReporter.setStep("loadDistances");
+				printTiming("loadDistances", stepStart, "datasets=" + pipeline.loadDistances(progressReporter));
+			}
+			
+			/* 4. Calculate MDS coordinates. */
+			if (calculateMDS) {
+				stepStart = System.nanoTime();
+				progressReporter.setStep("calculateMDSCoordinates");
+				printTiming("calculateMDSCoordinates", stepStart, "datasets=" + pipeline.calculateMDSCoordinates(mdsOptionSet, progressReporter));
+			}
+		}
+		
+		catch (Exception e) {
+			e.printStackTrace();
+			System.err.println("### ERROR ### Post-processing of workspace " + directory + " failed.");
+			exitCode = 1;
+		}
+		
+		finally {
+			if (workspace.getQueryService() != null)
+				workspace.getQueryService().shutdown();
+			
+			// Log execution statistics of prepared statements.
+			if (workspace.getDatabaseManagement() != null)
+				System.err.print("Statement statistics:\n" + workspace.getDatabaseManagement().getStatementStatistics());
+			workspace.closeDB();
+		}
+		
+		printTiming("total", start, "exitCode=" + exitCode);
+		System.exit(exitCode);
+	}
+	
+	/**
+	 * @param values
+	 * @return Comma-separated list of values.
+	 */
+	private static String join(final List<?> values)
+	{
+		StringBuilder result = new StringBuilder();
+		for (Object value : values) {
+			result.append(result.length() > 0 ? "," : "").append(value);
+		}
+		
+		return result.toString();
+	}
+	
+	/**
+	 * Prints duration of step since specified start time.
+	 * @param step
+	 * @param start Start time in ns.
+	 * @param details Additional tab-separated key=value pairs.
+	 */
+	private static void printTiming(final String step, final long start, final String details)
+	{
+		timingStream.println("step=" + step + "\tms=" + (System.nanoTime() - start) / 1000000 + "\t" + details);
+	}
+}
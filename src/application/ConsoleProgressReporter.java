@@ -0,0 +1,58 @@
+package application;
+
+import java.io.PrintStream;
+
+import model.workspace.tasks.IProgressReporter;
+
+/**
+ * Reports progress of a pipeline step as machine-readable lines ("progress=<step>\t<workDone>\t<max>") to a stream.
+ * Independent of JavaFX. Reports are throttled to one line per interval; completion is always reported.
+ * @author RM
+ *
+ */
+public class ConsoleProgressReporter implements IProgressReporter
+{
+	/**
+	 * Minimal time between two progress lines in ms.
+	 */
+	public static final long DEFAULT_INTERVAL = 1000;
+	
+	private PrintStream stream;
+	private long interval;
+	private String step;
+	private long lastReportTime;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	public ConsoleProgressReporter(final PrintStream stream, final long interval)
+	{
+		this.stream		= stream;
+		this.interval	= interval;
+		this.step		= "";
+	}
+	
+	/**
+	 * Sets name of step progress is reported for.
+	 * @param step
+	 */
+	public synchronized void setStep(final String step)
+	{
+		this.step			= step;
+		this.lastReportTime	= 0;
+	}
+	
+	@Override
+	public synchronized void updateTaskProgress(final long workDone, final long max)
+	{
+		final long currentTime = System.currentTimeMillis();
+		
+		// Skip intermediate reports within interval.
+		if (workDone < max && currentTime - lastReportTime < interval)
+			return;
+		
+		lastReportTime = currentTime;
+		stream.println("progress=" + step + "\t" + workDone + "\t" + max);
+	}
+}
@@ -21,6 +21,7 @@ public class DatasetSizeEstimator
 			BigDecimal size_distances	= new BigDecimal(1);
 			BigDecimal size_topicDist	= new BigDecimal(1);
 			BigDecimal size_rawData		= new BigDecimal(1);
+			BigDecimal size_rawDataDense	= new BigDecimal(1);
 			
 			// Topic model size_distances: n * n * primitiveSizeInBytes / 2
 			size_distances = size_distances.multiply(new BigDecimal(n));
@@ -54,12 +55,23 @@ public class DatasetSizeEstimator
 			size_rawData = size_rawData.divide(new BigDecimal(1024));
 			size_rawData = size_rawData.divide(new BigDecimal(1024));
 			
+			// size_rawDataDense: n * numberOfTopics * numberOfKeywords * 4 (float vectors over shared keyword dictionary)
+			size_rawDataDense = size_rawDataDense.multiply(new BigDecimal(n));
+			size_rawDataDense = size_rawDataDense.multiply(new BigDecimal(numberOfTopics));
+			size_rawDataDense = size_rawDataDense.multiply(new BigDecimal(numberOfKeywords));
+			size_rawDataDense = size_rawDataDense.multiply(new BigDecimal(4));
+			
+			size_rawDataDense = size_rawDataDense.divide(new BigDecimal(1024));
+			size_rawDataDense = size_rawDataDense.divide(new BigDecimal(1024));
+			size_rawDataDense = size_rawDataDense.divide(new BigDecimal(1024));
+			
 			System.out.println("# Rough estimate of amount of data in or out of memory:");
 			System.out.println("# \tEstimated for (n = " + n + ", primitive size in bytes = " + primitiveSizeInBytes + "), without optimizations. ");
 			System.out.println("# \tMDS data (in MB)\t\t\t= " + size_MDS / (1024 * 1024));
 			System.out.println("# \tTopic model distance data (in GB)\t= " + size_distances);
 			System.out.println("# \tTopic distance data (in GB)\t\t= " + size_topicDist);
 			System.out.println("# \tRaw data (in GB)\t\t\t= " + size_rawData);
+			System.out.println("# \tRaw data, dense topics (in GB)\t\t= " + size_rawDataDense);
 			System.out.println("\n\n");
 	}
 }
@@ -1,22 +1,28 @@
 package control.analysisView;
 
 import java.net.URL;
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.controlsfx.control.PopOver;
 
 import com.sun.javafx.geom.Point2D;
 
+import database.DBManagement;
+import database.IDBQuery;
 import model.AnalysisDataspace;
 import model.LDAConfiguration;
 import model.documents.Document;
+import model.documents.KeywordContext;
 import model.misc.KeywordRankObject;
+import model.workspace.DistanceMatrix;
 import model.workspace.Workspace;
 import control.Controller;
 import view.components.DatapointIDMode;
@@ -896,24 +902,8 @@ public class AnalysisController extends Controller
 	@FXML
 	public void ddcButtonStateChanged(ActionEvent e)
 	{
-		double filteredDistances[][]							= new double[dataspace.getInactiveIndices().size()][dataspace.getInactiveIndices().size()];
-		ArrayList<LDAConfiguration> filteredLDAConfigurations	= new ArrayList<LDAConfiguration>(dataspace.getInactiveIndices().size());
-		
-		// Copy data corresponding to chosen LDA configurations in new arrays.
-		int count = 0;
-		for (int selectedIndex : dataspace.getInactiveIndices()) {
-			// Copy distances.
-			int innerCount = 0;
-			for (int selectedInnerIndex : dataspace.getInactiveIndices()) {
-				filteredDistances[count][innerCount] = dataspace.getDistances()[selectedIndex][selectedInnerIndex];
-				innerCount++;
-			}
-			
-			// Copy LDA configurations.
-			filteredLDAConfigurations.add(dataspace.getLDAConfigurations().get(selectedIndex));
-			
-			count++;
-		}
+		DistanceMatrix filteredDistances						= dataspace.createDistanceMatrix(dataspace.getInactiveIndices());
+		ArrayList<LDAConfiguration> filteredLDAConfigurations	= dataspace.createLDAConfigurations(dataspace.getInactiveIndices());
 	}
 	
 	@FXML
@@ -1329,70 +1319,83 @@ public class AnalysisController extends Controller
 	
 	/**
 	 * Creates new keyword filter for the given keyword (as long as it's valid).
+	 * Keyword data is loaded asynchronously.
 	 * @param keyword
 	 */
-	public void createKeywordFilter(String keyword)
+	public void createKeywordFilter(final String keyword)
 	{
-		try {
-			// Add new filter only if keyword exists.
-			if (	workspace.getDatabaseManagement().doesKeywordExist(keyword) &&
-					ScentedKeywordFilter.addToSetOfUsedKeywords(keyword)) {
-				/*
-				 * Retrive rank information for keyword. 
-				 */
-				ArrayList<KeywordRankObject> keywordRankObjects = workspace.getDatabaseManagement().loadKeywordRankInformation(keyword);
-				
-				/*
-				 * Add filter component to GUI. 
-				 */
-				
-				// Add  keyword filter. 
-				ScentedKeywordFilter keywordFilter = (ScentedKeywordFilter) VisualizationComponent.generateInstance(VisualizationComponentType.SCENTED_KEYWORD_FILTER, this, this.workspace, this.log_protocol_progressindicator, this.log_protocol_textarea);
-				// For binning: Get number of keywords.
-				final int numberOfKeywords = workspace.getDatabaseManagement().readNumberOfKeywords(true);
-				// Apply option set.
-				keywordFilter.applyOptions(new ScentedFilterOptionset(	keyword, 
-																		true, 
-																		1, 
-																		numberOfKeywords, 
-																		20, 
-																		numberOfKeywords / 50,
-																		5,
-																		true, 
-																		true, 
-																		false, 
-																		true));
-		
-				// Add to collection of filters.
-				filters.add(keywordFilter);
-				// Embed in containing VBox.
-				keywordFilter.embedIn(filters_vbox);
-				
-				// Adjust height of filter pane.
-				adjustFilterPaneHeight(true);
-				
-				/*
-				 * Fill component with data.
-				 */
-				keywordFilter.refresh(new ScentedKeywordFilterDataset(	dataspace.getLDAConfigurations(), 
-																		dataspace.getInactiveIndices(), 
-																		dataspace.getActiveIndices(),
-																		keywordRankObjects, 
-																		keyword,
-																		numberOfKeywords));
-				
-				/*
-				 * Resize filter to expected size.
-				 */
-				resizeElement(settings_anchorpane, filter_anchorpane.getWidth() + 14, 1);
+		/*
+		 * Retrive rank information for keyword and (for binning) number of keywords. Result is null, if keyword doesn't exist.
+		 */
+		workspace.getQueryService().submit(new IDBQuery<Pair<ArrayList<KeywordRankObject>, Integer>>() {
+			@Override
+			public Pair<ArrayList<KeywordRankObject>, Integer> execute(DBManagement db) throws Exception
+			{
+				if (!db.doesKeywordExist(keyword))
+					return null;
 				
+				return new Pair<ArrayList<KeywordRankObject>, Integer>(db.loadKeywordRankInformation(keyword), db.readNumberOfKeywords(true));
 			}
-			
-		} 
+		}).thenAccept(new Consumer<Pair<ArrayList<KeywordRankObject>, Integer>>() {
+			@Override
+			public void accept(Pair<ArrayList<KeywordRankObject>, Integer> keywordData)
+			{
+				// Add new filter only if keyword exists.
+				if (keywordData != null && ScentedKeywordFilter.addToSetOfUsedKeywords(keyword))
+					addKeywordFilter(keyword, keywordData.getKey(), keywordData.getValue());
+			}
+		});
+	}
+	
+	/**
+	 * Adds keyword filter to GUI.
+	 * @param keyword
+	 * @param keywordRankObjects
+	 * @param numberOfKeywords
+	 */
+	private void addKeywordFilter(final String keyword, final ArrayList<KeywordRankObject> keywordRankObjects, final int numberOfKeywords)
+	{
+		/*
+		 * Add filter component to GUI. 
+		 */
 		
-		catch (SQLException e) {
-			e.printStackTrace();
-		}
+		// Add  keyword filter. 
+		ScentedKeywordFilter keywordFilter = (ScentedKeywordFilter) VisualizationComponent.generateInstance(VisualizationComponentType.SCENTED_KEYWORD_FILTER, this, this.workspace, this.log_protocol_progressindicator, this.log_protocol_textarea);
+		// Apply option set.
+		keywordFilter.applyOptions(new ScentedFilterOptionset(	keyword, 
+																true, 
+																1, 
+																numberOfKeywords, 
+																20, 
+																numberOfKeywords / 50,
+																5,
+																true, 
+																true, 
+																false, 
+																true));
+		
+		// Add to collection of filters.
+		filters.add(keywordFilter);
+		// Embed in containing VBox.
+		keywordFilter.embedIn(filters_vbox);
+		
+		// Adjust height of filter pane.
+		adjustFilterPaneHeight(true);
+		
+		/*
+		 * Fill component with data.
+		 */
+		keywordFilter.refresh(new ScentedKeywordFilterDataset(	dataspace.getLDAConfigurations(), 
+																dataspace.getInactiveIndices(), 
+																dataspace.getActiveIndices(),
+																keywordRankObjects, 
+																keyword,
+																numberOfKeywords));
+		
+		/*
+		 * Resize filter to expected size.
+		 */
+		resizeElement(settings_anchorpane, filter_anchorpane.getWidth() + 14, 1);
 	}
 	
 	/**
@@ -1460,13 +1463,14 @@ public class AnalysisController extends Controller
 	
 	/**
 	 * List relevant documents in DocumentLookup component.
-	 * Is called after topic is selected in ParallelTagCloud.
+	 * Is called after topic is selected in ParallelTagCloud. Documents are loaded asynchronously; a previous, 
+	 * still pending request is cancelled.
 	 * @param topicID
 	 * @param clearContextSearch
 	 * @param keyword
-	 * @return Map with ID -> rank associations in table.
+	 * @return Future of map with ID -> rank associations in table. Completed on the JavaFX application thread.
 	 */
-	public Map<Integer, Integer> listRelevantDocuments(final Pair<Integer, Integer> topicID, final boolean clearContextSearch, final String keyword)
+	public CompletableFuture<Map<Integer, Integer>> listRelevantDocuments(final Pair<Integer, Integer> topicID, final boolean clearContextSearch, final String keyword)
 	{
 		log("Listing documents for topic " + topicID.getKey() + "#" + topicID.getValue());
 		
@@ -1475,23 +1479,27 @@ public class AnalysisController extends Controller
 			contextSearch.clear();
 		
 		// Load documents sorted by relevance.
-		try {
-			// Updating DocumentLookup.
-			documentLookup.refresh(topicID, keyword, workspace.getDatabaseManagement().loadDocuments(topicID), null);
-			
-			// Return result.
-			return documentLookup.getDocumentRanksByID();
-		}
-		
-		catch (SQLException e) {
-			e.printStackTrace();
-		}
-		
-		return null;
+		return workspace.getQueryService().submit("documentLookup", new IDBQuery<ArrayList<Document>>() {
+			@Override
+			public ArrayList<Document> execute(DBManagement db) throws Exception
+			{
+				return db.loadDocuments(topicID);
+			}
+		}).thenApply(new Function<ArrayList<Document>, Map<Integer, Integer>>() {
+			@Override
+			public Map<Integer, Integer> apply(ArrayList<Document> documents)
+			{
+				// Updating DocumentLookup.
+				documentLookup.refresh(topicID, keyword, documents, null);
+				
+				// Return result.
+				return documentLookup.getDocumentRanksByID();
+			}
+		});
 	}
 	
 	/**
-	 * Show context for specified keyword.
+	 * Show context for specified keyword. Context is loaded asynchronously; a previous, still pending request is cancelled.
 	 * @param keyword
 	 * @param documentRanksByID 
 	 * @param ldaConfigID Currently examined LDA configuration's ID to provide context.
@@ -1500,15 +1508,20 @@ public class AnalysisController extends Controller
 	public void showKeywordContext(final String keyword, final Map<Integer, Integer> documentRanksByID, final int ldaConfigID, final int topicID)
 	{
 		// Load keyword context.
-		try {
-			// Updating DocumentLookup.
-			contextSearch.refresh(	new Pair<Integer, Integer>(ldaConfigID, topicID), keyword, 
-									workspace.getDatabaseManagement().loadContext(keyword), documentRanksByID, null);
-		}
-		
-		catch (SQLException e) {
-			e.printStackTrace();
-		}
+		workspace.getQueryService().submit("keywordContext", new IDBQuery<ArrayList<KeywordContext>>() {
+			@Override
+			public ArrayList<KeywordContext> execute(DBManagement db) throws Exception
+			{
+				return db.loadContext(keyword);
+			}
+		}).thenAccept(new Consumer<ArrayList<KeywordContext>>() {
+			@Override
+			public void accept(ArrayList<KeywordContext> keywordContexts)
+			{
+				// Updating DocumentLookup.
+				contextSearch.refresh(new Pair<Integer, Integer>(ldaConfigID, topicID), keyword, keywordContexts, documentRanksByID, null);
+			}
+		});
 	}
 
 	/**
@@ -1529,28 +1542,35 @@ public class AnalysisController extends Controller
 	 */
 	public void showDocumentDetail(final int documentID, final int ldaConfigID, final int topicID, final String examinedKeyword)
 	{		
-		try {
-			// Load document, update component.
-			documentDetail.refresh(	workspace.getDatabaseManagement().loadDocumentByID(documentID), 
-									workspace.getDatabaseManagement().loadTopicProbabilitiesInDocument(documentID),
-									new Pair<Integer, Integer>(ldaConfigID, topicID),
-									examinedKeyword);
-			
-			// Show document detail.
-			documentDetail_popover.show(documentLookup_anchorpane);
-			
-			// Detach popup.
-			documentDetail_popover.setDetached(true);
-			documentDetail_popover.setDetachedTitle("Document #" + documentID);            
-            
-			// Center popover in application window.
-			documentDetail_popover.setX(scene.getWindow().getX() + scene.getWindow().getWidth() / 2 - documentDetail_popover.getWidth() / 2);
-			documentDetail_popover.setY(scene.getWindow().getY() + scene.getWindow().getHeight() / 2 - documentDetail_popover.getHeight() / 2);
-		} 
-		
-		catch (SQLException e) {
-			e.printStackTrace();
-		}
+		// Load document and its topic probabilities.
+		workspace.getQueryService().submit("documentDetail", new IDBQuery<Pair<Document, ArrayList<Pair<Pair<Integer, Integer>, Float>>>>() {
+			@Override
+			public Pair<Document, ArrayList<Pair<Pair<Integer, Integer>, Float>>> execute(DBManagement db) throws Exception
+			{
+				return new Pair<Document, ArrayList<Pair<Pair<Integer, Integer>, Float>>>(db.loadDocumentByID(documentID), db.loadTopicProbabilitiesInDocument(documentID));
+			}
+		}).thenAccept(new Consumer<Pair<Document, ArrayList<Pair<Pair<Integer, Integer>, Float>>>>() {
+			@Override
+			public void accept(Pair<Document, ArrayList<Pair<Pair<Integer, Integer>, Float>>> documentData)
+			{
+				// Update component.
+				documentDetail.refresh(	documentData.getKey(), 
+										documentData.getValue(),
+										new Pair<Integer, Integer>(ldaConfigID, topicID),
+										examinedKeyword);
+				
+				// Show document detail.
+				documentDetail_popover.show(documentLookup_anchorpane);
+				
+				// Detach popup.
+				documentDetail_popover.setDetached(true);
+				documentDetail_popover.setDetachedTitle("Document #" + documentID);            
+				
+				// Center popover in application window.
+				documentDetail_popover.setX(scene.getWindow().getX() + scene.getWindow().getWidth() / 2 - documentDetail_popover.getWidth() / 2);
+				documentDetail_popover.setY(scene.getWindow().getY() + scene.getWindow().getHeight() / 2 - documentDetail_popover.getHeight() / 2);
+			}
+		});
 	}
 	
 	/**
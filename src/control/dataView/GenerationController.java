@@ -10,6 +10,7 @@ import java.util.ResourceBundle;
 import java.util.Set;
 
 import model.LDAConfiguration;
+import model.workspace.DatasetDistanceEngine;
 import model.workspace.TaskType;
 
 import org.controlsfx.control.RangeSlider;
@@ -632,9 +633,13 @@ public class GenerationController extends DataSubViewController
 				
 				// If "Include postprocessing" is enabled: Start preprocessing.
 				if (includePostprocessing_checkbox.isSelected()) {
-					// Load raw data.
+					// Only calculate distances for the newly generated datasets, stream raw data from database.
+					Map<String, Integer> distanceOptionSet = new HashMap<String, Integer>();
+					distanceOptionSet.put("forceDistanceRecalculation", 0);
+					distanceOptionSet.put("rawDataWindowSize", DatasetDistanceEngine.DEFAULT_WINDOW_SIZE);
+					
 					generate_progressIndicator.progressProperty().unbind();
-					workspace.executeWorkspaceAction(TaskType.LOAD_RAW_DATA, generate_progressIndicator.progressProperty(), this, null);
+					workspace.executeWorkspaceAction(TaskType.CALCULATE_DISTANCES, dataViewController.getProgressIndicator_distanceCalculation().progressProperty(), this, distanceOptionSet);
 				}
 				
 				// Else: Display warning (workspace is inconsistent). Refresh not necessary, since - apart from the already collected
@@ -658,6 +663,14 @@ public class GenerationController extends DataSubViewController
 			case CALCULATE_DISTANCES:
 				System.out.println("[Post-generation] Calculated distance data.");
 				
+				// Distances were calculated incrementally: Load complete distance matrix before calculating MDS coordinates.
+				if (!workspace.isDistanceDataLoaded()) {
+					workspace.executeWorkspaceAction(TaskType.LOAD_DISTANCES, dataViewController.getProgressIndicator_calculateMDSCoordinates().progressProperty(), this, null);
+					break;
+				}
+			
+			// Distance data is loaded (falls through from CALCULATE_DISTANCES if distances were calculated completely).
+			case LOAD_DISTANCES:
 				// Don't force recalculation of existing distances.
 				Map<String, Integer> additionalOptionSet = new HashMap<String, Integer>();
 				additionalOptionSet.put("forceDistanceRecalculation", 0);
@@ -1,10 +1,16 @@
 package control.dataView;
 
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 
+import model.topic.TopicDistance;
+import model.workspace.DatasetDistance;
+import model.workspace.DatasetDistanceEngine;
+import model.workspace.DistanceMetricSet;
 import model.workspace.TaskType;
 import model.workspace.tasks.Task_LoadRawData;
 import model.workspace.tasks.WorkspaceTask;
@@ -59,6 +65,9 @@ public class PostprocessingController extends DataSubViewController
 	public void initialize(URL location, ResourceBundle resources)
 	{
 		System.out.println("Initializing SII_PostprocessingController.");
+		
+		// Add scaling algorithms (order as in MDSAlgorithm). No selection: Chosen by workspace size.
+		combobox_scalingAlgorithm.getItems().addAll("Classical Scaling", "Landmark MDS", "Pivot MDS");
 	}
 	
 	@Override
@@ -70,6 +79,31 @@ public class PostprocessingController extends DataSubViewController
 		optionSet.put("forceDistanceRecalculation", checkbox_appendToDistanceMatrix.isSelected() ? 0 : 1);
 		// Add option for appending for loading only topics without an existing distance matrix.
 		optionSet.put("loadOnlyDataNecessaryForDistanceCalculation", optionSet.get("forceDistanceRecalculation"));
+		// Stream raw data from database in windows, unless it has already been loaded completely.
+		optionSet.put("rawDataWindowSize", workspace.isRawDataLoaded() ? 0 : DatasetDistanceEngine.DEFAULT_WINDOW_SIZE);
+		// Add options for selected metrics. Primary metric (used for MDS and analysis) is the first selected one.
+		List<TopicDistance> topicDistances		= new ArrayList<TopicDistance>();
+		List<DatasetDistance> datasetDistances	= new ArrayList<DatasetDistance>();
+		if (checkbox_bhattacharyya.isSelected())
+			topicDistances.add(TopicDistance.Bhattacharyya);
+		if (checkbox_hellinger.isSelected())
+			topicDistances.add(TopicDistance.Hellinger);
+		if (checkbox_jensenshannon.isSelected())
+			topicDistances.add(TopicDistance.JensenShannon);
+		if (checkbox_kullbackleibler.isSelected())
+			topicDistances.add(TopicDistance.KullbackLeibler);
+		if (checkbox_l2.isSelected())
+			topicDistances.add(TopicDistance.L2);
+		if (checkbox_hausdorff.isSelected())
+			datasetDistances.add(DatasetDistance.HausdorffDistance);
+		if (checkbox_avgmin.isSelected())
+			datasetDistances.add(DatasetDistance.AverageMinimalDistance);
+		// Without selection: Metric of existing distances is used.
+		if (!topicDistances.isEmpty() && !datasetDistances.isEmpty())
+			new DistanceMetricSet(topicDistances, datasetDistances).addToOptionSet(optionSet);
+		
+		// Add option for MDS algorithm (-1: choose by workspace size).
+		optionSet.put("mdsAlgorithm", combobox_scalingAlgorithm.getSelectionModel().getSelectedIndex());
 		
 		return optionSet;
 	}
@@ -89,15 +123,15 @@ public class PostprocessingController extends DataSubViewController
 		// Act according to used button.
 		switch (source.getId()) {
 			case "button_calculateDistances":
-				// Check if raw data has already been loaded. If not: Load it.
-				if (!workspace.isRawDataLoaded()) {
+				// Check if raw data has already been loaded or is streamed. If not: Load it.
+				if (!workspace.isRawDataLoaded() && optionSet.get("rawDataWindowSize") == 0) {
 					System.out.println("Loading raw data.");
 					log("Loading raw data.");
 					
 					workspace.executeWorkspaceAction(TaskType.LOAD_RAW_DATA, progressIndicator_distanceCalculation.progressProperty(), this, optionSet);
 				}
 				
-				// Raw data has already been loaded: Calculate distances.
+				// Raw data has already been loaded or is streamed: Calculate distances.
 				else {
 					System.out.println("Calculating distances.");
 					log("Calculating distances.");
@@ -113,7 +147,7 @@ public class PostprocessingController extends DataSubViewController
 					System.out.println("Calculating MDS coordinates.");
 					log("Calculating MDS coordinates.");
 					
-					workspace.executeWorkspaceAction(TaskType.CALCULATE_MDS_COORDINATES, progressIndicator_calculateMDSCoordinates.progressProperty(), this, null);
+					workspace.executeWorkspaceAction(TaskType.CALCULATE_MDS_COORDINATES, progressIndicator_calculateMDSCoordinates.progressProperty(), this, optionSet);
 				}
 				
 				// Otherwise: Load distance data, then calculate MDS coordinates.
@@ -157,7 +191,7 @@ public class PostprocessingController extends DataSubViewController
 				System.out.println("Finished loading distance data. Calculating MDS coordinates.");
 				log("Finished loading distance data. Calculating MDS coordinates.");
 				
-				workspace.executeWorkspaceAction(TaskType.CALCULATE_MDS_COORDINATES, progressIndicator_distanceCalculation.progressProperty(), this, null);
+				workspace.executeWorkspaceAction(TaskType.CALCULATE_MDS_COORDINATES, progressIndicator_distanceCalculation.progressProperty(), this, optionSet);
 			break;
 			
 			case CALCULATE_DISTANCES:
@@ -208,16 +242,16 @@ public class PostprocessingController extends DataSubViewController
 		checkbox_appendToDistanceMatrix.setDisable(false);
 //		checkbox_appendToMDSCoordinateMatrix.setDisable(false);
 
-//		 checkbox_bhattacharyya.setDisable(false);
-//		 checkbox_hellinger.setDisable(false);
-//		 checkbox_jensenshannon.setDisable(false);
-//		 checkbox_kullbackleibler.setDisable(false);
-//		 checkbox_l2.setDisable(false);
+		 checkbox_bhattacharyya.setDisable(false);
+		 checkbox_hellinger.setDisable(false);
+		 checkbox_jensenshannon.setDisable(false);
+		 checkbox_kullbackleibler.setDisable(false);
+		 checkbox_l2.setDisable(false);
 		
-//		 checkbox_hausdorff.setDisable(false);
-//		 checkbox_avgmin.setDisable(false);
+		 checkbox_hausdorff.setDisable(false);
+		 checkbox_avgmin.setDisable(false);
 		 
-//		 combobox_scalingAlgorithm.setDisable(false);
+		 combobox_scalingAlgorithm.setDisable(false);
 	}
 
 
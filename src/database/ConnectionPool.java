@@ -0,0 +1,288 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool of SQLite connections to one database: One writer connection and a fixed number of reader connections.
+ * The database is switched to WAL mode, so that readers see the last committed state and are not blocked
+ * by a running write transaction (and vice versa).
+ * Connections are bound to the acquiring thread until released; acquisitions are reentrant, i.e. nested calls
+ * return the same connection. A thread holding the writer connection reads via the writer connection as well,
+ * so that it sees its own uncommitted changes.
+ * @author RM
+ *
+ */
+public class ConnectionPool
+{
+	/**
+	 * Default number of reader connections.
+	 */
+	public static final int DEFAULT_NUMBER_OF_READERS	= 4;
+	/**
+	 * Page cache size per connection in KiB.
+	 */
+	private static final int CACHE_SIZE_KIB				= 32 * 1024;
+	/**
+	 * Maximal number of bytes of the database file memory-mapped per connection.
+	 */
+	private static final long MMAP_SIZE					= 256L * 1024 * 1024;
+	/**
+	 * Time in ms a connection waits for a lock held by another connection before failing.
+	 */
+	private static final int BUSY_TIMEOUT				= 30000;
+	
+	/**
+	 * Reader connection held by a thread and number of (nested) acquisitions.
+	 */
+	private static class ReaderHold
+	{
+		Connection connection;
+		int count;
+	}
+	
+	private String dbPath;
+	private int numberOfReaders;
+	/**
+	 * Connection used for all writes.
+	 */
+	private Connection writer;
+	/**
+	 * Guards writer connection (reentrant).
+	 */
+	private ReentrantLock writeLock;
+	/**
+	 * All reader connections.
+	 */
+	private ArrayList<Connection> readers;
+	/**
+	 * Reader connections currently not held by any thread.
+	 */
+	private BlockingQueue<Connection> availableReaders;
+	/**
+	 * Reader connection held by the current thread.
+	 */
+	private ThreadLocal<ReaderHold> readerHold;
+	/**
+	 * Prepared statements of each connection.
+	 */
+	private IdentityHashMap<Connection, StatementRegistry> statementRegistries;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	/**
+	 * Opens all connections.
+	 * @param dbPath
+	 * @param numberOfReaders
+	 * @throws SQLException
+	 */
+	public ConnectionPool(final String dbPath, final int numberOfReaders) throws SQLException
+	{
+		this.dbPath				= dbPath;
+		this.numberOfReaders	= Math.max(numberOfReaders, 1);
+		this.writeLock			= new ReentrantLock();
+		this.readers			= new ArrayList<Connection>(numberOfReaders);
+		this.availableReaders	= new ArrayBlockingQueue<Connection>(this.numberOfReaders);
+		this.readerHold			= new ThreadLocal<ReaderHold>();
+		this.statementRegistries	= new IdentityHashMap<Connection, StatementRegistry>();
+		
+		open();
+	}
+	
+	/**
+	 * Opens writer and reader connections, applies PRAGMAs.
+	 * @throws SQLException
+	 */
+	private void open() throws SQLException
+	{
+		// Writer: Switch to WAL mode (persistent), commit without syncing the WAL file each time.
+		writer = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
+		execute(writer, "PRAGMA journal_mode = WAL");
+		execute(writer, "PRAGMA synchronous = NORMAL");
+		execute(writer, "PRAGMA temp_store = MEMORY");
+		applyCommonPragmas(writer);
+		statementRegistries.put(writer, new StatementRegistry(writer));
+		
+		// Readers: Read-only.
+		for (int i = 0; i < numberOfReaders; i++) {
+			Connection reader = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
+			applyCommonPragmas(reader);
+			execute(reader, "PRAGMA query_only = 1");
+			
+			readers.add(reader);
+			availableReaders.add(reader);
+			statementRegistries.put(reader, new StatementRegistry(reader));
+		}
+	}
+	
+	private static void applyCommonPragmas(final Connection connection) throws SQLException
+	{
+		execute(connection, "PRAGMA cache_size = -" + CACHE_SIZE_KIB);
+		execute(connection, "PRAGMA mmap_size = " + MMAP_SIZE);
+		execute(connection, "PRAGMA busy_timeout = " + BUSY_TIMEOUT);
+	}
+	
+	private static void execute(final Connection connection, final String sql) throws SQLException
+	{
+		Statement statement = connection.createStatement();
+		statement.execute(sql);
+		statement.close();
+	}
+	
+	/**
+	 * Acquires a reader connection for the current thread. Blocks until one is available.
+	 * Has to be released via {@link #release(Connection)} by the same thread.
+	 * @return
+	 */
+	public Connection acquireReader()
+	{
+		// Thread is writing: Read own changes.
+		if (writeLock.isHeldByCurrentThread())
+			return acquireWriter();
+		
+		ReaderHold hold = readerHold.get();
+		if (hold == null) {
+			hold			= new ReaderHold();
+			hold.connection	= takeReader();
+			readerHold.set(hold);
+		}
+		hold.count++;
+		
+		return hold.connection;
+	}
+	
+	/**
+	 * Acquires the writer connection for the current thread. Blocks until it is available.
+	 * Has to be released via {@link #release(Connection)} by the same thread.
+	 * @return
+	 */
+	public Connection acquireWriter()
+	{
+		writeLock.lock();
+		
+		return writer;
+	}
+	
+	/**
+	 * @param connection Connection held by the current thread.
+	 * @return Registry of prepared statements of this connection.
+	 */
+	public StatementRegistry getStatementRegistry(final Connection connection)
+	{
+		return statementRegistries.get(connection);
+	}
+	
+	/**
+	 * Releases connection acquired by the current thread.
+	 * Once a connection is released completely, unfinished statements are closed and an unfinished 
+	 * transaction on the writer connection is rolled back.
+	 * @param connection
+	 */
+	public void release(final Connection connection)
+	{
+		if (connection == writer) {
+			try {
+				if (writeLock.getHoldCount() == 1 && !writer.isClosed()) {
+					statementRegistries.get(writer).releaseActiveStatements();
+					
+					if (!writer.getAutoCommit()) {
+						writer.rollback();
+						writer.setAutoCommit(true);
+					}
+				}
+			}
+			
+			catch (SQLException e) {
+				e.printStackTrace();
+			}
+			
+			finally {
+				writeLock.unlock();
+			}
+			
+			return;
+		}
+		
+		ReaderHold hold = readerHold.get();
+		if (hold == null || hold.connection != connection)
+			throw new IllegalStateException("Connection is not held by current thread.");
+		
+		if (--hold.count == 0) {
+			statementRegistries.get(connection).releaseActiveStatements();
+			readerHold.remove();
+			availableReaders.add(connection);
+		}
+	}
+	
+	/**
+	 * Takes reader from queue of available readers. Interrupts don't abort waiting, but are preserved.
+	 * @return
+	 */
+	private Connection takeReader()
+	{
+		boolean wasInterrupted = false;
+		try {
+			while (true) {
+				try {
+					return availableReaders.take();
+				}
+				
+				catch (InterruptedException e) {
+					wasInterrupted = true;
+				}
+			}
+		}
+		
+		finally {
+			if (wasInterrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Closes all connections. Connections must not be in use.
+	 */
+	public void close()
+	{
+		for (StatementRegistry statementRegistry : statementRegistries.values()) {
+			statementRegistry.close();
+		}
+		statementRegistries.clear();
+		
+		try {
+			if (writer != null && !writer.isClosed())
+				writer.close();
+			
+			for (Connection reader : readers) {
+				if (!reader.isClosed())
+					reader.close();
+			}
+		}
+		
+		catch (SQLException e) {
+			e.printStackTrace();
+		}
+		
+		readers.clear();
+		availableReaders.clear();
+	}
+	
+	/**
+	 * Closes and reopens all connections. Connections must not be in use.
+	 * @throws SQLException
+	 */
+	public void reopen() throws SQLException
+	{
+		close();
+		open();
+	}
+}
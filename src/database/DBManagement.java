@@ -4,11 +4,12 @@ import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -16,6 +17,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 import javafx.concurrent.Task;
 import javafx.util.Pair;
@@ -24,38 +27,87 @@ import model.LDAConfiguration;
 import model.documents.Document;
 import model.documents.KeywordContext;
 import model.misc.KeywordRankObject;
+import model.topic.KeywordDictionary;
+import model.topic.TopKeywords;
 import model.topic.Topic;
+import model.topic.TopicDistance;
 import model.topic.TopicKeywordAlignment;
 import model.workspace.Dataset;
+import model.workspace.DatasetDistance;
+import model.workspace.DistanceMatrix;
+import model.workspace.DistanceMetricSet;
+import model.workspace.WritableDistanceMatrix;
 import model.workspace.tasks.Task_LoadRawData;
-import model.workspace.tasks.WorkspaceTask;
+import model.workspace.tasks.IProgressReporter;
 
 public class DBManagement
 {
 	private String dbPath;
-	private Connection connection;
+	/**
+	 * Writer and reader connections. Methods acquire a connection for their duration.
+	 */
+	private ConnectionPool connectionPool;
 	
 	/**
 	 * Is supposed to be equal for all LDA configurations and topics.
 	 */
 	private int numberOfKeywordsPerTopic;
 	
+	/**
+	 * Global keyword dictionary used for dense topics. Loaded on first use.
+	 */
+	private KeywordDictionary keywordDictionary;
+	
+	/**
+	 * Cache for topic distances, topic counts and topic distance extrema.
+	 */
+	private TopicDistanceCache topicDistanceCache;
+	
+	/**
+	 * Module of full-text index over documents (fts4 or fts5). Null, if not determined yet.
+	 */
+	private volatile String documentIndexModule;
+	
+	/**
+	 * Number of most probable keywords per topic stored in table topKeywordsInTopic.
+	 */
+	public static final int NUMBER_OF_RANKED_TOP_KEYWORDS	= 100;
+	/**
+	 * Number of documents indexed in one transaction.
+	 */
+	private static final int DOCUMENT_INDEX_CHUNK_SIZE		= 10000;
+	/**
+	 * Maximal number of tokens in context snippets.
+	 */
+	private static final int DOCUMENT_CONTEXT_TOKEN_COUNT	= 16;
+	/**
+	 * Number of topics whose top keywords are loaded with one statement.
+	 */
+	private static final int TOP_KEYWORDS_BATCH_SIZE	= 32;
+	/**
+	 * Queries for top keywords of TOP_KEYWORDS_BATCH_SIZE topics: From table topKeywordsInTopic and (for more 
+	 * than NUMBER_OF_RANKED_TOP_KEYWORDS keywords) from table keywordInTopic.
+	 */
+	private static final String TOP_KEYWORDS_QUERY		= buildTopKeywordsQuery("topKeywordsInTopic");
+	private static final String RANKED_KEYWORDS_QUERY	= buildTopKeywordsQuery("keywordInTopic");
+	
 	public DBManagement(String dbPath)
 	{
-		this.dbPath = dbPath;
+		this.dbPath				= dbPath;
+		this.topicDistanceCache	= new TopicDistanceCache(TopicDistanceCache.DEFAULT_MEMORY_BUDGET);
 		
 		// Init DB connection.
 		initConnection();
 	}
 	
 	/**
-	 * Init connection to database.
+	 * Init connections to database.
 	 */
 	private void initConnection()
 	{
 	    try {
 	      Class.forName("org.sqlite.JDBC");
-	      connection = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
+	      connectionPool = new ConnectionPool(dbPath, ConnectionPool.DEFAULT_NUMBER_OF_READERS);
 	    } 
 	    
 	    catch ( Exception e ) {
@@ -67,6 +119,14 @@ public class DBManagement
 	    //readNumberOfKeywords(false);
 	}
 	
+	/**
+	 * @return Execution statistics of prepared statements as table (one line per query).
+	 */
+	public String getStatementStatistics()
+	{
+		return StatementRegistry.formatStatistics();
+	}
+	
 	/**
 	 * Takes an examplary file and copies it into the defined database.
 	 * Used for dev. purposes only, not for production.
@@ -80,6 +140,7 @@ public class DBManagement
 		String insertString = 	"insert into KEYWORDS (keyword) " +
 			    				"VALUES (?)";
 		
+		final Connection connection = connectionPool.acquireWriter();
 		try {
 			// Disable auto-commit.
 			connection.setAutoCommit(false);
@@ -109,6 +170,7 @@ public class DBManagement
 		}
 		
 		finally {
+			connectionPool.release(connection);
 			close();
 		}
 	}
@@ -128,6 +190,7 @@ public class DBManagement
 		// Remember original size of keyword probability map.
 		final int originalKPMapSize					= keywordProbabilities.size();
 		
+		final Connection connection = connectionPool.acquireWriter();
 		try {
 			// Load reference topic model data.
 			List<String> lines = Files.readAllLines(new File(filepath).toPath());
@@ -297,15 +360,15 @@ public class DBManagement
 								topic.put("multi-variate_visualization", adjustedProb);
 								topic.put("multi-variate_visualization_technique", adjustedProb);
 								topic.put("multivariate", adjustedProb);
-								topic.put("statisticsmultivariate", adjustedProb);
+								topic.put("statistics—multivariate", adjustedProb);
 							break;
 							
 							case "user_interfaces":
 								adjustedProb = probPerKeyword / 7;
 								
-								topic.put("user_interfacesgui", adjustedProb);
+								topic.put("user_interfaces—gui", adjustedProb);
 								topic.put("user_interfaces,", adjustedProb);
-								topic.put("user_interfacesgraphical", adjustedProb);
+								topic.put("user_interfaces—graphical", adjustedProb);
 								topic.put("user_interfaces-graphical", adjustedProb);
 								topic.put("techniques-user_interface", adjustedProb);
 								topic.put("user-interaction", adjustedProb);
@@ -399,7 +462,7 @@ public class DBManagement
 								topic.put("large_dataset_visualization_applications_of_infovi", adjustedProb);
 								topic.put("scientific_visualization_application", adjustedProb);
 								topic.put("information_visualization_application", adjustedProb);
-								topic.put("applicationsvisual_analytic", adjustedProb);
+								topic.put("applications¿visual_analytic", adjustedProb);
 								topic.put("visualization_applications-topic", adjustedProb);
 								topic.put("visualization_application", adjustedProb);
 							break;
@@ -412,7 +475,7 @@ public class DBManagement
 								topic.put("glyph", adjustedProb);
 								topic.put("glyphbased", adjustedProb);
 								topic.put("glyph-based_technique", adjustedProb);
-								topic.put("glyphs", adjustedProb);
+								topic.put("“glyphs”", adjustedProb);
 								topic.put("glyph_design", adjustedProb);
 								topic.put("glyph-based", adjustedProb);
 								topic.put("vesselglyph", adjustedProb);
@@ -571,46 +634,351 @@ public class DBManagement
 			e.printStackTrace();
 		}
 		
+		finally {
+			connectionPool.release(connection);
+		}
+		
+		// Topic counts changed.
+		topicDistanceCache.invalidateAll();
+		
+		// Rank keywords of imported topics.
+		buildDerivedKeywordData(null);
+		
 		System.out.println("Import finished.");
 	}
 	
 	/**
-	 * Reopen database.
+	 * Builds derived keyword data for all LDA configurations which have not been processed yet: 
+	 * Ranks keywords of each topic (column rank in table keywordInTopic, 1 being the most probable keyword) 
+	 * and stores the NUMBER_OF_RANKED_TOP_KEYWORDS most probable keywords per topic in table topKeywordsInTopic.
+	 * Creates the required columns, tables and indices if necessary. Has to be called after data was generated or imported.
+	 * @param task Optional; is updated with progress.
 	 */
-	public void reopen()
+	public void buildDerivedKeywordData(final IProgressReporter task)
 	{
+		final Connection connection = connectionPool.acquireWriter();
 		try {
-			if (connection != null && !connection.isClosed()) {
-				connection.close();
+			/*
+			 * 1. Create schema for derived data.
+			 */
+			
+			createDerivedKeywordDataSchema(connection);
+			
+			/*
+			 * 2. Collect LDA configurations without derived data.
+			 */
+			
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement statement		= statements.prepare(	"select distinct t.ldaConfigurationID from topics t " +
+																	"where not exists (" +
+																	"	select * from topKeywordsInTopic tk where tk.ldaConfigurationID = t.ldaConfigurationID" +
+																	")");
+			ResultSet rs					= statement.executeQuery();
+			ArrayList<Integer> ldaConfigIDs	= new ArrayList<Integer>();
+			while (rs.next()) {
+				ldaConfigIDs.add(rs.getInt(1));
 			}
+			statements.finish(statement, rs);
+			
+			if (!ldaConfigIDs.isEmpty())
+				System.out.println("Ranking keywords of " + ldaConfigIDs.size() + " LDA configurations.");
 			
-			connection = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
+			/*
+			 * 3. Rank keywords, one transaction per LDA configuration.
+			 */
+			
+			for (int i = 0; i < ldaConfigIDs.size(); i++) {
+				connection.setAutoCommit(false);
+				rankKeywordsInTopics(connection, statements, ldaConfigIDs.get(i));
+				connection.commit();
+				connection.setAutoCommit(true);
+				
+				// Update task progress.
+				if (task != null)
+					task.updateTaskProgress(i + 1, ldaConfigIDs.size());
+			}
 		}
 		
 		catch (SQLException e) {
 			e.printStackTrace();
 		}
+		
+		finally {
+			connectionPool.release(connection);
+		}
 	}
 	
-	public void close()
+	/**
+	 * Adds column rank to table keywordInTopic and creates table topKeywordsInTopic plus indices, if not existent yet.
+	 * @param connection Writer connection.
+	 * @throws SQLException
+	 */
+	private void createDerivedKeywordDataSchema(final Connection connection) throws SQLException
+	{
+		Statement statement	= connection.createStatement();
+		
+		// Check if rank column exists.
+		ResultSet rs		= statement.executeQuery("pragma table_info(keywordInTopic)");
+		boolean hasRank		= false;
+		while (rs.next()) {
+			hasRank = hasRank || "rank".equalsIgnoreCase(rs.getString("name"));
+		}
+		rs.close();
+		
+		if (!hasRank)
+			statement.executeUpdate("alter table keywordInTopic add column rank INTEGER");
+		
+		statement.executeUpdate("create index if not exists keywordInTopic_topicRank_index on keywordInTopic (ldaConfigurationID, topicID, rank)");
+		statement.executeUpdate("create index if not exists keywordInTopic_keywordRank_index on keywordInTopic (keywordID, rank)");
+		statement.executeUpdate("create table if not exists topKeywordsInTopic (" +
+								"ldaConfigurationID INTEGER, topicID INTEGER, rank INTEGER, keywordID INTEGER, probability DOUBLE, " +
+								"PRIMARY KEY (ldaConfigurationID, topicID, rank)) WITHOUT ROWID");
+		statement.executeUpdate("create index if not exists topKeywordsInTopic_keywordRank_index on topKeywordsInTopic (keywordID, rank)");
+		
+		statement.close();
+	}
+	
+	/**
+	 * Ranks keywords in all topics of this LDA configuration and stores top keywords. Has to be run in a transaction.
+	 * @param connection Writer connection.
+	 * @param statements
+	 * @param ldaConfigID
+	 * @throws SQLException
+	 */
+	private void rankKeywordsInTopics(final Connection connection, final StatementRegistry statements, final int ldaConfigID) throws SQLException
+	{
+		// Collect topics.
+		PreparedStatement topicStatement = statements.prepare("select topicID from topics where ldaConfigurationID = ?");
+		topicStatement.setInt(1, ldaConfigID);
+		ResultSet rs = topicStatement.executeQuery();
+		ArrayList<Integer> topicIDs = new ArrayList<Integer>();
+		while (rs.next()) {
+			topicIDs.add(rs.getInt(1));
+		}
+		statements.finish(topicStatement, rs);
+		
+		// Remove previous top keywords.
+		PreparedStatement deleteStatement = statements.prepare("delete from topKeywordsInTopic where ldaConfigurationID = ?");
+		deleteStatement.setInt(1, ldaConfigID);
+		deleteStatement.executeUpdate();
+		statements.finish(deleteStatement, null);
+		
+		int[] keywordIDs		= new int[0];
+		double[] probabilities	= new double[0];
+		
+		for (int topicID : topicIDs) {
+			/*
+			 * 1. Read keywords of topic, ordered by rank. Rows are read completely before table keywordInTopic is modified.
+			 */
+			
+			PreparedStatement selectStatement = statements.prepare(	"select keywordID, probability from keywordInTopic " +
+																	"where ldaConfigurationID = ? and topicID = ? " +
+																	"order by probability desc, keywordID");
+			selectStatement.setInt(1, ldaConfigID);
+			selectStatement.setInt(2, topicID);
+			rs 				= selectStatement.executeQuery();
+			int count		= 0;
+			while (rs.next()) {
+				if (count == keywordIDs.length) {
+					keywordIDs		= Arrays.copyOf(keywordIDs, Math.max(16, count * 2));
+					probabilities	= Arrays.copyOf(probabilities, keywordIDs.length);
+				}
+				
+				keywordIDs[count]		= rs.getInt(1);
+				probabilities[count]	= rs.getDouble(2);
+				count++;
+			}
+			statements.finish(selectStatement, rs);
+			
+			/*
+			 * 2. Write ranks and top keywords.
+			 */
+			
+			PreparedStatement updateStatement	= statements.prepare("update keywordInTopic set rank = ? where topicID = ? and keywordID = ? and ldaConfigurationID = ?");
+			PreparedStatement insertStatement	= statements.prepare("insert into topKeywordsInTopic (ldaConfigurationID, topicID, rank, keywordID, probability) values (?, ?, ?, ?, ?)");
+			for (int i = 0; i < count; i++) {
+				updateStatement.setInt(1, i + 1);
+				updateStatement.setInt(2, topicID);
+				updateStatement.setInt(3, keywordIDs[i]);
+				updateStatement.setInt(4, ldaConfigID);
+				updateStatement.addBatch();
+				
+				if (i < NUMBER_OF_RANKED_TOP_KEYWORDS) {
+					insertStatement.setInt(1, ldaConfigID);
+					insertStatement.setInt(2, topicID);
+					insertStatement.setInt(3, i + 1);
+					insertStatement.setInt(4, keywordIDs[i]);
+					insertStatement.setDouble(5, probabilities[i]);
+					insertStatement.addBatch();
+				}
+			}
+			updateStatement.executeBatch();
+			insertStatement.executeBatch();
+			statements.finish(updateStatement, null);
+			statements.finish(insertStatement, null);
+		}
+	}
+	
+	/**
+	 * Indexes all documents added since the last call in full-text index documentsIndex. The index is an external content table 
+	 * (i.e. stores no copy of the texts) over columns title, abstract, refinedAbstract and keywords of table documents, 
+	 * keyed by the documents' row IDs. Uses FTS5, if available, and FTS4 otherwise.
+	 * Documents are only ever appended, hence indexing starts after the highest row ID indexed so far.
+	 * @param task Optional; is updated with progress.
+	 */
+	public void buildDocumentIndex(final IProgressReporter task)
 	{
+		final Connection connection = connectionPool.acquireWriter();
 		try {
-			if (connection != null && !connection.isClosed()) {
-				connection.close();
+			Statement statement = connection.createStatement();
+			
+			/*
+			 * 1. Create index, if necessary.
+			 */
+			
+			// No documents available.
+			ResultSet rs = statement.executeQuery("select count(*) from sqlite_master where type = 'table' and name = 'documents'");
+			final boolean hasDocuments = rs.getInt(1) > 0;
+			rs.close();
+			if (!hasDocuments) {
+				statement.close();
+				return;
 			}
-		} 
+			
+			if (readDocumentIndexModule(statement) == null) {
+				try {
+					statement.executeUpdate("create virtual table documentsIndex using fts5(title, abstract, refinedAbstract, keywords, content='documents', prefix='2 3')");
+				}
+				
+				// FTS5 not available: Use FTS4.
+				catch (SQLException e) {
+					statement.executeUpdate("create virtual table documentsIndex using fts4(title, abstract, refinedAbstract, keywords, content=\"documents\", prefix=\"2,3\")");
+				}
+			}
+			documentIndexModule = readDocumentIndexModule(statement);
+			
+			statement.executeUpdate("create table if not exists documentsIndexState (maxRowID INTEGER)");
+			
+			/*
+			 * 2. Index new documents in chunks, one transaction each.
+			 */
+			
+			rs = statement.executeQuery("select coalesce((select max(maxRowID) from documentsIndexState), 0), coalesce((select max(rowid) from documents), 0)");
+			final long indexedMaxRowID	= rs.getLong(1);
+			final long maxRowID			= rs.getLong(2);
+			rs.close();
+			statement.close();
+			
+			if (maxRowID > indexedMaxRowID)
+				System.out.println("Indexing documents with row IDs " + (indexedMaxRowID + 1) + " to " + maxRowID + ".");
+			
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			for (long chunkStart = indexedMaxRowID; chunkStart < maxRowID; chunkStart += DOCUMENT_INDEX_CHUNK_SIZE) {
+				final long chunkEnd = Math.min(chunkStart + DOCUMENT_INDEX_CHUNK_SIZE, maxRowID);
+				
+				connection.setAutoCommit(false);
+				
+				PreparedStatement insertStatement = statements.prepare(	"insert into documentsIndex (rowid, title, abstract, refinedAbstract, keywords) " +
+																		"select rowid, title, abstract, refinedAbstract, keywords from documents " +
+																		"where rowid > ? and rowid <= ?");
+				insertStatement.setLong(1, chunkStart);
+				insertStatement.setLong(2, chunkEnd);
+				insertStatement.executeUpdate();
+				statements.finish(insertStatement, null);
+				
+				PreparedStatement deleteStatement = statements.prepare("delete from documentsIndexState");
+				deleteStatement.executeUpdate();
+				statements.finish(deleteStatement, null);
+				
+				PreparedStatement stateStatement = statements.prepare("insert into documentsIndexState (maxRowID) values (?)");
+				stateStatement.setLong(1, chunkEnd);
+				stateStatement.executeUpdate();
+				statements.finish(stateStatement, null);
+				
+				connection.commit();
+				connection.setAutoCommit(true);
+				
+				// Update task progress.
+				if (task != null)
+					task.updateTaskProgress((int)(chunkEnd - indexedMaxRowID), (int)(maxRowID - indexedMaxRowID));
+			}
+		}
+		
+		catch (SQLException e) {
+			e.printStackTrace();
+		}
+		
+		finally {
+			connectionPool.release(connection);
+		}
+	}
+	
+	/**
+	 * @param statement
+	 * @return Module of full-text index (fts4 or fts5); null, if index does not exist.
+	 * @throws SQLException
+	 */
+	private static String readDocumentIndexModule(final Statement statement) throws SQLException
+	{
+		ResultSet rs	= statement.executeQuery("select lower(sql) from sqlite_master where name = 'documentsIndex'");
+		String sql		= rs.next() ? rs.getString(1) : null;
+		rs.close();
+		
+		return sql == null ? null : sql.contains("fts5") ? "fts5" : "fts4";
+	}
+	
+	/**
+	 * @return Module of full-text index (fts4 or fts5); null, if index does not exist.
+	 */
+	private String getDocumentIndexModule()
+	{
+		if (documentIndexModule == null) {
+			final Connection connection = connectionPool.acquireReader();
+			try {
+				Statement statement = connection.createStatement();
+				documentIndexModule = readDocumentIndexModule(statement);
+				statement.close();
+			}
+			
+			catch (SQLException e) {
+				e.printStackTrace();
+			}
+			
+			finally {
+				connectionPool.release(connection);
+			}
+		}
+		
+		return documentIndexModule;
+	}
+	
+	/**
+	 * Reopen database.
+	 */
+	public void reopen()
+	{
+		documentIndexModule = null;
+		
+		try {
+			connectionPool.reopen();
+		}
 		
 		catch (SQLException e) {
 			e.printStackTrace();
 		}
 	}
 	
+	public void close()
+	{
+		connectionPool.close();
+	}
+	
 	/**
 	 * Reads and returns a list of all LDA configurations in this database.
 	 * @param task
 	 * @return
 	 */
-	public ArrayList<LDAConfiguration> loadLDAConfigurations(WorkspaceTask task)
+	public ArrayList<LDAConfiguration> loadLDAConfigurations(IProgressReporter task)
 	{
 		// Init auxiliary variables.
 		int count			= 0;
@@ -624,10 +992,12 @@ public class DBManagement
 		String query 		= 	"select * from ldaConfigurations lda " +
 								"order by lda.ldaConfigurationID";
 		
+		final Connection connection = connectionPool.acquireReader();
 		try {
 			// Prepare statement for selection of raw data and fetch results.
-			PreparedStatement stmt	= connection.prepareStatement(query);
-			rs						= stmt.executeQuery();
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement stmt			= statements.prepare(query);
+			rs								= stmt.executeQuery();
 			
 			// As long as row is not the last one: Process it.
 			while (rs.next()) {
@@ -636,6 +1006,8 @@ public class DBManagement
 				// Update task progress.
 				task.updateTaskProgress(count++, numberOfResults);
 			}
+			
+			statements.finish(stmt, rs);
 		}
 		
 		catch (SQLException e) {
@@ -643,15 +1015,20 @@ public class DBManagement
 			e.printStackTrace();
 		}
 		
+		finally {
+			connectionPool.release(connection);
+		}
+		
 		return ldaConfigurations;
 	}
 	
 	/**
 	 * Loads complete set of raw data.
+	 * For large workspaces, prefer streaming the data via {@link DBManagement#openRawDataCursor(int, int)}.
 	 * @param task
 	 * @return
 	 */
-	public Map<LDAConfiguration, Dataset> loadRawData(WorkspaceTask task)
+	public Map<LDAConfiguration, Dataset> loadRawData(IProgressReporter task)
 	{
 		// Check if number of keywords was determined correctly. If not, try again.
 		if (numberOfKeywordsPerTopic <= 0) {
@@ -665,121 +1042,160 @@ public class DBManagement
 		}
 
 		// Init auxiliary variables.
-		int count					= 0;
-		ResultSet rs				= null;
 		final int numberOfResults	= readNumberOfKeywordInTopicDatasets();
 		
 		// Init primary collection.
 		Map<LDAConfiguration, Dataset> datasetMap = new HashMap<LDAConfiguration, Dataset>();
 		
-		// Define query.
-		String query 		=	"select lda.ldaConfigurationID, lda.alpha, lda.kappa, lda.eta, topicID, keyword, probability from keywordInTopic kit " +
-								"join keywords kw on kw.keywordID = kit.keywordID " +
-								"join ldaConfigurations lda on lda.ldaConfigurationID = kit.ldaConfigurationID " +
-								"order by lda.ldaConfigurationID, topicID";
-
+		// Read all datasets via cursor.
+		RawDataCursor cursor = null;
 		try {
-			// Store all created topics for each dataset/LDA configuration in here.
-			Map<LDAConfiguration, ArrayList<Topic>> ldaConfigTopics	= new HashMap<LDAConfiguration, ArrayList<Topic>>();
-			Map<String, Double> keywordProbabilityMap				= new HashMap<String, Double>(numberOfKeywordsPerTopic);
-			
-			// Prepare statement for selection of raw data and fetch results.
-			PreparedStatement stmt	= connection.prepareStatement(query);
-			rs						= stmt.executeQuery();
-			// Set cursor.
-			rs.next();
+			cursor = openRawDataCursor(Integer.MIN_VALUE, Integer.MAX_VALUE);
 			
-			/*
-			 * Create collection of datasets over collection of topics over collection of keyword/probability pairs.
-			 */
-			
-			// Init reference values.
-			LDAConfiguration currLDAConfig 	= new LDAConfiguration(rs.getInt("ldaConfigurationID"), rs.getInt("kappa"), rs.getDouble("alpha"), rs.getDouble("eta"));//new LDAConfiguration(-1, 0, 0);
-			int currTopicID					= rs.getInt("topicID"); //-1;
+			while (cursor.hasNext()) {
+				Dataset dataset = cursor.next();
+				datasetMap.put(dataset.getLDAConfiguration(), dataset);
+				
+				// Update task progress.
+				task.updateTaskProgress(cursor.getNumberOfProcessedRows(), numberOfResults);
+			}
+		}
+		
+		catch (SQLException e) {
+			e.printStackTrace();
+		}
+		
+		finally {
+			if (cursor != null)
+				cursor.close();
+		}
+		
+		return datasetMap;
+	}
+	
+	/**
+	 * Opens a cursor over the raw data of all LDA configurations with IDs in the specified (closed) interval.
+	 * Datasets are read one at a time in order of their configuration IDs, so that memory consumption is 
+	 * bounded by the number of datasets the consumer holds at once. 
+	 * The cursor holds a reader connection and has to be closed after use (by the opening thread).
+	 * @param firstLDAConfigID
+	 * @param lastLDAConfigID
+	 * @return
+	 * @throws SQLException
+	 */
+	public RawDataCursor openRawDataCursor(final int firstLDAConfigID, final int lastLDAConfigID) throws SQLException
+	{
+		// Load global keyword dictionary shared by all topics.
+		final KeywordDictionary keywordDictionary = getCurrentKeywordDictionary();
+		
+		// Define query. Keywords are resolved via the dictionary, hence no join with table keywords is necessary.
+		String query 		=	"select lda.ldaConfigurationID, lda.alpha, lda.kappa, lda.eta, topicID, keywordID, probability from keywordInTopic kit " +
+								"join ldaConfigurations lda on lda.ldaConfigurationID = kit.ldaConfigurationID " +
+								"where kit.ldaConfigurationID between ? and ? " +
+								"order by kit.ldaConfigurationID, topicID";
+		
+		final Connection connection = connectionPool.acquireReader();
+		try {
+			PreparedStatement stmt = connection.prepareStatement(query);
+			stmt.setInt(1, firstLDAConfigID);
+			stmt.setInt(2, lastLDAConfigID);
 			
-			// Init collection for topics per LDA configuration.
-			ldaConfigTopics.put(new LDAConfiguration(currLDAConfig), new ArrayList<Topic>());
+			return new RawDataCursor(stmt, keywordDictionary, connectionPool, connection);
+		}
+		
+		// Cursor could not be created: Release connection.
+		catch (SQLException e) {
+			connectionPool.release(connection);
+			throw e;
+		}
+	}
+	
+	/**
+	 * Returns global keyword dictionary. Keywords are only ever appended, hence the dictionary 
+	 * only has to be reloaded if the number of keywords changed.
+	 * @return
+	 */
+	private synchronized KeywordDictionary getCurrentKeywordDictionary()
+	{
+		if (keywordDictionary == null || keywordDictionary.size() != readNumberOfKeywords(true))
+			keywordDictionary = loadKeywordDictionary();
+		
+		return keywordDictionary;
+	}
+	
+	/**
+	 * Loads global keyword dictionary: Assigns one column in dense topic probability vectors to each keyword in table "keywords".
+	 * @return
+	 */
+	public KeywordDictionary loadKeywordDictionary()
+	{
+		// Read number of keywords.
+		if (numberOfKeywordsPerTopic <= 0) {
+			readNumberOfKeywords(true);
+		}
+		
+		ArrayList<Integer> keywordIDs	= new ArrayList<Integer>(Math.max(numberOfKeywordsPerTopic, 0));
+		ArrayList<String> keywords		= new ArrayList<String>(Math.max(numberOfKeywordsPerTopic, 0));
+		
+		final Connection connection = connectionPool.acquireReader();
+		try {
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement pstmt			= statements.prepare("select keywordID, keyword from keywords order by keywordID");
+			ResultSet rs					= pstmt.executeQuery();
 			
-			// As long as row is not the last one: Process it.
-			do {
-				final LDAConfiguration ldaConfig 	= new LDAConfiguration(rs.getInt("ldaConfigurationID"), rs.getInt("kappa"), rs.getDouble("alpha"), rs.getDouble("eta"));
-				int topicID 						= rs.getInt("topicID");
-				boolean isNewLDAConfig				= !ldaConfig.equals(currLDAConfig); 
-
-				// Current row contains first entry of new LDA configuration: Commit LDA configuration processed so far.
-				if (isNewLDAConfig) {
-		        	// 1. Create new topic out of collected keyword/probability pairs.
-		        	ldaConfigTopics.get(currLDAConfig).add(new Topic(currTopicID, keywordProbabilityMap));
-		        	
-		        	// 2. Create new dataset out of collected topics.
-		        	datasetMap.put( new LDAConfiguration(currLDAConfig), new Dataset(new LDAConfiguration(ldaConfig), ldaConfigTopics.get(currLDAConfig)));
-		        	
-		        	// Update currLDAConfig.
-		        	currLDAConfig.copy(ldaConfig);
-		        	
-		        	// Update currTopicID.
-		        	currTopicID = topicID;
-		        	
-		        	// Clear topic collection.
-		        	ldaConfigTopics.put(ldaConfig, new ArrayList<Topic>());
-		        }
-		        
-				// Current row contains first entry of new topic: Commit topic processed so far.
-				else if (topicID != currTopicID) {
-		        	// Create new topic out of collected keyword/probability pairs so far.
-		        	ldaConfigTopics.get(currLDAConfig).add(new Topic(currTopicID, keywordProbabilityMap));
-		        	
-		        	// Update currTopicID.
-		        	currTopicID = topicID;
-		        }
-		        
-		        // Add keyword/probability pair to hash map.
-				keywordProbabilityMap.put(rs.getString("keyword"), rs.getDouble("probability"));
-
-				// Update task progress.
-				task.updateTaskProgress(count++, numberOfResults);
-			} while (rs.next());
+			// Loop through result set.
+			while (rs.next()) {
+				keywordIDs.add(rs.getInt("keywordID"));
+				keywords.add(rs.getString("keyword"));
+			}
 			
-			System.out.println("4");
-			// For last dataset: Flush data, create last dataset.
-        	// 	1. Create new topic out of collected keyword/probability pairs.
-        	ldaConfigTopics.get(currLDAConfig).add(new Topic(currTopicID, keywordProbabilityMap));
-        	// 	2. Create new dataset out of collected topics.
-        	Dataset test = new Dataset(currLDAConfig, ldaConfigTopics.get(currLDAConfig));
-        	datasetMap.put( currLDAConfig, test );
-        	
-        	System.out.println("5");
-        	
-//			System.out.println(count + " rows.");
+			statements.finish(pstmt, rs);
 		}
 		
 		catch (SQLException e) {
-			System.out.println("### ERROR ### count = " + count);
 			e.printStackTrace();
 		}
 		
-		return datasetMap;
+		finally {
+			connectionPool.release(connection);
+		}
+		
+		// Convert to arrays.
+		int[] keywordIDArray = new int[keywordIDs.size()];
+		for (int i = 0; i < keywordIDArray.length; i++) {
+			keywordIDArray[i] = keywordIDs.get(i);
+		}
+		
+		return new KeywordDictionary(keywordIDArray, keywords.toArray(new String[keywords.size()]));
 	}
 	
 	public int readNumberOfLDAConfigurations()
 	{
 		String query = 	"select count(*) resCount from ldaConfigurations";
 		
+		final Connection connection = connectionPool.acquireReader();
 		try {
 			// Parse statement.
-			PreparedStatement stmt	= connection.prepareStatement(query);
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement stmt			= statements.prepare(query);
 			
 			// Fetch results.
-			ResultSet rs			= stmt.executeQuery();
+			ResultSet rs					= stmt.executeQuery();
+			final int resCount				= rs.getInt("resCount");
+			statements.finish(stmt, rs);
 			
 			// Return result.
-			return rs.getInt("resCount");
+			return resCount;
 		}
 		
 		catch (SQLException e) {
 			e.printStackTrace();
 		}
 		
+		finally {
+			connectionPool.release(connection);
+		}
+		
 		return -1;
 	}
 	
@@ -795,23 +1211,32 @@ public class DBManagement
 //						"join ldaConfigurations lda on lda.ldaConfigurationID = kit.ldaConfigurationID " +
 //						"order by lda.ldaConfigurationID, topicID";
 		// Approximate, faster query:
-		String query = "select count(*) * " + numberOfKeywordsPerTopic + " resCount from topics";
+		String query = "select count(*) * ? resCount from topics";
 		
+		final Connection connection = connectionPool.acquireReader();
 		try {
 			// Parse statement.
-			PreparedStatement stmt	= connection.prepareStatement(query);
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement stmt			= statements.prepare(query);
+			stmt.setInt(1, numberOfKeywordsPerTopic);
 
 			// Fetch results.
-			ResultSet rs			= stmt.executeQuery();
+			ResultSet rs					= stmt.executeQuery();
+			final int resCount				= rs.getInt("resCount");
+			statements.finish(stmt, rs);
 			
 			// Return result.
-			return rs.getInt("resCount");
+			return resCount;
 		}
 		
 		catch (SQLException e) {
 			e.printStackTrace();
 		}
 		
+		finally {
+			connectionPool.release(connection);
+		}
+		
 		return -1;
 	}
 	
@@ -822,12 +1247,16 @@ public class DBManagement
 	 */
 	public int readNumberOfKeywords(boolean useDedicatedTable)
 	{
+		final Connection connection = connectionPool.acquireReader();
 		try {
+			StatementRegistry statements			= connectionPool.getStatementRegistry(connection);
+			
 			if (useDedicatedTable) {
 				// Get number of keywords.
-				PreparedStatement numKeywordsStmt	= connection.prepareStatement("select count(*) as numKeywords from keywords");
+				PreparedStatement numKeywordsStmt	= statements.prepare("select count(*) as numKeywords from keywords");
 				ResultSet rs						= numKeywordsStmt.executeQuery();
 				numberOfKeywordsPerTopic			= rs.getInt("numKeywords");
+				statements.finish(numKeywordsStmt, rs);
 			}
 			
 			else {
@@ -839,10 +1268,11 @@ public class DBManagement
 														"group by " +
 														"lda.ldaConfigurationID, topicID";
 				
-				PreparedStatement numKeywordsStmt	= connection.prepareStatement(stmtString);
+				PreparedStatement numKeywordsStmt	= statements.prepare(stmtString);
 				ResultSet rs						= numKeywordsStmt.executeQuery();
 				// Grab first result (they should all amount to the same number).
 				numberOfKeywordsPerTopic			= rs.next() ? rs.getInt("actualKWCount") : -1; 
+				statements.finish(numKeywordsStmt, rs);
 			}
 		} 
 		
@@ -850,6 +1280,10 @@ public class DBManagement
 			e.printStackTrace();
 		}
 		
+		finally {
+			connectionPool.release(connection);
+		}
+		
 		return numberOfKeywordsPerTopic;
 	}
 
@@ -862,51 +1296,88 @@ public class DBManagement
 	 */
 	public ArrayList<Pair<String, Double>> getRawDataForTopic(final int ldaConfigID, final int topicID, final int maxNumberOfKeywords)
 	{
-		// Allocate memory for raw data.
-		ArrayList<Pair<String, Double>> data = null;
-
-		try {
-			/*
-			 * 1. Init collections.
-			 */
-			
-			// Init collection holding data.
-			data = new ArrayList<Pair<String, Double>>(maxNumberOfKeywords);
-
-			// Calculate total number of keywords.
-			final int totalNumberOfKeywords = maxNumberOfKeywords;
-			
-			/*
-			 * 2. Get data for all topics.
-			 */
-			
-			String query = 	"select keyword, probability " + 
-							"from keywordInTopic kit " +
-							"join keywords kw on kw.keywordID 						= kit.keywordID " +
-							"join ldaConfigurations lda on lda.ldaConfigurationID 	= kit.ldaConfigurationID " +
-							"where " +
-							"	lda.ldaConfigurationID 	= " + ldaConfigID + " and " +
-							"	topicID 				= " + topicID + " " + 
-							"order by probability desc";
-			
-			PreparedStatement topicKeywordDataStmt	= connection.prepareStatement(query);
-			ResultSet rs							= topicKeywordDataStmt.executeQuery();
+		Pair<Integer, Integer> topicConfig	= new Pair<Integer, Integer>(ldaConfigID, topicID);
+		ArrayList<Pair<Integer, Integer>> topicConfigs = new ArrayList<Pair<Integer, Integer>>(1);
+		topicConfigs.add(topicConfig);
+		
+		TopKeywords topKeywords = loadTopKeywords(topicConfigs, maxNumberOfKeywords).get(topicConfig);
+		
+		return topKeywords != null ? topKeywords.toKeywordProbabilityPairs() : new ArrayList<Pair<String, Double>>(0);
+	}
+	
+	/**
+	 * Loads the most probable keywords for each of the specified topics. Topics are queried in batches of 
+	 * TOP_KEYWORDS_BATCH_SIZE, each with one statement (one rank range scan per topic).
+	 * @param topicConfigs Pairs of LDA configuration ID and topic ID.
+	 * @param maxNumberOfKeywords Maximal number of keywords per topic.
+	 * @return Top keywords by topic, in order of topicConfigs. Topics without keywords are omitted.
+	 */
+	public Map<Pair<Integer, Integer>, TopKeywords> loadTopKeywords(final Collection<Pair<Integer, Integer>> topicConfigs, final int maxNumberOfKeywords)
+	{
+		Map<Pair<Integer, Integer>, TopKeywords> loadedTopKeywords	= new HashMap<Pair<Integer, Integer>, TopKeywords>(topicConfigs.size() * 2);
+		Map<Pair<Integer, Integer>, TopKeywords> topKeywords		= new LinkedHashMap<Pair<Integer, Integer>, TopKeywords>(topicConfigs.size() * 2);
+		
+		// Keywords are resolved via the dictionary, hence no join with table keywords is necessary.
+		final KeywordDictionary keywordDictionary = getCurrentKeywordDictionary();
+		
+		final Connection connection = connectionPool.acquireReader();
+		try {
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			ArrayList<Pair<Integer, Integer>> topicConfigList = new ArrayList<Pair<Integer, Integer>>(topicConfigs);
 			
-			boolean allRelevantRowsProcessed 	= false;
-			int processedRowCount				= 0;
-			while (rs.next() && !allRelevantRowsProcessed) {
-				// Check if the numberOfKeywords most relevant keywords for this topic have already been stored. 
-				if (processedRowCount < maxNumberOfKeywords) {
-					// Get data from row and add it to list.
-					Pair<String, Double> keywordProbabilityPair = new Pair<String, Double>(rs.getString("keyword"), rs.getDouble("probability"));
-					data.add(keywordProbabilityPair);
+			for (int batchStart = 0; batchStart < topicConfigList.size(); batchStart += TOP_KEYWORDS_BATCH_SIZE) {
+				/*
+				 * 1. Bind topics of this batch. Unused subqueries are bound to a non-existent topic.
+				 */
+				
+				PreparedStatement statement = statements.prepare(maxNumberOfKeywords <= NUMBER_OF_RANKED_TOP_KEYWORDS ? TOP_KEYWORDS_QUERY : RANKED_KEYWORDS_QUERY);
+				for (int i = 0; i < TOP_KEYWORDS_BATCH_SIZE; i++) {
+					final boolean isUsed = batchStart + i < topicConfigList.size();
 					
-					// Increment counter.
-					processedRowCount++;
+					statement.setInt(i * 3 + 1, isUsed ? topicConfigList.get(batchStart + i).getKey() : -1);
+					statement.setInt(i * 3 + 2, isUsed ? topicConfigList.get(batchStart + i).getValue() : -1);
+					statement.setInt(i * 3 + 3, isUsed ? maxNumberOfKeywords : 0);
+				}
+				
+				/*
+				 * 2. Stream rows (ordered by topic, then by rank) into per-topic arrays.
+				 */
+				
+				ResultSet rs				= statement.executeQuery();
+				int currentLDAConfigID		= -1;
+				int currentTopicID			= -1;
+				int[] columns				= new int[maxNumberOfKeywords];
+				double[] probabilities		= new double[maxNumberOfKeywords];
+				int count					= 0;
+				
+				while (rs.next()) {
+					final int ldaConfigID	= rs.getInt(1);
+					final int topicID		= rs.getInt(2);
+					final int column		= keywordDictionary.getColumn(rs.getInt(3));
 					
-					// Check if all relevant data rows were processed.
-					allRelevantRowsProcessed = processedRowCount == totalNumberOfKeywords;
+					// Topic finished: Store its keywords.
+					if (count > 0 && (ldaConfigID != currentLDAConfigID || topicID != currentTopicID)) {
+						addTopKeywords(loadedTopKeywords, currentLDAConfigID, currentTopicID, keywordDictionary, columns, probabilities, count);
+						
+						columns			= new int[maxNumberOfKeywords];
+						probabilities	= new double[maxNumberOfKeywords];
+						count			= 0;
+					}
+					
+					currentLDAConfigID	= ldaConfigID;
+					currentTopicID		= topicID;
+					
+					if (column >= 0 && count < maxNumberOfKeywords) {
+						columns[count]			= column;
+						probabilities[count]	= rs.getDouble(4);
+						count++;
+					}
 				}
+				
+				if (count > 0)
+					addTopKeywords(loadedTopKeywords, currentLDAConfigID, currentTopicID, keywordDictionary, columns, probabilities, count);
+				
+				statements.finish(statement, rs);
 			}
 		}
 		
@@ -914,7 +1385,51 @@ public class DBManagement
 			e.printStackTrace();
 		}
 		
-		return data;
+		finally {
+			connectionPool.release(connection);
+		}
+		
+		// Restore requested order.
+		for (Pair<Integer, Integer> topicConfig : topicConfigs) {
+			TopKeywords topicKeywords = loadedTopKeywords.get(topicConfig);
+			
+			if (topicKeywords != null)
+				topKeywords.put(topicConfig, topicKeywords);
+		}
+		
+		return topKeywords;
+	}
+	
+	private static void addTopKeywords(	Map<Pair<Integer, Integer>, TopKeywords> topKeywords, final int ldaConfigID, final int topicID, final KeywordDictionary keywordDictionary, 
+										final int[] columns, final double[] probabilities, final int count)
+	{
+		Pair<Integer, Integer> topicConfig = new Pair<Integer, Integer>(ldaConfigID, topicID);
+		
+		topKeywords.put(topicConfig, new TopKeywords(	topicConfig, keywordDictionary, 
+														count < columns.length ? Arrays.copyOf(columns, count) : columns, 
+														count < probabilities.length ? Arrays.copyOf(probabilities, count) : probabilities));
+	}
+	
+	/**
+	 * Builds query for top keywords of TOP_KEYWORDS_BATCH_SIZE topics: One rank range scan per topic.
+	 * Parameters per topic: LDA configuration ID, topic ID, number of keywords.
+	 * @param table Table with column rank.
+	 * @return
+	 */
+	private static String buildTopKeywordsQuery(final String table)
+	{
+		StringBuilder query = new StringBuilder();
+		
+		for (int i = 0; i < TOP_KEYWORDS_BATCH_SIZE; i++) {
+			if (i > 0)
+				query.append(" union all ");
+			
+			query.append(	"select ldaConfigurationID, topicID, keywordID, probability, rank from " + table + " " +
+							"where ldaConfigurationID = ? and topicID = ? and rank <= ?");
+		}
+		query.append(" order by 1, 2, 5");
+		
+		return query.toString();
 	}
 	
 	/**
@@ -931,21 +1446,29 @@ public class DBManagement
 		// Allocate memory.
 		Map<String, Double> keywords = new HashMap<String, Double>(numberOfKeywordsPerTopic);
 		
+		final Connection connection = connectionPool.acquireReader();
 		// Get keywords.
 		try {
-			PreparedStatement pstmt = connection.prepareStatement("select keyword from keywords");
-			ResultSet rs			= pstmt.executeQuery();
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement pstmt			= statements.prepare("select keyword from keywords");
+			ResultSet rs					= pstmt.executeQuery();
 			
 			// Loop through result set.
 			while (rs.next()) {
 				keywords.put(rs.getString("keyword"), 0.0);
 			}
+			
+			statements.finish(pstmt, rs);
 		}
 		
 		catch (SQLException e) {
 			e.printStackTrace();
 		}
 		
+		finally {
+			connectionPool.release(connection);
+		}
+		
 		return keywords;
 	}
 	
@@ -963,21 +1486,29 @@ public class DBManagement
 		// Allocate memory.
 		Map<String, Integer> keywords = new HashMap<String, Integer>(numberOfKeywordsPerTopic);
 		
+		final Connection connection = connectionPool.acquireReader();
 		// Get keywords.
 		try {
-			PreparedStatement pstmt = connection.prepareStatement("select keyword, keywordID from keywords");
-			ResultSet rs			= pstmt.executeQuery();
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement pstmt			= statements.prepare("select keyword, keywordID from keywords");
+			ResultSet rs					= pstmt.executeQuery();
 			
 			// Loop through result set.
 			while (rs.next()) {
 				keywords.put(rs.getString("keyword"), rs.getInt("keywordID"));
 			}
+			
+			statements.finish(pstmt, rs);
 		}
 		
 		catch (SQLException e) {
 			e.printStackTrace();
 		}
 		
+		finally {
+			connectionPool.release(connection);
+		}
+		
 		return keywords;
 	}
 	
@@ -993,16 +1524,20 @@ public class DBManagement
 		
 		// Get number of topics for this LDA configuration.
 		String query = 	"select count(*) topicCount from topics t " + 
-						"where t.ldaConfigurationID = " + ldaConfiguration.getConfigurationID() + ";";
+						"where t.ldaConfigurationID = ?;";
 
+		final Connection connection = connectionPool.acquireReader();
 		try {
 			/*
 			 * 1. Get number of topics for this LDA configuration.
 			 */
 			
-			PreparedStatement numKeywordsStmt	= connection.prepareStatement(query);
+			StatementRegistry statements		= connectionPool.getStatementRegistry(connection);
+			PreparedStatement numKeywordsStmt	= statements.prepare(query);
+			numKeywordsStmt.setInt(1, ldaConfiguration.getConfigurationID());
 			ResultSet rs						= numKeywordsStmt.executeQuery();
 			int numberOfTopics					= rs.getInt("topicCount");
+			statements.finish(numKeywordsStmt, rs);
 			
 			/*
 			 * 2. Init collections.
@@ -1027,15 +1562,18 @@ public class DBManagement
 			 * 3. Get data for all topics.
 			 */
 			
-			query = "select lda.ldaConfigurationID, lda.alpha, lda.kappa, lda.eta, topicID, keyword, probability from keywordInTopic kit " +
+			query = "select topicID, keyword, probability from " + (maxNumberOfKeywords <= NUMBER_OF_RANKED_TOP_KEYWORDS ? "topKeywordsInTopic" : "keywordInTopic") + " kit " +
 					"join keywords kw on kw.keywordID = kit.keywordID " +
-					"join ldaConfigurations lda on lda.ldaConfigurationID = kit.ldaConfigurationID " +
 					"where " +
-					"	lda.ldaConfigurationID = " + ldaConfiguration.getConfigurationID() + " and " +
-					"	topicID between 0 and " + (numberOfTopics - 1) + " " + 
-					"order by probability desc, topicID";
-			
-			PreparedStatement topicKeywordDataStmt	= connection.prepareStatement(query);
+					"	kit.ldaConfigurationID = ? and " +
+					"	topicID between 0 and ? and " + 
+					"	rank <= ? " + 
+					"order by rank, topicID";
+			
+			PreparedStatement topicKeywordDataStmt	= statements.prepare(query);
+			topicKeywordDataStmt.setInt(1, ldaConfiguration.getConfigurationID());
+			topicKeywordDataStmt.setInt(2, numberOfTopics - 1);
+			topicKeywordDataStmt.setInt(3, maxNumberOfKeywords);
 			rs										= topicKeywordDataStmt.executeQuery();
 			
 			boolean allRelevantRowsProcessed 	= false;
@@ -1059,12 +1597,18 @@ public class DBManagement
 					allRelevantRowsProcessed = processedRowCount == totalNumberOfKeywords;
 				}
 			}
+			
+			statements.finish(topicKeywordDataStmt, rs);
 		}
 		
 		catch (SQLException e) {
 			e.printStackTrace();
 		}
 		
+		finally {
+			connectionPool.release(connection);
+		}
+		
 		return data;
 	}
 
@@ -1075,18 +1619,21 @@ public class DBManagement
 	 * @param storeAllDistances
 	 * @param listOfLDAConfigsWithoutDistances
 	 * @param task
+	 * @throws SQLException If distances couldn't be written (transaction is rolled back).
 	 */
 	public void saveDatasetDistances(	final ArrayList<LDAConfiguration> ldaConfigurations,
-										final double[][] distances,
+										final DistanceMatrix distances,
 										boolean storeAllDistances, Set<Integer> listOfLDAConfigsWithoutDistances,
-										WorkspaceTask task)
+										IProgressReporter task) throws SQLException
 	{
 		// Keep track of processed rows.
 		int processedLDAConfigurationCount = 0;
 		
+		final Connection connection = connectionPool.acquireWriter();
 		try {
 			// Init prepared statement with query template.
-			PreparedStatement statement = connection.prepareStatement("INSERT INTO datasetDistances(ldaConfigurationID_1, ldaConfigurationID_2, distance) VALUES(?, ?, ?)");
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement statement		= statements.prepare("INSERT INTO datasetDistances(ldaConfigurationID_1, ldaConfigurationID_2, distance) VALUES(?, ?, ?)");
 			
 			// Set auto-commit to false.
 			connection.setAutoCommit(false);
@@ -1101,7 +1648,7 @@ public class DBManagement
 						// Set values for row. 
 						statement.setInt(1, ldaConfigurations.get(i).getConfigurationID());
 						statement.setInt(2, ldaConfigurations.get(j).getConfigurationID());
-						statement.setDouble(3, distances[i][j]);
+						statement.setDouble(3, distances.get(i, j));
 	
 						// Add row to batch.
 						statement.addBatch();
@@ -1115,6 +1662,7 @@ public class DBManagement
 			
 			// Execute batch.
 			statement.executeBatch();
+			statements.finish(statement, null);
 			
 			// Commit transaction.
 			connection.commit();
@@ -1123,32 +1671,146 @@ public class DBManagement
 			connection.setAutoCommit(true);	
 		} 
 		
-		catch (SQLException e) {
-			e.printStackTrace();
+		// Uncommitted changes are rolled back on release.
+		finally {
+			connectionPool.release(connection);
 		}
 		
 		System.out.println("finished");
 	}
 	
+	/**
+	 * Appends (or replaces) the specified dataset distances in one transaction.
+	 * Used by the incremental distance calculation, which does not hold a complete distance matrix.
+	 * @param datasetDistances Distances for pairs of LDA configurations.
+	 * @throws SQLException If distances couldn't be written (transaction is rolled back).
+	 */
+	public void saveDatasetDistances(final Map<Pair<LDAConfiguration, LDAConfiguration>, Double> datasetDistances) throws SQLException
+	{
+		writeDatasetDistances("datasetDistances", datasetDistances);
+	}
+	
+	/**
+	 * Appends (or replaces) the specified dataset distances in the table of the specified (non-primary) metric,
+	 * which is created if necessary (see {@link DBManagement#getDatasetDistanceTableName(TopicDistance, DatasetDistance)}).
+	 * @param topicDistance
+	 * @param datasetDistance
+	 * @param datasetDistances Distances for pairs of LDA configurations.
+	 * @throws SQLException If distances couldn't be written (transaction is rolled back).
+	 */
+	public void saveDatasetDistances(final TopicDistance topicDistance, final DatasetDistance datasetDistance, final Map<Pair<LDAConfiguration, LDAConfiguration>, Double> datasetDistances) throws SQLException
+	{
+		writeDatasetDistances(getDatasetDistanceTableName(topicDistance, datasetDistance), datasetDistances);
+	}
+	
+	/**
+	 * Appends (or replaces) the specified dataset distances in the specified table in one transaction.
+	 * @param tableName Table with the schema of table datasetDistances. Created if not existent yet.
+	 * @param datasetDistances
+	 * @throws SQLException
+	 */
+	private void writeDatasetDistances(final String tableName, final Map<Pair<LDAConfiguration, LDAConfiguration>, Double> datasetDistances) throws SQLException
+	{
+		final Connection connection = connectionPool.acquireWriter();
+		try {
+			// Create table, if necessary.
+			Statement createStatement = connection.createStatement();
+			createStatement.executeUpdate(	"create table if not exists " + tableName + " (ldaConfigurationID_1 INT, ldaConfigurationID_2 INT, distance DOUBLE, " +
+											"PRIMARY KEY (ldaConfigurationID_1 ASC, ldaConfigurationID_2 ASC) ON CONFLICT REPLACE)");
+			createStatement.close();
+			
+			// Init prepared statement with query template.
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement statement		= statements.prepare("INSERT INTO " + tableName + "(ldaConfigurationID_1, ldaConfigurationID_2, distance) VALUES(?, ?, ?)");
+			
+			// Set auto-commit to false.
+			connection.setAutoCommit(false);
+			
+			for (Map.Entry<Pair<LDAConfiguration, LDAConfiguration>, Double> entry : datasetDistances.entrySet()) {
+				// Set values for row. 
+				statement.setInt(1, entry.getKey().getKey().getConfigurationID());
+				statement.setInt(2, entry.getKey().getValue().getConfigurationID());
+				statement.setDouble(3, entry.getValue());
+				
+				// Add row to batch.
+				statement.addBatch();
+			}
+			
+			// Execute batch.
+			statement.executeBatch();
+			statements.finish(statement, null);
+			
+			// Commit transaction.
+			connection.commit();
+			
+			// Re-enable auto-commit.
+			connection.setAutoCommit(true);	
+		} 
+		
+		// Uncommitted changes are rolled back on release.
+		finally {
+			connectionPool.release(connection);
+		}
+	}
+	
 	/**
 	 * Stores distances between topics in different LDA datsets.
 	 * @param topicDistances
 	 * @param listOfLDAConfigsWithoutDistances 
 	 * @param overwriteExistingValues
 	 * @param task
+	 * @throws SQLException If distances couldn't be written (transaction is rolled back).
 	 */
 	public void saveTopicDistances(	final Map<Pair<LDAConfiguration, LDAConfiguration>, double[][]> topicDistances,
 									final boolean overwriteExistingValues,
-									WorkspaceTask task)
+									IProgressReporter task) throws SQLException
+	{
+		writeTopicDistances("topicDistances", topicDistances, task);
+		
+		// Invalidate cached topic distances of the affected pairs of LDA configurations and the topic distance extrema.
+		for (Pair<LDAConfiguration, LDAConfiguration> ldaConfigurationPair : topicDistances.keySet()) {
+			topicDistanceCache.invalidate(ldaConfigurationPair.getKey().getConfigurationID(), ldaConfigurationPair.getValue().getConfigurationID());
+		}
+	}
+	
+	/**
+	 * Stores distances between topics calculated with the specified (non-primary) metric in the table of this metric,
+	 * which is created if necessary (see {@link DBManagement#getTopicDistanceTableName(TopicDistance)}).
+	 * @param topicDistance
+	 * @param topicDistances
+	 * @throws SQLException If distances couldn't be written (transaction is rolled back).
+	 */
+	public void saveTopicDistances(final TopicDistance topicDistance, final Map<Pair<LDAConfiguration, LDAConfiguration>, double[][]> topicDistances) throws SQLException
+	{
+		writeTopicDistances(getTopicDistanceTableName(topicDistance), topicDistances, null);
+	}
+	
+	/**
+	 * Stores distances between topics in the specified table.
+	 * @param tableName Table with the schema of table topicDistances. Created if not existent yet.
+	 * @param topicDistances
+	 * @param task
+	 * @throws SQLException
+	 */
+	private void writeTopicDistances(	final String tableName, final Map<Pair<LDAConfiguration, LDAConfiguration>, double[][]> topicDistances,
+										IProgressReporter task) throws SQLException
 	{
 		// Keep track of processed rows.		
 		int processedLDAConfigurationCount	= 0;
 		// Define how many statements should be packed into one batch (statement).
 		final int statementsPerBatch		= 10000;
 		
+		final Connection connection = connectionPool.acquireWriter();
 		try {
+			// Create table, if necessary.
+			Statement createStatement = connection.createStatement();
+			createStatement.executeUpdate(	"create table if not exists " + tableName + " (ldaConfigurationID_1 INT, ldaConfigurationID_2 INT, topicID_1 INT, topicID_2 INT, distance DOUBLE, " +
+											"PRIMARY KEY (ldaConfigurationID_1, ldaConfigurationID_2, topicID_1, topicID_2) ON CONFLICT REPLACE)");
+			createStatement.close();
+			
 			// Init prepepard statement with query template.
-			PreparedStatement statement = connection.prepareStatement("INSERT INTO topicDistances(ldaConfigurationID_1, ldaConfigurationID_2, topicID_1, topicID_2, distance) VALUES(?, ?, ?, ?, ?)");
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement statement		= statements.prepare("INSERT INTO " + tableName + "(ldaConfigurationID_1, ldaConfigurationID_2, topicID_1, topicID_2, distance) VALUES(?, ?, ?, ?, ?)");
 			
 			// Set auto-commit to false.
 			connection.setAutoCommit(false);
@@ -1207,6 +1869,7 @@ public class DBManagement
 			
 			// Execute batch with remaining statements.
 			statement.executeBatch();
+			statements.finish(statement, null);
 			
 			// Commit transaction.
 			connection.commit();
@@ -1215,9 +1878,259 @@ public class DBManagement
 			connection.setAutoCommit(true);	
 		} 
 		
+		// Uncommitted changes are rolled back on release.
+		finally {
+			connectionPool.release(connection);
+		}
+	}
+	
+	/**
+	 * @param topicDistance
+	 * @return Name of table holding topic distances of the specified metric, if it is not the primary metric.
+	 */
+	public static String getTopicDistanceTableName(final TopicDistance topicDistance)
+	{
+		return "topicDistances_" + topicDistance.name();
+	}
+	
+	/**
+	 * @param topicDistance
+	 * @param datasetDistance
+	 * @return Name of table holding dataset distances of the specified combination of metrics, if it is not the primary metric.
+	 */
+	public static String getDatasetDistanceTableName(final TopicDistance topicDistance, final DatasetDistance datasetDistance)
+	{
+		return "datasetDistances_" + topicDistance.name() + "_" + datasetDistance.name();
+	}
+	
+	/**
+	 * Reads metric the distances in tables datasetDistances and topicDistances were calculated with.
+	 * Workspaces without this information were calculated with the Bhattacharyya and Hausdorff distance.
+	 * @return Pair of topic distance and dataset distance.
+	 */
+	public Pair<TopicDistance, DatasetDistance> loadDistanceMetric()
+	{
+		Pair<TopicDistance, DatasetDistance> metric = new Pair<TopicDistance, DatasetDistance>(TopicDistance.Bhattacharyya, DatasetDistance.HausdorffDistance);
+		
+		final Connection connection = connectionPool.acquireReader();
+		try {
+			Statement statement	= connection.createStatement();
+			ResultSet rs		= statement.executeQuery("select count(*) from sqlite_master where type = 'table' and name = 'distanceMetric'");
+			boolean hasTable	= rs.next() && rs.getInt(1) > 0;
+			rs.close();
+			
+			if (hasTable) {
+				rs = statement.executeQuery("select topicDistance, datasetDistance from distanceMetric");
+				if (rs.next())
+					metric = new Pair<TopicDistance, DatasetDistance>(TopicDistance.valueOf(rs.getString("topicDistance")), DatasetDistance.valueOf(rs.getString("datasetDistance")));
+				rs.close();
+			}
+			
+			statement.close();
+		}
+		
+		catch (SQLException | IllegalArgumentException e) {
+			e.printStackTrace();
+		}
+		
+		finally {
+			connectionPool.release(connection);
+		}
+		
+		return metric;
+	}
+	
+	/**
+	 * Reads share of probability mass retained by sparse topics, if the distances in tables datasetDistances
+	 * and topicDistances were approximated.
+	 * @return Retained share of probability mass; 0 if distances are exact.
+	 */
+	public double loadDistanceApproximationMass()
+	{
+		double approximationMass = 0;
+		
+		final Connection connection = connectionPool.acquireReader();
+		try {
+			Statement statement	= connection.createStatement();
+			ResultSet rs		= statement.executeQuery("select count(*) from sqlite_master where type = 'table' and name = 'distanceMetric' and sql like '%approximationMass%'");
+			boolean hasColumn	= rs.next() && rs.getInt(1) > 0;
+			rs.close();
+			
+			if (hasColumn) {
+				rs = statement.executeQuery("select approximationMass from distanceMetric");
+				if (rs.next())
+					approximationMass = rs.getDouble("approximationMass");
+				rs.close();
+			}
+			
+			statement.close();
+		}
+		
+		catch (SQLException e) {
+			e.printStackTrace();
+		}
+		
+		finally {
+			connectionPool.release(connection);
+		}
+		
+		return approximationMass;
+	}
+	
+	/**
+	 * Reads all metrics the distances were calculated with, i.e. the primary metric (see {@link DBManagement#loadDistanceMetric()}) 
+	 * and the metrics whose tables (see {@link DBManagement#getDatasetDistanceTableName(TopicDistance, DatasetDistance)}) are complete.
+	 * In workspaces without this information, only the tables of the primary metric are complete.
+	 * @return
+	 */
+	public DistanceMetricSet loadDistanceMetricSet()
+	{
+		final Pair<TopicDistance, DatasetDistance> primaryMetric	= loadDistanceMetric();
+		List<TopicDistance> topicDistances							= new ArrayList<TopicDistance>();
+		List<DatasetDistance> datasetDistances						= new ArrayList<DatasetDistance>();
+		topicDistances.add(primaryMetric.getKey());
+		datasetDistances.add(primaryMetric.getValue());
+		
+		final Connection connection = connectionPool.acquireReader();
+		try {
+			Statement statement	= connection.createStatement();
+			ResultSet rs		= statement.executeQuery("select count(*) from sqlite_master where type = 'table' and name = 'distanceMetric' and sql like '%topicDistances VARCHAR%'");
+			boolean hasColumns	= rs.next() && rs.getInt(1) > 0;
+			rs.close();
+			
+			if (hasColumns) {
+				rs = statement.executeQuery("select topicDistances, datasetDistances from distanceMetric");
+				if (rs.next()) {
+					// Comma-separated lists, primary metric first (duplicates are ignored by DistanceMetricSet).
+					for (String topicDistance : rs.getString("topicDistances").split(",")) {
+						topicDistances.add(TopicDistance.valueOf(topicDistance));
+					}
+					for (String datasetDistance : rs.getString("datasetDistances").split(",")) {
+						datasetDistances.add(DatasetDistance.valueOf(datasetDistance));
+					}
+				}
+				rs.close();
+			}
+			
+			statement.close();
+		}
+		
+		catch (SQLException | IllegalArgumentException | NullPointerException e) {
+			e.printStackTrace();
+		}
+		
+		finally {
+			connectionPool.release(connection);
+		}
+		
+		return new DistanceMetricSet(topicDistances, datasetDistances);
+	}
+	
+	/**
+	 * Reads whether topic distances are available for all pairs of LDA configurations with dataset distances. They are missing,
+	 * if distances were calculated without saving topic distances (see {@link model.workspace.DatasetDistanceEngine#setDatasetDistancesOnly(boolean)}).
+	 * @return True if topic distances are complete; always true for workspaces without this information.
+	 */
+	public boolean loadTopicDistancesComplete()
+	{
+		boolean isComplete = true;
+		
+		final Connection connection = connectionPool.acquireReader();
+		try {
+			Statement statement	= connection.createStatement();
+			ResultSet rs		= statement.executeQuery("select count(*) from sqlite_master where type = 'table' and name = 'distanceMetric' and sql like '%topicDistancesComplete%'");
+			boolean hasColumn	= rs.next() && rs.getInt(1) > 0;
+			rs.close();
+			
+			if (hasColumn) {
+				rs = statement.executeQuery("select topicDistancesComplete from distanceMetric");
+				if (rs.next())
+					isComplete = rs.getInt("topicDistancesComplete") == 1;
+				rs.close();
+			}
+			
+			statement.close();
+		}
+		
 		catch (SQLException e) {
 			e.printStackTrace();
 		}
+		
+		finally {
+			connectionPool.release(connection);
+		}
+		
+		return isComplete;
+	}
+	
+	/**
+	 * Deletes all topic distances and drops the tables of all non-primary metrics, e.g. before all distances are recalculated 
+	 * (which might not save all of them again). Rows in table datasetDistances are replaced by the recalculation.
+	 * @throws SQLException
+	 */
+	public void clearTopicAndSecondaryDistances() throws SQLException
+	{
+		final Connection connection = connectionPool.acquireWriter();
+		try {
+			Statement statement = connection.createStatement();
+			
+			// Collect tables of non-primary metrics (see getTopicDistanceTableName() and getDatasetDistanceTableName()).
+			List<String> tableNames	= new ArrayList<String>();
+			ResultSet rs			= statement.executeQuery("select name from sqlite_master where type = 'table' and (name like 'topicDistances\\_%' escape '\\' or name like 'datasetDistances\\_%' escape '\\')");
+			while (rs.next()) {
+				tableNames.add(rs.getString("name"));
+			}
+			rs.close();
+			
+			for (String tableName : tableNames) {
+				statement.executeUpdate("drop table if exists " + tableName);
+			}
+			statement.executeUpdate("delete from topicDistances");
+			statement.close();
+		}
+		
+		finally {
+			connectionPool.release(connection);
+			
+			// Cached topic distances and extrema are stale (also if clearing failed halfway).
+			topicDistanceCache.invalidateAll();
+		}
+	}
+	
+	/**
+	 * Stores metrics the distances were calculated with: The primary metric (distances in tables datasetDistances and topicDistances)
+	 * and all metrics whose tables are complete.
+	 * @param metrics
+	 * @param approximationMass Share of probability mass retained by sparse topics, if distances were approximated; 0 otherwise.
+	 * @param topicDistancesComplete Indicates whether topic distances are available for all pairs (see {@link DBManagement#loadTopicDistancesComplete()}).
+	 * @throws SQLException
+	 */
+	public void saveDistanceMetric(final DistanceMetricSet metrics, final double approximationMass, final boolean topicDistancesComplete) throws SQLException
+	{
+		StringBuilder topicDistances	= new StringBuilder();
+		StringBuilder datasetDistances	= new StringBuilder();
+		for (TopicDistance topicDistance : metrics.getTopicDistances()) {
+			topicDistances.append(topicDistances.length() > 0 ? "," : "").append(topicDistance.name());
+		}
+		for (DatasetDistance datasetDistance : metrics.getDatasetDistances()) {
+			datasetDistances.append(datasetDistances.length() > 0 ? "," : "").append(datasetDistance.name());
+		}
+		
+		final Connection connection = connectionPool.acquireWriter();
+		try {
+			Statement statement = connection.createStatement();
+			// Table holds one row only, hence it is simply recreated (which also adds columns missing in older workspaces).
+			statement.executeUpdate("drop table if exists distanceMetric");
+			statement.executeUpdate("create table distanceMetric (topicDistance VARCHAR (50), datasetDistance VARCHAR (50), approximationMass DOUBLE, topicDistances VARCHAR (200), datasetDistances VARCHAR (200), topicDistancesComplete INTEGER)");
+			statement.executeUpdate("insert into distanceMetric (topicDistance, datasetDistance, approximationMass, topicDistances, datasetDistances, topicDistancesComplete) values ('" + 
+									metrics.getPrimaryTopicDistance().name() + "', '" + metrics.getPrimaryDatasetDistance().name() + "', " + approximationMass + ", '" + 
+									topicDistances + "', '" + datasetDistances + "', " + (topicDistancesComplete ? 1 : 0) + ")");
+			statement.close();
+		}
+		
+		finally {
+			connectionPool.release(connection);
+		}
 	}
 	
 	/**
@@ -1242,41 +2155,38 @@ public class DBManagement
 	}
 	
 	/**
-	 * Loads distance matrix. 
+	 * Loads distance matrix into the specified (writable) distance matrix. 
 	 * @param ldaConfigurations
+	 * @param target Writable matrix, e.g. a file created via {@link model.workspace.DistanceMatrixFile#create(java.nio.file.Path, ArrayList, Pair)}.
 	 * @param task Assigning task. Optional, may be null.
-	 * @return
 	 */
-	public double[][] loadDistances(ArrayList<LDAConfiguration> ldaConfigurations, WorkspaceTask task)
+	public void loadDistances(ArrayList<LDAConfiguration> ldaConfigurations, WritableDistanceMatrix target, IProgressReporter task)
 	{
-		double[][] distances			= new double[ldaConfigurations.size()][ldaConfigurations.size()];
 		final int totalNumberOfItems	= (ldaConfigurations.size() * ldaConfigurations.size() - ldaConfigurations.size()) / 2;
 		
 		// Create a configID-to-row/-column association map.
 		Map<Integer, Integer> ldaConfigIDToDistanceCell = generateLDAConfigIDToArrayEntryMap(ldaConfigurations);
 		
+		final Connection connection = connectionPool.acquireReader();
 		// Init prepared statement with query template.
 		try {
-			PreparedStatement statement = connection.prepareStatement("SELECT * FROM datasetDistances order by ldaConfigurationID_1, ldaConfigurationID_2");
-			ResultSet rs				= statement.executeQuery();
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement statement		= statements.prepare("SELECT ldaConfigurationID_1, ldaConfigurationID_2, distance FROM datasetDistances");
+			ResultSet rs					= statement.executeQuery();
 			
 			// Process distance data rows.
 			int processedRowCount		= 0;
 			while (rs.next()) {
-				final int ldaConfigID1 = rs.getInt("ldaConfigurationID_1");
-				final int ldaConfigID2 = rs.getInt("ldaConfigurationID_2");
+				final Integer row		= ldaConfigIDToDistanceCell.get(rs.getInt("ldaConfigurationID_1"));
+				final Integer column	= ldaConfigIDToDistanceCell.get(rs.getInt("ldaConfigurationID_2"));
 				
-				if (!ldaConfigIDToDistanceCell.containsKey(ldaConfigID1))
-					System.out.println("~~~~~~~~~~ ERROR - " + ldaConfigID1 + " not in loaded metadata.");
-				if (!ldaConfigIDToDistanceCell.containsKey(ldaConfigID1))
-					System.out.println("~~~~~~~~~~ ERROR - " + ldaConfigID2 + " not in loaded metadata.");
-				
-				int row		= ldaConfigIDToDistanceCell.get(ldaConfigID1);//processedRowCount / ldaConfigurations.size();
-				int column	= ldaConfigIDToDistanceCell.get(ldaConfigID2);//processedRowCount % ldaConfigurations.size();
+				if (row == null || column == null) {
+					System.out.println("~~~~~~~~~~ ERROR - " + rs.getInt("ldaConfigurationID_1") + " or " + rs.getInt("ldaConfigurationID_2") + " not in loaded metadata.");
+					continue;
+				}
 				
-				// Symmetric distance matrix - [row][column] = [column][row].
-				distances[row][column] = rs.getDouble("distance");
-				distances[column][row] = distances[row][column];
+				// Symmetric distance matrix - only one cell has to be set.
+				target.set(row, column, rs.getDouble("distance"));
 				
 				// Update loading task, if provided.
 				if (task != null)
@@ -1286,42 +2196,78 @@ public class DBManagement
 				processedRowCount++;
 			}
 			
-//			System.out.println(Data.format(distances));
-//			if (totalNumberOfItems != processedRowCount)
-//				System.out.println("mismatch");
+			statements.finish(statement, rs);
 		}
 		
 		catch (SQLException e) {
 			e.printStackTrace();
 		}
 		
-		return distances;
+		finally {
+			connectionPool.release(connection);
+		}
 	}
-
+	
 	/**
-	 * Reads number of datasets in dataset distance table.
-	 * @return
+	 * Reads number of rows and max. row ID in table datasetDistances. Used to detect modifications of 
+	 * the table (rows are only appended or replaced, which assigns new row IDs).
+	 * @return Pair of number of rows and max. row ID.
 	 */
-	public int readNumberOfDatasetsInDISTable()
+	public Pair<Long, Long> readDatasetDistanceTableState()
 	{
-		int numberOfDatasets = -1;
-		
+		final Connection connection = connectionPool.acquireReader();
 		try {
-			PreparedStatement statement = connection.prepareStatement("	SELECT count(distinct ldaConfigID) datasetCount FROM (" + 
-																		    "SELECT distinct ldaConfigurationID_1 ldaConfigID from datasetDistances " +
-																		    "union " +
-																		    "SELECT distinct ldaConfigurationID_2 ldaConfigID  from datasetDistances" +
-																		")"
-																	);
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement statement		= statements.prepare("select count(*) rowCount, coalesce(max(rowid), 0) maxRowID from datasetDistances");
+			ResultSet rs					= statement.executeQuery();
+			Pair<Long, Long> state			= new Pair<Long, Long>(rs.getLong("rowCount"), rs.getLong("maxRowID"));
+			statements.finish(statement, rs);
+			
+			return state;
+		}
+		
+		catch (SQLException e) {
+			e.printStackTrace();
+		}
+		
+		finally {
+			connectionPool.release(connection);
+		}
+		
+		return new Pair<Long, Long>(-1l, -1l);
+	}
 
-			ResultSet rs				= statement.executeQuery();
-			numberOfDatasets			= rs.getInt("datasetCount");
+	/**
+	 * Reads number of datasets in dataset distance table.
+	 * @return
+	 */
+	public int readNumberOfDatasetsInDISTable()
+	{
+		int numberOfDatasets = -1;
+		
+		final Connection connection = connectionPool.acquireReader();
+		try {
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement statement		= statements.prepare(	"	SELECT count(distinct ldaConfigID) datasetCount FROM (" + 
+																	    "SELECT distinct ldaConfigurationID_1 ldaConfigID from datasetDistances " +
+																	    "union " +
+																	    "SELECT distinct ldaConfigurationID_2 ldaConfigID  from datasetDistances" +
+																	")"
+																);
+
+			ResultSet rs					= statement.executeQuery();
+			numberOfDatasets				= rs.getInt("datasetCount");
+			statements.finish(statement, rs);
 		} 
 		
 		catch (SQLException e) {
 			e.printStackTrace();
 		}
 		
+		finally {
+			connectionPool.release(connection);
+		}
+		
 		
 		return numberOfDatasets;
 	}
@@ -1335,21 +2281,24 @@ public class DBManagement
 		int numberOfDatasets							= -1;
 		Set<Integer> ldaConfigIDsWithoutDistances		= null;
 		
+		final Connection connection = connectionPool.acquireReader();
 		try {
 			/*
 			 * 1. Get number of datasets for which distances have not been calculated yet. 
 			 */
-			PreparedStatement statement = connection.prepareStatement(	"	select count(distinct ldaConfigurationID) ldaConfigCount " +
-																		"	from ldaConfigurations ldac " +
-																		"	where " +
-																		"    	ldac.ldaConfigurationID not in ( " +
-																		"    		select distinct ldaConfigurationID_1 from datasetDistances " +
-																		"    		union " +
-																		"    		select distinct ldaConfigurationID_2 from datasetDistances " +
-																		"    	)"
-																	);
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement statement		= statements.prepare(	"	select count(distinct ldaConfigurationID) ldaConfigCount " +
+																	"	from ldaConfigurations ldac " +
+																	"	where " +
+																	"    	ldac.ldaConfigurationID not in ( " +
+																	"    		select distinct ldaConfigurationID_1 from datasetDistances " +
+																	"    		union " +
+																	"    		select distinct ldaConfigurationID_2 from datasetDistances " +
+																	"    	)"
+																);
 			ResultSet rs					= statement.executeQuery();
 			numberOfDatasets				= rs.getInt("ldaConfigCount");
+			statements.finish(statement, rs);
 			
 			/*
 			 *  2. Query for which datasets distances haven't been calculated yet.
@@ -1359,7 +2308,7 @@ public class DBManagement
 			ldaConfigIDsWithoutDistances	= new HashSet<Integer>(numberOfDatasets);
 
 			// Prepare statement.
-			statement = connection.prepareStatement(	"	select distinct ldaConfigurationID ldaConfigCount " +
+			statement = statements.prepare(	"	select distinct ldaConfigurationID ldaConfigCount " +
 														"	from ldaConfigurations ldac " +
 														"	where " +
 														"    	ldac.ldaConfigurationID not in ( " +
@@ -1375,11 +2324,17 @@ public class DBManagement
 			while (rs.next()) {
 				ldaConfigIDsWithoutDistances.add(rs.getInt("ldaConfigCount"));
 			}
+			
+			statements.finish(statement, rs);
 		} 
 		
 		catch (SQLException e) {
 			e.printStackTrace();
 		}
+		
+		finally {
+			connectionPool.release(connection);
+		}
 	
 		return ldaConfigIDsWithoutDistances;
 	}
@@ -1390,34 +2345,53 @@ public class DBManagement
 	 */
 	public Pair<Double, Double> loadTopicDistanceExtrema()
 	{
+		// Extrema are calculated once and invalidated when topic distances are written.
+		Pair<Double, Double> extrema = topicDistanceCache.getTopicDistanceExtrema();
+		if (extrema != null)
+			return extrema;
+		
 		double max = -1;
 		double min = -1;
 		
+		final Connection connection = connectionPool.acquireReader();
 		try {
 			// Avoid infinity values introduced by reference topic model(s) when looking for maximum.
-			PreparedStatement statement	= connection.prepareStatement(	"select max(distance) maxDist from topicDistances " + 
-																		"where cast(distance as string) not like '%Inf%';");
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement statement		= statements.prepare(	"select max(distance) maxDist from topicDistances " + 
+																	"where cast(distance as string) not like '%Inf%';");
 			// Execute statement.
-			ResultSet rs				= statement.executeQuery();
+			ResultSet rs					= statement.executeQuery();
 			// Process value.
-			max							= rs.getDouble("maxDist");
+			max								= rs.getDouble("maxDist");
+			statements.finish(statement, rs);
 			
-			statement					= connection.prepareStatement("select min(distance) minDist from topicDistances;");
+			statement						= statements.prepare("select min(distance) minDist from topicDistances;");
 			// Execute statement.
-			rs							= statement.executeQuery();
+			rs								= statement.executeQuery();
 			// Process value.
-			min							= rs.getDouble("minDist");
+			min								= rs.getDouble("minDist");
+			statements.finish(statement, rs);
+			
+			extrema						= new Pair<Double, Double>(min, max);
+			topicDistanceCache.setTopicDistanceExtrema(extrema);
 		}
 		
 		catch (SQLException e) {
 			e.printStackTrace();
+			
+			extrema						= new Pair<Double, Double>(min, max);
+		}
+		
+		finally {
+			connectionPool.release(connection);
 		}
 		
-		return new Pair<Double, Double>(min, max);
+		return extrema;
 	}
 	
 	/**
 	 * Loads topic distances for selected set of LDA configurations.
+	 * Topic distances are assembled from cached blocks (one per pair of LDA configurations); only missing blocks are read from the database.
 	 * @param selectedLDAConfigurations
 	 * @return Map translating LDA config ID and topic ID to to the corresponding spatial ID (i.e. row/topic number).
 	 */
@@ -1432,20 +2406,19 @@ public class DBManagement
 		// Map translating the LDA configuration ID / topic ID combination to a corresponding row number.
 		Map<Pair<Integer, Integer>, Integer> spatialIDsForLDATopicConfiguration = null;
 		
+		final Connection connection = connectionPool.acquireReader();
 		try {
-			// Prepare config IDs for query.
-			String configIDsForQuery = "";
-			// Add configuration IDs to query.
+			// Sorted, distinct configuration IDs.
+			TreeSet<Integer> ldaConfigIDSet = new TreeSet<Integer>();
 			for (LDAConfiguration ldaConfig : selectedLDAConfigurations) {
-				configIDsForQuery += ldaConfig.getConfigurationID() + ",";
+				ldaConfigIDSet.add(ldaConfig.getConfigurationID());
 			}
-			configIDsForQuery = configIDsForQuery.substring(0, configIDsForQuery.length() - 1);
 			
 			/*
 			 * 1. Get number of topics involved.
 			 */
 			
-			final int numberOfTopics 			= getNumberOfTopics(configIDsForQuery, topicCountsByLDAConfiguration);
+			final int numberOfTopics 			= getNumberOfTopics(ldaConfigIDSet, topicCountsByLDAConfiguration);
 			
 			// 1. a. Associate LDA config ID/topic ID combinations with row numbers; i.e.: Assign one row/column number to each topic.
 			spatialIDsForLDATopicConfiguration 	= generateLDATopicConfigToSpatialIDMap(topicCountsByLDAConfiguration);
@@ -1454,53 +2427,193 @@ public class DBManagement
 			topicDistances						= new double[numberOfTopics][numberOfTopics];
 			
 			/*
-			 * 2. Read topic distances.
+			 * 2. Collect topic distance blocks, read missing ones.
 			 */
 			
-			PreparedStatement statement	= connection.prepareStatement(	"select * from topicDistances " + 
+			final int[] ldaConfigIDs			= new int[topicCountsByLDAConfiguration.size()];
+			final int[] topicCounts				= new int[ldaConfigIDs.length];
+			final int[] offsets					= new int[ldaConfigIDs.length];
+			int index							= 0;
+			for (Map.Entry<Integer, Integer> entry : topicCountsByLDAConfiguration.entrySet()) {
+				ldaConfigIDs[index]	= entry.getKey();
+				topicCounts[index]	= entry.getValue();
+				offsets[index]		= index > 0 ? offsets[index - 1] + topicCounts[index - 1] : 0;
+				index++;
+			}
+			
+			double[][][] blocks					= new double[ldaConfigIDs.length][ldaConfigIDs.length][];
+			Map<Long, double[]> missingBlocks	= new HashMap<Long, double[]>();
+			int[] numberOfMissingBlocks			= new int[ldaConfigIDs.length];
+			for (int a = 0; a < ldaConfigIDs.length; a++) {
+				for (int b = a; b < ldaConfigIDs.length; b++) {
+					blocks[a][b] = topicDistanceCache.getBlock(ldaConfigIDs[a], ldaConfigIDs[b]);
+					
+					if (blocks[a][b] == null) {
+						blocks[a][b] = new double[topicCounts[a] * topicCounts[b]];
+						missingBlocks.put(TopicDistanceCache.key(ldaConfigIDs[a], ldaConfigIDs[b]), blocks[a][b]);
+						numberOfMissingBlocks[a]++;
+						numberOfMissingBlocks[b]++;
+					}
+				}
+			}
+			
+			if (!missingBlocks.isEmpty()) {
+				// 2. a. Choose LDA configurations covering all missing pairs (if a selection is extended: the added configurations).
+				Set<Integer> ldaConfigIDsToLoad = new TreeSet<Integer>();
+				for (int a = 0; a < ldaConfigIDs.length; a++) {
+					for (int b = a; b < ldaConfigIDs.length; b++) {
+						if (missingBlocks.containsKey(TopicDistanceCache.key(ldaConfigIDs[a], ldaConfigIDs[b])) && 
+							!ldaConfigIDsToLoad.contains(ldaConfigIDs[a]) && !ldaConfigIDsToLoad.contains(ldaConfigIDs[b])) {
+							ldaConfigIDsToLoad.add(numberOfMissingBlocks[a] >= numberOfMissingBlocks[b] ? ldaConfigIDs[a] : ldaConfigIDs[b]);
+						}
+					}
+				}
+				
+				// 2. b. Read topic distances between chosen and all selected LDA configurations.
+				loadTopicDistanceBlocks(ldaConfigIDsToLoad, ldaConfigIDSet, topicCountsByLDAConfiguration, missingBlocks);
+				
+				// 2. c. Add loaded blocks to cache.
+				for (int a = 0; a < ldaConfigIDs.length; a++) {
+					for (int b = a; b < ldaConfigIDs.length; b++) {
+						if (missingBlocks.containsKey(TopicDistanceCache.key(ldaConfigIDs[a], ldaConfigIDs[b])))
+							topicDistanceCache.putBlock(ldaConfigIDs[a], ldaConfigIDs[b], blocks[a][b]);
+					}
+				}
+			}
+			
+			/*
+			 * 3. Assemble topic distance matrix (symmetrically).
+			 */
+			
+			for (int a = 0; a < ldaConfigIDs.length; a++) {
+				for (int b = a; b < ldaConfigIDs.length; b++) {
+					final double[] block	= blocks[a][b];
+					final int columns		= topicCounts[b];
+					
+					for (int i = 0; i < topicCounts[a]; i++) {
+						final double[] row = topicDistances[offsets[a] + i];
+						System.arraycopy(block, i * columns, row, offsets[b], columns);
+						
+						if (a != b) {
+							for (int j = 0; j < columns; j++) {
+								topicDistances[offsets[b] + j][offsets[a] + i] = block[i * columns + j];
+							}
+						}
+					}
+				}
+			}
+		} 
+    	
+    	catch (SQLException e) {
+			e.printStackTrace();
+		}
+		
+		finally {
+			connectionPool.release(connection);
+		}
+		
+		// Return results.
+		return new Pair<Map<Pair<Integer, Integer>, Integer>, double[][]>(spatialIDsForLDATopicConfiguration, topicDistances);
+	}
+	
+	/**
+	 * Reads topic distances between two sets of LDA configurations into the provided blocks.
+	 * Rows belonging to pairs of LDA configurations without a provided block are skipped.
+	 * @param ldaConfigIDs1
+	 * @param ldaConfigIDs2
+	 * @param topicCountsByLDAConfiguration
+	 * @param blocks Blocks by ordered pair of LDA configuration IDs (see {@link TopicDistanceCache#key(int, int)}).
+	 * @throws SQLException
+	 */
+	private void loadTopicDistanceBlocks(	Set<Integer> ldaConfigIDs1, Set<Integer> ldaConfigIDs2, Map<Integer, Integer> topicCountsByLDAConfiguration, 
+											Map<Long, double[]> blocks) throws SQLException
+	{
+		final Connection connection = connectionPool.acquireReader();
+		try {
+			final String configIDs1 = joinIDs(ldaConfigIDs1);
+			final String configIDs2 = joinIDs(ldaConfigIDs2);
+			
+			PreparedStatement statement	= connection.prepareStatement(	"select ldaConfigurationID_1, ldaConfigurationID_2, topicID_1, topicID_2, distance from topicDistances " + 
 																		"where " +  
-																		"ldaConfigurationID_1 in (" + configIDsForQuery + ") and " + 
-																		"ldaConfigurationID_2 in (" + configIDsForQuery + ") " +  
-																		"order by ldaConfigurationID_1, ldaConfigurationID_2, topicID_1, topicID_2;) "
+																		"(ldaConfigurationID_1 in (" + configIDs1 + ") and ldaConfigurationID_2 in (" + configIDs2 + ")) or " + 
+																		"(ldaConfigurationID_1 in (" + configIDs2 + ") and ldaConfigurationID_2 in (" + configIDs1 + "))"
 																	);
 			
 			// Execute statement.
 			ResultSet rs				= statement.executeQuery();
-
+			
+			// Rows of one pair of LDA configurations are stored consecutively: Look up block only if pair changes.
+			long currentKey				= -1;
+			double[] currentBlock		= null;
+			boolean isTransposed		= false;
+			int rows					= 0;
+			int columns					= 0;
+			
 			// Process topic distances.
 			while (rs.next()) {
 				// Fetch data.
-				final int ldaConfigID1 	= rs.getInt("ldaConfigurationID_1");
-				final int ldaConfigID2 	= rs.getInt("ldaConfigurationID_2");
-				final int topicID1		= rs.getInt("topicID_1");
-				final int topicID2 		= rs.getInt("topicID_2");
-				final double distance	= rs.getDouble("distance");
+				final int ldaConfigID1 	= rs.getInt(1);
+				final int ldaConfigID2 	= rs.getInt(2);
+				final int topicID1		= rs.getInt(3);
+				final int topicID2 		= rs.getInt(4);
+				final double distance	= rs.getDouble(5);
+				
+				final long key			= TopicDistanceCache.key(Math.min(ldaConfigID1, ldaConfigID2), Math.max(ldaConfigID1, ldaConfigID2));
+				if (key != currentKey) {
+					currentKey		= key;
+					currentBlock	= blocks.get(key);
+					isTransposed	= ldaConfigID1 > ldaConfigID2;
+					rows			= currentBlock != null ? topicCountsByLDAConfiguration.get(Math.min(ldaConfigID1, ldaConfigID2)) : 0;
+					columns			= currentBlock != null ? topicCountsByLDAConfiguration.get(Math.max(ldaConfigID1, ldaConfigID2)) : 0;
+				}
+				
+				if (currentBlock == null)
+					continue;
 				
-				// Get spatial IDs for the current LDA config ID/topic ID combinations.
-				int spatialID_topic1	= spatialIDsForLDATopicConfiguration.get(new Pair<Integer, Integer>(ldaConfigID1, topicID1));
-				int spatialID_topic2	= spatialIDsForLDATopicConfiguration.get(new Pair<Integer, Integer>(ldaConfigID2, topicID2));
+				// Topic of LDA configuration with lower ID determines row.
+				final int row			= isTransposed ? topicID2 : topicID1;
+				final int column		= isTransposed ? topicID1 : topicID2;
+				if (row >= rows || column >= columns)
+					continue;
 				
-				// Store topic distance in matrix (symmetrically).
-				if (topicID1 != topicID2 || ldaConfigID1 != ldaConfigID2) {
-					topicDistances[spatialID_topic1][spatialID_topic2] = distance;
-					topicDistances[spatialID_topic2][spatialID_topic1] = distance;
+				// Store topic distance in block (symmetrically, if both topics belong to the same LDA configuration).
+				if (ldaConfigID1 != ldaConfigID2) {
+					currentBlock[row * columns + column] = distance;
+				}
+				else if (topicID1 != topicID2) {
+					currentBlock[row * columns + column] = distance;
+					currentBlock[column * columns + row] = distance;
 				}
 				else {
-					topicDistances[spatialID_topic1][spatialID_topic2] = -1;
-					topicDistances[spatialID_topic2][spatialID_topic1] = -1;
+					currentBlock[row * columns + column] = -1;
 				}
 			}
-		} 
-    	
-    	catch (SQLException e) {
-			e.printStackTrace();
+			
+			rs.close();
+			statement.close();
 		}
 		
-		// Return results.
-		return new Pair<Map<Pair<Integer, Integer>, Integer>, double[][]>(spatialIDsForLDATopicConfiguration, topicDistances);
+		finally {
+			connectionPool.release(connection);
+		}
+	}
+	
+	/**
+	 * @param ids
+	 * @return Comma-separated list of IDs.
+	 */
+	private static String joinIDs(Collection<Integer> ids)
+	{
+		StringBuilder joinedIDs = new StringBuilder(ids.size() * 6);
+		for (Integer id : ids) {
+			if (joinedIDs.length() > 0)
+				joinedIDs.append(',');
+			joinedIDs.append(id);
+		}
+		
+		return joinedIDs.toString();
 	}
 	
-
 	/**
 	 * Generates spatial IDs (i.e., row/column numbers) for each combination of LDA config ID and topic ID (i.e.: for each individual topic).
 	 * @param topicCountsByLDAConfiguration
@@ -1525,39 +2638,69 @@ public class DBManagement
 	}
 	
 	/**
-	 * Determines the number of topics for each LDA configuration. 
-	 * @param ldaConfigIDString
-	 * @param numberOfTopicsByLDAConfiguration
+	 * Determines the number of topics for each LDA configuration. Topic counts are cached, only unknown ones are queried.
+	 * @param ldaConfigIDs Sorted LDA configuration IDs.
+	 * @param topicCountsByLDAConfiguration Filled in order of ldaConfigIDs. LDA configurations without topics are omitted.
 	 * @return The total number of topics.
 	 * @throws SQLException 
 	 */
-	private int getNumberOfTopics(String ldaConfigIDsString, Map<Integer, Integer> topicCountsByLDAConfiguration) throws SQLException
+	private int getNumberOfTopics(SortedSet<Integer> ldaConfigIDs, Map<Integer, Integer> topicCountsByLDAConfiguration) throws SQLException
 	{
-		int numberOfTopics = 0;
-		
-		String statementString 		= 	"select ldaConfigurationID, count(*) topicCount from topics " +
-										"where " + 
-										"ldaConfigurationID in (" + ldaConfigIDsString + ") " + 
-										"group by ldaConfigurationID " + 
-										"order by ldaConfigurationID";
-
-		// Prepare statement.
-		PreparedStatement statement = connection.prepareStatement(statementString);
-		
-		// Execute statement.
-		ResultSet rs				= statement.executeQuery();
-		// Read total and grouped number of topics.
-		while (rs.next()) {
-			final int ldaConfigID 	= rs.getInt("ldaConfigurationID");
-			final int topicCount	= rs.getInt("topicCount");
+		final Connection connection = connectionPool.acquireReader();
+		try {
+			int numberOfTopics = 0;
 			
-			topicCountsByLDAConfiguration.put(ldaConfigID, topicCount);
+			// Collect LDA configurations with unknown topic counts.
+			Set<Integer> ldaConfigIDsToQuery = new TreeSet<Integer>();
+			for (Integer ldaConfigID : ldaConfigIDs) {
+				if (topicDistanceCache.getNumberOfTopics(ldaConfigID) == null)
+					ldaConfigIDsToQuery.add(ldaConfigID);
+			}
+			
+			if (!ldaConfigIDsToQuery.isEmpty()) {
+				String statementString 		= 	"select ldaConfigurationID, count(*) topicCount from topics " +
+												"where " + 
+												"ldaConfigurationID in (" + joinIDs(ldaConfigIDsToQuery) + ") " + 
+												"group by ldaConfigurationID";
+				
+				// Prepare statement.
+				PreparedStatement statement = connection.prepareStatement(statementString);
+				
+				// Execute statement.
+				ResultSet rs				= statement.executeQuery();
+				// Read grouped number of topics.
+				while (rs.next()) {
+					topicDistanceCache.putNumberOfTopics(rs.getInt("ldaConfigurationID"), rs.getInt("topicCount"));
+					ldaConfigIDsToQuery.remove(rs.getInt("ldaConfigurationID"));
+				}
+				
+				rs.close();
+				statement.close();
+				
+				// LDA configurations without topics.
+				for (Integer ldaConfigID : ldaConfigIDsToQuery) {
+					topicDistanceCache.putNumberOfTopics(ldaConfigID, 0);
+				}
+			}
+			
+			// Read total and grouped number of topics.
+			for (Integer ldaConfigID : ldaConfigIDs) {
+				final int topicCount = topicDistanceCache.getNumberOfTopics(ldaConfigID);
+				
+				if (topicCount > 0) {
+					topicCountsByLDAConfiguration.put(ldaConfigID, topicCount);
+					
+					// Keep track of total number of topics.
+					numberOfTopics += topicCount;
+				}
+			}
 			
-			// Keep track of total number of topics.
-			numberOfTopics += topicCount;
+			return numberOfTopics;
+		}
+		
+		finally {
+			connectionPool.release(connection);
 		}
-
-		return numberOfTopics;
 	}
 	
 	/**
@@ -1567,25 +2710,36 @@ public class DBManagement
 	 */
 	public Collection<Object> getKeywordSuggestions(String userText) throws SQLException
 	{
-		Collection<Object> suggestions	= new ArrayList<Object>();
-		
-		String statementString 			= 	"select keyword " +
-											"from keywords " +
-											"where " +
-											"   keyword like '%" + userText + "' or " +
-											"	keyword like '" + userText + "%';";
-
-		// Prepare statement.
-		PreparedStatement statement = connection.prepareStatement(statementString);
+		final Connection connection = connectionPool.acquireReader();
+		try {
+			Collection<Object> suggestions	= new ArrayList<Object>();
+			
+			String statementString 			= 	"select keyword " +
+												"from keywords " +
+												"where " +
+												"   keyword like ? or " +
+												"	keyword like ?;";
+			
+			// Prepare statement.
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement statement		= statements.prepare(statementString);
+			statement.setString(1, "%" + userText);
+			statement.setString(2, userText + "%");
+			
+			// Execute statement.
+			ResultSet rs					= statement.executeQuery();
+			// Read all similar keywords.
+			while (rs.next()) {
+				suggestions.add(rs.getString("keyword"));
+			}
+			statements.finish(statement, rs);
+			
+			return suggestions;
+		}
 		
-		// Execute statement.
-		ResultSet rs				= statement.executeQuery();
-		// Read all similar keywords.
-		while (rs.next()) {
-			suggestions.add(rs.getString("keyword"));
+		finally {
+			connectionPool.release(connection);
 		}
-
-		return suggestions;
 	}
 		
 	/**
@@ -1596,26 +2750,36 @@ public class DBManagement
 	 */
 	public boolean doesKeywordExist(String keyword) throws SQLException
 	{
-		boolean doesExist		= false;
-		
-		String statementString 	= 	"select exists (" +
-										"select * " +
-										"from keywords " +
-										"where " +
-										"    keyword = '" + keyword + "'" +
-									") doesExist;";
-
-		// Prepare statement.
-		PreparedStatement statement = connection.prepareStatement(statementString);
+		final Connection connection = connectionPool.acquireReader();
+		try {
+			boolean doesExist		= false;
+			
+			String statementString 	= 	"select exists (" +
+											"select * " +
+											"from keywords " +
+											"where " +
+											"    keyword = ?" +
+										") doesExist;";
+			
+			// Prepare statement.
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement statement		= statements.prepare(statementString);
+			statement.setString(1, keyword);
+			
+			// Execute statement.
+			ResultSet rs					= statement.executeQuery();
+			// Reads result.
+			while (rs.next()) {
+				doesExist = rs.getBoolean("doesExist");
+			}
+			statements.finish(statement, rs);
+			
+			return doesExist;
+		}
 		
-		// Execute statement.
-		ResultSet rs				= statement.executeQuery();
-		// Reads result.
-		while (rs.next()) {
-			doesExist = rs.getBoolean("doesExist");
+		finally {
+			connectionPool.release(connection);
 		}
-
-		return doesExist;
 	}
 
 	/**
@@ -1626,38 +2790,48 @@ public class DBManagement
 	 */
 	public ArrayList<KeywordRankObject> loadKeywordRankInformation(String keyword) throws SQLException
 	{
-		ArrayList<KeywordRankObject> results = new ArrayList<KeywordRankObject>(numberOfKeywordsPerTopic);
-		
-		/*
-		 * 1. Fetch data.	
-		 */
-		
-		String statementString 	= 		"select kit.topicID, kit.ldaConfigurationID, kit.rank " +
-										"from keywords k " +
-										"inner join keywordInTopic kit on " +
-										"    kit.keywordID = k.keywordID " +
-										"where " +
-										"    k.keyword = '" + keyword + "' " +
-										"order by " +
-										"    rank;";
-
-		// Prepare statement.
-		PreparedStatement statement = connection.prepareStatement(statementString);
-		
-		// Execute statement.
-		ResultSet rs				= statement.executeQuery();
-		
-		/*
-		 * 2. Process data.
-		 * 
-		 */
+		final Connection connection = connectionPool.acquireReader();
+		try {
+			ArrayList<KeywordRankObject> results = new ArrayList<KeywordRankObject>(numberOfKeywordsPerTopic);
+			
+			/*
+			 * 1. Fetch data.	
+			 */
+			
+			String statementString 	= 		"select kit.topicID, kit.ldaConfigurationID, kit.rank " +
+											"from keywords k " +
+											"inner join keywordInTopic kit on " +
+											"    kit.keywordID = k.keywordID " +
+											"where " +
+											"    k.keyword = ? " +
+											"order by " +
+											"    rank;";
+			
+			// Prepare statement.
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement statement		= statements.prepare(statementString);
+			statement.setString(1, keyword);
+			
+			// Execute statement.
+			ResultSet rs					= statement.executeQuery();
+			
+			/*
+			 * 2. Process data.
+			 * 
+			 */
+			
+			// Read results, store in collection.
+			while (rs.next()) {
+				results.add( new KeywordRankObject(rs.getInt("topicID"), rs.getInt("ldaConfigurationID"), rs.getInt("rank")) );
+			}
+			statements.finish(statement, rs);
+			
+			return results;
+		}
 		
-		// Read results, store in collection.
-		while (rs.next()) {
-			results.add( new KeywordRankObject(rs.getInt("topicID"), rs.getInt("ldaConfigurationID"), rs.getInt("rank")) );
+		finally {
+			connectionPool.release(connection);
 		}
-
-		return results;
 	}
 	
 	/**
@@ -1667,62 +2841,74 @@ public class DBManagement
 	 */
 	public ArrayList<Document> loadDocuments(Pair<Integer, Integer> topicID) throws SQLException
 	{
-		ArrayList<Document> documents = new ArrayList<Document>();
-		
-		/*
-		 * 1. Fetch data.	
-		 */
-		
-		String statementString 	=	"select " + 
-									"	 d.id, " +
-									"    tid.probability, " +
-									"    d.title, " +
-									"    d.authors, " +
-									"    d.abstract, " +
-									"    d.refinedAbstract, " +
-									"    d.conference, " +
-									"    d.date, " +
-									"    d.keywords " +
-									"from " +
-									"    topics_in_documents tid " +
-									"inner join documents d on " +
-									"    d.id                   = tid.documentsID " +
-									"where " +
-									"    tid.ldaConfigurationID = " + topicID.getKey() + " and " +
-									"    tid.topicID            = " + topicID.getValue() + " " +
-									"order by " +
-									"    tid.probability desc; "
-									;
-		
-		// Prepare statement.
-		PreparedStatement statement = connection.prepareStatement(statementString);
-		
-		// Execute statement.
-		ResultSet rs				= statement.executeQuery();
-	
-		/*
-		 * 2. Process data.
-		 * 
-		 */
-
-		// Read results, store in collection.
-		while (rs.next()) {
-			documents.add( new Document(rs.getInt("id"), 
-										rs.getFloat("probability"), 
-										rs.getString("title"),
-										rs.getString("authors"),
-										rs.getString("keywords"),
-										rs.getString("abstract"),
-										rs.getString("refinedAbstract"),
-										rs.getString("date"),
-										rs.getString("conference")) );
+		final Connection connection = connectionPool.acquireReader();
+		try {
+			ArrayList<Document> documents = new ArrayList<Document>();
+			
+			/*
+			 * 1. Fetch data.	
+			 */
+			
+			String statementString 	=	"select " + 
+										"	 d.id, " +
+										"    tid.probability, " +
+										"    d.title, " +
+										"    d.authors, " +
+										"    d.abstract, " +
+										"    d.refinedAbstract, " +
+										"    d.conference, " +
+										"    d.date, " +
+										"    d.keywords " +
+										"from " +
+										"    topics_in_documents tid " +
+										"inner join documents d on " +
+										"    d.id                   = tid.documentsID " +
+										"where " +
+										"    tid.ldaConfigurationID = ? and " +
+										"    tid.topicID            = ? " +
+										"order by " +
+										"    tid.probability desc; "
+										;
+			
+			// Prepare statement.
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement statement		= statements.prepare(statementString);
+			statement.setInt(1, topicID.getKey());
+			statement.setInt(2, topicID.getValue());
+			
+			// Execute statement.
+			ResultSet rs					= statement.executeQuery();
+			
+			/*
+			 * 2. Process data.
+			 * 
+			 */
+			
+			// Read results, store in collection.
+			while (rs.next()) {
+				documents.add( new Document(rs.getInt("id"), 
+											rs.getFloat("probability"), 
+											rs.getString("title"),
+											rs.getString("authors"),
+											rs.getString("keywords"),
+											rs.getString("abstract"),
+											rs.getString("refinedAbstract"),
+											rs.getString("date"),
+											rs.getString("conference")) );
+			}
+			statements.finish(statement, rs);
+			
+			return documents;
 		}
 		
-		return documents;
+		finally {
+			connectionPool.release(connection);
+		}
 	}
 	
 	/**
-	 * Load context for keyword: Appearances in abstracts, be it refined or un-refined.
+	 * Load context for keyword: Documents containing the keyword (or words starting with it) in title, abstracts or keywords, 
+	 * looked up in the full-text index. Includes number of occurences and context snippets from both abstracts.
 	 * @param keyword
 	 * @return
 	 * @throws SQLException
@@ -1731,50 +2917,138 @@ public class DBManagement
 	{
 		ArrayList<KeywordContext> keywordContextList = new ArrayList<KeywordContext>();
 		
-		/*
-		 * 1. Fetch data.	
-		 */
-		
-		String statementString 	=	"select " +
-									"    id, " +
-									"    title, " +
-									"    abstract, " +
-									"    refinedAbstract, " +
-									"	 keywords " + 
-									"from " +
-									"    documents d " +
-									"where " +
-									"    d.abstract like '%" + keyword + "%' or " +
-									"    d.refinedAbstract like '%" + keyword + "%' " + 
-									"order by date desc, authors asc; "
-									;
-		
-		// Prepare statement.
-		PreparedStatement statement = connection.prepareStatement(statementString);
-		
-		// Execute statement.
-		ResultSet rs				= statement.executeQuery();
-	
-		/*
-		 * 2. Process data.
-		 * 
-		 */
-
-		// Read results, store in collection.
-		while (rs.next()) {
-			keywordContextList.add( new KeywordContext(	rs.getInt("id"), 
-														keyword,
-														rs.getString("keywords"),
-														-1,
-														rs.getString("title"), 
-														-1,
-														rs.getString("abstract"),
-														rs.getString("refinedAbstract")) );
+		// Build index on first use, if necessary.
+		if (getDocumentIndexModule() == null)
+			buildDocumentIndex(null);
+		
+		final String module			= getDocumentIndexModule();
+		final String matchExpression	= buildDocumentIndexMatchExpression(keyword, module);
+		if (module == null || matchExpression == null)
+			return keywordContextList;
+		
+		final boolean isFTS5 = module.equals("fts5");
+		
+		final Connection connection = connectionPool.acquireReader();
+		try {
+			/*
+			 * 1. Fetch data.	
+			 * Columns in index: 0 - title, 1 - abstract, 2 - refined abstract, 3 - keywords. Matches are enclosed by char(1) and char(2).
+			 */
+			
+			String statementString 	=	"select " +
+										"    d.id, " +
+										"    d.title, " +
+										"    d.abstract, " +
+										"    d.refinedAbstract, " +
+										"	 d.keywords, " + 
+										(isFTS5 ?
+										"    highlight(documentsIndex, 0, char(1), char(2)) || highlight(documentsIndex, 1, char(1), char(2)) || " +
+										"    highlight(documentsIndex, 2, char(1), char(2)) || highlight(documentsIndex, 3, char(1), char(2)) occurences, " +
+										"    snippet(documentsIndex, 1, char(1), char(2), '...', ?) abstractContext, " +
+										"    snippet(documentsIndex, 2, char(1), char(2), '...', ?) refinedAbstractContext " 
+										:
+										"    offsets(documentsIndex) occurences, " +
+										"    snippet(documentsIndex, char(1), char(2), '...', 1, ?) abstractContext, " +
+										"    snippet(documentsIndex, char(1), char(2), '...', 2, ?) refinedAbstractContext ") +
+										"from " +
+										"    documentsIndex " +
+										"inner join documents d on " +
+										"    d.rowid = documentsIndex.rowid " +
+										"where " +
+										"    documentsIndex match ? " + 
+										"order by d.date desc, d.authors asc; "
+										;
+			
+			// Prepare statement.
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement statement		= statements.prepare(statementString);
+			statement.setInt(1, DOCUMENT_CONTEXT_TOKEN_COUNT);
+			statement.setInt(2, DOCUMENT_CONTEXT_TOKEN_COUNT);
+			statement.setString(3, matchExpression);
+			
+			// Execute statement.
+			ResultSet rs					= statement.executeQuery();
+			
+			/*
+			 * 2. Process data.
+			 * 
+			 */
+			
+			// Read results, store in collection.
+			while (rs.next()) {
+				// FTS5: Count highlighted matches. FTS4: Each match is described by four integers.
+				final String occurences		= rs.getString("occurences");
+				final int occurenceCount	= isFTS5 ? countCharacter(occurences, '\u0001') : (occurences.trim().isEmpty() ? 0 : (countCharacter(occurences.trim(), ' ') + 1) / 4);
+				
+				keywordContextList.add( new KeywordContext(	rs.getInt("id"), 
+															keyword,
+															rs.getString("keywords"),
+															-1,
+															rs.getString("title"), 
+															occurenceCount,
+															rs.getString("abstract"),
+															rs.getString("refinedAbstract"),
+															toDocumentContext(rs.getString("abstractContext")),
+															toDocumentContext(rs.getString("refinedAbstractContext"))) );
+			}
+			statements.finish(statement, rs);
+			
+			return keywordContextList;
 		}
 		
-		return keywordContextList;
+		finally {
+			connectionPool.release(connection);
+		}
 	}	
 	
+	/**
+	 * Builds full-text query for documents containing the keyword in any column. 
+	 * The keyword is split into words, which have to appear in this order; the last one may be a prefix.
+	 * @param keyword
+	 * @param module fts4 or fts5.
+	 * @return Match expression or null, if keyword contains no words.
+	 */
+	private static String buildDocumentIndexMatchExpression(final String keyword, final String module)
+	{
+		StringBuilder phrase = new StringBuilder();
+		
+		for (String word : keyword.split("[^\\p{L}\\p{N}]+")) {
+			if (!word.isEmpty())
+				phrase.append(phrase.length() > 0 ? " " : "").append(word);
+		}
+		
+		if (phrase.length() == 0)
+			return null;
+		
+		// FTS5 applies prefix operator to quoted phrase, FTS4 to last word in phrase.
+		return "fts5".equals(module) ? "\"" + phrase + "\" *" : "\"" + phrase + "*\"";
+	}
+	
+	/**
+	 * Converts snippet with marked matches to context string. 
+	 * @param snippet
+	 * @return Snippet without markers or empty string, if snippet contains no match (i.e. is the column's start).
+	 */
+	private static String toDocumentContext(final String snippet)
+	{
+		if (snippet == null || snippet.indexOf('\u0001') < 0)
+			return "";
+		
+		return snippet.replace("\u0001", "").replace("\u0002", "");
+	}
+	
+	private static int countCharacter(final String text, final char character)
+	{
+		int count = 0;
+		
+		for (int i = 0; text != null && i < text.length(); i++) {
+			if (text.charAt(i) == character)
+				count++;
+		}
+		
+		return count;
+	}
+	
 	/**
 	 * Loads document as specified by its ID.
 	 * @param documentID
@@ -1782,44 +3056,55 @@ public class DBManagement
 	 * @throws SQLException
 	 */
 	public Document loadDocumentByID(int documentID) throws SQLException
-	{	
-		/*
-		 * 1. Fetch data.	
-		 */
-		
-		String statementString 	=	"select " +
-									"    * " +
-									"from " +
-									"    documents d " +
-									"where " +
-									"    d.id = " + documentID
-									;
-		
-		// Prepare statement.
-		PreparedStatement statement = connection.prepareStatement(statementString);
-		
-		// Execute statement.
-		ResultSet rs				= statement.executeQuery();
-	
-		/*
-		 * 2. Process data.
-		 * 
-		 */
-
-		// Read results, store in collection.
-		if (rs.next()) {
-			return new Document(rs.getInt("id"),
-								1,
-								rs.getString("title"), 
-								rs.getString("authors"), 
-								rs.getString("keywords"), 
-								rs.getString("abstract"), 
-								rs.getString("refinedAbstract"), 
-								rs.getString("date"), 
-								rs.getString("conference")); 
+	{
+		final Connection connection = connectionPool.acquireReader();
+		try {
+			/*
+			 * 1. Fetch data.	
+			 */
+			
+			String statementString 	=	"select " +
+										"    * " +
+										"from " +
+										"    documents d " +
+										"where " +
+										"    d.id = ?"
+										;
+			
+			// Prepare statement.
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement statement		= statements.prepare(statementString);
+			statement.setInt(1, documentID);
+			
+			// Execute statement.
+			ResultSet rs					= statement.executeQuery();
+			
+			/*
+			 * 2. Process data.
+			 * 
+			 */
+			
+			// Read results, store in collection.
+			Document document = null;
+			if (rs.next()) {
+				document = new Document(rs.getInt("id"),
+										1,
+										rs.getString("title"), 
+										rs.getString("authors"), 
+										rs.getString("keywords"), 
+										rs.getString("abstract"), 
+										rs.getString("refinedAbstract"), 
+										rs.getString("date"), 
+										rs.getString("conference")); 
+			}
+			statements.finish(statement, rs);
+			
+			return document;
 		}
 		
-		return null;
+		finally {
+			connectionPool.release(connection);
+		}
 	}
 	
 	/**
@@ -1830,44 +3115,55 @@ public class DBManagement
 	 */
 	public ArrayList<Pair<Pair<Integer, Integer>, Float>> loadTopicProbabilitiesInDocument(final int documentID, final int ldaConfigID) throws SQLException
 	{
-		ArrayList<Pair<Pair<Integer, Integer>, Float>> res = new ArrayList<Pair<Pair<Integer, Integer>, Float>>();
-		
-		/*
-		 * 1. Fetch data.	
-		 */
-		
-		String statementString 	=	"select " +
-									"    * " +
-									"from " +
-									"    topics_in_documents tid " +
-									"where " +
-									"    tid.documentsID = " 		+ documentID + 
-									" 	 tid.ldaConfigurationID = "	+ ldaConfigID + " " +
-									"order by " +
-									"	 tid.probability desc;"
-									;
-		
-		// Prepare statement.
-		PreparedStatement statement = connection.prepareStatement(statementString);
-		
-		// Execute statement.
-		ResultSet rs				= statement.executeQuery();
-		
-		/*
-		 * 2. Process data.
-		 * 
-		 */
-
-		// Read results, store in collection.
-		if (rs.next()) {
-			// Get comprehensive topic ID.
-			Pair<Integer, Integer> topicID = new Pair<Integer, Integer>(rs.getInt("ldaConfigurationID"), rs.getInt("topicID"));
+		final Connection connection = connectionPool.acquireReader();
+		try {
+			ArrayList<Pair<Pair<Integer, Integer>, Float>> res = new ArrayList<Pair<Pair<Integer, Integer>, Float>>();
+			
+			/*
+			 * 1. Fetch data.	
+			 */
+			
+			String statementString 	=	"select " +
+										"    * " +
+										"from " +
+										"    topics_in_documents tid " +
+										"where " +
+										"    tid.documentsID = ? and " +
+										" 	 tid.ldaConfigurationID = ? " +
+										"order by " +
+										"	 tid.probability desc;"
+										;
 			
-			// Get probability; add to list.
-			res.add(new Pair<Pair<Integer, Integer>, Float>(topicID, rs.getFloat("probability")));
+			// Prepare statement.
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement statement		= statements.prepare(statementString);
+			statement.setInt(1, documentID);
+			statement.setInt(2, ldaConfigID);
+			
+			// Execute statement.
+			ResultSet rs					= statement.executeQuery();
+			
+			/*
+			 * 2. Process data.
+			 * 
+			 */
+			
+			// Read results, store in collection.
+			while (rs.next()) {
+				// Get comprehensive topic ID.
+				Pair<Integer, Integer> topicID = new Pair<Integer, Integer>(rs.getInt("ldaConfigurationID"), rs.getInt("topicID"));
+				
+				// Get probability; add to list.
+				res.add(new Pair<Pair<Integer, Integer>, Float>(topicID, rs.getFloat("probability")));
+			}
+			statements.finish(statement, rs);
+			
+			return res;
 		}
 		
-		return res;
+		finally {
+			connectionPool.release(connection);
+		}
 	}
 	
 	/**
@@ -1877,42 +3173,52 @@ public class DBManagement
 	 */
 	public ArrayList<Pair<Pair<Integer, Integer>, Float>> loadTopicProbabilitiesInDocument(final int documentID) throws SQLException
 	{
-		ArrayList<Pair<Pair<Integer, Integer>, Float>> res = new ArrayList<Pair<Pair<Integer, Integer>, Float>>();
-		
-		/*
-		 * 1. Fetch data.	
-		 */
-		
-		String statementString 	=	"select " +
-									"    * " +
-									"from " +
-									"    topics_in_documents tid " +
-									"where " +
-									"    tid.documentsID = " 		+ documentID + " " +
-									"order by " +
-									"	 tid.probability desc;"
-									;
-		
-		// Prepare statement.
-		PreparedStatement statement = connection.prepareStatement(statementString);
-		
-		// Execute statement.
-		ResultSet rs				= statement.executeQuery();
-		
-		/*
-		 * 2. Process data.
-		 * 
-		 */
-
-		// Read results, store in collection.
-		while (rs.next()) {
-			// Get comprehensive topic ID.
-			Pair<Integer, Integer> topicID = new Pair<Integer, Integer>(rs.getInt("ldaConfigurationID"), rs.getInt("topicID"));
+		final Connection connection = connectionPool.acquireReader();
+		try {
+			ArrayList<Pair<Pair<Integer, Integer>, Float>> res = new ArrayList<Pair<Pair<Integer, Integer>, Float>>();
+			
+			/*
+			 * 1. Fetch data.	
+			 */
 			
-			// Get probability; add to list.
-			res.add(new Pair<Pair<Integer, Integer>, Float>(topicID, rs.getFloat("probability")));
+			String statementString 	=	"select " +
+										"    * " +
+										"from " +
+										"    topics_in_documents tid " +
+										"where " +
+										"    tid.documentsID = ? " +
+										"order by " +
+										"	 tid.probability desc;"
+										;
+			
+			// Prepare statement.
+			StatementRegistry statements	= connectionPool.getStatementRegistry(connection);
+			PreparedStatement statement		= statements.prepare(statementString);
+			statement.setInt(1, documentID);
+			
+			// Execute statement.
+			ResultSet rs					= statement.executeQuery();
+			
+			/*
+			 * 2. Process data.
+			 * 
+			 */
+			
+			// Read results, store in collection.
+			while (rs.next()) {
+				// Get comprehensive topic ID.
+				Pair<Integer, Integer> topicID = new Pair<Integer, Integer>(rs.getInt("ldaConfigurationID"), rs.getInt("topicID"));
+				
+				// Get probability; add to list.
+				res.add(new Pair<Pair<Integer, Integer>, Float>(topicID, rs.getFloat("probability")));
+			}
+			statements.finish(statement, rs);
+			
+			return res;
 		}
 		
-		return res;
+		finally {
+			connectionPool.release(connection);
+		}
 	}
 }
\ No newline at end of file
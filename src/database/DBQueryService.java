@@ -0,0 +1,195 @@
+package database;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.application.Platform;
+import javafx.util.Pair;
+
+/**
+ * Executes database queries asynchronously on a bounded pool of worker threads, so that the
+ * JavaFX application thread is not blocked by database access.
+ * Results are delivered on the JavaFX application thread, i.e. stages attached to the returned
+ * futures (thenAccept(), thenApply(), ...) may modify the scene graph.
+ * Queries may be submitted on a channel: A new query cancels the pending query on the same channel 
+ * (e.g. if the user clicks through several topics, only the last selection is loaded and shown).
+ * @author RM
+ *
+ */
+public class DBQueryService
+{
+	/**
+	 * Default number of worker threads.
+	 */
+	public static final int DEFAULT_NUMBER_OF_THREADS	= 2;
+	/**
+	 * Maximal number of queries waiting for execution. Further queries are rejected.
+	 */
+	public static final int MAX_NUMBER_OF_QUEUED_QUERIES	= 64;
+	
+	/**
+	 * Database queries are executed on.
+	 */
+	private DBManagement db;
+	/**
+	 * Worker threads.
+	 */
+	private ThreadPoolExecutor executor;
+	/**
+	 * Latest query per channel: Future returned to caller and future of execution.
+	 */
+	private Map<String, Pair<CompletableFuture<?>, Future<?>>> latestQueries;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	public DBQueryService(final DBManagement db, final int numberOfThreads)
+	{
+		this.db				= db;
+		this.latestQueries	= new HashMap<String, Pair<CompletableFuture<?>, Future<?>>>();
+		
+		// Daemon threads: Pending queries must not keep the application alive.
+		final AtomicInteger threadCount	= new AtomicInteger(0);
+		ThreadFactory threadFactory		= new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable)
+			{
+				Thread thread = new Thread(runnable, "DBQueryService-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				
+				return thread;
+			}
+		};
+		
+		this.executor		= new ThreadPoolExecutor(	numberOfThreads, numberOfThreads, 0, TimeUnit.MILLISECONDS, 
+														new ArrayBlockingQueue<Runnable>(MAX_NUMBER_OF_QUEUED_QUERIES), threadFactory);
+	}
+	
+	/**
+	 * Submits query without channel, i.e. it can't be superseded.
+	 * @param query
+	 * @return Future completed on the JavaFX application thread.
+	 */
+	public <T> CompletableFuture<T> submit(final IDBQuery<T> query)
+	{
+		return submit(null, query);
+	}
+	
+	/**
+	 * Submits query. Cancels the previous query on the same channel, if it is still pending; its future is 
+	 * cancelled and its result (if already being calculated) discarded.
+	 * Exceptions thrown by the query are printed and complete the returned future exceptionally.
+	 * @param channel Identifier of channel. May be null.
+	 * @param query
+	 * @return Future completed on the JavaFX application thread.
+	 */
+	public <T> CompletableFuture<T> submit(final String channel, final IDBQuery<T> query)
+	{
+		final CompletableFuture<T> result	= new CompletableFuture<T>();
+		Future<?> execution					= null;
+		
+		try {
+			execution = executor.submit(new Runnable() {
+				@Override
+				public void run()
+				{
+					// Skip superseded queries.
+					if (result.isDone())
+						return;
+					
+					try {
+						final T value = query.execute(db);
+						
+						Platform.runLater(new Runnable() {
+							@Override
+							public void run()
+							{
+								result.complete(value);
+							}
+						});
+					}
+					
+					catch (final Exception e) {
+						if (result.isDone())
+							return;
+						
+						e.printStackTrace();
+						
+						Platform.runLater(new Runnable() {
+							@Override
+							public void run()
+							{
+								result.completeExceptionally(e);
+							}
+						});
+					}
+				}
+			});
+		}
+		
+		catch (RejectedExecutionException e) {
+			e.printStackTrace();
+			result.completeExceptionally(e);
+			
+			return result;
+		}
+		
+		// Supersede previous query on this channel.
+		if (channel != null) {
+			Pair<CompletableFuture<?>, Future<?>> previousQuery = null;
+			synchronized (latestQueries) {
+				previousQuery = latestQueries.put(channel, new Pair<CompletableFuture<?>, Future<?>>(result, execution));
+			}
+			
+			if (previousQuery != null)
+				cancel(previousQuery);
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Cancels the pending query on this channel, if there is one.
+	 * @param channel
+	 */
+	public void cancel(final String channel)
+	{
+		Pair<CompletableFuture<?>, Future<?>> query = null;
+		synchronized (latestQueries) {
+			query = latestQueries.remove(channel);
+		}
+		
+		if (query != null)
+			cancel(query);
+	}
+	
+	private void cancel(final Pair<CompletableFuture<?>, Future<?>> query)
+	{
+		if (query.getKey().isDone())
+			return;
+		
+		// Running queries are not interrupted (the JDBC driver does not support it reliably); their result is discarded.
+		query.getKey().cancel(false);
+		query.getValue().cancel(false);
+		
+		// Remove cancelled queries from queue.
+		executor.purge();
+	}
+	
+	/**
+	 * Stops worker threads. Pending queries are discarded.
+	 */
+	public void shutdown()
+	{
+		executor.shutdownNow();
+	}
+}
@@ -0,0 +1,18 @@
+package database;
+
+/**
+ * Query executed by {@link DBQueryService} on one of its worker threads.
+ * @author RM
+ *
+ * @param <T> Type of result.
+ */
+public interface IDBQuery<T>
+{
+	/**
+	 * Executes query.
+	 * @param db
+	 * @return
+	 * @throws Exception
+	 */
+	public T execute(DBManagement db) throws Exception;
+}
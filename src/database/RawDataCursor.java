@@ -0,0 +1,161 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+
+import model.LDAConfiguration;
+import model.topic.KeywordDictionary;
+import model.topic.Topic;
+import model.workspace.Dataset;
+import model.workspace.DatasetCursor;
+
+/**
+ * Cursor over raw topic data in table keywordInTopic. Reads the (ordered) result set
+ * row by row and assembles exactly one dataset per call of {@link RawDataCursor#next()}, 
+ * hence only the current dataset is held in memory. Read failures are thrown as IllegalStateException.
+ * Created via {@link DBManagement#openRawDataCursor(int, int)}.
+ * @author RM
+ *
+ */
+public class RawDataCursor extends DatasetCursor
+{
+	/**
+	 * Statement the result set belongs to.
+	 */
+	private PreparedStatement statement;
+	/**
+	 * Result set ordered by LDA configuration ID and topic ID.
+	 */
+	private ResultSet rs;
+	/**
+	 * Keyword dictionary used for all created topics.
+	 */
+	private KeywordDictionary dictionary;
+	/**
+	 * Pool the connection of the statement is released to on close.
+	 */
+	private ConnectionPool connectionPool;
+	/**
+	 * Connection held until the cursor is closed.
+	 */
+	private Connection connection;
+	/**
+	 * Indicates whether the result set is positioned on a row which has not been processed yet.
+	 */
+	private boolean hasPendingRow;
+	/**
+	 * Number of processed rows.
+	 */
+	private long numberOfProcessedRows;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	RawDataCursor(final PreparedStatement statement, final KeywordDictionary dictionary, final ConnectionPool connectionPool, final Connection connection) throws SQLException
+	{
+		this.statement				= statement;
+		this.dictionary				= dictionary;
+		this.connectionPool			= connectionPool;
+		this.connection				= connection;
+		this.rs						= statement.executeQuery();
+		this.numberOfProcessedRows	= 0;
+		
+		// Position result set on first row.
+		this.hasPendingRow			= rs.next();
+	}
+	
+	@Override
+	public boolean hasNext()
+	{
+		return hasPendingRow;
+	}
+	
+	@Override
+	public Dataset next()
+	{
+		if (!hasPendingRow)
+			throw new NoSuchElementException();
+		
+		Dataset dataset = null;
+		
+		try {
+			// Current row contains first entry of next LDA configuration.
+			final int ldaConfigID		= rs.getInt("ldaConfigurationID");
+			LDAConfiguration ldaConfig	= new LDAConfiguration(ldaConfigID, rs.getInt("kappa"), rs.getDouble("alpha"), rs.getDouble("eta"));
+			ArrayList<Topic> topics		= new ArrayList<Topic>();
+			dataset						= new Dataset(ldaConfig, topics);
+			
+			// Reference values for currently processed topic.
+			int currTopicID				= -1;
+			Topic currTopic				= null;
+			
+			// Process rows until the next LDA configuration starts.
+			while (hasPendingRow && rs.getInt("ldaConfigurationID") == ldaConfigID) {
+				final int topicID	= rs.getInt("topicID");
+				final int column	= dictionary.getColumn(rs.getInt("keywordID"));
+				
+				// Skip keywords unknown to the dictionary (e.g. orphaned associations), as a join with table keywords would.
+				if (column >= 0) {
+					// Current row contains first entry of new topic: Create new topic.
+					if (topicID != currTopicID) {
+						currTopic	= new Topic(topicID, dictionary);
+						topics.add(currTopic);
+						
+						currTopicID	= topicID;
+					}
+					
+					// Store probability in column assigned to this keyword.
+					currTopic.setProbability(column, rs.getDouble("probability"));
+				}
+				
+				numberOfProcessedRows++;
+				hasPendingRow = rs.next();
+			}
+		}
+		
+		catch (SQLException e) {
+			// Result set is not usable anymore. Dataset is incomplete, hence it must not be used.
+			hasPendingRow = false;
+			
+			throw new IllegalStateException("Reading raw data failed after " + numberOfProcessedRows + " rows.", e);
+		}
+		
+		return dataset;
+	}
+	
+	@Override
+	public void close()
+	{
+		hasPendingRow = false;
+		
+		try {
+			rs.close();
+			statement.close();
+		}
+		
+		catch (SQLException e) {
+			e.printStackTrace();
+		}
+		
+		finally {
+			// Release connection (once).
+			if (connection != null) {
+				connectionPool.release(connection);
+				connection = null;
+			}
+		}
+	}
+	
+	/**
+	 * @return Number of rows (keyword/topic associations) processed so far.
+	 */
+	public long getNumberOfProcessedRows()
+	{
+		return numberOfProcessedRows;
+	}
+}
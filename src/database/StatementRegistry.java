@@ -0,0 +1,259 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prepared statements of one connection: Each query (with bind parameters) is prepared once and reused,
+ * so that SQLite doesn't parse and plan it again for every call.
+ * Usage: {@link #prepare(String)}, bind parameters, execute, then {@link #finish(PreparedStatement, ResultSet)}.
+ * Statements which are not finished until the connection is released are closed and prepared anew on their next use.
+ * Execution times (from preparation to finish) are recorded per query for all connections.
+ * Instances are owned by {@link ConnectionPool} and must only be used by the thread holding the connection.
+ * @author RM
+ *
+ */
+public class StatementRegistry
+{
+	/**
+	 * Execution statistics of one query.
+	 */
+	public static class StatementStatistics
+	{
+		private final AtomicLong numberOfExecutions	= new AtomicLong();
+		private final AtomicLong totalTime			= new AtomicLong();
+		private final AtomicLong maxTime			= new AtomicLong();
+		
+		void record(final long time)
+		{
+			numberOfExecutions.incrementAndGet();
+			totalTime.addAndGet(time);
+			
+			long currentMax = maxTime.get();
+			while (time > currentMax && !maxTime.compareAndSet(currentMax, time)) {
+				currentMax = maxTime.get();
+			}
+		}
+		
+		public long getNumberOfExecutions()
+		{
+			return numberOfExecutions.get();
+		}
+		
+		/**
+		 * @return Total execution time in ns.
+		 */
+		public long getTotalTime()
+		{
+			return totalTime.get();
+		}
+		
+		/**
+		 * @return Maximal execution time in ns.
+		 */
+		public long getMaxTime()
+		{
+			return maxTime.get();
+		}
+	}
+	
+	/**
+	 * Statistics by query, shared by all registries.
+	 */
+	private static final Map<String, StatementStatistics> statistics = new ConcurrentHashMap<String, StatementStatistics>();
+	
+	private Connection connection;
+	/**
+	 * Prepared statements by query.
+	 */
+	private Map<String, PreparedStatement> statements;
+	/**
+	 * Query and start time (ns) of statements which have been prepared, but not finished yet.
+	 */
+	private IdentityHashMap<PreparedStatement, ActiveStatement> activeStatements;
+	
+	/**
+	 * Query and start time of an active statement.
+	 */
+	private static class ActiveStatement
+	{
+		final String query;
+		final long startTime;
+		final boolean isCached;
+		
+		ActiveStatement(final String query, final long startTime, final boolean isCached)
+		{
+			this.query		= query;
+			this.startTime	= startTime;
+			this.isCached	= isCached;
+		}
+	}
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	StatementRegistry(final Connection connection)
+	{
+		this.connection			= connection;
+		this.statements			= new HashMap<String, PreparedStatement>();
+		this.activeStatements	= new IdentityHashMap<PreparedStatement, ActiveStatement>();
+	}
+	
+	/**
+	 * Returns prepared statement for this query with cleared parameters.
+	 * If the cached statement is still in use (nested use of the same query), a separate statement is prepared.
+	 * @param query
+	 * @return
+	 * @throws SQLException
+	 */
+	public PreparedStatement prepare(final String query) throws SQLException
+	{
+		PreparedStatement statement	= statements.get(query);
+		boolean isCached			= true;
+		
+		if (statement == null) {
+			statement = connection.prepareStatement(query);
+			statements.put(query, statement);
+		}
+		
+		else if (activeStatements.containsKey(statement)) {
+			statement	= connection.prepareStatement(query);
+			isCached	= false;
+		}
+		
+		else {
+			statement.clearParameters();
+		}
+		
+		activeStatements.put(statement, new ActiveStatement(query, System.nanoTime(), isCached));
+		
+		return statement;
+	}
+	
+	/**
+	 * Closes result set (if provided) and records execution time. The statement may be reused afterwards.
+	 * @param statement
+	 * @param rs May be null.
+	 * @throws SQLException
+	 */
+	public void finish(final PreparedStatement statement, final ResultSet rs) throws SQLException
+	{
+		ActiveStatement activeStatement = activeStatements.remove(statement);
+		
+		try {
+			if (rs != null)
+				rs.close();
+		}
+		
+		finally {
+			if (activeStatement != null) {
+				record(activeStatement.query, System.nanoTime() - activeStatement.startTime);
+				
+				if (!activeStatement.isCached)
+					statement.close();
+			}
+		}
+	}
+	
+	/**
+	 * Closes statements which were not finished (e.g. due to an exception), so that no result set
+	 * keeps a read transaction open. Called when the connection is released.
+	 */
+	void releaseActiveStatements()
+	{
+		if (activeStatements.isEmpty())
+			return;
+		
+		for (Map.Entry<PreparedStatement, ActiveStatement> entry : activeStatements.entrySet()) {
+			try {
+				entry.getKey().close();
+			}
+			
+			catch (SQLException e) {
+				e.printStackTrace();
+			}
+			
+			if (entry.getValue().isCached)
+				statements.remove(entry.getValue().query);
+		}
+		
+		activeStatements.clear();
+	}
+	
+	/**
+	 * Closes all statements.
+	 */
+	void close()
+	{
+		releaseActiveStatements();
+		
+		for (PreparedStatement statement : statements.values()) {
+			try {
+				statement.close();
+			}
+			
+			catch (SQLException e) {
+				e.printStackTrace();
+			}
+		}
+		
+		statements.clear();
+	}
+	
+	private static void record(final String query, final long time)
+	{
+		StatementStatistics queryStatistics = statistics.get(query);
+		if (queryStatistics == null) {
+			statistics.putIfAbsent(query, new StatementStatistics());
+			queryStatistics = statistics.get(query);
+		}
+		
+		queryStatistics.record(time);
+	}
+	
+	/**
+	 * @return Execution statistics by query (for all connections).
+	 */
+	public static Map<String, StatementStatistics> getStatistics()
+	{
+		return statistics;
+	}
+	
+	/**
+	 * @return Execution statistics as table (one line per query, descending by total time).
+	 */
+	public static String formatStatistics()
+	{
+		ArrayList<Map.Entry<String, StatementStatistics>> entries = new ArrayList<Map.Entry<String, StatementStatistics>>(statistics.entrySet());
+		Collections.sort(entries, new Comparator<Map.Entry<String, StatementStatistics>>() {
+			@Override
+			public int compare(Map.Entry<String, StatementStatistics> entry1, Map.Entry<String, StatementStatistics> entry2)
+			{
+				return Long.compare(entry2.getValue().getTotalTime(), entry1.getValue().getTotalTime());
+			}
+		});
+		
+		StringBuilder table = new StringBuilder(String.format("%10s %12s %10s %10s  %s%n", "count", "total [ms]", "avg [ms]", "max [ms]", "query"));
+		for (Map.Entry<String, StatementStatistics> entry : entries) {
+			StatementStatistics queryStatistics = entry.getValue();
+			final long count = queryStatistics.getNumberOfExecutions();
+			
+			table.append(String.format(	"%10d %12.2f %10.3f %10.3f  %s%n", count, queryStatistics.getTotalTime() / 1e6,
+										count > 0 ? queryStatistics.getTotalTime() / 1e6 / count : 0, queryStatistics.getMaxTime() / 1e6,
+										entry.getKey().replaceAll("\\s+", " ")));
+		}
+		
+		return table.toString();
+	}
+}
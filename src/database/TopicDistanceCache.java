@@ -0,0 +1,174 @@
+package database;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javafx.util.Pair;
+
+/**
+ * Workspace-scoped cache for topic distances. Holds one block per pair of LDA configurations
+ * (topics of first x topics of second configuration, row-major, first configuration ID <= second one)
+ * and evicts the least recently used blocks once the memory budget is exceeded.
+ * Additionally caches topic counts per LDA configuration and the global topic distance extrema.
+ * Created and kept up to date (on writes to table topicDistances) by {@link DBManagement}.
+ * @author RM
+ *
+ */
+public class TopicDistanceCache
+{
+	/**
+	 * Default memory budget for cached topic distance blocks in bytes.
+	 */
+	public static final long DEFAULT_MEMORY_BUDGET	= 64L * 1024 * 1024;
+	/**
+	 * Approximate memory overhead per cached block (map entry, key, array header) in bytes.
+	 */
+	private static final int BLOCK_OVERHEAD			= 96;
+	
+	/**
+	 * Blocks by (ordered) pair of LDA configuration IDs. Iteration order is access order, i.e. the eldest entry is the least recently used one.
+	 */
+	private LinkedHashMap<Long, double[]> blocks;
+	/**
+	 * Number of topics for each LDA configuration.
+	 */
+	private Map<Integer, Integer> topicCounts;
+	/**
+	 * Topic distance minimum and maximum. Null, if invalidated.
+	 */
+	private Pair<Double, Double> topicDistanceExtrema;
+	/**
+	 * Maximal number of bytes used by cached blocks.
+	 */
+	private long memoryBudget;
+	/**
+	 * Number of bytes currently used by cached blocks.
+	 */
+	private long usedMemory;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	TopicDistanceCache(final long memoryBudget)
+	{
+		this.blocks			= new LinkedHashMap<Long, double[]>(256, 0.75f, true);
+		this.topicCounts	= new HashMap<Integer, Integer>();
+		this.memoryBudget	= memoryBudget;
+		this.usedMemory		= 0;
+	}
+	
+	/**
+	 * @param ldaConfigID1
+	 * @param ldaConfigID2
+	 * @return Key of block for this pair of LDA configurations. IDs have to be ordered.
+	 */
+	static long key(final int ldaConfigID1, final int ldaConfigID2)
+	{
+		return ((long)ldaConfigID1 << 32) | (ldaConfigID2 & 0xFFFFFFFFL);
+	}
+	
+	/**
+	 * @param ldaConfigID1
+	 * @param ldaConfigID2 Has to be equal to or larger than ldaConfigID1.
+	 * @return Cached block or null, if block is not available.
+	 */
+	synchronized double[] getBlock(final int ldaConfigID1, final int ldaConfigID2)
+	{
+		return blocks.get(key(ldaConfigID1, ldaConfigID2));
+	}
+	
+	/**
+	 * Adds block to cache and evicts least recently used blocks, if necessary. Blocks exceeding the memory budget on their own are not cached.
+	 * @param ldaConfigID1
+	 * @param ldaConfigID2 Has to be equal to or larger than ldaConfigID1.
+	 * @param block Must not be modified afterwards.
+	 */
+	synchronized void putBlock(final int ldaConfigID1, final int ldaConfigID2, final double[] block)
+	{
+		final long blockSize = sizeOf(block);
+		if (blockSize > memoryBudget)
+			return;
+		
+		double[] previousBlock = blocks.put(key(ldaConfigID1, ldaConfigID2), block);
+		if (previousBlock != null)
+			usedMemory -= sizeOf(previousBlock);
+		usedMemory += blockSize;
+		
+		// Evict least recently used blocks.
+		Iterator<double[]> iterator = blocks.values().iterator();
+		while (usedMemory > memoryBudget && iterator.hasNext()) {
+			usedMemory -= sizeOf(iterator.next());
+			iterator.remove();
+		}
+	}
+	
+	/**
+	 * Removes block for this pair of LDA configurations (ordering is irrelevant) and invalidates topic distance extrema.
+	 * @param ldaConfigID1
+	 * @param ldaConfigID2
+	 */
+	synchronized void invalidate(final int ldaConfigID1, final int ldaConfigID2)
+	{
+		double[] block = blocks.remove(key(Math.min(ldaConfigID1, ldaConfigID2), Math.max(ldaConfigID1, ldaConfigID2)));
+		if (block != null)
+			usedMemory -= sizeOf(block);
+		
+		topicDistanceExtrema = null;
+	}
+	
+	/**
+	 * Removes all cached data.
+	 */
+	synchronized void invalidateAll()
+	{
+		blocks.clear();
+		topicCounts.clear();
+		usedMemory				= 0;
+		topicDistanceExtrema	= null;
+	}
+	
+	/**
+	 * @param ldaConfigID
+	 * @return Number of topics for this LDA configuration or null, if not cached.
+	 */
+	synchronized Integer getNumberOfTopics(final int ldaConfigID)
+	{
+		return topicCounts.get(ldaConfigID);
+	}
+	
+	synchronized void putNumberOfTopics(final int ldaConfigID, final int numberOfTopics)
+	{
+		topicCounts.put(ldaConfigID, numberOfTopics);
+	}
+	
+	/**
+	 * @return Cached extrema or null, if not available.
+	 */
+	synchronized Pair<Double, Double> getTopicDistanceExtrema()
+	{
+		return topicDistanceExtrema;
+	}
+	
+	synchronized void setTopicDistanceExtrema(final Pair<Double, Double> topicDistanceExtrema)
+	{
+		this.topicDistanceExtrema = topicDistanceExtrema;
+	}
+	
+	public synchronized long getUsedMemory()
+	{
+		return usedMemory;
+	}
+	
+	public long getMemoryBudget()
+	{
+		return memoryBudget;
+	}
+	
+	private static long sizeOf(final double[] block)
+	{
+		return (long)block.length * 8 + BLOCK_OVERHEAD;
+	}
+}
@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -12,6 +11,10 @@ import view.components.DatapointIDMode;
 import javafx.scene.chart.XYChart;
 import javafx.util.Pair;
 import control.analysisView.AnalysisController;
+import model.filtering.IncrementalParameterFilter;
+import model.filtering.IndexSet;
+import model.workspace.DistanceMatrix;
+import model.workspace.DistanceMatrixView;
 
 /**
  * Provides abstraction for data used in AnalysisController.
@@ -34,9 +37,9 @@ public class AnalysisDataspace
 	 */
 	private double[][] coordinates;
 	/**
-	 * Distances of all datasets in workspace / currently loaded.
+	 * Distances of all datasets in workspace / currently loaded. Read directly from the workspace's distance matrix (not copied).
 	 */
-	private double[][] distances;
+	private DistanceMatrix distances;
 	/**
 	 * LDA configurations all datasets in workspace / currently loaded.
 	 */
@@ -49,15 +52,15 @@ public class AnalysisDataspace
 	/**
 	 * Set of all datasets matching the currently defined thresholds.
 	 */
-	private Set<Integer> availableIndices;
+	private IndexSet availableIndices;
 	/**
 	 * Stores filterd coordinates.
 	 */
 	private double availableCoordinates[][];
 	/**
-	 * Stores filtered distances.
+	 * View on filtered distances.
 	 */
-	private double availableDistances[][];
+	private DistanceMatrixView availableDistances;
 	/**
 	 * Stores average cohesive distances.
 	 */
@@ -75,15 +78,15 @@ public class AnalysisDataspace
 	/**
 	 * Set of all datasets matching the currently defined thresholds and selection.
 	 */
-	private Set<Integer> discardedIndices;
+	private IndexSet discardedIndices;
 	/**
 	 * Stores discarded coordinates.
 	 */
 	private double discardedCoordinates[][];
 	/**
-	 * Stores filtered and selecte distances.
+	 * View on discarded distances.
 	 */
-	private double discardedDistances[][];
+	private DistanceMatrixView discardedDistances;
 	/**
 	 * Stores filtered and selected LDA configurations.
 	 */
@@ -96,11 +99,11 @@ public class AnalysisDataspace
 	/**
 	 * Set of all datasets matching the currently defined thresholds and selection.
 	 */
-	private Set<Integer> inactiveIndices;
+	private IndexSet inactiveIndices;
 	/**
-	 * Stores filtered distances - without distances from and to selected datapoints.
+	 * View on filtered distances - without distances from and to selected datapoints.
 	 */
-	private double inactiveDistances[][];
+	private DistanceMatrixView inactiveDistances;
 	/**
 	 * Stores inactive LDA configurations.
 	 */
@@ -117,11 +120,11 @@ public class AnalysisDataspace
 	/**
 	 * Set of all datasets matching the currently defined thresholds and selection.
 	 */
-	private Set<Integer> activeIndices;
+	private IndexSet activeIndices;
 	/**
-	 * Stores active distances.
+	 * View on active distances.
 	 */
-	private double activeDistances[][];
+	private DistanceMatrixView activeDistances;
 	/**
 	 * Stores active LDA configurations.
 	 */
@@ -136,6 +139,11 @@ public class AnalysisDataspace
 	 * Miscanellous data.
 	 */
 	
+	/**
+	 * Sorted parameter indices used for filtering. Created on demand for the current data references.
+	 */
+	private IncrementalParameterFilter parameterFilter;
+	
 	/**
 	 * Flag indicating whether or not the global extrema were already identified.
 	 */
@@ -162,17 +170,20 @@ public class AnalysisDataspace
 		this.controller = controller;
 		
 		// Init collections.
-		availableIndices	= new LinkedHashSet<Integer>();
-		activeIndices		= new LinkedHashSet<Integer>();
-		inactiveIndices		= new LinkedHashSet<Integer>();
-		discardedIndices	= new LinkedHashSet<Integer>();
+		availableIndices	= new IndexSet();
+		activeIndices		= new IndexSet();
+		inactiveIndices		= new IndexSet();
+		discardedIndices	= new IndexSet();
 	}
 	
 	/**
 	 * Sets references to first-level data.
 	 */
-	public void setDataReferences(ArrayList<LDAConfiguration> ldaConfigurations, double[][] coordinates, double[][] distances)
+	public void setDataReferences(ArrayList<LDAConfiguration> ldaConfigurations, double[][] coordinates, DistanceMatrix distances)
 	{
+		// Derived data (views, average distances, filter indices) only has to be rebuilt if references have changed.
+		final boolean referencesChanged = this.ldaConfigurations != ldaConfigurations || this.distances != distances;
+		
 		// Get LDA configurations. Important: Integrity/consistency checks ensure that
 		// workspace.ldaConfigurations and coordinates/distances are in the same order. 
 		this.ldaConfigurations 	= ldaConfigurations;
@@ -181,6 +192,18 @@ public class AnalysisDataspace
 		// Load current distance data from workspace.
 		this.distances			= distances;
 		
+		if (!referencesChanged)
+			return;
+		
+		// Create views on distance data. Updated (not re-created) whenever the index sets change.
+		availableDistances		= new DistanceMatrixView(distances);
+		discardedDistances		= new DistanceMatrixView(distances);
+		activeDistances			= new DistanceMatrixView(distances);
+		inactiveDistances		= new DistanceMatrixView(distances);
+		// Average distances and filter are created on demand.
+		averageDistances		= null;
+		parameterFilter			= null;
+		
 		// Find reference model index.
 		this.referenceTMIndex	= -1;
 		for (int i = 0; i < ldaConfigurations.size(); i++) {
@@ -268,31 +291,33 @@ public class AnalysisDataspace
 		updateActiveCoordinateMatrix();
 		
 		// Update inactive values.
-		updateInactiveIndexSet(selectedIndices == null ? this.activeIndices : selectedIndices);
+		updateInactiveIndexSet();
 		updateInactiveDistanceMatrix();
 		updateInactiveLDAConfigurations();
 		updateInactiveCoordinateMatrix();
-		
-		// Update list of average distances.
-		averageDistances = calculateAverageDistances();
 	}
 	
 	/**
-	 * Updates set of active indices.
+	 * Updates set of active indices (in place).
 	 * @param selectedIndices
 	 */
 	private void updateActiveIndexSet(Set<Integer> selectedIndices)
 	{
-		this.activeIndices = createActiveIndexSet(this.availableIndices, selectedIndices);
+		if (selectedIndices != this.activeIndices) {
+			this.activeIndices.clear();
+			this.activeIndices.addAll(selectedIndices);
+		}
+		
+		this.activeIndices.retainAll(this.availableIndices);
 	}
 	
 	/**
-	 * Updates set of inactive indices.
-	 * @param selectedIndices
+	 * Updates set of inactive indices (in place). Requires updated set of active indices.
 	 */
-	private void updateInactiveIndexSet(Set<Integer> selectedIndices)
+	private void updateInactiveIndexSet()
 	{
-		this.inactiveIndices = createInactiveIndexSet(this.availableIndices, selectedIndices);
+		this.inactiveIndices.setTo(this.availableIndices);
+		this.inactiveIndices.removeAll(this.activeIndices);
 	}
 	
 	/**
@@ -301,9 +326,9 @@ public class AnalysisDataspace
 	 * @param selectedIndices
 	 * @return
 	 */
-	public Set<Integer> createActiveIndexSet(Set<Integer> availableIndices, Set<Integer> selectedIndices)
+	public IndexSet createActiveIndexSet(Set<Integer> availableIndices, Set<Integer> selectedIndices)
 	{
-		Set<Integer> activeIndices = new HashSet<Integer>(selectedIndices.size());
+		IndexSet activeIndices = new IndexSet(ldaConfigurations.size());
 		
 		for (int selectedIndex : selectedIndices) {
 			if (availableIndices.contains(selectedIndex)) {
@@ -320,10 +345,11 @@ public class AnalysisDataspace
 	 * @param selectedIndices
 	 * @return
 	 */
-	public Set<Integer> createInactiveIndexSet(Set<Integer> availableIndices, Set<Integer> selectedIndices)
+	public IndexSet createInactiveIndexSet(Set<Integer> availableIndices, Set<Integer> selectedIndices)
 	{
 		// Copy all available indices.
-		Set<Integer> inactiveIndices = new HashSet<Integer>(availableIndices);
+		IndexSet inactiveIndices = new IndexSet(ldaConfigurations.size());
+		inactiveIndices.addAll(availableIndices);
 		
 		// Remove all selected indices.
 		inactiveIndices.removeAll(selectedIndices);
@@ -347,9 +373,9 @@ public class AnalysisDataspace
 	 * @param availableIndices
 	 * @return
 	 */
-	public Set<Integer> createDiscardedIndexSet(Set<Integer> availableIndices)
+	public IndexSet createDiscardedIndexSet(Set<Integer> availableIndices)
 	{
-		Set<Integer> discardedIndices = new HashSet<Integer>();
+		IndexSet discardedIndices = new IndexSet(ldaConfigurations.size());
 		
 		for (int i = 0; i < ldaConfigurations.size(); i++) {
 			if (!availableIndices.contains(i))
@@ -363,7 +389,7 @@ public class AnalysisDataspace
 	 * Updates matrix of discarded coordinate.
 	 * @param discardedIndices
 	 */
-	private void updateDiscardedCoordinateMatrix(Set<Integer> discardedIndices)
+	private void updateDiscardedCoordinateMatrix(IndexSet discardedIndices)
 	{
 		this.discardedCoordinates = createCoordinateMatrix(discardedIndices);
 	}
@@ -387,11 +413,11 @@ public class AnalysisDataspace
 	 * @param indices
 	 * @return
 	 */
-	public ArrayList<LDAConfiguration> createLDAConfigurations(Set<Integer> indices)
+	public ArrayList<LDAConfiguration> createLDAConfigurations(IndexSet indices)
 	{
 		ArrayList<LDAConfiguration> ldaConfigurations = new ArrayList<LDAConfiguration>(indices.size());
 		
-		for (int index : indices) {
+		for (int index = indices.nextIndex(0); index >= 0; index = indices.nextIndex(index + 1)) {
 			ldaConfigurations.add(this.ldaConfigurations.get(index));
 		}
 		
@@ -402,7 +428,7 @@ public class AnalysisDataspace
 	 * Updates discarded LDA configuration set.
 	 * @param discardedIndices
 	 */
-	private void updateDiscardedLDAConfigurations(Set<Integer> discardedIndices)
+	private void updateDiscardedLDAConfigurations(IndexSet discardedIndices)
 	{
 		this.discardedLDAConfigurations = createLDAConfigurations(discardedIndices);
 	}
@@ -413,7 +439,7 @@ public class AnalysisDataspace
 	 */
 	private void updateInactiveDistanceMatrix()
 	{
-		this.inactiveDistances = createDistanceMatrix(this.inactiveIndices);
+		this.inactiveDistances.setIndices(this.inactiveIndices);
 	}
 	
 	/**
@@ -422,32 +448,17 @@ public class AnalysisDataspace
 	 */
 	private void updateActiveDistanceMatrix()
 	{
-		this.activeDistances = createDistanceMatrix(this.activeIndices);
+		this.activeDistances.setIndices(this.activeIndices);
 	}
 	
 	/**
-	 * Creates distance matrix out of sets of indices. 
-	 * @param availableIndices
+	 * Creates view on distance matrix out of sets of indices. No distances are copied.
 	 * @param indices
 	 * @return
 	 */
-	public double[][] createDistanceMatrix(Set<Integer> indices)
+	public DistanceMatrix createDistanceMatrix(Set<Integer> indices)
 	{
-		// Copy actual distance data in array.
-		double[][] distances = new double[indices.size()][indices.size()];
-		
-		int count = 0;
-		for (int index : indices) {
-			int innerCount = 0;
-			for (int innerIndex : indices) {
-				distances[count][innerCount] = this.distances[index][innerIndex];
-				innerCount++;
-			}
-			
-			count++;
-		}
-		
-		return distances;
+		return this.distances.view(indices);
 	}
 	
 	/**
@@ -502,12 +513,12 @@ public class AnalysisDataspace
 	 * @param indices
 	 * @return
 	 */
-	public double[][] createCoordinateMatrix(Set<Integer> indices)
+	public double[][] createCoordinateMatrix(IndexSet indices)
 	{
 		double[][] coordinates = new double[this.coordinates.length][indices.size()];
 		
 		int count = 0;
-		for (int index : indices) {
+		for (int index = indices.nextIndex(0); index >= 0; index = indices.nextIndex(index + 1)) {
 			// Copy MDS coordinates.
 			for (int column = 0; column < this.coordinates.length; column++) {
 				coordinates[column][count] = this.coordinates[column][index];
@@ -526,11 +537,11 @@ public class AnalysisDataspace
 	 */
 	private void updateDiscardedDistanceMatrix(Set<Integer> discardedIndices)
 	{
-		this.discardedDistances = createDistanceMatrix(discardedIndices);
+		this.discardedDistances.setIndices(discardedIndices);
 	}
 	
 	/**
-	 * Filter data using the given parameter thresholds.
+	 * Filter data using the given parameter thresholds. Only configurations crossing a changed threshold are updated.
 	 * @param parameterBoundaries
 	 */
 	public void filterIndices(final Map<String, Pair<Double, Double>> parameterBoundaries)
@@ -539,65 +550,19 @@ public class AnalysisDataspace
 		if (averageDistances == null)
 			averageDistances = calculateAverageDistances();
 		
-		// Iterate through all LDA configurations in workspace.
-		for (int i = 0; i < ldaConfigurations.size(); i++) {
-			LDAConfiguration ldaConfig			= ldaConfigurations.get(i);
-			boolean fitsBoundaries				= true;
-			
-			// Check if this particular LDA configuration is in bounds of all specified parameter thresholds.
-			for (Map.Entry<String, Pair<Double, Double>> entry : parameterBoundaries.entrySet()) {
-				double value	= -1;
-				
-				// If primitive attribute: Access value directly through LDA object.
-				if (LDAConfiguration.supports(entry.getKey())) {
-					value = ldaConfig.getParameter(entry.getKey());	
-				}
-				// Otherwise (derived attribute): Check parameter, get custom information.
-				else if (entry.getKey().equals("distance")) {
-					value = averageDistances[i];
-				}
-				
-				double min		= entry.getValue().getKey();
-				double max		= entry.getValue().getValue();
-				
-				// Exclude LDA configuration if limits are exceeded (except reference TM, which is always permitted).
-				if ( (value < min || value > max) && ldaConfig.getConfigurationID() != LDAConfiguration.REFERENCE_TOPICMODEL_CONFIGID) {
-					fitsBoundaries = false;
-					
-					// Stop loop.
-					break;
-				}
-			}
-			
-			// If in boundaries and not contained in selection:
-			if (fitsBoundaries) {
-				// Remove from set of discarded indices, if in there.
-				if (discardedIndices.contains(i))
-					discardedIndices.remove(i);
-				
-				// Add to set of filtered indices, if not already in there.
-				if (!availableIndices.contains(i))
-					availableIndices.add(i);
-			}
-			
-			// Else if not in boundaries and contained in selection:
-			else if (!fitsBoundaries) {
-				// Add to set of discarded indices, if not already in there.
-				if (!discardedIndices.contains(i))
-					discardedIndices.add(i);
-				
-				// Remove from set of filtered indices, if in there.
-				if (availableIndices.contains(i))
-					availableIndices.remove(i);
-			}
-		}
+		// Build sorted parameter indices once per set of data references.
+		if (parameterFilter == null)
+			parameterFilter = new IncrementalParameterFilter(ldaConfigurations, averageDistances, referenceTMIndex);
+		
+		// Apply thresholds. Sets of available and discarded indices are updated in place.
+		parameterFilter.setBoundaries(parameterBoundaries);
+		availableIndices	= parameterFilter.getAvailableIndices();
+		discardedIndices	= parameterFilter.getDiscardedIndices();
 		
-		// Determine set of discarded indices.
-		discardedIndices	= createDiscardedIndexSet(availableIndices);
 		// Determine set of active indices.
-		activeIndices		= createActiveIndexSet(availableIndices, activeIndices);
+		updateActiveIndexSet(activeIndices);
 		// Determine set of inactive indices.
-		inactiveIndices		= createInactiveIndexSet(availableIndices, activeIndices);
+		updateInactiveIndexSet();
 	}
 	
 	/**
@@ -610,30 +575,9 @@ public class AnalysisDataspace
 		 */
 		
 		// Use AnalysisController.filteredIndices to filter out data in desired parameter boundaries.
-		availableCoordinates		= new double[coordinates.length][availableIndices.size()];
-		availableDistances			= new double[availableIndices.size()][availableIndices.size()];
-		availableLDAConfigurations	= new ArrayList<LDAConfiguration>(availableIndices.size());
-		
-		// Copy data corresponding to chosen LDA configurations in new arrays.
-		int count = 0;
-		for (int filteredIndex : availableIndices) {
-			// Copy MDS coordinates.
-			for (int column = 0; column < coordinates.length; column++) {
-				availableCoordinates[column][count] = coordinates[column][filteredIndex];
-			}
-			
-			// Copy distances.
-			int innerCount = 0;
-			for (int filteredInnerIndex : availableIndices) {
-				availableDistances[count][innerCount] = distances[filteredIndex][filteredInnerIndex];
-				innerCount++;
-			}
-			
-			// Copy LDA configurations.
-			availableLDAConfigurations.add(ldaConfigurations.get(filteredIndex));
-			
-			count++;
-		}
+		availableCoordinates				= createCoordinateMatrix(availableIndices);
+		availableDistances.setIndices(availableIndices);
+		availableLDAConfigurations			= createLDAConfigurations(availableIndices);
 		
 		/*
 		 * Update data collections for discarded (not filtered) datasets. 
@@ -641,7 +585,7 @@ public class AnalysisDataspace
 
 		// Update set of discarded values.
 		discardedCoordinates				= createCoordinateMatrix(discardedIndices);
-		discardedDistances					= createDistanceMatrix(discardedIndices);
+		discardedDistances.setIndices(discardedIndices);
 		discardedLDAConfigurations			= createLDAConfigurations(discardedIndices);
 		
 		/*
@@ -650,15 +594,16 @@ public class AnalysisDataspace
 		
 		// Update set of active values.
 		activeCoordinates					= createCoordinateMatrix(activeIndices);
-		activeDistances						= createDistanceMatrix(activeIndices);
+		activeDistances.setIndices(activeIndices);
 		activeLDAConfigurations				= createLDAConfigurations(activeIndices);
 		// Update set of inactive values.		
 		inactiveCoordinates					= createCoordinateMatrix(inactiveIndices);
-		inactiveDistances					= createDistanceMatrix(inactiveIndices);
+		inactiveDistances.setIndices(inactiveIndices);
 		inactiveLDAConfigurations			= createLDAConfigurations(inactiveIndices);
 		
-		// Update list of average cohesive distances.
-		averageDistances					= calculateAverageDistances();
+		// Average cohesive distances don't depend on filter settings - calculate them only once per distance matrix.
+		if (averageDistances == null)
+			averageDistances				= calculateAverageDistances();
 	}
 	
 	/**
@@ -728,40 +673,25 @@ public class AnalysisDataspace
 	}
 	
 	/**
-	 * Calculates average cohesive distances within each data series (active, inactive, discarded).
+	 * Calculates average distance of each dataset to all other datasets.
 	 * @return
 	 */
 	private double[] calculateAverageDistances()
 	{
-		double[] averageDistances = new double[ldaConfigurations.size()];
+		final int n					= distances.size();
+		double[] averageDistances	= new double[ldaConfigurations.size()];
 		
-		// Calculate distances of active datasets.
-		for (int i : activeIndices) {
-			double distanceSum = 0;
-			for (int j = 0; j < distances.length; j++) {
-				distanceSum += distances[i][j];
+		// Each distance is read once and added to the sums of both datasets.
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				final double distance	= distances.get(i, j);
+				averageDistances[i]		+= distance;
+				averageDistances[j]		+= distance;
 			}
-			averageDistances[i] = distanceSum / (distances.length - 1);
-		}
-		
-		// Calculate distances of inactive datasets.
-		for (int i : inactiveIndices) {
-			double distanceSum = 0;
-			for (int j = 0; j < distances.length; j++) {
-				distanceSum += distances[i][j];
-			}
-			averageDistances[i] = distanceSum / (distances.length - 1);
+			
+			averageDistances[i] /= (n - 1);
 		}
 		
-		// Calculate distances of discarded datasets.
-		for (int i : discardedIndices) {
-			double distanceSum = 0;
-			for (int j = 0; j < distances.length; j++) {
-				distanceSum += distances[i][j];
-			}
-			averageDistances[i] = distanceSum / (distances.length - 1);
-		}		
-		
 		return averageDistances;
 	}
 	
@@ -779,7 +709,7 @@ public class AnalysisDataspace
 		return coordinates;
 	}
 
-	public double[][] getDistances()
+	public DistanceMatrix getDistances()
 	{
 		return distances;
 	}
@@ -789,7 +719,7 @@ public class AnalysisDataspace
 		return ldaConfigurations;
 	}
 
-	public Set<Integer> getInactiveIndices()
+	public IndexSet getInactiveIndices()
 	{
 		return availableIndices;
 	}
@@ -799,7 +729,7 @@ public class AnalysisDataspace
 		return availableCoordinates;
 	}
 
-	public double[][] getAvaibleDistances()
+	public DistanceMatrix getAvaibleDistances()
 	{
 		return availableDistances;
 	}
@@ -809,7 +739,7 @@ public class AnalysisDataspace
 		return availableLDAConfigurations;
 	}
 
-	public Set<Integer> getDiscardedIndices()
+	public IndexSet getDiscardedIndices()
 	{
 		return discardedIndices;
 	}
@@ -819,7 +749,7 @@ public class AnalysisDataspace
 		return discardedCoordinates;
 	}
 
-	public double[][] getDiscardedDistances()
+	public DistanceMatrix getDiscardedDistances()
 	{
 		return discardedDistances;
 	}
@@ -829,17 +759,17 @@ public class AnalysisDataspace
 		return discardedLDAConfigurations;
 	}
 
-	public Set<Integer> getActiveIndices()
+	public IndexSet getActiveIndices()
 	{
 		return activeIndices;
 	}
 
-	public double[][] getActiveDistances()
+	public DistanceMatrix getActiveDistances()
 	{
 		return activeDistances;
 	}
 
-	public double[][] getInactiveDistances()
+	public DistanceMatrix getInactiveDistances()
 	{
 		return inactiveDistances;
 	}
@@ -19,16 +19,34 @@ public class KeywordContext
 	private SimpleStringProperty documentTitle;
 	private SimpleStringProperty originalAbstract;
 	private SimpleStringProperty refinedAbstract;
+	/**
+	 * Keyword's context in original and refined abstract (as extracted by full-text index).
+	 */
+	private String originalAbstractContext;
+	private String refinedAbstractContext;
+	/**
+	 * Lower case title and abstracts. Used for filtering by term; created on first use.
+	 */
+	private String searchableText;
 	
 	public KeywordContext(int documentID, String keyword, String keywordsContent, int documentRank, String documentTitle, int occurenceCount, String originalAbstract, String refinedAbstract)
 	{
-		this.documentID 		= documentID;
-		this.activeKeyword 			= keyword;
-		this.occurenceCount		= occurenceCount;
-		this.documentRank		= new SimpleIntegerProperty(documentRank);
-		this.documentTitle 		= new SimpleStringProperty(documentTitle);
-		this.originalAbstract 	= new SimpleStringProperty(originalAbstract);
-		this.refinedAbstract 	= new SimpleStringProperty(refinedAbstract);
+		this(documentID, keyword, keywordsContent, documentRank, documentTitle, occurenceCount, originalAbstract, refinedAbstract, "", "");
+	}
+	
+	public KeywordContext(	int documentID, String keyword, String keywordsContent, int documentRank, String documentTitle, int occurenceCount, String originalAbstract, String refinedAbstract,
+							String originalAbstractContext, String refinedAbstractContext)
+	{
+		this.documentID 				= documentID;
+		this.activeKeyword 				= keyword;
+		this.keywords					= keywordsContent;
+		this.occurenceCount				= occurenceCount;
+		this.documentRank				= new SimpleIntegerProperty(documentRank);
+		this.documentTitle 				= new SimpleStringProperty(documentTitle);
+		this.originalAbstract 			= new SimpleStringProperty(originalAbstract);
+		this.refinedAbstract 			= new SimpleStringProperty(refinedAbstract);
+		this.originalAbstractContext	= originalAbstractContext;
+		this.refinedAbstractContext		= refinedAbstractContext;
 	}
 
 	public int getDocumentID()
@@ -68,121 +86,82 @@ public class KeywordContext
 	
 	public void setOriginalAbstract(SimpleStringProperty originalAbstract)
 	{
-		this.originalAbstract = originalAbstract;
+		this.originalAbstract	= originalAbstract;
+		this.searchableText		= null;
 	}
 
 	public void setRefinedAbstract(SimpleStringProperty refinedAbstract)
 	{
-		this.refinedAbstract = refinedAbstract;
-	}
-
-	public String getDocumentTitle()
-	{
-		return documentTitle.get();
+		this.refinedAbstract	= refinedAbstract;
+		this.searchableText		= null;
 	}
 	
-	/**
-	 * Determines whether instance contains specified string in one of it's attributes.
-	 * @param term
-	 * @return
-	 */
-	public boolean containsTerm(final String term)
+	public String getOriginalAbstractContext()
 	{
-		return 	term == null														||
-				documentTitle.get().toLowerCase().contains(term.toLowerCase()) 		||
-				originalAbstract.get().toLowerCase().contains(term.toLowerCase())	||
-				refinedAbstract.get().toLowerCase().contains(term.toLowerCase())	||
-				String.valueOf((documentRank.get())).toLowerCase().contains(term.toLowerCase());
-			
+		return originalAbstractContext;
 	}
 	
-	/**
-	 * Count occurences of all terms in all fields.
-	 * @param term
-	 * @return
-	 */
-	public int countTermOccurances(final String term)
+	public String getRefinedAbstractContext()
 	{
-		this.occurenceCount = 	getTermOccurenceInTitle(term) +
-								getTermOccurenceInKeywords(term) + 
-								getTermOccurenceInOriginalAbstract(term) + 
-								getTermOccurenceInRefinedAbstract(term);
-		
-		return this.occurenceCount;
+		return refinedAbstractContext;
 	}
 	
-	/**
-	 * Determine number of search term's occurences in title. 
-	 * @param term
-	 * @return
-	 */
-	private int getTermOccurenceInTitle(final String term)
+	public String getDocumentTitle()
 	{
-		int count 		= 0;
-		int currIndex	= 0;
-		
-		if (documentTitle != null && documentTitle.get() != null && term != null) {
-			while ( (currIndex = documentTitle.get().toLowerCase().indexOf(term.toLowerCase(), currIndex)) >= 0 ) {
-				count++;
-				currIndex++;
-			}
-		}
-		
-		return count;
+		return documentTitle.get();
 	}
 	
 	/**
-	 * Determine number of search term's occurences in keywords. 
+	 * Determines whether instance contains specified string in one of it's attributes.
 	 * @param term
 	 * @return
 	 */
-	private int getTermOccurenceInKeywords(final String term)
+	public boolean containsTerm(final String term)
 	{
-		int count 		= 0;
-		int currIndex	= 0;
+		if (term == null)
+			return true;
 		
-		if (keywords != null && term != null) {
-			while ( (currIndex = keywords.toLowerCase().indexOf(term.toLowerCase(), currIndex)) >= 0 ) {
-				count++;
-				currIndex++;
-			}
-		}
+		if (searchableText == null)
+			searchableText = (documentTitle.get() + "\n" + originalAbstract.get() + "\n" + refinedAbstract.get()).toLowerCase();
 		
-		return count;
+		final String lowerCaseTerm = term.toLowerCase();
+		
+		return 	searchableText.contains(lowerCaseTerm) ||
+				String.valueOf((documentRank.get())).contains(lowerCaseTerm);
 	}
 	
 	/**
-	 * Determine number of search term's occurences in refined abstract. 
+	 * Count occurences of all terms in all fields.
 	 * @param term
 	 * @return
 	 */
-	private int getTermOccurenceInRefinedAbstract(final String term)
+	public int countTermOccurances(final String term)
 	{
-		int count 		= 0;
-		int currIndex	= 0;
+		final String lowerCaseTerm = term != null ? term.toLowerCase() : null;
 		
-		if (refinedAbstract != null && refinedAbstract.get() != null && term != null) {
-			while ( (currIndex = refinedAbstract.get().toLowerCase().indexOf(term.toLowerCase(), currIndex)) >= 0 ) {
-				count++;
-				currIndex++;
-			}
-		}
+		this.occurenceCount = 	countTermOccurences(documentTitle.get(), lowerCaseTerm) +
+								countTermOccurences(keywords, lowerCaseTerm) + 
+								countTermOccurences(originalAbstract.get(), lowerCaseTerm) + 
+								countTermOccurences(refinedAbstract.get(), lowerCaseTerm);
 		
-		return count;
+		return this.occurenceCount;
 	}
 	
 	/**
-	 * Determine number of search term's occurences in original abstract. 
-	 * @param term
+	 * Determine number of search term's occurences in text. 
+	 * @param text
+	 * @param lowerCaseTerm
 	 * @return
 	 */
-	private int getTermOccurenceInOriginalAbstract(final String term)
+	private static int countTermOccurences(final String text, final String lowerCaseTerm)
 	{
 		int count 		= 0;
 		int currIndex	= 0;
 		
-		if (originalAbstract != null && originalAbstract.get() != null && term != null) {
-			while ( (currIndex = originalAbstract.get().toLowerCase().indexOf(term.toLowerCase(), currIndex)) >= 0 ) {
+		if (text != null && lowerCaseTerm != null && !lowerCaseTerm.isEmpty()) {
+			final String lowerCaseText = text.toLowerCase();
+			
+			while ( (currIndex = lowerCaseText.indexOf(lowerCaseTerm, currIndex)) >= 0 ) {
 				count++;
 				currIndex++;
 			}
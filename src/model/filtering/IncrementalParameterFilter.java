@@ -0,0 +1,281 @@
+package model.filtering;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import javafx.util.Pair;
+import model.LDAConfiguration;
+
+/**
+ * Filters LDA configurations by thresholds on their parameters (alpha, eta, kappa) and on
+ * derived attributes (average distance). Keeps one index per attribute, sorted by value, so
+ * that changing a threshold only touches the configurations crossing the old or new boundary
+ * (found via binary search) instead of re-evaluating all configurations.
+ * @author RM
+ *
+ */
+public class IncrementalParameterFilter
+{
+	/**
+	 * Sorted indices per attribute.
+	 */
+	private Map<String, SortedAttributeIndex> attributeIndices;
+	/**
+	 * Number of attributes for which each configuration is currently out of bounds.
+	 * A configuration is available if this number is 0.
+	 */
+	private int[] numberOfViolatedBoundaries;
+	/**
+	 * Index of the reference topic model, which is never discarded. -1 if there is none.
+	 */
+	private int referenceTMIndex;
+	/**
+	 * Indices of configurations in bounds of all thresholds.
+	 */
+	private IndexSet availableIndices;
+	/**
+	 * Indices of configurations exceeding at least one threshold.
+	 */
+	private IndexSet discardedIndices;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	/**
+	 * Creates filter without any thresholds, i.e. with all configurations being available.
+	 * @param ldaConfigurations
+	 * @param averageDistances Average distance of each dataset to all others (derived attribute "distance"). May be null.
+	 * @param referenceTMIndex Index of reference topic model (always available); -1 if there is none.
+	 */
+	public IncrementalParameterFilter(final ArrayList<LDAConfiguration> ldaConfigurations, final double[] averageDistances, final int referenceTMIndex)
+	{
+		final int n						= ldaConfigurations.size();
+		this.referenceTMIndex			= referenceTMIndex;
+		this.numberOfViolatedBoundaries	= new int[n];
+		this.attributeIndices			= new HashMap<String, SortedAttributeIndex>();
+		this.availableIndices			= new IndexSet(n);
+		this.discardedIndices			= new IndexSet(n);
+		
+		// Index primitive attributes.
+		for (String param : LDAConfiguration.SUPPORTED_PARAMETERS) {
+			double[] values = new double[n];
+			for (int i = 0; i < n; i++) {
+				values[i] = ldaConfigurations.get(i).getParameter(param);
+			}
+			
+			attributeIndices.put(param, new SortedAttributeIndex(values));
+		}
+		
+		// Index derived attributes.
+		if (averageDistances != null)
+			attributeIndices.put("distance", new SortedAttributeIndex(averageDistances));
+		
+		for (int i = 0; i < n; i++) {
+			availableIndices.add(i);
+		}
+	}
+	
+	/**
+	 * Applies thresholds. Attributes not contained in the map keep their current thresholds.
+	 * @param parameterBoundaries Map of attribute to (min, max); unknown attributes are ignored.
+	 * @return Number of configurations whose availability has changed.
+	 */
+	public int setBoundaries(final Map<String, Pair<Double, Double>> parameterBoundaries)
+	{
+		int numberOfChanges = 0;
+		
+		for (Map.Entry<String, Pair<Double, Double>> entry : parameterBoundaries.entrySet()) {
+			numberOfChanges += setBoundaries(entry.getKey(), entry.getValue().getKey(), entry.getValue().getValue());
+		}
+		
+		return numberOfChanges;
+	}
+	
+	/**
+	 * Applies threshold for one attribute. Only configurations between the old and the new boundaries are updated.
+	 * @param attribute
+	 * @param min
+	 * @param max
+	 * @return Number of configurations whose availability has changed.
+	 */
+	public int setBoundaries(final String attribute, final double min, final double max)
+	{
+		SortedAttributeIndex index = attributeIndices.get(attribute);
+		if (index == null)
+			return 0;
+		
+		// Determine new range [from, to) of in-bound positions in sorted order.
+		final int newFrom	= index.lowerBound(min);
+		final int newTo		= Math.max(newFrom, index.upperBound(max));
+		final int oldFrom	= index.from;
+		final int oldTo		= index.to;
+		
+		// Positions changing their state lie between the old and new lower and upper boundaries.
+		int numberOfChanges	= 0;
+		final int lowerEnd	= Math.max(oldFrom, newFrom);
+		for (int position = Math.min(oldFrom, newFrom); position < lowerEnd; position++) {
+			numberOfChanges += updatePosition(index, position, oldFrom, oldTo, newFrom, newTo);
+		}
+		// Skip positions already processed (if old and new range don't overlap).
+		for (int position = Math.max(Math.min(oldTo, newTo), lowerEnd); position < Math.max(oldTo, newTo); position++) {
+			numberOfChanges += updatePosition(index, position, oldFrom, oldTo, newFrom, newTo);
+		}
+		
+		index.from	= newFrom;
+		index.to	= newTo;
+		
+		return numberOfChanges;
+	}
+	
+	/**
+	 * Updates violation counter and availability of configuration at specified position in sorted index.
+	 * @return 1 if availability has changed, otherwise 0.
+	 */
+	private int updatePosition(final SortedAttributeIndex index, final int position, final int oldFrom, final int oldTo, final int newFrom, final int newTo)
+	{
+		final boolean wasInBounds	= position >= oldFrom && position < oldTo;
+		final boolean isInBounds	= position >= newFrom && position < newTo;
+		
+		if (wasInBounds == isInBounds)
+			return 0;
+		
+		final int configIndex = index.order[position];
+		numberOfViolatedBoundaries[configIndex] += isInBounds ? -1 : 1;
+		
+		// Reference TM is always permitted.
+		if (configIndex == referenceTMIndex)
+			return 0;
+		
+		if (numberOfViolatedBoundaries[configIndex] == 0) {
+			availableIndices.add(configIndex);
+			discardedIndices.remove(configIndex);
+			
+			return 1;
+		}
+		
+		else if (numberOfViolatedBoundaries[configIndex] == 1 && !isInBounds) {
+			availableIndices.remove(configIndex);
+			discardedIndices.add(configIndex);
+			
+			return 1;
+		}
+		
+		return 0;
+	}
+	
+	/**
+	 * @return Indices of configurations in bounds of all thresholds. Updated in place.
+	 */
+	public IndexSet getAvailableIndices()
+	{
+		return availableIndices;
+	}
+	
+	/**
+	 * @return Indices of configurations exceeding at least one threshold. Updated in place.
+	 */
+	public IndexSet getDiscardedIndices()
+	{
+		return discardedIndices;
+	}
+	
+	// -----------------------------------------------
+	// 				Sorted attribute index
+	// -----------------------------------------------
+	
+	/**
+	 * Configuration indices sorted by the value of one attribute, plus the range of
+	 * positions currently in bounds of the attribute's threshold.
+	 */
+	private static class SortedAttributeIndex
+	{
+		/**
+		 * Configuration indices, sorted by value.
+		 */
+		final int[] order;
+		/**
+		 * Sorted values; values[i] belongs to configuration order[i].
+		 */
+		final double[] values;
+		/**
+		 * First position in bounds.
+		 */
+		int from;
+		/**
+		 * Position after the last one in bounds.
+		 */
+		int to;
+		
+		SortedAttributeIndex(final double[] unsortedValues)
+		{
+			final int n				= unsortedValues.length;
+			Integer[] sortedOrder	= new Integer[n];
+			for (int i = 0; i < n; i++) {
+				sortedOrder[i] = i;
+			}
+			
+			Arrays.sort(sortedOrder, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer i1, Integer i2)
+				{
+					return Double.compare(unsortedValues[i1], unsortedValues[i2]);
+				}
+			});
+			
+			order	= new int[n];
+			values	= new double[n];
+			for (int i = 0; i < n; i++) {
+				order[i]	= sortedOrder[i];
+				values[i]	= unsortedValues[order[i]];
+			}
+			
+			// Initially, there is no threshold.
+			from	= 0;
+			to		= n;
+		}
+		
+		/**
+		 * @param min
+		 * @return First position with value >= min.
+		 */
+		int lowerBound(final double min)
+		{
+			int low		= 0;
+			int high	= values.length;
+			
+			while (low < high) {
+				final int mid = (low + high) >>> 1;
+				if (values[mid] < min)
+					low		= mid + 1;
+				else
+					high	= mid;
+			}
+			
+			return low;
+		}
+		
+		/**
+		 * @param max
+		 * @return First position with value > max.
+		 */
+		int upperBound(final double max)
+		{
+			int low		= 0;
+			int high	= values.length;
+			
+			while (low < high) {
+				final int mid = (low + high) >>> 1;
+				if (values[mid] <= max)
+					low		= mid + 1;
+				else
+					high	= mid;
+			}
+			
+			return low;
+		}
+	}
+}
@@ -0,0 +1,220 @@
+package model.filtering;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Set of (non-negative) dataset indices backed by a BitSet. Iterates in ascending order.
+ * Can be handed to all components expecting a Set<Integer>; set operations between two
+ * IndexSets work on the bits directly and don't allocate.
+ * @author RM
+ *
+ */
+public class IndexSet extends AbstractSet<Integer>
+{
+	/**
+	 * Bit i is set if index i is contained.
+	 */
+	private final BitSet bits;
+	/**
+	 * Number of contained indices (cached cardinality of bits).
+	 */
+	private int size;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	public IndexSet()
+	{
+		this(64);
+	}
+	
+	/**
+	 * @param capacity Expected max. index + 1.
+	 */
+	public IndexSet(final int capacity)
+	{
+		bits = new BitSet(capacity);
+		size = 0;
+	}
+	
+	/**
+	 * @param index
+	 * @return true if index is contained.
+	 */
+	public boolean contains(final int index)
+	{
+		return index >= 0 && bits.get(index);
+	}
+	
+	/**
+	 * @param index
+	 * @return true if index was not contained yet.
+	 */
+	public boolean add(final int index)
+	{
+		if (bits.get(index))
+			return false;
+		
+		bits.set(index);
+		size++;
+		
+		return true;
+	}
+	
+	/**
+	 * @param index
+	 * @return true if index was contained.
+	 */
+	public boolean remove(final int index)
+	{
+		if (!contains(index))
+			return false;
+		
+		bits.clear(index);
+		size--;
+		
+		return true;
+	}
+	
+	/**
+	 * @param fromIndex
+	 * @return Smallest contained index >= fromIndex; -1 if there is none.
+	 * Use for iterating without boxing: for (int i = set.nextIndex(0); i >= 0; i = set.nextIndex(i + 1)).
+	 */
+	public int nextIndex(final int fromIndex)
+	{
+		return bits.nextSetBit(fromIndex);
+	}
+	
+	/**
+	 * Replaces content of this set with the content of the specified set.
+	 * @param source
+	 */
+	public void setTo(final IndexSet source)
+	{
+		if (source == this)
+			return;
+		
+		bits.clear();
+		bits.or(source.bits);
+		size = source.size;
+	}
+	
+	@Override
+	public boolean contains(final Object o)
+	{
+		return o instanceof Integer && contains(((Integer)o).intValue());
+	}
+	
+	@Override
+	public boolean add(final Integer index)
+	{
+		return add(index.intValue());
+	}
+	
+	@Override
+	public boolean remove(final Object o)
+	{
+		return o instanceof Integer && remove(((Integer)o).intValue());
+	}
+	
+	@Override
+	public boolean addAll(final Collection<? extends Integer> c)
+	{
+		if (!(c instanceof IndexSet))
+			return super.addAll(c);
+		
+		bits.or(((IndexSet)c).bits);
+		
+		return updateSize();
+	}
+	
+	@Override
+	public boolean retainAll(final Collection<?> c)
+	{
+		if (!(c instanceof IndexSet))
+			return super.retainAll(c);
+		
+		bits.and(((IndexSet)c).bits);
+		
+		return updateSize();
+	}
+	
+	@Override
+	public boolean removeAll(final Collection<?> c)
+	{
+		if (!(c instanceof IndexSet))
+			return super.removeAll(c);
+		
+		bits.andNot(((IndexSet)c).bits);
+		
+		return updateSize();
+	}
+	
+	/**
+	 * Updates cached size after a bulk operation.
+	 * @return true if size has changed.
+	 */
+	private boolean updateSize()
+	{
+		final int previousSize	= size;
+		size					= bits.cardinality();
+		
+		return size != previousSize;
+	}
+	
+	@Override
+	public void clear()
+	{
+		bits.clear();
+		size = 0;
+	}
+	
+	@Override
+	public int size()
+	{
+		return size;
+	}
+	
+	@Override
+	public Iterator<Integer> iterator()
+	{
+		return new Iterator<Integer>() {
+			private int next	= bits.nextSetBit(0);
+			private int current	= -1;
+			
+			@Override
+			public boolean hasNext()
+			{
+				return next >= 0;
+			}
+			
+			@Override
+			public Integer next()
+			{
+				if (next < 0)
+					throw new NoSuchElementException();
+				
+				current	= next;
+				next	= bits.nextSetBit(next + 1);
+				
+				return current;
+			}
+			
+			@Override
+			public void remove()
+			{
+				if (current < 0)
+					throw new IllegalStateException();
+				
+				IndexSet.this.remove(current);
+				current = -1;
+			}
+		};
+	}
+}
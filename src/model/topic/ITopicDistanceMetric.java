@@ -0,0 +1,31 @@
+package model.topic;
+
+/**
+ * Distance metric between two topics. Implementations are registered in and obtained from {@link TopicDistanceMetrics},
+ * keyed by {@link TopicDistance}.
+ * @author RM
+ *
+ */
+public interface ITopicDistanceMetric
+{
+	/**
+	 * @return Key of this metric.
+	 */
+	public TopicDistance getType();
+	
+	/**
+	 * Calculates distance between two dense probability vectors sharing one {@link KeywordDictionary}.
+	 * @param p
+	 * @param q
+	 * @return
+	 */
+	public double calculateDistance(float[] p, float[] q);
+	
+	/**
+	 * Calculates distance between two topics (dense or map-based).
+	 * @param topic1
+	 * @param topic2
+	 * @return
+	 */
+	public double calculateDistance(Topic topic1, Topic topic2);
+}
@@ -0,0 +1,95 @@
+package model.topic;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Global keyword dictionary shared by all (dense) topics of a workspace.
+ * Translates keyword IDs (as used in the database) and keyword strings to
+ * column indices in the topics' probability vectors.
+ * @author RM
+ *
+ */
+public class KeywordDictionary
+{
+	/**
+	 * Keyword strings, ordered by column.
+	 */
+	private String[] keywords;
+	/**
+	 * Translates keyword IDs to columns. Contains -1 for unknown IDs.
+	 */
+	private int[] columnsByKeywordID;
+	/**
+	 * Translates keyword strings to columns.
+	 */
+	private Map<String, Integer> columnsByKeyword;
+	
+	// ---------------------------------------------------
+	//						Methods
+	// ---------------------------------------------------
+	
+	/**
+	 * Creates dictionary. Column i is assigned to keywordIDs[i]/keywords[i].
+	 * @param keywordIDs
+	 * @param keywords
+	 */
+	public KeywordDictionary(final int[] keywordIDs, final String[] keywords)
+	{
+		this.keywords			= keywords;
+		this.columnsByKeyword	= new HashMap<String, Integer>(keywords.length * 2);
+		
+		// Determine highest keyword ID to allocate ID-to-column translation array.
+		int maxKeywordID = -1;
+		for (int keywordID : keywordIDs) {
+			maxKeywordID = keywordID > maxKeywordID ? keywordID : maxKeywordID;
+		}
+		
+		columnsByKeywordID = new int[maxKeywordID + 1];
+		Arrays.fill(columnsByKeywordID, -1);
+		
+		// Fill translation collections.
+		for (int column = 0; column < keywordIDs.length; column++) {
+			columnsByKeywordID[keywordIDs[column]] = column;
+			columnsByKeyword.put(keywords[column], column);
+		}
+	}
+	
+	/**
+	 * @return Number of keywords (i.e. length of probability vectors) in this dictionary.
+	 */
+	public int size()
+	{
+		return keywords.length;
+	}
+	
+	/**
+	 * @param keywordID
+	 * @return Column for specified keyword ID; -1 if keyword ID is not known.
+	 */
+	public int getColumn(final int keywordID)
+	{
+		return keywordID >= 0 && keywordID < columnsByKeywordID.length ? columnsByKeywordID[keywordID] : -1;
+	}
+	
+	/**
+	 * @param keyword
+	 * @return Column for specified keyword; -1 if keyword is not known.
+	 */
+	public int getColumn(final String keyword)
+	{
+		Integer column = columnsByKeyword.get(keyword);
+		
+		return column != null ? column : -1;
+	}
+	
+	/**
+	 * @param column
+	 * @return Keyword in specified column.
+	 */
+	public String getKeyword(final int column)
+	{
+		return keywords[column];
+	}
+}
@@ -0,0 +1,288 @@
+package model.topic;
+
+/**
+ * Approximate topic distances between two {@link SparseTopicVector}s sharing one {@link KeywordDictionary}.
+ * Retained keywords are merged by column; keywords omitted by one or both vectors are estimated by assuming
+ * that the residual mass is distributed uniformly over the omitted keywords.
+ * Each kernel optionally reports the interval the exact distance is guaranteed to lie in, derived from
+ * the residual mass and the fact that no omitted probability exceeds the smallest retained one.
+ * Accuracy depends on the shape of the omitted tail: For tails close to uniform (e.g. smoothed topic-keyword
+ * distributions), deviations at 99.9% retained mass are in the order of 1e-3 for the Bhattacharyya distance
+ * and 1e-4 for the Hellinger distance and the Jensen-Shannon divergence. For tails concentrated on few keywords, 
+ * the estimate overrates the overlap of dissimilar topics, whose Bhattacharyya distance may then be underestimated by up to 0.3 bits.
+ * Supports Bhattacharyya, Hellinger and Jensen-Shannon.
+ * @author RM
+ *
+ */
+public final class SparseTopicDistanceKernels
+{
+	private SparseTopicDistanceKernels()
+	{
+	}
+	
+	/**
+	 * @param type
+	 * @return True if the specified metric can be approximated based on sparse vectors.
+	 */
+	public static boolean isSupported(final TopicDistance type)
+	{
+		return type == TopicDistance.Bhattacharyya || type == TopicDistance.Hellinger || type == TopicDistance.JensenShannon;
+	}
+	
+	/**
+	 * @param types
+	 * @return True if all specified metrics can be approximated based on sparse vectors.
+	 */
+	public static boolean isSupported(final TopicDistance[] types)
+	{
+		for (TopicDistance type : types) {
+			if (!isSupported(type))
+				return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Approximates distance between p and q using the specified metric.
+	 * @param p
+	 * @param q
+	 * @param type
+	 * @param bounds Receives lower (index 0) and upper bound (index 1) of the exact distance. May be null.
+	 * @return Estimated distance.
+	 */
+	public static double calculateDistance(final SparseTopicVector p, final SparseTopicVector q, final TopicDistance type, final double[] bounds)
+	{
+		switch (type) {
+			case Hellinger:
+				return hellinger(p, q, bounds);
+			
+			case Bhattacharyya:
+				return bhattacharyya(p, q, bounds);
+			
+			case JensenShannon:
+				return jensenShannon(p, q, bounds);
+			
+			default:
+				throw new IllegalArgumentException("Topic distance " + type + " can't be approximated with sparse topics.");
+		}
+	}
+	
+	/**
+	 * Approximates Bhattacharyya distance -log_2(sum(sqrt(p_i * q_i))).
+	 * @param p
+	 * @param q
+	 * @param bounds Receives lower (index 0) and upper bound (index 1) of the exact distance. May be null.
+	 * @return Estimated distance.
+	 */
+	public static double bhattacharyya(final SparseTopicVector p, final SparseTopicVector q, final double[] bounds)
+	{
+		final double[] coefficientBounds	= new double[2];
+		final double coefficient			= bhattacharyyaCoefficient(p, q, coefficientBounds);
+		
+		// Distance decreases with growing coefficient.
+		if (bounds != null) {
+			bounds[0] = (Math.log(coefficientBounds[1]) / TopicDistanceKernels.log2) * (-1);
+			bounds[1] = (Math.log(coefficientBounds[0]) / TopicDistanceKernels.log2) * (-1);
+		}
+		
+		return (Math.log(coefficient) / TopicDistanceKernels.log2) * (-1);
+	}
+	
+	/**
+	 * Approximates Hellinger distance sum((sqrt(p_i) - sqrt(q_i))^2) / sqrt(2), which equals
+	 * (sum(p_i) + sum(q_i) - 2 * sum(sqrt(p_i * q_i))) / sqrt(2).
+	 * @param p
+	 * @param q
+	 * @param bounds Receives lower (index 0) and upper bound (index 1) of the exact distance. May be null.
+	 * @return Estimated distance.
+	 */
+	public static double hellinger(final SparseTopicVector p, final SparseTopicVector q, final double[] bounds)
+	{
+		final double[] coefficientBounds	= new double[2];
+		final double coefficient			= bhattacharyyaCoefficient(p, q, coefficientBounds);
+		final double totalMass				= p.getTotalMass() + q.getTotalMass();
+		
+		if (bounds != null) {
+			bounds[0] = Math.max(totalMass - 2 * coefficientBounds[1], 0) / Math.sqrt(2);
+			bounds[1] = Math.max(totalMass - 2 * coefficientBounds[0], 0) / Math.sqrt(2);
+		}
+		
+		return Math.max(totalMass - 2 * coefficient, 0) / Math.sqrt(2);
+	}
+	
+	/**
+	 * Approximates Jensen-Shannon divergence as sum of the per-keyword terms
+	 * 0.5 * (p_i * log_2(p_i) + q_i * log_2(q_i)) - m_i * log_2(m_i) with m_i = (p_i + q_i) / 2.
+	 * Requires one logarithm per merged keyword (for the mixture term); bounds require two more per keyword retained by one vector only.
+	 * @param p
+	 * @param q
+	 * @param bounds Receives lower (index 0) and upper bound (index 1) of the exact distance. May be null.
+	 * @return Estimated distance.
+	 */
+	public static double jensenShannon(final SparseTopicVector p, final SparseTopicVector q, final double[] bounds)
+	{
+		final int[] columns_p		= p.getColumns();
+		final int[] columns_q		= q.getColumns();
+		final float[] p_i			= p.getProbabilities();
+		final float[] q_i			= q.getProbabilities();
+		final float[] entropy_p		= p.getEntropyTerms();
+		final float[] entropy_q		= q.getEntropyTerms();
+		final double average_p		= p.getAverageResidualProbability();
+		final double average_q		= q.getAverageResidualProbability();
+		final double minimal_p		= p.getMinimalProbability();
+		final double minimal_q		= q.getMinimalProbability();
+		final boolean useBounds		= bounds != null;
+		
+		// Sum of 0.5 * p_i * log_2(p_i) + 0.5 * q_i * log_2(q_i) resp. of m_i * ln(m_i) over merged keywords.
+		double entropySum			= 0;
+		double mixtureSum			= 0;
+		// Deviation of bounds from estimate for keywords retained by one vector only.
+		double lowerBoundDeviation	= 0;
+		double upperBoundDeviation	= 0;
+		// Number of keywords retained by at least one vector.
+		int numberOfMergedKeywords	= 0;
+		int i = 0, j = 0;
+		
+		while (i < columns_p.length || j < columns_q.length) {
+			final int column_p = i < columns_p.length ? columns_p[i] : Integer.MAX_VALUE;
+			final int column_q = j < columns_q.length ? columns_q[j] : Integer.MAX_VALUE;
+			
+			// Retained by both: Exact.
+			if (column_p == column_q) {
+				final double m_i	= ((double)p_i[i] + q_i[j]) / 2;
+				entropySum			+= 0.5 * ((double)entropy_p[i++] + entropy_q[j++]);
+				mixtureSum			+= m_i * Math.log(m_i);
+			}
+			
+			// Retained by p only: Estimate q_i by average of q's residual bucket. 
+			else if (column_p < column_q) {
+				final double m_i	= (p_i[i] + average_q) / 2;
+				entropySum			+= 0.5 * entropy_p[i];
+				mixtureSum			+= m_i * Math.log(m_i);
+				
+				// Exact q_i is in [0, minimal_q]. Term is convex in q_i, i.e. maximal at an end of the interval
+				// and minimal at q_i = p_i (or the end of the interval closest to it).
+				if (useBounds) {
+					final double estimate	= jensenShannonTerm(p_i[i], average_q);
+					lowerBoundDeviation		+= jensenShannonTerm(p_i[i], Math.min(p_i[i], minimal_q)) - estimate;
+					upperBoundDeviation		+= Math.max(jensenShannonTerm(p_i[i], 0), jensenShannonTerm(p_i[i], minimal_q)) - estimate;
+				}
+				
+				i++;
+			}
+			
+			// Retained by q only.
+			else {
+				final double m_i	= (average_p + q_i[j]) / 2;
+				entropySum			+= 0.5 * entropy_q[j];
+				mixtureSum			+= m_i * Math.log(m_i);
+				
+				if (useBounds) {
+					final double estimate	= jensenShannonTerm(average_p, q_i[j]);
+					lowerBoundDeviation		+= jensenShannonTerm(Math.min(q_i[j], minimal_p), q_i[j]) - estimate;
+					upperBoundDeviation		+= Math.max(jensenShannonTerm(0, q_i[j]), jensenShannonTerm(minimal_p, q_i[j])) - estimate;
+				}
+				
+				j++;
+			}
+			
+			numberOfMergedKeywords++;
+		}
+		
+		// Keywords retained by one vector: Add entropy term of the estimated, omitted probability of the other vector.
+		final int numberOfCommonOmittedKeywords	= columns_p.length + p.getNumberOfOmittedKeywords() - numberOfMergedKeywords;
+		final double mergedEstimate				= entropySum - mixtureSum / TopicDistanceKernels.log2 
+												+ 0.5 * (numberOfMergedKeywords - columns_p.length) * entropyTerm(average_p) 
+												+ 0.5 * (numberOfMergedKeywords - columns_q.length) * entropyTerm(average_q);
+		// Omitted by both: Each term is in [0, m_i].
+		final double omittedEstimate			= numberOfCommonOmittedKeywords * jensenShannonTerm(average_p, average_q);
+		
+		if (useBounds) {
+			bounds[0] = mergedEstimate + lowerBoundDeviation;
+			bounds[1] = mergedEstimate + upperBoundDeviation + (p.getResidualMass() + q.getResidualMass()) / 2;
+		}
+		
+		return mergedEstimate + omittedEstimate;
+	}
+	
+	/**
+	 * @param value
+	 * @return value * log_2(value) (0 * log(0) is defined as 0).
+	 */
+	private static double entropyTerm(final double value)
+	{
+		return value > 0 ? value * Math.log(value) / TopicDistanceKernels.log2 : 0;
+	}
+	
+	/**
+	 * @param p_i
+	 * @param q_i
+	 * @return Contribution of one keyword to the Jensen-Shannon divergence.
+	 */
+	private static double jensenShannonTerm(final double p_i, final double q_i)
+	{
+		return 0.5 * (entropyTerm(p_i) + entropyTerm(q_i)) - entropyTerm((p_i + q_i) / 2);
+	}
+	
+	/**
+	 * Approximates the Bhattacharyya coefficient sum(sqrt(p_i * q_i)). Keywords retained by both vectors are exact,
+	 * the contribution of all other keywords is non-negative and bounded by Cauchy-Schwarz (using the residual masses)
+	 * resp. by the smallest retained probability.
+	 * @param p
+	 * @param q
+	 * @param bounds Receives lower (index 0) and upper bound (index 1) of the exact coefficient.
+	 * @return Estimated coefficient.
+	 */
+	private static double bhattacharyyaCoefficient(final SparseTopicVector p, final SparseTopicVector q, final double[] bounds)
+	{
+		final int[] columns_p		= p.getColumns();
+		final int[] columns_q		= q.getColumns();
+		final float[] p_i			= p.getProbabilities();
+		final float[] q_i			= q.getProbabilities();
+		final float[] sqrt_p		= p.getSqrtProbabilities();
+		final float[] sqrt_q		= q.getSqrtProbabilities();
+		
+		// Sum over keywords retained by both vectors.
+		double commonSum			= 0;
+		// Sums of sqrt(p_i) and p_i over keywords retained by p only (and vice versa for q).
+		double sqrtSum_P			= 0;
+		double massSum_P			= 0;
+		double sqrtSum_Q			= 0;
+		double massSum_Q			= 0;
+		// Number of keywords retained by at least one vector.
+		int numberOfMergedKeywords	= 0;
+		int i = 0, j = 0;
+		
+		while (i < columns_p.length || j < columns_q.length) {
+			final int column_p = i < columns_p.length ? columns_p[i] : Integer.MAX_VALUE;
+			final int column_q = j < columns_q.length ? columns_q[j] : Integer.MAX_VALUE;
+			
+			if (column_p == column_q) {
+				commonSum += (double)sqrt_p[i++] * sqrt_q[j++];
+			}
+			
+			else if (column_p < column_q) {
+				sqrtSum_P += sqrt_p[i];
+				massSum_P += p_i[i++];
+			}
+			
+			else {
+				sqrtSum_Q += sqrt_q[j];
+				massSum_Q += q_i[j++];
+			}
+			
+			numberOfMergedKeywords++;
+		}
+		
+		final int numberOfCommonOmittedKeywords = columns_p.length + p.getNumberOfOmittedKeywords() - numberOfMergedKeywords;
+		
+		bounds[0] = commonSum;
+		bounds[1] = commonSum	+ Math.min(Math.sqrt(q.getMinimalProbability()) * sqrtSum_P, Math.sqrt(massSum_P * q.getResidualMass()))
+								+ Math.min(Math.sqrt(p.getMinimalProbability()) * sqrtSum_Q, Math.sqrt(massSum_Q * p.getResidualMass()))
+								+ Math.sqrt(p.getResidualMass() * q.getResidualMass());
+		
+		return	commonSum	+ Math.sqrt(q.getAverageResidualProbability()) * sqrtSum_P + Math.sqrt(p.getAverageResidualProbability()) * sqrtSum_Q
+							+ numberOfCommonOmittedKeywords * Math.sqrt(p.getAverageResidualProbability() * q.getAverageResidualProbability());
+	}
+}
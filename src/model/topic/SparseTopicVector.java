@@ -0,0 +1,187 @@
+package model.topic;
+
+import java.util.Arrays;
+
+/**
+ * Sparse approximation of a dense probability vector: Keeps the most probable keywords covering a specified share
+ * of the probability mass (ordered by column) and summarizes all omitted keywords in a residual bucket (their total
+ * mass and number). Every omitted probability is at most {@link SparseTopicVector#getMinimalProbability()}, which
+ * allows {@link SparseTopicDistanceKernels} to bound the error caused by the omission. Like {@link TopicVectors},
+ * square roots and entropy terms of retained probabilities are precalculated.
+ * @author RM
+ *
+ */
+public final class SparseTopicVector
+{
+	/**
+	 * Columns (see {@link KeywordDictionary}) of retained keywords in ascending order.
+	 */
+	private final int[] columns;
+	/**
+	 * Probabilities of retained keywords, aligned with {@link SparseTopicVector#columns}.
+	 */
+	private final float[] probabilities;
+	/**
+	 * sqrt(p_i) of retained keywords.
+	 */
+	private final float[] sqrtProbabilities;
+	/**
+	 * p_i * log_2(p_i) of retained keywords.
+	 */
+	private final float[] entropyTerms;
+	/**
+	 * Total probability mass of all omitted keywords.
+	 */
+	private final double residualMass;
+	/**
+	 * Number of omitted keywords (including ones with probability 0).
+	 */
+	private final int numberOfOmittedKeywords;
+	/**
+	 * Smallest retained probability, i.e. upper bound for every omitted probability.
+	 */
+	private final double minimalProbability;
+	/**
+	 * Total probability mass of retained and omitted keywords.
+	 */
+	private final double totalMass;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	private SparseTopicVector(	final int[] columns, final float[] probabilities, final float[] sqrtProbabilities, final float[] entropyTerms, 
+								final double residualMass, final int numberOfOmittedKeywords, final double minimalProbability, final double totalMass)
+	{
+		this.columns					= columns;
+		this.probabilities				= probabilities;
+		this.sqrtProbabilities			= sqrtProbabilities;
+		this.entropyTerms				= entropyTerms;
+		this.residualMass				= residualMass;
+		this.numberOfOmittedKeywords	= numberOfOmittedKeywords;
+		this.minimalProbability			= minimalProbability;
+		this.totalMass					= totalMass;
+	}
+	
+	/**
+	 * Creates sparse approximation of the specified dense probability vector.
+	 * @param probabilities
+	 * @param mass Share of the total probability mass to be covered by retained keywords, in (0, 1].
+	 * 1 retains all keywords with non-zero probability, i.e. yields exact distances.
+	 * @return
+	 */
+	public static SparseTopicVector create(final float[] probabilities, final double mass)
+	{
+		if (mass <= 0 || mass > 1)
+			throw new IllegalArgumentException("Retained probability mass has to be in (0, 1].");
+		
+		/*
+		 * 1. Determine threshold: Smallest probability of the most probable keywords covering the specified mass.
+		 */
+		
+		float[] sortedProbabilities	= probabilities.clone();
+		double totalMass			= 0;
+		Arrays.sort(sortedProbabilities);
+		for (int i = 0; i < sortedProbabilities.length; i++) {
+			totalMass += sortedProbabilities[i];
+		}
+		
+		float threshold			= Float.MIN_VALUE;
+		double retainedMass		= 0;
+		for (int i = sortedProbabilities.length - 1; i >= 0 && sortedProbabilities[i] > 0; i--) {
+			retainedMass	+= sortedProbabilities[i];
+			threshold		= sortedProbabilities[i];
+			
+			if (retainedMass >= mass * totalMass)
+				break;
+		}
+		
+		/*
+		 * 2. Collect keywords at or above threshold (in order of columns).
+		 */
+		
+		int numberOfRetainedKeywords = 0;
+		for (int i = 0; i < probabilities.length; i++) {
+			if (probabilities[i] >= threshold)
+				numberOfRetainedKeywords++;
+		}
+		
+		int[] columns					= new int[numberOfRetainedKeywords];
+		float[] retainedProbabilities	= new float[numberOfRetainedKeywords];
+		float[] sqrtProbabilities		= new float[numberOfRetainedKeywords];
+		float[] entropyTerms			= new float[numberOfRetainedKeywords];
+		double minimalProbability		= numberOfRetainedKeywords > 0 ? Double.MAX_VALUE : 0;
+		retainedMass					= 0;
+		
+		for (int i = 0, j = 0; i < probabilities.length; i++) {
+			if (probabilities[i] >= threshold) {
+				final double p_i			= probabilities[i];
+				columns[j]					= i;
+				retainedProbabilities[j]	= probabilities[i];
+				sqrtProbabilities[j]		= (float)Math.sqrt(p_i);
+				entropyTerms[j++]			= (float)(p_i * Math.log(p_i) / TopicDistanceKernels.log2);
+				retainedMass				+= p_i;
+				minimalProbability			= Math.min(minimalProbability, p_i);
+			}
+		}
+		
+		return new SparseTopicVector(	columns, retainedProbabilities, sqrtProbabilities, entropyTerms, Math.max(totalMass - retainedMass, 0),
+										probabilities.length - numberOfRetainedKeywords, minimalProbability, totalMass);
+	}
+	
+	/**
+	 * @return Number of retained keywords.
+	 */
+	public int size()
+	{
+		return columns.length;
+	}
+	
+	public int[] getColumns()
+	{
+		return columns;
+	}
+	
+	public float[] getProbabilities()
+	{
+		return probabilities;
+	}
+	
+	public float[] getSqrtProbabilities()
+	{
+		return sqrtProbabilities;
+	}
+	
+	public float[] getEntropyTerms()
+	{
+		return entropyTerms;
+	}
+	
+	public double getResidualMass()
+	{
+		return residualMass;
+	}
+	
+	public int getNumberOfOmittedKeywords()
+	{
+		return numberOfOmittedKeywords;
+	}
+	
+	public double getMinimalProbability()
+	{
+		return minimalProbability;
+	}
+	
+	public double getTotalMass()
+	{
+		return totalMass;
+	}
+	
+	/**
+	 * @return Estimated probability of each omitted keyword, assuming the residual mass is distributed uniformly.
+	 */
+	public double getAverageResidualProbability()
+	{
+		return numberOfOmittedKeywords > 0 ? residualMass / numberOfOmittedKeywords : 0;
+	}
+}
@@ -0,0 +1,97 @@
+package model.topic;
+
+import java.util.ArrayList;
+
+import javafx.util.Pair;
+
+/**
+ * Most probable keywords of one topic, ordered descendingly by probability.
+ * Keywords are stored as columns of the workspace's {@link KeywordDictionary}, probabilities in a parallel array.
+ * @author RM
+ *
+ */
+public class TopKeywords
+{
+	/**
+	 * Pair of LDA configuration ID and topic ID.
+	 */
+	private Pair<Integer, Integer> topicID;
+	private KeywordDictionary keywordDictionary;
+	/**
+	 * Dictionary columns of keywords.
+	 */
+	private int[] columns;
+	private double[] probabilities;
+	
+	// ---------------------------------------------------
+	//						Methods
+	// ---------------------------------------------------
+	
+	/**
+	 * @param topicID
+	 * @param keywordDictionary
+	 * @param columns Must not be modified afterwards.
+	 * @param probabilities Must not be modified afterwards.
+	 */
+	public TopKeywords(final Pair<Integer, Integer> topicID, final KeywordDictionary keywordDictionary, final int[] columns, final double[] probabilities)
+	{
+		this.topicID			= topicID;
+		this.keywordDictionary	= keywordDictionary;
+		this.columns			= columns;
+		this.probabilities		= probabilities;
+	}
+	
+	public Pair<Integer, Integer> getTopicID()
+	{
+		return topicID;
+	}
+	
+	/**
+	 * @return Number of keywords.
+	 */
+	public int size()
+	{
+		return columns.length;
+	}
+	
+	/**
+	 * @param index
+	 * @return Dictionary column of keyword at this rank.
+	 */
+	public int getColumn(final int index)
+	{
+		return columns[index];
+	}
+	
+	/**
+	 * @param index
+	 * @return Keyword at this rank.
+	 */
+	public String getKeyword(final int index)
+	{
+		return keywordDictionary.getKeyword(columns[index]);
+	}
+	
+	/**
+	 * @param index
+	 * @return Probability of keyword at this rank.
+	 */
+	public double getProbability(final int index)
+	{
+		return probabilities[index];
+	}
+	
+	/**
+	 * @return Keyword/probability pairs, ordered descendingly by probability.
+	 */
+	public ArrayList<Pair<String, Double>> toKeywordProbabilityPairs()
+	{
+		ArrayList<Pair<String, Double>> pairs = new ArrayList<Pair<String, Double>>(columns.length);
+		
+		for (int i = 0; i < columns.length; i++) {
+			pairs.add(new Pair<String, Double>(getKeyword(i), probabilities[i]));
+		}
+		
+		return pairs;
+	}
+}
@@ -25,6 +25,36 @@ public class Topic
 	 */
 	private Map<String, Double> keywordProbabilityMap;
 	
+	/**
+	 * Dictionary translating keywords into columns of {@link Topic#probabilities}.
+	 * Shared by all dense topics of a workspace; null for map-based topics.
+	 */
+	private KeywordDictionary dictionary;
+	
+	/**
+	 * Dense keyword probability vector, indexed by the columns defined in {@link Topic#dictionary}.
+	 * Null for map-based topics.
+	 */
+	private float[] probabilities;
+	
+	/**
+	 * Terms of the distance formulas precalculated from {@link Topic#probabilities}. 
+	 * Null unless {@link Topic#precalculateVectors(TopicDistance[])} was called since the last modification.
+	 */
+	private TopicVectors vectors;
+	
+	/**
+	 * Sparse approximation of a probability vector, indexed by the columns defined in {@link Topic#dictionary}.
+	 * Null for dense and map-based topics.
+	 */
+	private SparseTopicVector sparseVector;
+	
+	/**
+	 * Most probable keywords of {@link Topic#probabilities}, used to bound distances from below.
+	 * Null unless {@link Topic#precalculateSignature(int)} was called since the last modification.
+	 */
+	private TopicSignature signature;
+	
 	/**
 	 * Pre-calculate log_2 for distance calculations.
 	 */
@@ -52,10 +82,168 @@ public class Topic
 		this.keywordProbabilityMap	= new HashMap<String, Double>(keywordProbabilityMap);
 	}
 	
+	/**
+	 * Creates dense topic with all probabilities set to 0.
+	 * @param topicNumber
+	 * @param dictionary
+	 */
+	public Topic(int topicNumber, KeywordDictionary dictionary)
+	{
+		this.topicNumber			= topicNumber;
+		this.dictionary				= dictionary;
+		this.probabilities			= new float[dictionary.size()];
+	}
+	
+	/**
+	 * Creates dense topic using the specified probability vector (not copied).
+	 * @param topicNumber
+	 * @param dictionary
+	 * @param probabilities
+	 */
+	public Topic(int topicNumber, KeywordDictionary dictionary, float[] probabilities)
+	{
+		this.topicNumber			= topicNumber;
+		this.dictionary				= dictionary;
+		this.probabilities			= probabilities;
+	}
+	
+	/**
+	 * Creates sparse topic using the specified sparse vector (see {@link Topic#toSparseTopic(double)}).
+	 * @param topicNumber
+	 * @param dictionary
+	 * @param sparseVector
+	 */
+	public Topic(int topicNumber, KeywordDictionary dictionary, SparseTopicVector sparseVector)
+	{
+		this.topicNumber			= topicNumber;
+		this.dictionary				= dictionary;
+		this.sparseVector			= sparseVector;
+	}
+	
 	public Topic(Topic source)
 	{
 		this.topicNumber			= source.topicNumber;
-		this.keywordProbabilityMap	= new HashMap<String, Double>(source.keywordProbabilityMap);
+		
+		if (source.isDense()) {
+			this.dictionary			= source.dictionary;
+			this.probabilities		= source.probabilities.clone();
+		}
+		
+		// Sparse vectors are immutable, hence can be shared.
+		else if (source.isSparse()) {
+			this.dictionary			= source.dictionary;
+			this.sparseVector		= source.sparseVector;
+		}
+		
+		else {
+			this.keywordProbabilityMap	= new HashMap<String, Double>(source.keywordProbabilityMap);
+		}
+	}
+	
+	/**
+	 * @return True if this topic is backed by a dense probability vector instead of a map.
+	 */
+	public boolean isDense()
+	{
+		return probabilities != null;
+	}
+	
+	/**
+	 * @return True if this topic is backed by a sparse approximation of a probability vector.
+	 */
+	public boolean isSparse()
+	{
+		return sparseVector != null;
+	}
+	
+	/**
+	 * Creates sparse approximation of this dense topic, retaining the most probable keywords covering
+	 * the specified share of probability mass (see {@link SparseTopicVector}).
+	 * @param mass Share of probability mass in (0, 1].
+	 * @return
+	 */
+	public Topic toSparseTopic(double mass)
+	{
+		return new Topic(topicNumber, dictionary, SparseTopicVector.create(probabilities, mass));
+	}
+	
+	/**
+	 * Checks whether both topics are sparse and share the same dictionary, i.e. whether the
+	 * approximate distance implementations in {@link SparseTopicDistanceKernels} have to be used.
+	 * @param topicToCompare
+	 * @return
+	 */
+	private boolean isSparseComparableTo(Topic topicToCompare)
+	{
+		return sparseVector != null && topicToCompare.sparseVector != null && dictionary == topicToCompare.dictionary;
+	}
+	
+	/**
+	 * Checks whether both topics are dense and share the same dictionary, i.e. whether the 
+	 * array-based distance implementations can be used.
+	 * @param topicToCompare
+	 * @return
+	 */
+	private boolean isDenseComparableTo(Topic topicToCompare)
+	{
+		return probabilities != null && topicToCompare.probabilities != null && dictionary == topicToCompare.dictionary;
+	}
+	
+	/**
+	 * Checks whether both topics are dense, comparable and provide precalculated terms for the specified metric.
+	 * @param topicToCompare
+	 * @param distanceType
+	 * @return
+	 */
+	private boolean isPrecalculatedFor(Topic topicToCompare, TopicDistance distanceType)
+	{
+		return	vectors != null && topicToCompare.vectors != null && dictionary == topicToCompare.dictionary &&
+				vectors.supports(distanceType) && topicToCompare.vectors.supports(distanceType);
+	}
+	
+	/**
+	 * Precalculates the per-topic terms of the specified metrics (square roots, logarithms, entropy), so that
+	 * subsequent distance calculations between dense topics don't have to evaluate them for every topic pair.
+	 * Not thread-safe: Call before topic is shared between threads. Only applicable to dense topics.
+	 * @param distanceTypes
+	 */
+	public void precalculateVectors(TopicDistance[] distanceTypes)
+	{
+		if (isDense())
+			vectors = TopicVectors.create(probabilities, distanceTypes);
+	}
+	
+	/**
+	 * Creates signature of the specified size (see {@link TopicSignature}), so that lower bounds
+	 * for distances to other topics can be calculated (see {@link Topic#calculateDistanceLowerBound(Topic, TopicDistance)}).
+	 * Not thread-safe: Call before topic is shared between threads. Only applicable to dense topics.
+	 * @param size Number of keywords in signature.
+	 */
+	public void precalculateSignature(int size)
+	{
+		if (isDense())
+			signature = TopicSignature.create(probabilities, size);
+	}
+	
+	/**
+	 * Releases precalculated terms and signature.
+	 */
+	public void discardPrecalculatedVectors()
+	{
+		vectors		= null;
+		signature	= null;
+	}
+	
+	/**
+	 * Sets probability for the keyword in the specified column. Only applicable to dense topics.
+	 * @param column
+	 * @param probability
+	 */
+	public void setProbability(int column, double probability)
+	{
+		probabilities[column]	= (float)probability;
+		vectors					= null;
+		signature				= null;
 	}
 	
 	/**
@@ -71,7 +259,21 @@ public class Topic
 		if (separatorIndex > -1) {
 			String keyword		= keywordDataset.substring(0, separatorIndex);
 			double probability	= Double.parseDouble( keywordDataset.substring(separatorIndex + 1, keywordDataset.length()) );
-			keywordProbabilityMap.put(keyword, probability);
+			
+			// Dense topic: Only keywords known to the dictionary can be stored.
+			if (isDense()) {
+				int column = dictionary.getColumn(keyword);
+				if (column < 0)
+					return false;
+				
+				probabilities[column]	= (float)probability;
+				vectors					= null;
+				signature				= null;
+			}
+			
+			else {
+				keywordProbabilityMap.put(keyword, probability);
+			}
 			
 			return true;
 		}
@@ -91,7 +293,7 @@ public class Topic
 	{
 		String result = "Topic #" + topicNumber + "\n";
 		        
-		for (Map.Entry<String, Double> item : keywordProbabilityMap.entrySet()) { 
+		for (Map.Entry<String, Double> item : getKeywordProbabilityMap().entrySet()) { 
 			result += result + item.getKey() + "|" + item.getValue() + "\n";
 		}
 				
@@ -105,16 +307,25 @@ public class Topic
 	
 	public int getNumberOfItems()
 	{
-		return keywordProbabilityMap.size();
+		if (isSparse())
+			return sparseVector.size();
+		
+		return isDense() ? probabilities.length : keywordProbabilityMap.size();
 	}
 
 	public double calculateL2Distance(Topic topicToCompare)
 	{
+		// Not supported by sparse kernels, throws exception.
+		if (isSparseComparableTo(topicToCompare))
+			return SparseTopicDistanceKernels.calculateDistance(sparseVector, topicToCompare.sparseVector, TopicDistance.L2, null);
+		if (isDenseComparableTo(topicToCompare))
+			return TopicDistanceKernels.l2(probabilities, topicToCompare.probabilities);
+		
 		double result = 0;
 	    // Assume all words are present in self._keywordProbabilityMap as well as topicToCompare._keywordProbabilityMap.
 		for (Map.Entry<String, Double> item : keywordProbabilityMap.entrySet()) { 
 			double diff	=  item.getValue() - topicToCompare.keywordProbabilityMap.get(item.getKey());
-			result		+= result + diff * diff;
+			result		+= diff * diff;
 		}
 		
 	    return Math.sqrt(result);
@@ -122,6 +333,13 @@ public class Topic
 
 	public double calculateHellingerDistance(Topic topicToCompare)
 	{
+		if (isSparseComparableTo(topicToCompare))
+			return SparseTopicDistanceKernels.hellinger(sparseVector, topicToCompare.sparseVector, null);
+		if (isPrecalculatedFor(topicToCompare, TopicDistance.Hellinger))
+			return TopicDistanceKernels.hellinger(vectors, topicToCompare.vectors);
+		if (isDenseComparableTo(topicToCompare))
+			return TopicDistanceKernels.hellinger(probabilities, topicToCompare.probabilities);
+		
 		double result = 0;
         // Assume all words are present in self._keywordProbabilityMap as well as objectToCompare._keywordProbabilityMap.
 		for (Map.Entry<String, Double> item : keywordProbabilityMap.entrySet()) { 
@@ -134,6 +352,13 @@ public class Topic
 
 	public double calculateBhattacharyyaDistance(Topic topicToCompare)
 	{
+		if (isSparseComparableTo(topicToCompare))
+			return SparseTopicDistanceKernels.bhattacharyya(sparseVector, topicToCompare.sparseVector, null);
+		if (isPrecalculatedFor(topicToCompare, TopicDistance.Bhattacharyya))
+			return TopicDistanceKernels.bhattacharyya(vectors, topicToCompare.vectors);
+		if (isDenseComparableTo(topicToCompare))
+			return TopicDistanceKernels.bhattacharyya(probabilities, topicToCompare.probabilities);
+		
 		double result = 0;
         // Assume all words are present in self._keywordProbabilityMap as well as objectToCompare._keywordProbabilityMap.
 		for (Map.Entry<String, Double> item : keywordProbabilityMap.entrySet()) {
@@ -145,6 +370,14 @@ public class Topic
 
 	public double calculateKullbackLeiblerDistance(Topic topicToCompare)
 	{	
+		// Not supported by sparse kernels, throws exception.
+		if (isSparseComparableTo(topicToCompare))
+			return SparseTopicDistanceKernels.calculateDistance(sparseVector, topicToCompare.sparseVector, TopicDistance.KullbackLeibler, null);
+		if (isPrecalculatedFor(topicToCompare, TopicDistance.KullbackLeibler))
+			return TopicDistanceKernels.kullbackLeibler(vectors, topicToCompare.vectors);
+		if (isDenseComparableTo(topicToCompare))
+			return TopicDistanceKernels.kullbackLeibler(probabilities, topicToCompare.probabilities);
+		
 		double result = 0;
 
 		// Assume all words are present in self._keywordProbabilityMap as well as objectToCompare._keywordProbabilityMap.
@@ -158,6 +391,13 @@ public class Topic
 
 	public double calculateJensenShannonDivergence(Topic topicToCompare)
 	{
+		if (isSparseComparableTo(topicToCompare))
+			return SparseTopicDistanceKernels.jensenShannon(sparseVector, topicToCompare.sparseVector, null);
+		if (isPrecalculatedFor(topicToCompare, TopicDistance.JensenShannon))
+			return TopicDistanceKernels.jensenShannon(vectors, topicToCompare.vectors);
+		if (isDenseComparableTo(topicToCompare))
+			return TopicDistanceKernels.jensenShannon(probabilities, topicToCompare.probabilities);
+		
 		double tempSum_P = 0;
         double tempSum_Q = 0;
         
@@ -179,16 +419,131 @@ public class Topic
         return 0.5 * (tempSum_P + tempSum_Q);
 	}
 	
+	/**
+	 * Calculates distance to the specified topic using the specified metric.
+	 * @param topicToCompare
+	 * @param distanceType
+	 * @return
+	 */
+	public double calculateDistance(Topic topicToCompare, TopicDistance distanceType)
+	{
+		switch (distanceType) {
+			case L2:
+				return calculateL2Distance(topicToCompare);
+			
+			case Hellinger:
+				return calculateHellingerDistance(topicToCompare);
+			
+			case Bhattacharyya:
+				return calculateBhattacharyyaDistance(topicToCompare);
+			
+			case KullbackLeibler:
+				return calculateKullbackLeiblerDistance(topicToCompare);
+			
+			case JensenShannon:
+				return calculateJensenShannonDivergence(topicToCompare);
+			
+			default:
+				throw new IllegalArgumentException("Unknown topic distance " + distanceType + ".");
+		}
+	}
+	
+	/**
+	 * Calculates distances to the specified topic for several metrics. Dense topics are compared in one pass
+	 * (see {@link TopicDistanceKernels#calculateDistances(float[], float[], TopicDistance[], double[])}), 
+	 * using precalculated terms if available for all metrics.
+	 * @param topicToCompare
+	 * @param distanceTypes
+	 * @param results Receives distance for distanceTypes[i] at index i.
+	 */
+	public void calculateDistances(Topic topicToCompare, TopicDistance[] distanceTypes, double[] results)
+	{
+		if (	vectors != null && topicToCompare.vectors != null && dictionary == topicToCompare.dictionary &&
+				vectors.supports(distanceTypes) && topicToCompare.vectors.supports(distanceTypes)) {
+			TopicDistanceKernels.calculateDistances(vectors, topicToCompare.vectors, distanceTypes, results);
+			return;
+		}
+		
+		if (isDenseComparableTo(topicToCompare)) {
+			TopicDistanceKernels.calculateDistances(probabilities, topicToCompare.probabilities, distanceTypes, results);
+			return;
+		}
+		
+		for (int i = 0; i < distanceTypes.length; i++) {
+			results[i] = calculateDistance(topicToCompare, distanceTypes[i]);
+		}
+	}
+	
+	/**
+	 * Calculates a lower bound for the distance to the specified topic based on both topics' signatures
+	 * (see {@link TopicDistanceBounds}). Requires dense topics with precalculated signatures.
+	 * @param topicToCompare
+	 * @param distanceType
+	 * @return Lower bound; -Infinity if no bound is available.
+	 */
+	public double calculateDistanceLowerBound(Topic topicToCompare, TopicDistance distanceType)
+	{
+		if (signature == null || topicToCompare.signature == null || !isDenseComparableTo(topicToCompare))
+			return Double.NEGATIVE_INFINITY;
+		
+		return TopicDistanceBounds.calculateLowerBound(probabilities, signature, topicToCompare.probabilities, topicToCompare.signature, distanceType);
+	}
+	
 	public void setKeywordProbabilityMap(HashMap<String, Double> keywordProbabilityMap2)
 	{
-		this.keywordProbabilityMap = keywordProbabilityMap2;
+		this.keywordProbabilityMap	= keywordProbabilityMap2;
+		// Switch to map-based representation.
+		this.dictionary				= null;
+		this.probabilities			= null;
+		this.vectors				= null;
+		this.sparseVector			= null;
 	}
 	
+	/**
+	 * Returns keyword/probability map. For dense topics, the map is assembled on demand
+	 * (and hence expensive); prefer {@link Topic#getProbabilities()} in this case.
+	 * @return
+	 */
 	public Map<String, Double> getKeywordProbabilityMap()
 	{
+		if (isDense()) {
+			Map<String, Double> map = new HashMap<String, Double>(probabilities.length * 2);
+			for (int i = 0; i < probabilities.length; i++) {
+				map.put(dictionary.getKeyword(i), (double)probabilities[i]);
+			}
+			
+			return map;
+		}
+		
+		// Sparse topic: Only retained keywords are available.
+		if (isSparse()) {
+			Map<String, Double> map = new HashMap<String, Double>(sparseVector.size() * 2);
+			for (int i = 0; i < sparseVector.size(); i++) {
+				map.put(dictionary.getKeyword(sparseVector.getColumns()[i]), (double)sparseVector.getProbabilities()[i]);
+			}
+			
+			return map;
+		}
+		
 		return keywordProbabilityMap;
 	}
 	
+	/**
+	 * @return Dense probability vector. Null for map-based topics.
+	 */
+	public float[] getProbabilities()
+	{
+		return probabilities;
+	}
+	
+	/**
+	 * @return Keyword dictionary used by this topic. Null for map-based topics.
+	 */
+	public KeywordDictionary getDictionary()
+	{
+		return dictionary;
+	}
+	
 	/**
 	 * Reads one file / dataset and generates a list topics from it.
 	 * Deprecated, now that SQLite is used for data management.
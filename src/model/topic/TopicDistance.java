@@ -1,5 +1,10 @@
 package model.topic;
 
+/**
+ * Distance metrics between two topics. Implementations are provided by {@link TopicDistanceMetrics}.
+ * @author RM
+ *
+ */
 public enum TopicDistance
 {
 	L2, Hellinger, Bhattacharyya, KullbackLeibler, JensenShannon
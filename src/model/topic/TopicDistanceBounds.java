@@ -0,0 +1,167 @@
+package model.topic;
+
+/**
+ * Lower bounds for topic distances between two dense probability vectors sharing one {@link KeywordDictionary}, based on
+ * their {@link TopicSignature}s: Keywords in the union of both signatures are compared exactly, all other keywords are merged
+ * into one residual bucket. Merging keywords never increases the Hellinger distance, the Bhattacharyya coefficient's complement
+ * or the Jensen-Shannon divergence (all of them are sums of convex, positively homogeneous terms per keyword), and the L2 distance of
+ * the merged keywords is bounded by the Cauchy-Schwarz inequality. Costs are proportional to the size of the signatures instead
+ * of the number of keywords.
+ * Supports L2, Hellinger, Bhattacharyya and Jensen-Shannon. The Kullback-Leibler divergence is unbounded for residual masses
+ * close to 0, hence no (robust) bound is provided for it.
+ * @author RM
+ *
+ */
+public final class TopicDistanceBounds
+{
+	/**
+	 * Upper bound for the rounding error of residual masses (calculated as difference of sums).
+	 */
+	private static final double RESIDUAL_TOLERANCE = 1e-9;
+	/**
+	 * Relative amount by which bounds are lowered, so that they don't exceed exact distances calculated in float precision.
+	 */
+	private static final double TOLERANCE = 1e-6;
+	
+	private TopicDistanceBounds()
+	{
+	}
+	
+	/**
+	 * @param type
+	 * @return True if a lower bound can be calculated for the specified metric.
+	 */
+	public static boolean isSupported(final TopicDistance type)
+	{
+		return type != TopicDistance.KullbackLeibler;
+	}
+	
+	/**
+	 * Calculates lower bound for the distance between p and q using the specified metric.
+	 * @param p
+	 * @param signature_p Signature of p.
+	 * @param q
+	 * @param signature_q Signature of q.
+	 * @param type
+	 * @return Lower bound; -Infinity if the metric is not supported.
+	 */
+	public static double calculateLowerBound(	final float[] p, final TopicSignature signature_p, final float[] q, final TopicSignature signature_q,
+												final TopicDistance type)
+	{
+		if (!isSupported(type))
+			return Double.NEGATIVE_INFINITY;
+		
+		final int[] columns_p	= signature_p.getColumns();
+		final int[] columns_q	= signature_q.getColumns();
+		double mass_p			= 0;
+		double mass_q			= 0;
+		double result			= 0;
+		int numberOfColumns		= 0;
+		
+		/*
+		 * 1. Compare keywords in union of both signatures (merged by column).
+		 */
+		
+		for (int i = 0, j = 0; i < columns_p.length || j < columns_q.length; ) {
+			final int column;
+			if (j == columns_q.length || (i < columns_p.length && columns_p[i] <= columns_q[j])) {
+				column = columns_p[i++];
+				if (j < columns_q.length && columns_q[j] == column)
+					j++;
+			}
+			
+			else {
+				column = columns_q[j++];
+			}
+			
+			final double p_i	= p[column];
+			final double q_i	= q[column];
+			mass_p				+= p_i;
+			mass_q				+= q_i;
+			result				+= calculateTerm(p_i, q_i, type);
+			numberOfColumns++;
+		}
+		
+		/*
+		 * 2. Compare residual buckets, taking the rounding error of their masses into account.
+		 */
+		
+		final double residual_p		= Math.max(signature_p.getTotalMass() - mass_p, 0);
+		final double residual_q		= Math.max(signature_q.getTotalMass() - mass_q, 0);
+		// Smallest possible difference of the residual masses.
+		final double residualGap	= Math.max(Math.abs(residual_p - residual_q) - 2 * RESIDUAL_TOLERANCE, 0);
+		final int residualColumns	= p.length - numberOfColumns;
+		
+		switch (type) {
+			case L2:
+				// sum((p_i - q_i)^2) >= (sum(p_i - q_i))^2 / n for the n merged keywords.
+				if (residualColumns > 0)
+					result += residualGap * residualGap / residualColumns;
+				
+				result = Math.sqrt(result);
+			break;
+			
+			case Hellinger:
+				// Smallest possible difference of the square roots of the residual masses.
+				final double sqrtGap = residual_p > residual_q ?	Math.sqrt(Math.max(residual_p - RESIDUAL_TOLERANCE, 0)) - Math.sqrt(residual_q + RESIDUAL_TOLERANCE) :
+																	Math.sqrt(Math.max(residual_q - RESIDUAL_TOLERANCE, 0)) - Math.sqrt(residual_p + RESIDUAL_TOLERANCE);
+				if (sqrtGap > 0)
+					result += sqrtGap * sqrtGap;
+				
+				result /= Math.sqrt(2);
+			break;
+			
+			case Bhattacharyya:
+				// Upper bound for the Bhattacharyya coefficient.
+				result += Math.sqrt((residual_p + RESIDUAL_TOLERANCE) * (residual_q + RESIDUAL_TOLERANCE));
+				result = (Math.log(result) / TopicDistanceKernels.log2) * (-1);
+			break;
+			
+			case JensenShannon:
+				// Per keyword, the divergence is at least (p_i - q_i)^2 / (4 * (p_i + q_i)) (in nats).
+				final double residualSum = residual_p + residual_q + 2 * RESIDUAL_TOLERANCE;
+				result += residualGap * residualGap / (4 * residualSum * TopicDistanceKernels.log2);
+			break;
+			
+			default:
+		}
+		
+		return result - TOLERANCE * (1 + Math.abs(result));
+	}
+	
+	/**
+	 * @param p_i
+	 * @param q_i
+	 * @param type
+	 * @return Contribution of one keyword to the distance (before the final transformation, e.g. the square root for L2).
+	 */
+	private static double calculateTerm(final double p_i, final double q_i, final TopicDistance type)
+	{
+		switch (type) {
+			case L2:
+				return (p_i - q_i) * (p_i - q_i);
+			
+			case Hellinger:
+				final double temp = Math.sqrt(p_i) - Math.sqrt(q_i);
+				return temp * temp;
+			
+			case Bhattacharyya:
+				return Math.sqrt(p_i * q_i);
+			
+			case JensenShannon:
+				final double m_i	= (p_i + q_i) / 2;
+				double term			= 0;
+				
+				// 0 * log(0) is defined as 0.
+				if (p_i > 0)
+					term += p_i * Math.log(p_i / m_i);
+				if (q_i > 0)
+					term += q_i * Math.log(q_i / m_i);
+				
+				return 0.5 * term / TopicDistanceKernels.log2;
+			
+			default:
+				return 0;
+		}
+	}
+}
@@ -0,0 +1,393 @@
+package model.topic;
+
+/**
+ * Array-based implementations of all supported topic distance metrics.
+ * Operate on dense probability vectors sharing one {@link KeywordDictionary},
+ * i.e. element i of both vectors refers to the same keyword.
+ * Formulas correspond to the ones used in the map-based methods in {@link Topic}.
+ * @author RM
+ *
+ */
+public final class TopicDistanceKernels
+{
+	/**
+	 * Pre-calculate log_2 for distance calculations.
+	 */
+	static final double log2 = Math.log(2);
+	
+	private TopicDistanceKernels()
+	{
+	}
+	
+	public static double l2(final float[] p, final float[] q)
+	{
+		double result = 0;
+		
+		for (int i = 0; i < p.length; i++) {
+			final double diff	= p[i] - q[i];
+			result				+= diff * diff;
+		}
+		
+		return Math.sqrt(result);
+	}
+	
+	public static double hellinger(final float[] p, final float[] q)
+	{
+		double result = 0;
+		
+		for (int i = 0; i < p.length; i++) {
+			final double temp	= Math.sqrt(p[i]) - Math.sqrt(q[i]);
+			result				+= temp * temp;
+		}
+		
+		return result / Math.sqrt(2);
+	}
+	
+	public static double bhattacharyya(final float[] p, final float[] q)
+	{
+		double result = 0;
+		
+		for (int i = 0; i < p.length; i++) {
+			result += Math.sqrt((double)p[i] * q[i]);
+		}
+		
+		return (Math.log(result) / log2) * (-1);
+	}
+	
+	public static double kullbackLeibler(final float[] p, final float[] q)
+	{
+		double result = 0;
+		
+		for (int i = 0; i < p.length; i++) {
+			// 0 * log(0 / q) is defined as 0.
+			if (p[i] > 0)
+				result += p[i] * ( Math.log((double)p[i] / q[i]) / log2 );
+		}
+		
+		return result;
+	}
+	
+	public static double jensenShannon(final float[] p, final float[] q)
+	{
+		double tempSum_P = 0;
+		double tempSum_Q = 0;
+		
+		for (int i = 0; i < p.length; i++) {
+			final double currentValue_P	= p[i];
+			final double currentValue_Q	= q[i];
+			// Value for mixture "distribution" M for this keyword.
+			final double currentValue_M	= (currentValue_P + currentValue_Q) / 2;
+			
+			// Skip keywords without probability mass in both distributions (0 * log(0) is defined as 0).
+			if (currentValue_M > 0) {
+				final double log2_currentValue_M = Math.log(currentValue_M) / log2;
+				
+				if (currentValue_P > 0)
+					tempSum_P += currentValue_P * ( (Math.log(currentValue_P) / log2) - log2_currentValue_M );
+				if (currentValue_Q > 0)
+					tempSum_Q += currentValue_Q * ( (Math.log(currentValue_Q) / log2) - log2_currentValue_M );
+			}
+		}
+		
+		return 0.5 * (tempSum_P + tempSum_Q);
+	}
+	
+	/**
+	 * Hellinger distance based on precalculated square roots. 
+	 * @param p
+	 * @param q
+	 * @return
+	 */
+	public static double hellinger(final TopicVectors p, final TopicVectors q)
+	{
+		final float[] sqrt_p	= p.getSqrtProbabilities();
+		final float[] sqrt_q	= q.getSqrtProbabilities();
+		double result			= 0;
+		
+		for (int i = 0; i < sqrt_p.length; i++) {
+			final double temp	= (double)sqrt_p[i] - sqrt_q[i];
+			result				+= temp * temp;
+		}
+		
+		return result / Math.sqrt(2);
+	}
+	
+	/**
+	 * Bhattacharyya distance based on precalculated square roots, i.e. the Bhattacharyya coefficient is a dot product.
+	 * @param p
+	 * @param q
+	 * @return
+	 */
+	public static double bhattacharyya(final TopicVectors p, final TopicVectors q)
+	{
+		final float[] sqrt_p	= p.getSqrtProbabilities();
+		final float[] sqrt_q	= q.getSqrtProbabilities();
+		double result			= 0;
+		
+		for (int i = 0; i < sqrt_p.length; i++) {
+			result += (double)sqrt_p[i] * sqrt_q[i];
+		}
+		
+		return (Math.log(result) / log2) * (-1);
+	}
+	
+	/**
+	 * Kullback-Leibler divergence based on precalculated logarithms: 
+	 * sum(p_i * log_2(p_i)) - sum(p_i * log_2(q_i)).
+	 * @param p
+	 * @param q
+	 * @return
+	 */
+	public static double kullbackLeibler(final TopicVectors p, final TopicVectors q)
+	{
+		final float[] p_i		= p.getProbabilities();
+		final float[] log2_q	= q.getLog2Probabilities();
+		double crossEntropy		= 0;
+		
+		for (int i = 0; i < p_i.length; i++) {
+			// 0 * log(0 / q) is defined as 0.
+			if (p_i[i] > 0)
+				crossEntropy += (double)p_i[i] * log2_q[i];
+		}
+		
+		return p.getNegativeEntropy() - crossEntropy;
+	}
+	
+	/**
+	 * Jensen-Shannon divergence based on precalculated negative entropies:
+	 * 0.5 * (sum(p_i * log_2(p_i)) + sum(q_i * log_2(q_i))) - sum(m_i * log_2(m_i)) with m = (p + q) / 2.
+	 * Only the mixture term depends on both topics and requires a logarithm per keyword.
+	 * @param p
+	 * @param q
+	 * @return
+	 */
+	public static double jensenShannon(final TopicVectors p, final TopicVectors q)
+	{
+		final float[] p_i	= p.getProbabilities();
+		final float[] q_i	= q.getProbabilities();
+		double mixtureSum	= 0;
+		
+		for (int i = 0; i < p_i.length; i++) {
+			final double currentValue_M = ((double)p_i[i] + q_i[i]) / 2;
+			
+			// 0 * log(0) is defined as 0.
+			if (currentValue_M > 0)
+				mixtureSum += currentValue_M * Math.log(currentValue_M);
+		}
+		
+		return 0.5 * (p.getNegativeEntropy() + q.getNegativeEntropy()) - mixtureSum / log2;
+	}
+	
+	/**
+	 * Calculates distance between p and q using the specified metric.
+	 * @param p
+	 * @param q
+	 * @param type
+	 * @return
+	 */
+	public static double calculateDistance(final float[] p, final float[] q, final TopicDistance type)
+	{
+		switch (type) {
+			case L2:
+				return l2(p, q);
+			
+			case Hellinger:
+				return hellinger(p, q);
+			
+			case Bhattacharyya:
+				return bhattacharyya(p, q);
+			
+			case KullbackLeibler:
+				return kullbackLeibler(p, q);
+			
+			case JensenShannon:
+				return jensenShannon(p, q);
+			
+			default:
+				throw new IllegalArgumentException("Unknown topic distance " + type + ".");
+		}
+	}
+	
+	/**
+	 * Calculates distances between p and q for several metrics in one pass over both vectors. 
+	 * Square roots and logarithms are evaluated once per keyword and shared by all metrics using them
+	 * (Hellinger/Bhattacharyya resp. Kullback-Leibler/Jensen-Shannon).
+	 * @param p
+	 * @param q
+	 * @param types Metrics to evaluate.
+	 * @param results Receives distance for types[i] at index i.
+	 */
+	public static void calculateDistances(final float[] p, final float[] q, final TopicDistance[] types, final double[] results)
+	{
+		boolean useL2				= false;
+		boolean useHellinger		= false;
+		boolean useBhattacharyya	= false;
+		boolean useKullbackLeibler	= false;
+		boolean useJensenShannon	= false;
+		
+		for (TopicDistance type : types) {
+			useL2				|= type == TopicDistance.L2;
+			useHellinger		|= type == TopicDistance.Hellinger;
+			useBhattacharyya	|= type == TopicDistance.Bhattacharyya;
+			useKullbackLeibler	|= type == TopicDistance.KullbackLeibler;
+			useJensenShannon	|= type == TopicDistance.JensenShannon;
+		}
+		
+		final boolean useSqrt	= useHellinger || useBhattacharyya;
+		final boolean useLog	= useKullbackLeibler || useJensenShannon;
+		
+		double l2Sum				= 0;
+		double hellingerSum			= 0;
+		double bhattacharyyaSum		= 0;
+		double kullbackLeiblerSum	= 0;
+		double tempSum_P			= 0;
+		double tempSum_Q			= 0;
+		
+		// Flags are loop-invariant, so that the JIT can unswitch the loop into one specialized loop per combination.
+		for (int i = 0; i < p.length; i++) {
+			final double p_i = p[i];
+			final double q_i = q[i];
+			
+			if (useL2) {
+				final double diff	= p_i - q_i;
+				l2Sum				+= diff * diff;
+			}
+			
+			if (useSqrt) {
+				final double sqrt_p	= Math.sqrt(p_i);
+				final double sqrt_q	= Math.sqrt(q_i);
+				final double diff	= sqrt_p - sqrt_q;
+				hellingerSum		+= diff * diff;
+				bhattacharyyaSum	+= sqrt_p * sqrt_q;
+			}
+			
+			// Logarithms are natural, conversion to log_2 happens once after the loop. 0 * log(0) is defined as 0.
+			if (useLog && p_i + q_i > 0) {
+				final double log_p = Math.log(p_i);
+				final double log_q = Math.log(q_i);
+				
+				if (useKullbackLeibler && p_i > 0)
+					kullbackLeiblerSum += p_i * (log_p - log_q);
+				
+				if (useJensenShannon) {
+					final double log_m = Math.log((p_i + q_i) / 2);
+					
+					if (p_i > 0)
+						tempSum_P += p_i * (log_p - log_m);
+					if (q_i > 0)
+						tempSum_Q += q_i * (log_q - log_m);
+				}
+			}
+		}
+		
+		for (int i = 0; i < types.length; i++) {
+			switch (types[i]) {
+				case L2:
+					results[i] = Math.sqrt(l2Sum);
+				break;
+				
+				case Hellinger:
+					results[i] = hellingerSum / Math.sqrt(2);
+				break;
+				
+				case Bhattacharyya:
+					results[i] = (Math.log(bhattacharyyaSum) / log2) * (-1);
+				break;
+				
+				case KullbackLeibler:
+					results[i] = kullbackLeiblerSum / log2;
+				break;
+				
+				case JensenShannon:
+					results[i] = 0.5 * (tempSum_P + tempSum_Q) / log2;
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Calculates distances between p and q for several metrics in one pass, based on precalculated terms
+	 * (see {@link TopicVectors}), i.e. without square roots and with one logarithm per keyword for the Jensen-Shannon divergence only.
+	 * @param p
+	 * @param q
+	 * @param types Metrics to evaluate. Both p and q have to support them.
+	 * @param results Receives distance for types[i] at index i.
+	 */
+	public static void calculateDistances(final TopicVectors p, final TopicVectors q, final TopicDistance[] types, final double[] results)
+	{
+		boolean useL2				= false;
+		boolean useHellinger		= false;
+		boolean useBhattacharyya	= false;
+		boolean useKullbackLeibler	= false;
+		boolean useJensenShannon	= false;
+		
+		for (TopicDistance type : types) {
+			useL2				|= type == TopicDistance.L2;
+			useHellinger		|= type == TopicDistance.Hellinger;
+			useBhattacharyya	|= type == TopicDistance.Bhattacharyya;
+			useKullbackLeibler	|= type == TopicDistance.KullbackLeibler;
+			useJensenShannon	|= type == TopicDistance.JensenShannon;
+		}
+		
+		final boolean useSqrt		= useHellinger || useBhattacharyya;
+		final float[] p_i			= p.getProbabilities();
+		final float[] q_i			= q.getProbabilities();
+		final float[] sqrt_p		= p.getSqrtProbabilities();
+		final float[] sqrt_q		= q.getSqrtProbabilities();
+		final float[] log2_q		= q.getLog2Probabilities();
+		
+		double l2Sum				= 0;
+		double hellingerSum			= 0;
+		double bhattacharyyaSum		= 0;
+		double crossEntropy			= 0;
+		double mixtureSum			= 0;
+		
+		// Flags are loop-invariant, so that the JIT can unswitch the loop into one specialized loop per combination.
+		for (int i = 0; i < p_i.length; i++) {
+			if (useL2) {
+				final double diff	= (double)p_i[i] - q_i[i];
+				l2Sum				+= diff * diff;
+			}
+			
+			if (useSqrt) {
+				final double diff	= (double)sqrt_p[i] - sqrt_q[i];
+				hellingerSum		+= diff * diff;
+				bhattacharyyaSum	+= (double)sqrt_p[i] * sqrt_q[i];
+			}
+			
+			// 0 * log(0) is defined as 0.
+			if (useKullbackLeibler && p_i[i] > 0)
+				crossEntropy += (double)p_i[i] * log2_q[i];
+			
+			if (useJensenShannon) {
+				final double currentValue_M = ((double)p_i[i] + q_i[i]) / 2;
+				if (currentValue_M > 0)
+					mixtureSum += currentValue_M * Math.log(currentValue_M);
+			}
+		}
+		
+		for (int i = 0; i < types.length; i++) {
+			switch (types[i]) {
+				case L2:
+					results[i] = Math.sqrt(l2Sum);
+				break;
+				
+				case Hellinger:
+					results[i] = hellingerSum / Math.sqrt(2);
+				break;
+				
+				case Bhattacharyya:
+					results[i] = (Math.log(bhattacharyyaSum) / log2) * (-1);
+				break;
+				
+				case KullbackLeibler:
+					results[i] = p.getNegativeEntropy() - crossEntropy;
+				break;
+				
+				case JensenShannon:
+					results[i] = 0.5 * (p.getNegativeEntropy() + q.getNegativeEntropy()) - mixtureSum / log2;
+				break;
+			}
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package model.topic;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Registry of topic distance metrics, keyed by {@link TopicDistance}. Initially holds the default metrics,
+ * which are based on {@link TopicDistanceKernels}; these may be replaced by registering another implementation
+ * for the same key.
+ * @author RM
+ *
+ */
+public final class TopicDistanceMetrics
+{
+	private static final Map<TopicDistance, ITopicDistanceMetric> metrics = new EnumMap<TopicDistance, ITopicDistanceMetric>(TopicDistance.class);
+	
+	static {
+		for (TopicDistance type : TopicDistance.values()) {
+			metrics.put(type, new DefaultMetric(type));
+		}
+	}
+	
+	private TopicDistanceMetrics()
+	{
+	}
+	
+	/**
+	 * Registers metric for its key, replacing the metric registered before.
+	 * @param metric
+	 */
+	public static synchronized void register(final ITopicDistanceMetric metric)
+	{
+		metrics.put(metric.getType(), metric);
+	}
+	
+	/**
+	 * @param type
+	 * @return Metric currently registered for the specified key.
+	 */
+	public static synchronized ITopicDistanceMetric get(final TopicDistance type)
+	{
+		return metrics.get(type);
+	}
+	
+	/**
+	 * @param types
+	 * @return Metrics currently registered for the specified keys, in the same order.
+	 */
+	public static synchronized ITopicDistanceMetric[] get(final TopicDistance[] types)
+	{
+		ITopicDistanceMetric[] result = new ITopicDistanceMetric[types.length];
+		for (int i = 0; i < types.length; i++) {
+			result[i] = metrics.get(types[i]);
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Checks whether all specified metrics are default metrics, i.e. whether they may be evaluated 
+	 * in one pass (see {@link Topic#calculateDistances(Topic, TopicDistance[], double[])}).
+	 * @param metrics
+	 * @return
+	 */
+	public static boolean areDefaultMetrics(final ITopicDistanceMetric[] metrics)
+	{
+		for (ITopicDistanceMetric metric : metrics) {
+			if (!(metric instanceof DefaultMetric))
+				return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Default metric: Array kernels from {@link TopicDistanceKernels} for dense topics, map-based methods in {@link Topic} otherwise.
+	 */
+	private static class DefaultMetric implements ITopicDistanceMetric
+	{
+		private final TopicDistance type;
+		
+		public DefaultMetric(final TopicDistance type)
+		{
+			this.type = type;
+		}
+		
+		@Override
+		public TopicDistance getType()
+		{
+			return type;
+		}
+		
+		@Override
+		public double calculateDistance(final float[] p, final float[] q)
+		{
+			return TopicDistanceKernels.calculateDistance(p, q, type);
+		}
+		
+		@Override
+		public double calculateDistance(final Topic topic1, final Topic topic2)
+		{
+			return topic1.calculateDistance(topic2, type);
+		}
+	}
+}
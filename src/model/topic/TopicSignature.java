@@ -0,0 +1,100 @@
+package model.topic;
+
+import java.util.Arrays;
+
+/**
+ * Coarse summary of a dense probability vector: Columns of its most probable keywords and its total probability mass.
+ * Comparing two topics on the union of their signatures (all other keywords merged into one bucket) yields
+ * a lower bound for their distance at a fraction of the cost of the exact comparison (see {@link TopicDistanceBounds}).
+ * @author RM
+ *
+ */
+public final class TopicSignature
+{
+	/**
+	 * Default number of keywords per signature.
+	 */
+	public static final int DEFAULT_SIZE = 32;
+	
+	/**
+	 * Columns (see {@link KeywordDictionary}) of the most probable keywords in ascending order.
+	 */
+	private final int[] columns;
+	/**
+	 * Total probability mass of all keywords.
+	 */
+	private final double totalMass;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	private TopicSignature(final int[] columns, final double totalMass)
+	{
+		this.columns	= columns;
+		this.totalMass	= totalMass;
+	}
+	
+	/**
+	 * Creates signature of the specified dense probability vector.
+	 * @param probabilities
+	 * @param size Number of keywords to retain (at most the number of keywords in the vector).
+	 * @return
+	 */
+	public static TopicSignature create(final float[] probabilities, final int size)
+	{
+		if (size <= 0)
+			throw new IllegalArgumentException("Size of topic signature has to be positive.");
+		
+		/*
+		 * 1. Determine threshold: Probability of the size-th most probable keyword.
+		 */
+		
+		final int numberOfRetainedKeywords	= Math.min(size, probabilities.length);
+		float[] sortedProbabilities			= probabilities.clone();
+		double totalMass					= 0;
+		Arrays.sort(sortedProbabilities);
+		for (int i = 0; i < sortedProbabilities.length; i++) {
+			totalMass += sortedProbabilities[i];
+		}
+		
+		if (numberOfRetainedKeywords == 0)
+			return new TopicSignature(new int[0], totalMass);
+		
+		final float threshold	= sortedProbabilities[sortedProbabilities.length - numberOfRetainedKeywords];
+		int numberOfTies		= numberOfRetainedKeywords;
+		for (int i = sortedProbabilities.length - 1; i >= 0 && sortedProbabilities[i] > threshold; i--) {
+			numberOfTies--;
+		}
+		
+		/*
+		 * 2. Collect keywords above threshold and as many keywords at threshold as necessary (in order of columns).
+		 */
+		
+		int[] columns = new int[numberOfRetainedKeywords];
+		for (int i = 0, j = 0; i < probabilities.length && j < numberOfRetainedKeywords; i++) {
+			if (probabilities[i] > threshold || (probabilities[i] == threshold && numberOfTies-- > 0))
+				columns[j++] = i;
+		}
+		
+		return new TopicSignature(columns, totalMass);
+	}
+	
+	/**
+	 * @return Number of retained keywords.
+	 */
+	public int size()
+	{
+		return columns.length;
+	}
+	
+	public int[] getColumns()
+	{
+		return columns;
+	}
+	
+	public double getTotalMass()
+	{
+		return totalMass;
+	}
+}
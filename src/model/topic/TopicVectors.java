@@ -0,0 +1,139 @@
+package model.topic;
+
+/**
+ * Per-topic terms of the topic distance formulas, derived once from a dense probability vector p:
+ * sqrt(p) (Hellinger, Bhattacharyya), log_2(p) (Kullback-Leibler) and sum(p * log_2(p)) (Kullback-Leibler, Jensen-Shannon).
+ * Only the terms needed by the metrics specified at creation are calculated.
+ * Used by {@link TopicDistanceKernels}, so that comparisons of two topics consist of multiplications and additions only
+ * (apart from the mixture term of the Jensen-Shannon divergence, which depends on both topics).
+ * @author RM
+ *
+ */
+public final class TopicVectors
+{
+	/**
+	 * Probability vector the terms were derived from (not copied).
+	 */
+	private final float[] probabilities;
+	/**
+	 * sqrt(p_i). Null if not calculated.
+	 */
+	private final float[] sqrtProbabilities;
+	/**
+	 * log_2(p_i) (-Infinity for p_i = 0). Null if not calculated.
+	 */
+	private final float[] log2Probabilities;
+	/**
+	 * sum(p_i * log_2(p_i)), i.e. the negative entropy of p (0 * log(0) is defined as 0). NaN if not calculated.
+	 */
+	private final double negativeEntropy;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	private TopicVectors(final float[] probabilities, final float[] sqrtProbabilities, final float[] log2Probabilities, final double negativeEntropy)
+	{
+		this.probabilities		= probabilities;
+		this.sqrtProbabilities	= sqrtProbabilities;
+		this.log2Probabilities	= log2Probabilities;
+		this.negativeEntropy	= negativeEntropy;
+	}
+	
+	/**
+	 * Derives all terms needed by the specified metrics from a probability vector.
+	 * @param probabilities
+	 * @param types
+	 * @return
+	 */
+	public static TopicVectors create(final float[] probabilities, final TopicDistance[] types)
+	{
+		boolean useSqrt		= false;
+		boolean useLog		= false;
+		boolean useEntropy	= false;
+		
+		for (TopicDistance type : types) {
+			useSqrt		|= type == TopicDistance.Hellinger || type == TopicDistance.Bhattacharyya;
+			useLog		|= type == TopicDistance.KullbackLeibler;
+			useEntropy	|= type == TopicDistance.KullbackLeibler || type == TopicDistance.JensenShannon;
+		}
+		
+		final float[] sqrtProbabilities	= useSqrt ? new float[probabilities.length] : null;
+		final float[] log2Probabilities	= useLog ? new float[probabilities.length] : null;
+		double negativeEntropy			= 0;
+		
+		for (int i = 0; i < probabilities.length; i++) {
+			final double p_i = probabilities[i];
+			
+			if (useSqrt)
+				sqrtProbabilities[i] = (float)Math.sqrt(p_i);
+			
+			if (useLog || useEntropy) {
+				final double log2_p = Math.log(p_i) / TopicDistanceKernels.log2;
+				
+				if (useLog)
+					log2Probabilities[i] = (float)log2_p;
+				if (useEntropy && p_i > 0)
+					negativeEntropy += p_i * log2_p;
+			}
+		}
+		
+		return new TopicVectors(probabilities, sqrtProbabilities, log2Probabilities, useEntropy ? negativeEntropy : Double.NaN);
+	}
+	
+	/**
+	 * @param type
+	 * @return True if all terms needed by the specified metric are available.
+	 */
+	public boolean supports(final TopicDistance type)
+	{
+		switch (type) {
+			case Hellinger:
+			case Bhattacharyya:
+				return sqrtProbabilities != null;
+			
+			case KullbackLeibler:
+				return log2Probabilities != null;
+			
+			case JensenShannon:
+				return !Double.isNaN(negativeEntropy);
+			
+			default:
+				return true;
+		}
+	}
+	
+	/**
+	 * @param types
+	 * @return True if all terms needed by the specified metrics are available.
+	 */
+	public boolean supports(final TopicDistance[] types)
+	{
+		for (TopicDistance type : types) {
+			if (!supports(type))
+				return false;
+		}
+		
+		return true;
+	}
+	
+	public float[] getProbabilities()
+	{
+		return probabilities;
+	}
+	
+	public float[] getSqrtProbabilities()
+	{
+		return sqrtProbabilities;
+	}
+	
+	public float[] getLog2Probabilities()
+	{
+		return log2Probabilities;
+	}
+	
+	public double getNegativeEntropy()
+	{
+		return negativeEntropy;
+	}
+}
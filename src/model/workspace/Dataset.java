@@ -1,10 +1,14 @@
 package model.workspace;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import javafx.util.Pair;
 import model.LDAConfiguration;
+import model.topic.ITopicDistanceMetric;
 import model.topic.Topic;
+import model.topic.TopicDistance;
+import model.topic.TopicDistanceMetrics;
 
 /**
  * One instance of dataset corresponds to the output of a execution of the LDA
@@ -55,23 +59,253 @@ public class Dataset
 	
 	/**
 	 * Calculates symmetric distance between two datasets.
-	 * @param dataset1
-	 * @param dataset2
+	 * Fills the specified topic distance matrix (rows: topics of this dataset, columns: topics
+	 * of the specified dataset) and derives the dataset distance from it.
+	 * @param dataset
 	 * @param distanceType
-	 * @param test 
+	 * @param topicDistances
 	 * @return
 	 */
 	public double calculateDatasetDistance(final Dataset dataset, DatasetDistance distanceType, double[][] topicDistances)
 	{
-		double distance = 0;
+		calculateTopicDistances(dataset, topicDistances);
+		
+		return calculateDatasetDistance(topicDistances, distanceType);
+	}
+	
+	/**
+	 * Calculates the distances between all topics of this and the specified dataset.
+	 * Every topic pair is evaluated exactly once; both directed dataset distances are
+	 * then derived from the returned matrix (see {@link Dataset#calculateDatasetDistance(double[][], DatasetDistance)}).
+	 * @param dataset
+	 * @return Topic distance matrix with k1 rows (topics of this dataset) and k2 columns (topics of the specified dataset).
+	 */
+	public double[][] calculateTopicDistances(final Dataset dataset)
+	{
+		double[][] topicDistances = new double[topics.size()][dataset.getTopics().size()];
+		calculateTopicDistances(dataset, topicDistances);
+		
+		return topicDistances;
+	}
+	
+	/**
+	 * Calculates the distances between all topics of this and the specified dataset and
+	 * stores them in the specified k1 x k2 matrix.
+	 * @param dataset
+	 * @param topicDistances
+	 */
+	public void calculateTopicDistances(final Dataset dataset, double[][] topicDistances)
+	{
+		ArrayList<Topic> topics1 = this.getTopics();
+		ArrayList<Topic> topics2 = dataset.getTopics();
+		
+		for (int i = 0; i < topics1.size(); i++) {
+			Topic currentTopic		= topics1.get(i);
+			double[] currentRow		= topicDistances[i];
+			
+			for (int j = 0; j < topics2.size(); j++) {
+				currentRow[j] = currentTopic.calculateBhattacharyyaDistance(topics2.get(j));
+			}
+		}
+	}
+	
+	/**
+	 * Calculates the distances between all topics of this and the specified dataset for several metrics.
+	 * Every topic pair is visited once; default metrics are evaluated in one pass over the probability vectors.
+	 * @param dataset
+	 * @param metrics
+	 * @return Topic distance matrices (one per metric, in the same order) with k1 rows (topics of this dataset) 
+	 * and k2 columns (topics of the specified dataset).
+	 */
+	public double[][][] calculateTopicDistances(final Dataset dataset, final ITopicDistanceMetric[] metrics)
+	{
+		ArrayList<Topic> topics1		= this.getTopics();
+		ArrayList<Topic> topics2		= dataset.getTopics();
+		double[][][] topicDistances		= new double[metrics.length][topics1.size()][topics2.size()];
+		
+		// Default metrics are evaluated together, replaced ones one by one.
+		final boolean isFusable			= TopicDistanceMetrics.areDefaultMetrics(metrics);
+		final TopicDistance[] types		= new TopicDistance[metrics.length];
+		final double[] results			= new double[metrics.length];
+		for (int m = 0; m < metrics.length; m++) {
+			types[m] = metrics[m].getType();
+		}
+		
+		for (int i = 0; i < topics1.size(); i++) {
+			Topic currentTopic = topics1.get(i);
+			
+			for (int j = 0; j < topics2.size(); j++) {
+				if (isFusable) {
+					currentTopic.calculateDistances(topics2.get(j), types, results);
+				}
+				
+				else {
+					for (int m = 0; m < metrics.length; m++) {
+						results[m] = metrics[m].calculateDistance(currentTopic, topics2.get(j));
+					}
+				}
+				
+				for (int m = 0; m < metrics.length; m++) {
+					topicDistances[m][i][j] = results[m];
+				}
+			}
+		}
+		
+		return topicDistances;
+	}
+	
+	/**
+	 * Calculates the Hausdorff distance between this and the specified dataset (see {@link DatasetDistance#HausdorffDistance}) without
+	 * evaluating the complete topic distance matrix: Per direction, topics are visited in order of decreasing smallest lower bound (see
+	 * {@link Topic#calculateDistanceLowerBound(Topic, TopicDistance)}), their counterparts in order of increasing lower bound.
+	 * Visiting a topic's counterparts stops as soon as the minimum found so far doesn't exceed the maximal minimum of the previous
+	 * topics (the topic can't change the result) or the lower bound of the next counterpart (the minimum is found).
+	 * Evaluated topic distances are shared by both directions. Yields the same distance as the complete matrix; without lower bounds
+	 * (no signatures, replaced or unsupported metric), only the first criterion applies.
+	 * @param dataset
+	 * @param metric
+	 * @return
+	 */
+	public double calculateHausdorffDistance(final Dataset dataset, final ITopicDistanceMetric metric)
+	{
+		ArrayList<Topic> topics1	= this.getTopics();
+		ArrayList<Topic> topics2	= dataset.getTopics();
+		final int k1				= topics1.size();
+		final int k2				= topics2.size();
+		
+		if (k1 == 0 || k2 == 0)
+			return 0;
+		
+		/*
+		 * 1. Calculate lower bounds for all topic pairs. Bounds refer to the default formulas, hence replaced metrics are not bounded.
+		 */
+		
+		final boolean useBounds			= TopicDistanceMetrics.areDefaultMetrics(new ITopicDistanceMetric[] {metric});
+		final double[][] lowerBounds	= new double[k1][k2];
+		// Evaluated topic distances (NaN if not evaluated yet).
+		final double[][] topicDistances	= new double[k1][k2];
+		
+		for (int i = 0; i < k1; i++) {
+			Topic currentTopic = topics1.get(i);
+			
+			for (int j = 0; j < k2; j++) {
+				lowerBounds[i][j] = useBounds ? currentTopic.calculateDistanceLowerBound(topics2.get(j), metric.getType()) : Double.NEGATIVE_INFINITY;
+			}
+			
+			Arrays.fill(topicDistances[i], Double.NaN);
+		}
+		
+		/*
+		 * 2. Calculate both directed distances.
+		 */
+		
+		final double maxRowMinDistance		= calculateDirectedHausdorffDistance(topics1, topics2, metric, lowerBounds, topicDistances, false);
+		final double maxColumnMinDistance	= calculateDirectedHausdorffDistance(topics1, topics2, metric, lowerBounds, topicDistances, true);
+		
+		return (maxRowMinDistance + maxColumnMinDistance) / 2;
+	}
+	
+	/**
+	 * Calculates the maximal minimal topic distance from the topics of one dataset to the topics of the other one
+	 * (see {@link Dataset#calculateHausdorffDistance(Dataset, ITopicDistanceMetric)}).
+	 * @param topics1 Topics of the first dataset (rows of lowerBounds and topicDistances).
+	 * @param topics2 Topics of the second dataset (columns of lowerBounds and topicDistances).
+	 * @param metric
+	 * @param lowerBounds
+	 * @param topicDistances Evaluated topic distances (NaN if not evaluated yet). Receives newly evaluated topic distances.
+	 * @param isReversed If true, the distance from the second to the first dataset (maximal column minimum) is calculated.
+	 * @return
+	 */
+	private static double calculateDirectedHausdorffDistance(	final ArrayList<Topic> topics1, final ArrayList<Topic> topics2, final ITopicDistanceMetric metric,
+																final double[][] lowerBounds, final double[][] topicDistances, final boolean isReversed)
+	{
+		final int numberOfSources				= isReversed ? topics2.size() : topics1.size();
+		final int numberOfTargets				= isReversed ? topics1.size() : topics2.size();
+		// Lower bounds from each source topic to all target topics.
+		final double[][] sourceBounds			= new double[numberOfSources][numberOfTargets];
+		// Negated smallest lower bound of each source topic.
+		final double[] negatedSmallestBounds	= new double[numberOfSources];
+		double maxMinDistance					= 0;
+		
+		for (int s = 0; s < numberOfSources; s++) {
+			double smallestBound = Double.MAX_VALUE;
+			
+			for (int t = 0; t < numberOfTargets; t++) {
+				sourceBounds[s][t]	= isReversed ? lowerBounds[t][s] : lowerBounds[s][t];
+				smallestBound		= smallestBound > sourceBounds[s][t] ? sourceBounds[s][t] : smallestBound;
+			}
+			
+			negatedSmallestBounds[s] = -smallestBound;
+		}
+		
+		// Source topics far from all targets are visited first, since they are likely to raise the maximal minimum early on.
+		for (int s : sortIndices(negatedSmallestBounds)) {
+			final double[] currentBounds	= sourceBounds[s];
+			double minDistance				= Double.MAX_VALUE;
+			
+			for (int t : sortIndices(currentBounds)) {
+				// Source topic can't raise maximal minimum anymore or remaining targets can't undercut the minimum.
+				if (minDistance <= maxMinDistance || currentBounds[t] >= minDistance)
+					break;
+				
+				final int row		= isReversed ? t : s;
+				final int column	= isReversed ? s : t;
+				if (Double.isNaN(topicDistances[row][column]))
+					topicDistances[row][column] = metric.calculateDistance(topics1.get(row), topics2.get(column));
+				
+				minDistance = minDistance > topicDistances[row][column] ? topicDistances[row][column] : minDistance;
+			}
+			
+			maxMinDistance = maxMinDistance < minDistance ? minDistance : maxMinDistance;
+		}
+		
+		return maxMinDistance;
+	}
+	
+	/**
+	 * Sorts indices by insertion sort (intended for small arrays, e.g. one entry per topic).
+	 * @param values
+	 * @return Indices of values in ascending order of values. Indices of equal values keep their order.
+	 */
+	private static int[] sortIndices(final double[] values)
+	{
+		int[] indices = new int[values.length];
+		
+		for (int i = 0; i < values.length; i++) {
+			int j = i;
+			for (; j > 0 && values[indices[j - 1]] > values[i]; j--) {
+				indices[j] = indices[j - 1];
+			}
 			
+			indices[j] = i;
+		}
+		
+		return indices;
+	}
+	
+	/**
+	 * Derives the symmetric distance between two datasets from their topic distance matrix.
+	 * Both directed distances are obtained in one pass over the matrix: Row minima yield 
+	 * the distances from the first to the second dataset, column minima the reverse direction.
+	 * @param topicDistances Topic distance matrix as calculated by {@link Dataset#calculateTopicDistances(Dataset)}.
+	 * @param distanceType
+	 * @return
+	 */
+	public static double calculateDatasetDistance(final double[][] topicDistances, DatasetDistance distanceType)
+	{
+		double distance = 0;
+		
 		switch (distanceType) {
 			case MinimalDistance:
-				distance = (calculateMinimalDatasetDistance(dataset, topicDistances, false) + dataset.calculateMinimalDatasetDistance(this, topicDistances, true)) / 2;
+				distance = calculateMinimalDatasetDistance(topicDistances);
 			break;
 			
 			case HausdorffDistance:
-				distance = (calculateHausdorffDatasetDistance(dataset, topicDistances, false) + dataset.calculateHausdorffDatasetDistance(this, topicDistances, true)) / 2;
+				distance = calculateHausdorffDatasetDistance(topicDistances);
+			break;
+			
+			case AverageMinimalDistance:
+				distance = calculateAverageMinimalDatasetDistance(topicDistances);
 			break;
 			
 			default:
@@ -82,80 +316,154 @@ public class Dataset
 	}
 	
 	/**
-	 * Calculates distance between two datasets using the average of all minimal distances between
-	 * one topic of one dataset and all topics of the other Workspace.
-	 * @param dataset
+	 * Calculates distance between two datasets using the minimal distance between any topic
+	 * of one dataset and any topic of the other dataset.
+	 * Note that the minimum is the same in both directions, hence the average of the two 
+	 * directed distances equals the directed distance.
 	 * @param topicDistances
-	 * @param reversedCallOrder
 	 * @return
 	 */
-	private double calculateMinimalDatasetDistance(final Dataset dataset, double[][] topicDistances, boolean reversedCallOrder)
+	private static double calculateMinimalDatasetDistance(final double[][] topicDistances)
 	{
 		double minDistance	= Double.MAX_VALUE;
-		Topic currentTopic	= null;
+		final int k1		= topicDistances.length;
+		final int k2		= k1 > 0 ? topicDistances[0].length : 0;
 		
-		ArrayList<Topic> topics1 = this.getTopics();
-		ArrayList<Topic> topics2 = dataset.getTopics();
+		for (int i = 0; i < k1; i++) {
+			for (int j = 0; j < k2; j++) {
+				minDistance = minDistance > topicDistances[i][j] ? topicDistances[i][j] : minDistance;
+			}
+		}
 		
-		// Iterate through all topics of one dataset, compare each of them with all topics of the other dataset, pick minimal distance, sum up distances.
-		for (int i = 0; i < topics1.size(); i++) {
-			currentTopic = topics1.get(i);
+		// Return normalized distance.
+		return minDistance / (k1 * k2);
+	}
+	
+	/**
+	 * Calculates distance between two datasets using the Hausdorff distance, i.e. the average of
+	 * the maximal row minimum (first to second dataset) and the maximal column minimum (second to 
+	 * first dataset) of the topic distance matrix.
+	 * @param topicDistances
+	 * @return
+	 */
+	private static double calculateHausdorffDatasetDistance(final double[][] topicDistances)
+	{
+		final int k1					= topicDistances.length;
+		final int k2					= k1 > 0 ? topicDistances[0].length : 0;
+		// Minimal distance for each topic of the second dataset.
+		final double[] columnMinima		= new double[k2];
+		double maxRowMinDistance		= 0;
+		double maxColumnMinDistance		= 0;
+		
+		Arrays.fill(columnMinima, Double.MAX_VALUE);
+		
+		for (int i = 0; i < k1; i++) {
+			final double[] currentRow	= topicDistances[i];
+			double rowMinDistance		= Double.MAX_VALUE;
 			
-			// Unrolled loop to avoid calculation of distance i to i without using an if.
-			for (int j = 0; j < topics2.size(); j++) {
-				double distance	= currentTopic.calculateBhattacharyyaDistance(topics2.get(j)); 
-				minDistance		= minDistance > distance ? distance : minDistance;
-				
-				// Store topic distance in topic distance matrix.
-				if (!reversedCallOrder)
-					topicDistances[i][j] += distance / 2;
-				else 
-					topicDistances[j][i] += distance / 2;
-			}	
+			for (int j = 0; j < k2; j++) {
+				final double distance	= currentRow[j];
+				rowMinDistance			= rowMinDistance > distance ? distance : rowMinDistance;
+				columnMinima[j]			= columnMinima[j] > distance ? distance : columnMinima[j];
+			}
+			
+			maxRowMinDistance = maxRowMinDistance < rowMinDistance ? rowMinDistance : maxRowMinDistance;
 		}
 		
-		// Return normalized distance.
-		return minDistance / (topics1.size() * topics2.size());
+		for (int j = 0; j < k2; j++) {
+			maxColumnMinDistance = maxColumnMinDistance < columnMinima[j] ? columnMinima[j] : maxColumnMinDistance;
+		}
+		
+		return (maxRowMinDistance + maxColumnMinDistance) / 2;
 	}
 	
 	/**
-	 * Calculates distance between two datasets using the Hausdorff distance.
-	 * @param dataset
+	 * Calculates distance between two datasets using the average minimal distance, i.e. the average of
+	 * the mean row minimum (first to second dataset) and the mean column minimum (second to first dataset)
+	 * of the topic distance matrix.
 	 * @param topicDistances
-	 * @param reversedCallOrder
 	 * @return
 	 */
-	private double calculateHausdorffDatasetDistance(final Dataset dataset, double[][] topicDistances, boolean reversedCallOrder)
+	private static double calculateAverageMinimalDatasetDistance(final double[][] topicDistances)
 	{
-		double minDistance		= Double.MAX_VALUE;
-		double maxMinDistance	= 0;
-		Topic currentTopic		= null;
+		final int k1					= topicDistances.length;
+		final int k2					= k1 > 0 ? topicDistances[0].length : 0;
+		// Minimal distance for each topic of the second dataset.
+		final double[] columnMinima		= new double[k2];
+		double rowMinDistanceSum		= 0;
+		double columnMinDistanceSum		= 0;
 		
-		ArrayList<Topic> topics1 = this.getTopics();
-		ArrayList<Topic> topics2 = dataset.getTopics();
+		if (k1 == 0 || k2 == 0)
+			return 0;
 		
-		// Iterate through all topics of one dataset, compare each of them with all topics of the other dataset, pick minimal distance, sum up distances.
-		for (int i = 0; i < topics1.size(); i++) {
-			currentTopic 	= topics1.get(i);
-			minDistance		= Double.MAX_VALUE;
+		Arrays.fill(columnMinima, Double.MAX_VALUE);
+		
+		for (int i = 0; i < k1; i++) {
+			final double[] currentRow	= topicDistances[i];
+			double rowMinDistance		= Double.MAX_VALUE;
 			
-			// Unrolled loop to avoid calculation of distance i to i without using an if.
-			for (int j = 0; j < topics2.size(); j++) {
-				double distance = currentTopic.calculateBhattacharyyaDistance(topics2.get(j)); 
-				minDistance		= minDistance > distance ? distance : minDistance;
-				
-				// Store topic distance in topic distance matrix.
-				if (!reversedCallOrder)
-					topicDistances[i][j] += distance / 2;
-				else 
-					topicDistances[j][i] += distance / 2;				
+			for (int j = 0; j < k2; j++) {
+				final double distance	= currentRow[j];
+				rowMinDistance			= rowMinDistance > distance ? distance : rowMinDistance;
+				columnMinima[j]			= columnMinima[j] > distance ? distance : columnMinima[j];
 			}
 			
-			maxMinDistance = maxMinDistance < minDistance ? minDistance : maxMinDistance;
+			rowMinDistanceSum += rowMinDistance;
 		}
 		
-		// Return normalized distance.
-		return maxMinDistance;
+		for (int j = 0; j < k2; j++) {
+			columnMinDistanceSum += columnMinima[j];
+		}
+		
+		return (rowMinDistanceSum / k1 + columnMinDistanceSum / k2) / 2;
+	}
+	
+	/**
+	 * Precalculates the per-topic terms of the specified metrics for all topics (see {@link Topic#precalculateVectors(TopicDistance[])}).
+	 * @param distanceTypes
+	 */
+	public void precalculateTopicVectors(final TopicDistance[] distanceTypes)
+	{
+		for (Topic topic : topics) {
+			topic.precalculateVectors(distanceTypes);
+		}
+	}
+	
+	/**
+	 * Creates signatures of the specified size for all topics (see {@link Topic#precalculateSignature(int)}),
+	 * which are used by {@link Dataset#calculateHausdorffDistance(Dataset, ITopicDistanceMetric)}.
+	 * @param size Number of keywords per signature.
+	 */
+	public void precalculateTopicSignatures(final int size)
+	{
+		for (Topic topic : topics) {
+			topic.precalculateSignature(size);
+		}
+	}
+	
+	/**
+	 * Releases precalculated terms and signatures of all topics.
+	 */
+	public void discardPrecalculatedTopicVectors()
+	{
+		for (Topic topic : topics) {
+			topic.discardPrecalculatedVectors();
+		}
+	}
+	
+	/**
+	 * Creates copy of this dataset with sparse approximations of all (dense) topics (see {@link Topic#toSparseTopic(double)}).
+	 * @param mass Share of probability mass retained per topic, in (0, 1].
+	 * @return
+	 */
+	public Dataset toSparseDataset(final double mass)
+	{
+		ArrayList<Topic> sparseTopics = new ArrayList<Topic>(topics.size());
+		for (Topic topic : topics) {
+			sparseTopics.add(topic.toSparseTopic(mass));
+		}
+		
+		return new Dataset(parametrization, sparseTopics);
 	}
 	
 	// ######################################
@@ -180,6 +488,14 @@ public class Dataset
 		return topics;
 	}
 
+	/**
+	 * @return Returns {@link Dataset#parametrization}.
+	 */
+	public LDAConfiguration getLDAConfiguration()
+	{
+		return parametrization;
+	}
+	
 	/**
 	 * @return Returns {@link Dataset#calculatedMDSCoordinates}.
 	 */
@@ -0,0 +1,35 @@
+package model.workspace;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * Iterates over datasets one at a time, so that consumers may process and release datasets
+ * without holding the complete raw data in memory. Datasets are returned in order of their
+ * LDA configuration IDs. Cursors have to be closed after use.
+ * @author RM
+ *
+ */
+public abstract class DatasetCursor implements Iterator<Dataset>, AutoCloseable
+{
+	/**
+	 * Reads up to the specified number of datasets.
+	 * @param maxNumberOfDatasets
+	 * @return List of read datasets; empty if cursor is exhausted.
+	 */
+	public ArrayList<Dataset> readBlock(final int maxNumberOfDatasets)
+	{
+		ArrayList<Dataset> block = new ArrayList<Dataset>(Math.min(maxNumberOfDatasets, 256));
+		
+		while (block.size() < maxNumberOfDatasets && hasNext()) {
+			block.add(next());
+		}
+		
+		return block;
+	}
+	
+	@Override
+	public void close()
+	{
+	}
+}
@@ -1,6 +1,11 @@
 package model.workspace;
 
+/**
+ * Aggregations of a topic distance matrix to the distance between two datasets (see {@link Dataset#calculateDatasetDistance(double[][], DatasetDistance)}).
+ * @author RM
+ *
+ */
 public enum DatasetDistance
 {
-	MinimalDistance, HausdorffDistance
+	MinimalDistance, HausdorffDistance, AverageMinimalDistance
 }
@@ -0,0 +1,724 @@
+package model.workspace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javafx.util.Pair;
+import model.LDAConfiguration;
+import model.topic.ITopicDistanceMetric;
+import model.topic.SparseTopicDistanceKernels;
+import model.topic.TopicDistance;
+import model.topic.TopicDistanceMetrics;
+import model.topic.TopicSignature;
+import model.workspace.tasks.IProgressReporter;
+
+/**
+ * Calculates distances between datasets/topic models in parallel.
+ * The upper triangle (including the diagonal) of the dataset distance matrix is split into
+ * square tiles, which are processed independently on an executor. Every pair of datasets
+ * is owned by exactly one tile, so tiles write into disjoint cells of the distance matrix;
+ * topic distance matrices are collected per tile and merged after all tiles have finished.
+ * All metrics of a {@link DistanceMetricSet} are calculated in the same pass over the topic pairs; the primary
+ * metric is written to the distance matrix, topic distances and all other dataset distances are handed to consumers.
+ * Per-topic terms of the metrics (square roots, logarithms) are precalculated once per dataset and block, not per topic pair.
+ * Optionally, distances are approximated based on sparse topics (see {@link DatasetDistanceEngine#setApproximationMass(double)}).
+ * If topic distances are not required, Hausdorff distances are calculated from the needed topic pairs only (see {@link DatasetDistanceEngine#setDatasetDistancesOnly(boolean)}).
+ * Raw data may either be provided completely in memory or streamed from a {@link IDatasetSource},
+ * in which case only a bounded window of datasets is held in memory.
+ * @author RM
+ *
+ */
+public class DatasetDistanceEngine
+{
+	/**
+	 * Default number of datasets per tile side.
+	 */
+	public static final int DEFAULT_TILE_SIZE = 16;
+	/**
+	 * Default number of datasets held in memory at once when streaming raw data.
+	 */
+	public static final int DEFAULT_WINDOW_SIZE = 64;
+	
+	/**
+	 * Executor processing the tiles.
+	 */
+	private ExecutorService executor;
+	/**
+	 * Indicates whether the executor was created by this engine (and hence has to be shut down by it).
+	 */
+	private boolean ownsExecutor;
+	/**
+	 * Number of datasets per tile side.
+	 */
+	private int tileSize;
+	/**
+	 * Share of probability mass retained by sparse topics, if distances are approximated. 0 for exact distances.
+	 */
+	private double approximationMass;
+	/**
+	 * Indicates whether only dataset distances are required, i.e. topic distance matrices are not handed to consumers.
+	 */
+	private boolean datasetDistancesOnly;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	/**
+	 * Creates engine with a dedicated ForkJoinPool.
+	 * @param numberOfThreads Number of worker threads. Values <= 0 select the number of available cores.
+	 * @param tileSize Number of datasets per tile side. Values <= 0 select {@link DatasetDistanceEngine#DEFAULT_TILE_SIZE}.
+	 */
+	public DatasetDistanceEngine(int numberOfThreads, int tileSize)
+	{
+		this(new ForkJoinPool(numberOfThreads > 0 ? numberOfThreads : Runtime.getRuntime().availableProcessors()), tileSize);
+		this.ownsExecutor = true;
+	}
+	
+	/**
+	 * Creates engine using the specified executor. The executor is not shut down by this engine.
+	 * @param executor
+	 * @param tileSize Number of datasets per tile side. Values <= 0 select {@link DatasetDistanceEngine#DEFAULT_TILE_SIZE}.
+	 */
+	public DatasetDistanceEngine(ExecutorService executor, int tileSize)
+	{
+		this.executor		= executor;
+		this.ownsExecutor	= false;
+		this.tileSize		= tileSize > 0 ? tileSize : DEFAULT_TILE_SIZE;
+	}
+	
+	/**
+	 * Calculates distances between all pairs of the specified datasets (upper triangle including diagonal).
+	 * All datasets have to be in memory.
+	 * @param ldaConfigurations List of LDA configurations, ordered by configuration ID. Row/column i in distances refers to ldaConfigurations.get(i).
+	 * @param datasetMap Datasets for the specified LDA configurations.
+	 * @param metrics
+	 * @param mustCalculate Flags for each LDA configuration. Pair (i, j) is only calculated if mustCalculate[i] or mustCalculate[j]
+	 * is set. May be null, in which case all pairs are calculated.
+	 * @param distances Matrix in which calculated dataset distances of the primary metric are stored (symmetrically).
+	 * @param topicDistanceConsumer Receives topic distance matrices (key is the pair (ldaConfigurations.get(i), ldaConfigurations.get(j)) with i <= j). May be null, if only dataset distances are required.
+	 * @param datasetDistanceConsumer Receives dataset distances of all non-primary metrics. May be null, if only the primary metric is selected.
+	 * @param progressReporter Optional, may be null.
+	 * @return Number of calculated pairs.
+	 * @throws Exception If the calculation failed or a consumer threw an exception.
+	 */
+	public long calculateDistances(	final ArrayList<LDAConfiguration> ldaConfigurations, final Map<LDAConfiguration, Dataset> datasetMap,
+									final DistanceMetricSet metrics, final boolean[] mustCalculate, final WritableDistanceMatrix distances, 
+									final ITopicDistanceConsumer topicDistanceConsumer, final IDatasetDistanceConsumer datasetDistanceConsumer,
+									final IProgressReporter progressReporter) throws Exception
+	{
+		final int n					= ldaConfigurations.size();
+		// Number of processed (calculated or skipped) pairs.
+		final AtomicLong progress	= new AtomicLong(0);
+		
+		// Resolve datasets once, so that tiles only access arrays.
+		final Dataset[] datasets	= new Dataset[n];
+		final int[] indices			= new int[n];
+		for (int i = 0; i < n; i++) {
+			datasets[i] = datasetMap.get(ldaConfigurations.get(i));
+			indices[i]	= i;
+		}
+		
+		prepareDatasets(datasets, metrics);
+		
+		try {
+			// Process complete matrix as one (diagonal) block.
+			Map<Pair<LDAConfiguration, LDAConfiguration>, double[][][]> blockTopicDistances = calculateBlock(	datasets, indices, datasets, indices, true, metrics, mustCalculate, 
+																											distances, progress, (long)n * (n + 1) / 2, progressReporter);
+			deliverBlock(blockTopicDistances, metrics, true, datasetDistanceConsumer, datasetDistancesOnly ? null : topicDistanceConsumer);
+			
+			return blockTopicDistances.size();
+		}
+		
+		finally {
+			// Datasets remain in memory after calculation, precalculated terms are not needed anymore.
+			for (Dataset dataset : datasets) {
+				if (dataset != null)
+					dataset.discardPrecalculatedTopicVectors();
+			}
+		}
+	}
+	
+	/**
+	 * Calculates distances between all pairs of the specified datasets (upper triangle including diagonal), reading
+	 * raw data from the specified source in a streaming fashion: Datasets are processed in windows of the specified size, 
+	 * each window is compared with itself and with all subsequent datasets (which are streamed in blocks of the same size). 
+	 * At most two windows are held in memory at any time; topic distances are handed to the consumer after each block.
+	 * @param source
+	 * @param ldaConfigurations List of LDA configurations, ordered by configuration ID. Row/column i in distances refers to ldaConfigurations.get(i).
+	 * @param metrics
+	 * @param mustCalculate Flags for each LDA configuration (see {@link DatasetDistanceEngine#calculateDistances(ArrayList, Map, DistanceMetricSet, boolean[], WritableDistanceMatrix, ITopicDistanceConsumer, IDatasetDistanceConsumer, IProgressReporter)}). May be null.
+	 * @param windowSize Number of datasets per window. Values <= 0 select {@link DatasetDistanceEngine#DEFAULT_WINDOW_SIZE}.
+	 * @param distances Matrix in which calculated dataset distances of the primary metric are stored (symmetrically).
+	 * @param topicDistanceConsumer Receives topic distance matrices after each block. May be null, if only dataset distances are required.
+	 * @param datasetDistanceConsumer Receives dataset distances of all non-primary metrics after each block. May be null, if only the primary metric is selected.
+	 * @param progressReporter Optional, may be null.
+	 * @return Number of calculated pairs.
+	 * @throws Exception
+	 */
+	public long calculateDistances(	final IDatasetSource source, final ArrayList<LDAConfiguration> ldaConfigurations,
+									final DistanceMetricSet metrics, final boolean[] mustCalculate, final int windowSize,
+									final WritableDistanceMatrix distances, final ITopicDistanceConsumer topicDistanceConsumer,
+									final IDatasetDistanceConsumer datasetDistanceConsumer, final IProgressReporter progressReporter) throws Exception
+	{
+		final int n						= ldaConfigurations.size();
+		final int window				= windowSize > 0 ? windowSize : DEFAULT_WINDOW_SIZE;
+		final long totalNumberOfPairs	= (long)n * (n + 1) / 2;
+		final AtomicLong progress		= new AtomicLong(0);
+		long numberOfCalculatedPairs	= 0;
+		
+		// Translate configuration IDs into rows/columns of the distance matrix.
+		Map<Integer, Integer> indicesByConfigID = generateIndexMap(ldaConfigurations);
+		
+		for (int windowStart = 0; windowStart < n; windowStart += window) {
+			final int windowEnd = Math.min(windowStart + window, n);
+			
+			// No pair involving this or any subsequent window has to be calculated: Done.
+			if (mustCalculate != null && !containsFlag(mustCalculate, windowStart, n))
+				break;
+			
+			/*
+			 * 1. Read window, compare it with itself.
+			 */
+			
+			Pair<Dataset[], int[]> windowBlock = readWindow(source, ldaConfigurations.subList(windowStart, windowEnd), indicesByConfigID, indicesByConfigID);
+			prepareDatasets(windowBlock.getKey(), metrics);
+			
+			Map<Pair<LDAConfiguration, LDAConfiguration>, double[][][]> blockTopicDistances = calculateBlock(	windowBlock.getKey(), windowBlock.getValue(), windowBlock.getKey(), windowBlock.getValue(), true, 
+																											metrics, mustCalculate, distances, progress, totalNumberOfPairs, progressReporter);
+			numberOfCalculatedPairs += blockTopicDistances.size();
+			deliverBlock(blockTopicDistances, metrics, true, datasetDistanceConsumer, datasetDistancesOnly ? null : topicDistanceConsumer);
+			
+			/*
+			 * 2. Stream subsequent datasets in blocks, compare them with window.
+			 */
+			
+			if (windowEnd < n) {
+				DatasetCursor cursor = source.openCursor(ldaConfigurations.get(windowEnd).getConfigurationID(), ldaConfigurations.get(n - 1).getConfigurationID());
+				
+				try {
+					while (cursor.hasNext()) {
+						Pair<Dataset[], int[]> block = toIndexedBlock(cursor.readBlock(window), indicesByConfigID);
+						prepareDatasets(block.getKey(), metrics);
+						
+						blockTopicDistances = calculateBlock(	windowBlock.getKey(), windowBlock.getValue(), block.getKey(), block.getValue(), false, 
+																metrics, mustCalculate, distances, progress, totalNumberOfPairs, progressReporter);
+						numberOfCalculatedPairs += blockTopicDistances.size();
+						deliverBlock(blockTopicDistances, metrics, true, datasetDistanceConsumer, datasetDistancesOnly ? null : topicDistanceConsumer);
+					}
+				}
+				
+				finally {
+					cursor.close();
+				}
+			}
+		}
+		
+		// Pairs without raw data or skipped windows are not counted, hence progress has to be completed explicitly.
+		if (progressReporter != null)
+			progressReporter.updateTaskProgress(totalNumberOfPairs, totalNumberOfPairs);
+		
+		return numberOfCalculatedPairs;
+	}
+	
+	/**
+	 * Calculates only the distances between new datasets and all datasets (including the new ones), reading raw data 
+	 * from the specified source in a streaming fashion: New datasets are processed in windows of the specified size; 
+	 * each window is compared with itself and with all datasets it has not been compared with yet (streamed in blocks
+	 * of the same size). No complete distance matrix is allocated - dataset and topic distances are handed to the
+	 * consumers after each block, ordered such that the first LDA configuration of each pair has the lower ID.
+	 * Distances of datasets to themselves are only provided as topic distances.
+	 * @param source
+	 * @param ldaConfigurations All LDA configurations, ordered by configuration ID.
+	 * @param newLDAConfigIDs IDs of LDA configurations for which distances have to be calculated.
+	 * @param metrics
+	 * @param windowSize Number of datasets per window. Values <= 0 select {@link DatasetDistanceEngine#DEFAULT_WINDOW_SIZE}.
+	 * @param datasetDistanceConsumer Receives dataset distances of all metrics after each block.
+	 * @param topicDistanceConsumer Receives topic distance matrices after each block. May be null, if only dataset distances are required.
+	 * @param progressReporter Optional, may be null.
+	 * @return Number of calculated pairs.
+	 * @throws Exception
+	 */
+	public long calculateDistancesIncrementally(	final IDatasetSource source, final ArrayList<LDAConfiguration> ldaConfigurations, final Set<Integer> newLDAConfigIDs,
+													final DistanceMetricSet metrics, final int windowSize, 
+													final IDatasetDistanceConsumer datasetDistanceConsumer, final ITopicDistanceConsumer topicDistanceConsumer,
+													final IProgressReporter progressReporter) throws Exception
+	{
+		final int window				= windowSize > 0 ? windowSize : DEFAULT_WINDOW_SIZE;
+		final AtomicLong progress		= new AtomicLong(0);
+		long numberOfCalculatedPairs	= 0;
+		
+		// Translate configuration IDs into rows/columns of the (virtual) distance matrix.
+		Map<Integer, Integer> indicesByConfigID = generateIndexMap(ldaConfigurations);
+		
+		// Collect new LDA configurations (in order of their IDs).
+		ArrayList<LDAConfiguration> newLDAConfigurations = new ArrayList<LDAConfiguration>(newLDAConfigIDs.size());
+		for (LDAConfiguration ldaConfig : ldaConfigurations) {
+			if (newLDAConfigIDs.contains(ldaConfig.getConfigurationID()))
+				newLDAConfigurations.add(ldaConfig);
+		}
+		
+		final int n						= ldaConfigurations.size();
+		final int m						= newLDAConfigurations.size();
+		// Pairs among new datasets (including diagonal) plus pairs of new and existing datasets.
+		final long totalNumberOfPairs	= (long)m * (m + 1) / 2 + (long)m * (n - m);
+		
+		for (int windowStart = 0; windowStart < m; windowStart += window) {
+			final int windowEnd = Math.min(windowStart + window, m);
+			List<LDAConfiguration> windowConfigurations = newLDAConfigurations.subList(windowStart, windowEnd);
+			
+			// Datasets this window still has to be compared with: All except new ones in this or previous windows.
+			Map<Integer, Integer> remainingIndicesByConfigID = new HashMap<Integer, Integer>(indicesByConfigID);
+			for (LDAConfiguration ldaConfig : newLDAConfigurations.subList(0, windowEnd)) {
+				remainingIndicesByConfigID.remove(ldaConfig.getConfigurationID());
+			}
+			
+			/*
+			 * 1. Read window, compare it with itself.
+			 */
+			
+			Pair<Dataset[], int[]> windowBlock = readWindow(source, windowConfigurations, indicesByConfigID, generateIndexMap(windowConfigurations));
+			prepareDatasets(windowBlock.getKey(), metrics);
+			
+			Map<Pair<LDAConfiguration, LDAConfiguration>, double[][][]> blockTopicDistances = calculateBlock(	windowBlock.getKey(), windowBlock.getValue(), windowBlock.getKey(), windowBlock.getValue(), true, 
+																											metrics, null, null, progress, totalNumberOfPairs, progressReporter);
+			numberOfCalculatedPairs += blockTopicDistances.size();
+			deliverBlock(blockTopicDistances, metrics, false, datasetDistanceConsumer, datasetDistancesOnly ? null : topicDistanceConsumer);
+			
+			/*
+			 * 2. Stream all other datasets in blocks, compare them with window.
+			 */
+			
+			if (remainingIndicesByConfigID.isEmpty())
+				continue;
+			
+			DatasetCursor cursor = source.openCursor(ldaConfigurations.get(0).getConfigurationID(), ldaConfigurations.get(n - 1).getConfigurationID());
+			
+			try {
+				while (cursor.hasNext()) {
+					Pair<Dataset[], int[]> block = toIndexedBlock(cursor.readBlock(window), remainingIndicesByConfigID);
+					prepareDatasets(block.getKey(), metrics);
+					
+					blockTopicDistances = calculateBlock(	windowBlock.getKey(), windowBlock.getValue(), block.getKey(), block.getValue(), false, 
+															metrics, null, null, progress, totalNumberOfPairs, progressReporter);
+					numberOfCalculatedPairs += blockTopicDistances.size();
+					deliverBlock(blockTopicDistances, metrics, false, datasetDistanceConsumer, datasetDistancesOnly ? null : topicDistanceConsumer);
+				}
+			}
+			
+			finally {
+				cursor.close();
+			}
+		}
+		
+		if (progressReporter != null)
+			progressReporter.updateTaskProgress(totalNumberOfPairs, totalNumberOfPairs);
+		
+		return numberOfCalculatedPairs;
+	}
+	
+	/**
+	 * Orders the pairs of one block by configuration ID (transposing topic distance matrices where necessary),
+	 * derives dataset distances from the topic distance matrices and hands both to the consumers - 
+	 * topic distances once per topic distance metric, dataset distances once per combination of metrics.
+	 * @param blockTopicDistances Topic distance matrices per pair, one for each topic distance metric in metrics.
+	 * @param metrics
+	 * @param skipPrimaryDatasetDistances If true, dataset distances of the primary metric are not derived (since they were already stored in a distance matrix).
+	 * @param datasetDistanceConsumer May be null, if no dataset distances have to be delivered.
+	 * @param topicDistanceConsumer May be null, if topic distances are not required.
+	 * @throws Exception Exceptions of the consumers.
+	 */
+	private static void deliverBlock(	final Map<Pair<LDAConfiguration, LDAConfiguration>, double[][][]> blockTopicDistances, final DistanceMetricSet metrics, final boolean skipPrimaryDatasetDistances,
+										final IDatasetDistanceConsumer datasetDistanceConsumer, final ITopicDistanceConsumer topicDistanceConsumer) throws Exception
+	{
+		final TopicDistance[] topicDistanceTypes		= metrics.getTopicDistances();
+		final DatasetDistance[] datasetDistanceTypes	= metrics.getDatasetDistances();
+		
+		List<Map<Pair<LDAConfiguration, LDAConfiguration>, double[][]>> orderedTopicDistances	= new ArrayList<Map<Pair<LDAConfiguration, LDAConfiguration>, double[][]>>(topicDistanceTypes.length);
+		List<Map<Pair<LDAConfiguration, LDAConfiguration>, Double>> datasetDistances			= new ArrayList<Map<Pair<LDAConfiguration, LDAConfiguration>, Double>>(topicDistanceTypes.length * datasetDistanceTypes.length);
+		for (int t = 0; t < topicDistanceTypes.length; t++) {
+			orderedTopicDistances.add(new HashMap<Pair<LDAConfiguration, LDAConfiguration>, double[][]>(blockTopicDistances.size() * 2));
+			
+			for (int a = 0; a < datasetDistanceTypes.length; a++) {
+				datasetDistances.add(new HashMap<Pair<LDAConfiguration, LDAConfiguration>, Double>(blockTopicDistances.size() * 2));
+			}
+		}
+		
+		for (Map.Entry<Pair<LDAConfiguration, LDAConfiguration>, double[][][]> entry : blockTopicDistances.entrySet()) {
+			// Topic distances were not calculated (only the primary dataset distance is selected, see calculateBlock).
+			if (entry.getValue() == null)
+				continue;
+			
+			Pair<LDAConfiguration, LDAConfiguration> ldaConfigPair	= entry.getKey();
+			final boolean isSwapped									= ldaConfigPair.getKey().getConfigurationID() > ldaConfigPair.getValue().getConfigurationID();
+			final boolean isDiagonal								= ldaConfigPair.getKey().getConfigurationID() == ldaConfigPair.getValue().getConfigurationID();
+			
+			// Swap pair, if necessary.
+			if (isSwapped)
+				ldaConfigPair = new Pair<LDAConfiguration, LDAConfiguration>(ldaConfigPair.getValue(), ldaConfigPair.getKey());
+			
+			for (int t = 0; t < topicDistanceTypes.length; t++) {
+				// Transpose topic distance matrix, if pair was swapped.
+				double[][] topicDistances = isSwapped ? transpose(entry.getValue()[t]) : entry.getValue()[t];
+				
+				orderedTopicDistances.get(t).put(ldaConfigPair, topicDistances);
+				
+				// Dataset distances are derived from the topic distance matrix (cheap compared to the calculation of the matrix itself).
+				for (int a = 0; a < datasetDistanceTypes.length; a++) {
+					if (!isDiagonal && !(skipPrimaryDatasetDistances && metrics.isPrimary(t, a)))
+						datasetDistances.get(t * datasetDistanceTypes.length + a).put(ldaConfigPair, Dataset.calculateDatasetDistance(topicDistances, datasetDistanceTypes[a]));
+				}
+			}
+		}
+		
+		for (int t = 0; t < topicDistanceTypes.length; t++) {
+			if (topicDistanceConsumer != null)
+				topicDistanceConsumer.consumeTopicDistances(topicDistanceTypes[t], orderedTopicDistances.get(t));
+			
+			for (int a = 0; a < datasetDistanceTypes.length; a++) {
+				if (!(skipPrimaryDatasetDistances && metrics.isPrimary(t, a)))
+					datasetDistanceConsumer.consumeDatasetDistances(topicDistanceTypes[t], datasetDistanceTypes[a], datasetDistances.get(t * datasetDistanceTypes.length + a));
+			}
+		}
+	}
+	
+	/**
+	 * @param matrix
+	 * @return Transposed copy of matrix.
+	 */
+	private static double[][] transpose(final double[][] matrix)
+	{
+		final int rows			= matrix.length;
+		final int columns		= rows > 0 ? matrix[0].length : 0;
+		double[][] transposed	= new double[columns][rows];
+		
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < columns; j++) {
+				transposed[j][i] = matrix[i][j];
+			}
+		}
+		
+		return transposed;
+	}
+	
+	/**
+	 * Translates configuration IDs into indices of the specified list.
+	 * @param ldaConfigurations List of LDA configurations, ordered by configuration ID.
+	 * @return
+	 */
+	private static Map<Integer, Integer> generateIndexMap(final List<LDAConfiguration> ldaConfigurations)
+	{
+		Map<Integer, Integer> indicesByConfigID = new HashMap<Integer, Integer>(ldaConfigurations.size() * 2);
+		
+		for (int i = 0; i < ldaConfigurations.size(); i++) {
+			if (i > 0 && ldaConfigurations.get(i).getConfigurationID() <= ldaConfigurations.get(i - 1).getConfigurationID())
+				throw new IllegalArgumentException("LDA configurations have to be ordered by configuration ID.");
+			
+			indicesByConfigID.put(ldaConfigurations.get(i).getConfigurationID(), i);
+		}
+		
+		return indicesByConfigID;
+	}
+	
+	/**
+	 * Calculates distances between one block of row datasets and one block of column datasets. The block is split into
+	 * tiles, which are processed in parallel. Since every pair is owned by exactly one tile, tiles write into disjoint 
+	 * cells of the distance matrix.
+	 * @param rowDatasets
+	 * @param rowIndices Row indices (in the distance matrix) of the row datasets.
+	 * @param columnDatasets
+	 * @param columnIndices Column indices (in the distance matrix) of the column datasets. 
+	 * @param isDiagonalBlock If true, rows and columns refer to the same datasets and only the upper triangle (including the diagonal) is processed.
+	 * @param metrics
+	 * @param mustCalculate
+	 * @param distances Matrix in which calculated dataset distances of the primary metric are stored. May be null, in which case only topic distances are calculated.
+	 * @param progress Number of processed (calculated or skipped) pairs.
+	 * @param totalNumberOfPairs
+	 * @param progressReporter
+	 * @return Topic distance matrices of calculated pairs, one for each topic distance metric in metrics. Null for each pair, 
+	 * if its Hausdorff distance was calculated without topic distance matrix (see {@link DatasetDistanceEngine#setDatasetDistancesOnly(boolean)}).
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private Map<Pair<LDAConfiguration, LDAConfiguration>, double[][][]> calculateBlock(	final Dataset[] rowDatasets, final int[] rowIndices, 
+																						final Dataset[] columnDatasets, final int[] columnIndices, final boolean isDiagonalBlock,
+																						final DistanceMetricSet metrics, final boolean[] mustCalculate, final WritableDistanceMatrix distances,
+																						final AtomicLong progress, final long totalNumberOfPairs, 
+																						final IProgressReporter progressReporter) throws InterruptedException, ExecutionException
+	{
+		/*
+		 * 1. Create tiles.
+		 */
+		
+		// Only the primary dataset distance (stored in the distance matrix) is required: Evaluate only the topic pairs it depends on.
+		final boolean isPruned = distances != null && isPrunable(metrics);
+		
+		List<Callable<Map<Pair<LDAConfiguration, LDAConfiguration>, double[][][]>>> tiles = new ArrayList<Callable<Map<Pair<LDAConfiguration, LDAConfiguration>, double[][][]>>>();
+		
+		for (int rowStart = 0; rowStart < rowDatasets.length; rowStart += tileSize) {
+			for (int columnStart = isDiagonalBlock ? rowStart : 0; columnStart < columnDatasets.length; columnStart += tileSize) {
+				final int tileRowStart		= rowStart;
+				final int tileRowEnd		= Math.min(rowStart + tileSize, rowDatasets.length);
+				final int tileColumnStart	= columnStart;
+				final int tileColumnEnd		= Math.min(columnStart + tileSize, columnDatasets.length);
+				
+				tiles.add(new Callable<Map<Pair<LDAConfiguration, LDAConfiguration>, double[][][]>>() {
+					@Override
+					public Map<Pair<LDAConfiguration, LDAConfiguration>, double[][][]> call() throws Exception
+					{
+						Map<Pair<LDAConfiguration, LDAConfiguration>, double[][][]> tileTopicDistances = new HashMap<Pair<LDAConfiguration, LDAConfiguration>, double[][][]>();
+						
+						for (int i = tileRowStart; i < tileRowEnd; i++) {
+							final int row = rowIndices[i];
+							
+							// Diagonal block: Only consider upper triangle (j >= i).
+							for (int j = isDiagonalBlock ? Math.max(i, tileColumnStart) : tileColumnStart; j < tileColumnEnd; j++) {
+								final int column = columnIndices[j];
+								
+								if (mustCalculate == null || mustCalculate[row] || mustCalculate[column]) {
+									double currTopicDistances[][][] = null;
+									
+									if (isPruned) {
+										distances.set(row, column, rowDatasets[i].calculateHausdorffDistance(columnDatasets[j], metrics.getTopicDistanceMetrics()[0]));
+									}
+									
+									else {
+										// Evaluate each topic pair once (for all metrics), derive both directed distances from the resulting matrices.
+										currTopicDistances = rowDatasets[i].calculateTopicDistances(columnDatasets[j], metrics.getTopicDistanceMetrics());
+										
+										if (distances != null)
+											distances.set(row, column, Dataset.calculateDatasetDistance(currTopicDistances[0], metrics.getPrimaryDatasetDistance()));
+									}
+									
+									tileTopicDistances.put(new Pair<LDAConfiguration, LDAConfiguration>(rowDatasets[i].getLDAConfiguration(), columnDatasets[j].getLDAConfiguration()), currTopicDistances);
+								}
+								
+								// Update progress.
+								final long processed = progress.incrementAndGet();
+								if (progressReporter != null)
+									progressReporter.updateTaskProgress(processed, totalNumberOfPairs);
+							}
+						}
+						
+						return tileTopicDistances;
+					}
+				});
+			}
+		}
+		
+		/*
+		 * 2. Process tiles, merge topic distance matrices.
+		 */
+		
+		Map<Pair<LDAConfiguration, LDAConfiguration>, double[][][]> blockTopicDistances = new HashMap<Pair<LDAConfiguration, LDAConfiguration>, double[][][]>();
+		for (Future<Map<Pair<LDAConfiguration, LDAConfiguration>, double[][][]>> tileResult : executor.invokeAll(tiles)) {
+			blockTopicDistances.putAll(tileResult.get());
+		}
+		
+		return blockTopicDistances;
+	}
+	
+	/**
+	 * Checks whether dataset distances can be calculated without topic distance matrices: Topic distances are not 
+	 * required and the Hausdorff distance based on one topic distance metric is the only selected metric.
+	 * @param metrics
+	 * @return
+	 */
+	private boolean isPrunable(final DistanceMetricSet metrics)
+	{
+		return	datasetDistancesOnly && metrics.getTopicDistances().length == 1 && metrics.getDatasetDistances().length == 1 &&
+				metrics.getPrimaryDatasetDistance() == DatasetDistance.HausdorffDistance;
+	}
+	
+	/**
+	 * Prepares the specified datasets for comparison, one dataset per task: Precalculates per-topic terms of the selected
+	 * topic distance metrics (and topic signatures, if Hausdorff distances are calculated without topic distance matrices) or, 
+	 * if distances are approximated, replaces datasets by their sparse approximations.
+	 * Finishes before datasets are compared, so that all tiles see the prepared datasets.
+	 * @param datasets
+	 * @param metrics
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private void prepareDatasets(final Dataset[] datasets, final DistanceMetricSet metrics) throws InterruptedException, ExecutionException
+	{
+		if (approximationMass > 0 && (!SparseTopicDistanceKernels.isSupported(metrics.getTopicDistances()) || !TopicDistanceMetrics.areDefaultMetrics(metrics.getTopicDistanceMetrics())))
+			throw new IllegalArgumentException("Topic distances " + Arrays.toString(metrics.getTopicDistances()) + " can't be approximated.");
+		
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(datasets.length);
+		
+		for (int i = 0; i < datasets.length; i++) {
+			final int index = i;
+			
+			// Preloaded data may lack datasets without raw data.
+			if (datasets[index] == null)
+				continue;
+			
+			tasks.add(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception
+				{
+					if (approximationMass > 0) {
+						datasets[index] = datasets[index].toSparseDataset(approximationMass);
+					}
+					
+					else {
+						datasets[index].precalculateTopicVectors(metrics.getTopicDistances());
+						
+						if (isPrunable(metrics))
+							datasets[index].precalculateTopicSignatures(TopicSignature.DEFAULT_SIZE);
+					}
+					
+					return null;
+				}
+			});
+		}
+		
+		for (Future<Void> result : executor.invokeAll(tasks)) {
+			result.get();
+		}
+	}
+	
+	/**
+	 * Reads datasets for the specified window of LDA configurations. One cursor is opened per run of configurations which are
+	 * adjacent in the distance matrix, so that datasets lying between the window's configurations are never read.
+	 * @param source
+	 * @param windowConfigurations LDA configurations of the window (ordered by configuration ID), not necessarily adjacent.
+	 * @param positionsByConfigID Rows/columns of all LDA configurations in the distance matrix.
+	 * @param indicesByConfigID Indices assigned to the read datasets.
+	 * @return Pair of datasets and their indices.
+	 * @throws Exception
+	 */
+	private static Pair<Dataset[], int[]> readWindow(	final IDatasetSource source, final List<LDAConfiguration> windowConfigurations, 
+														final Map<Integer, Integer> positionsByConfigID, final Map<Integer, Integer> indicesByConfigID) throws Exception
+	{
+		ArrayList<Dataset> datasets = new ArrayList<Dataset>(windowConfigurations.size());
+		
+		for (int runStart = 0; runStart < windowConfigurations.size(); ) {
+			// Extend run as long as the next configuration directly follows the previous one.
+			int runEnd		= runStart + 1;
+			int position	= positionsByConfigID.get(windowConfigurations.get(runStart).getConfigurationID());
+			while (runEnd < windowConfigurations.size() && positionsByConfigID.get(windowConfigurations.get(runEnd).getConfigurationID()) == position + 1) {
+				position++;
+				runEnd++;
+			}
+			
+			DatasetCursor cursor = source.openCursor(	windowConfigurations.get(runStart).getConfigurationID(), 
+														windowConfigurations.get(runEnd - 1).getConfigurationID());
+			
+			try {
+				// Cursor is bounded by the run's configuration IDs.
+				datasets.addAll(cursor.readBlock(Integer.MAX_VALUE));
+			}
+			
+			finally {
+				cursor.close();
+			}
+			
+			runStart = runEnd;
+		}
+		
+		return toIndexedBlock(datasets, indicesByConfigID);
+	}
+	
+	/**
+	 * Determines indices in the distance matrix for the specified datasets. Datasets whose LDA 
+	 * configuration is not part of the distance matrix are dropped.
+	 * @param datasets
+	 * @param indicesByConfigID
+	 * @return Pair of datasets and their indices in the distance matrix.
+	 */
+	private static Pair<Dataset[], int[]> toIndexedBlock(final List<Dataset> datasets, final Map<Integer, Integer> indicesByConfigID)
+	{
+		ArrayList<Dataset> indexedDatasets	= new ArrayList<Dataset>(datasets.size());
+		int[] indices						= new int[datasets.size()];
+		
+		for (Dataset dataset : datasets) {
+			Integer index = indicesByConfigID.get(dataset.getLDAConfiguration().getConfigurationID());
+			
+			if (index != null) {
+				indices[indexedDatasets.size()] = index;
+				indexedDatasets.add(dataset);
+			}
+		}
+		
+		return new Pair<Dataset[], int[]>(indexedDatasets.toArray(new Dataset[indexedDatasets.size()]), Arrays.copyOf(indices, indexedDatasets.size()));
+	}
+	
+	/**
+	 * @param flags
+	 * @param from
+	 * @param to
+	 * @return True if any flag in [from, to) is set.
+	 */
+	private static boolean containsFlag(final boolean[] flags, final int from, final int to)
+	{
+		for (int i = from; i < to; i++) {
+			if (flags[i])
+				return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Shuts down the executor, if it was created by this engine.
+	 */
+	public void shutdown()
+	{
+		if (ownsExecutor)
+			executor.shutdown();
+	}
+	
+	public int getTileSize()
+	{
+		return tileSize;
+	}
+	
+	/**
+	 * Enables approximation of topic distances: Datasets are compared based on sparse topics retaining the most probable
+	 * keywords covering the specified share of probability mass (see {@link SparseTopicDistanceKernels} for the accuracy).
+	 * Requires the default implementations of supported metrics (Bhattacharyya, Hellinger, Jensen-Shannon).
+	 * Provided datasets are not modified.
+	 * @param approximationMass Share of probability mass in (0, 1]. 0 yields exact distances.
+	 */
+	public void setApproximationMass(double approximationMass)
+	{
+		if (approximationMass < 0 || approximationMass > 1)
+			throw new IllegalArgumentException("Retained probability mass has to be in [0, 1].");
+		
+		this.approximationMass = approximationMass;
+	}
+	
+	public double getApproximationMass()
+	{
+		return approximationMass;
+	}
+	
+	/**
+	 * Specifies whether only dataset distances are required. If so, topic distance matrices are not handed to consumers
+	 * and, if the Hausdorff distance based on one topic distance metric is the only selected metric, dataset distances
+	 * written to a distance matrix are calculated without evaluating complete topic distance matrices (see 
+	 * {@link Dataset#calculateHausdorffDistance(Dataset, ITopicDistanceMetric)}). Results are the same as with topic distance matrices.
+	 * @param datasetDistancesOnly
+	 */
+	public void setDatasetDistancesOnly(boolean datasetDistancesOnly)
+	{
+		this.datasetDistancesOnly = datasetDistancesOnly;
+	}
+	
+	public boolean isDatasetDistancesOnly()
+	{
+		return datasetDistancesOnly;
+	}
+}
@@ -0,0 +1,82 @@
+package model.workspace;
+
+import java.util.Collection;
+
+/**
+ * Symmetric matrix of distances between datasets. Row/column i refers to the i-th
+ * LDA configuration in the workspace; distances of a dataset to itself are 0.
+ * Implementations decide how (and where) the distances are stored; writable ones extend {@link WritableDistanceMatrix}.
+ * @author RM
+ *
+ */
+public abstract class DistanceMatrix
+{
+	/**
+	 * @return Number of rows/columns.
+	 */
+	public abstract int size();
+	
+	/**
+	 * @param row
+	 * @param column
+	 * @return Distance between datasets in specified row and column.
+	 */
+	public abstract double get(int row, int column);
+	
+	/**
+	 * Creates view on a subset of this matrix. No distances are copied.
+	 * @param indices Rows/columns of this matrix to include, in the order in which they appear in the view.
+	 * @return
+	 */
+	public DistanceMatrixView view(Collection<Integer> indices)
+	{
+		return new DistanceMatrixView(this, indices);
+	}
+	
+	/**
+	 * @param row
+	 * @param column
+	 * @param n Number of rows/columns.
+	 * @return Position of distance between row and column (row != column) in a row-wise packed strict upper triangle.
+	 */
+	protected static long packedIndex(int row, int column, final int n)
+	{
+		// Only upper triangle is stored.
+		if (row > column) {
+			int temp	= row;
+			row			= column;
+			column		= temp;
+		}
+		
+		// Number of entries in previous rows plus position in current row.
+		return (long)row * n - (long)row * (row + 1) / 2 + (column - row - 1);
+	}
+	
+	/**
+	 * @param n
+	 * @return Number of entries in the strict upper triangle of a matrix with n rows/columns.
+	 */
+	protected static long packedSize(final int n)
+	{
+		return (long)n * (n - 1) / 2;
+	}
+	
+	/**
+	 * Copies matrix into a new, quadratic array (e.g. for libraries operating on arrays).
+	 * @return
+	 */
+	public double[][] toArray()
+	{
+		final int n				= size();
+		double[][] distances	= new double[n][n];
+		
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				distances[i][j] = get(i, j);
+				distances[j][i] = distances[i][j];
+			}
+		}
+		
+		return distances;
+	}
+}
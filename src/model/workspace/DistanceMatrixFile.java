@@ -0,0 +1,327 @@
+package model.workspace;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+import javafx.util.Pair;
+import model.LDAConfiguration;
+
+/**
+ * Distance matrix stored in a memory-mapped binary file in the workspace directory (see 
+ * {@link Workspace#FILENAME_DISTANCES}). Serves as a cache for the distances in table 
+ * datasetDistances, which remains the source of truth: The header records the state of 
+ * that table the file was built from, so stale files can be detected and rebuilt.
+ * Layout (big-endian):
+ *  - Header: magic number, version, n, reserved int, number of rows and max. row ID of table datasetDistances (longs).
+ *  - n LDA configuration IDs (ints), in row/column order.
+ *  - Strict upper triangle of distance matrix as packed floats, row by row.
+ * Since a single mapping is limited to 2 GB, matrices with more than ~32000 rows/columns are not supported.
+ * @author RM
+ *
+ */
+public class DistanceMatrixFile extends WritableDistanceMatrix
+{
+	/**
+	 * Identifies distance matrix files ("VKDM").
+	 */
+	private static final int MAGIC_NUMBER	= 0x564B444D;
+	/**
+	 * Version of file layout.
+	 */
+	private static final int VERSION		= 1;
+	/**
+	 * Size of fixed header part in bytes.
+	 */
+	private static final int HEADER_SIZE	= 32;
+	
+	/**
+	 * Mapped file content.
+	 */
+	private MappedByteBuffer buffer;
+	/**
+	 * Number of rows/columns.
+	 */
+	private int n;
+	/**
+	 * LDA configuration IDs in row/column order.
+	 */
+	private int[] ldaConfigIDs;
+	/**
+	 * Number of rows in table datasetDistances this file was built from.
+	 */
+	private long numberOfSourceRows;
+	/**
+	 * Max. row ID in table datasetDistances this file was built from.
+	 */
+	private long maxSourceRowID;
+	/**
+	 * Offset of distance data in bytes.
+	 */
+	private int dataOffset;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	private DistanceMatrixFile(final MappedByteBuffer buffer)
+	{
+		this.buffer = buffer;
+	}
+	
+	/**
+	 * Maps existing distance matrix file (read-only), if it is consistent with the specified LDA configurations
+	 * and state of table datasetDistances. The header is checked before the file is mapped, so that stale
+	 * files are never mapped (and can hence be overwritten).
+	 * @param path
+	 * @param ldaConfigurations
+	 * @param datasetDistanceTableState Number of rows and max. row ID in table datasetDistances
+	 * (see {@link database.DBManagement#readDatasetDistanceTableState()}).
+	 * @return Mapped matrix; null if file does not exist, is not a (supported) distance matrix file or is not consistent.
+	 * @throws IOException
+	 */
+	public static DistanceMatrixFile open(final Path path, final ArrayList<LDAConfiguration> ldaConfigurations, final Pair<Long, Long> datasetDistanceTableState) throws IOException
+	{
+		if (!Files.exists(path))
+			return null;
+		
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final int n = ldaConfigurations.size();
+			
+			// Check size first (file might have been truncated or built for a different number of datasets).
+			if (channel.size() != calculateFileSize(n))
+				return null;
+			
+			// Read header and LDA configuration IDs without mapping the file.
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + 4 * n);
+			while (header.hasRemaining()) {
+				if (channel.read(header) < 0)
+					return null;
+			}
+			
+			if (header.getInt(0) != MAGIC_NUMBER || header.getInt(4) != VERSION || header.getInt(8) != n)
+				return null;
+			
+			DistanceMatrixFile matrixFile	= new DistanceMatrixFile(null);
+			matrixFile.n					= n;
+			matrixFile.numberOfSourceRows	= header.getLong(16);
+			matrixFile.maxSourceRowID		= header.getLong(24);
+			matrixFile.dataOffset			= HEADER_SIZE + 4 * n;
+			matrixFile.ldaConfigIDs			= new int[n];
+			for (int i = 0; i < n; i++) {
+				matrixFile.ldaConfigIDs[i] = header.getInt(HEADER_SIZE + 4 * i);
+			}
+			
+			if (!matrixFile.isConsistentWith(ldaConfigurations, datasetDistanceTableState))
+				return null;
+			
+			// File is up to date: Map it.
+			matrixFile.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			
+			return matrixFile;
+		}
+	}
+	
+	/**
+	 * Creates (or overwrites) distance matrix file with all distances set to 0 and maps it for writing.
+	 * Call {@link DistanceMatrixFile#force()} after all distances have been set.
+	 * @param path
+	 * @param ldaConfigurations LDA configurations in row/column order.
+	 * @param datasetDistanceTableState Number of rows and max. row ID in table datasetDistances
+	 * (see {@link database.DBManagement#readDatasetDistanceTableState()}).
+	 * @return
+	 * @throws IOException
+	 */
+	public static DistanceMatrixFile create(final Path path, final ArrayList<LDAConfiguration> ldaConfigurations, final Pair<Long, Long> datasetDistanceTableState) throws IOException
+	{
+		final int n				= ldaConfigurations.size();
+		final long fileSize		= calculateFileSize(n);
+		
+		if (fileSize > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Distance matrix with " + n + " rows exceeds maximal file size.");
+		
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			// Mapping beyond the end of the file extends it (with zeros).
+			DistanceMatrixFile matrixFile	= new DistanceMatrixFile(channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize));
+			MappedByteBuffer buffer			= matrixFile.buffer;
+			
+			matrixFile.n					= n;
+			matrixFile.numberOfSourceRows	= datasetDistanceTableState.getKey();
+			matrixFile.maxSourceRowID		= datasetDistanceTableState.getValue();
+			matrixFile.dataOffset			= HEADER_SIZE + 4 * n;
+			matrixFile.ldaConfigIDs			= new int[n];
+			
+			// Write header.
+			buffer.putInt(0, MAGIC_NUMBER);
+			buffer.putInt(4, VERSION);
+			buffer.putInt(8, n);
+			buffer.putInt(12, 0);
+			buffer.putLong(16, matrixFile.numberOfSourceRows);
+			buffer.putLong(24, matrixFile.maxSourceRowID);
+			
+			// Write LDA configuration IDs.
+			for (int i = 0; i < n; i++) {
+				matrixFile.ldaConfigIDs[i] = ldaConfigurations.get(i).getConfigurationID();
+				buffer.putInt(HEADER_SIZE + 4 * i, matrixFile.ldaConfigIDs[i]);
+			}
+			
+			return matrixFile;
+		}
+	}
+	
+	/**
+	 * Writes the specified (complete) distance matrix to file and maps the file. The matrix is written to a temporary file
+	 * first, which then replaces the file at the specified path (atomically, if supported). Hence an existing file is never left
+	 * partially written; if it can't be replaced (e.g. since it is still mapped on Windows), an exception is thrown and it is kept.
+	 * @param path
+	 * @param ldaConfigurations
+	 * @param datasetDistanceTableState
+	 * @param distances
+	 * @return
+	 * @throws IOException
+	 */
+	public static DistanceMatrixFile write(final Path path, final ArrayList<LDAConfiguration> ldaConfigurations, final Pair<Long, Long> datasetDistanceTableState, final DistanceMatrix distances) throws IOException
+	{
+		final int n				= ldaConfigurations.size();
+		final Path tempPath		= path.resolveSibling(path.getFileName() + ".tmp");
+		
+		if (calculateFileSize(n) > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Distance matrix with " + n + " rows exceeds maximal file size.");
+		
+		try {
+			// Write temporary file as stream (a mapped file couldn't be moved on all platforms). DataOutputStream is big-endian.
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath), 1 << 16))) {
+				out.writeInt(MAGIC_NUMBER);
+				out.writeInt(VERSION);
+				out.writeInt(n);
+				out.writeInt(0);
+				out.writeLong(datasetDistanceTableState.getKey());
+				out.writeLong(datasetDistanceTableState.getValue());
+				
+				for (int i = 0; i < n; i++) {
+					out.writeInt(ldaConfigurations.get(i).getConfigurationID());
+				}
+				
+				for (int i = 0; i < n; i++) {
+					for (int j = i + 1; j < n; j++) {
+						out.writeFloat((float)distances.get(i, j));
+					}
+				}
+			}
+			
+			// Replace existing file.
+			try {
+				Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		
+		finally {
+			Files.deleteIfExists(tempPath);
+		}
+		
+		DistanceMatrixFile matrixFile = open(path, ldaConfigurations, datasetDistanceTableState);
+		if (matrixFile == null)
+			throw new IOException("Written distance matrix file " + path + " can't be opened.");
+		
+		return matrixFile;
+	}
+	
+	/**
+	 * @param n
+	 * @return Size of file for a matrix with n rows/columns in bytes.
+	 */
+	private static long calculateFileSize(final int n)
+	{
+		return HEADER_SIZE + 4L * n + 4L * packedSize(n);
+	}
+	
+	/**
+	 * @param row
+	 * @param column
+	 * @return Byte offset of distance between row and column (row != column).
+	 */
+	private int offsetOf(final int row, final int column)
+	{
+		return dataOffset + (int)(4 * packedIndex(row, column, n));
+	}
+	
+	@Override
+	public int size()
+	{
+		return n;
+	}
+	
+	@Override
+	public double get(final int row, final int column)
+	{
+		return row == column ? 0 : buffer.getFloat(offsetOf(row, column));
+	}
+	
+	/**
+	 * Sets distance (symmetrically). Only applicable to files opened via {@link DistanceMatrixFile#create(Path, ArrayList, Pair)}.
+	 * @param row
+	 * @param column
+	 * @param distance
+	 */
+	@Override
+	public void set(final int row, final int column, final double distance)
+	{
+		if (row != column)
+			buffer.putFloat(offsetOf(row, column), (float)distance);
+	}
+	
+	/**
+	 * Writes changes to disk.
+	 */
+	public void force()
+	{
+		buffer.force();
+	}
+	
+	/**
+	 * Checks whether this file can be used instead of loading distances from the database, i.e. whether
+	 * it contains the specified LDA configurations in the same order and whether table datasetDistances
+	 * has not been modified since this file was built.
+	 * @param ldaConfigurations
+	 * @param datasetDistanceTableState Number of rows and max. row ID in table datasetDistances.
+	 * Since rows are only ever appended or replaced (which assigns a new row ID), these two values
+	 * suffice to detect modifications.
+	 * @return
+	 */
+	public boolean isConsistentWith(final ArrayList<LDAConfiguration> ldaConfigurations, final Pair<Long, Long> datasetDistanceTableState)
+	{
+		if (ldaConfigurations.size() != n)
+			return false;
+		
+		if (datasetDistanceTableState.getKey() != numberOfSourceRows || datasetDistanceTableState.getValue() != maxSourceRowID)
+			return false;
+		
+		for (int i = 0; i < n; i++) {
+			if (ldaConfigurations.get(i).getConfigurationID() != ldaConfigIDs[i])
+				return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * @return LDA configuration IDs in row/column order.
+	 */
+	public int[] getLDAConfigIDs()
+	{
+		return ldaConfigIDs;
+	}
+}
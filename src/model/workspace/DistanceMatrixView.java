@@ -0,0 +1,97 @@
+package model.workspace;
+
+import java.util.Collection;
+
+/**
+ * Subset of a distance matrix. Translates row/column indices to the ones of the source
+ * matrix instead of copying distances, so that subsets (e.g. filtered or selected datasets)
+ * can be updated without allocating new matrices.
+ * @author RM
+ *
+ */
+public class DistanceMatrixView extends DistanceMatrix
+{
+	/**
+	 * Matrix this view refers to.
+	 */
+	private final DistanceMatrix source;
+	/**
+	 * Row/column i of this view is row/column indices[i] of the source matrix.
+	 * Allocated with the size of the source matrix, so that changing the subset never requires a new array.
+	 */
+	private final int[] indices;
+	/**
+	 * Number of rows/columns in this view.
+	 */
+	private int n;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	/**
+	 * Creates empty view.
+	 * @param source
+	 */
+	public DistanceMatrixView(final DistanceMatrix source)
+	{
+		this.source		= source;
+		this.indices	= new int[source.size()];
+		this.n			= 0;
+	}
+	
+	/**
+	 * Creates view on the specified rows/columns.
+	 * @param source
+	 * @param indices Rows/columns of source matrix, in the order in which they appear in the view.
+	 */
+	public DistanceMatrixView(final DistanceMatrix source, final Collection<Integer> indices)
+	{
+		this(source);
+		setIndices(indices);
+	}
+	
+	/**
+	 * Replaces subset of rows/columns this view refers to.
+	 * @param indices Rows/columns of source matrix, in the order in which they appear in the view.
+	 */
+	public void setIndices(final Collection<Integer> indices)
+	{
+		if (indices.size() > this.indices.length)
+			throw new IllegalArgumentException("View contains more rows than source matrix.");
+		
+		n = 0;
+		for (int index : indices) {
+			this.indices[n++] = index;
+		}
+	}
+	
+	/**
+	 * @param row
+	 * @return Row/column in source matrix corresponding to specified row/column in view.
+	 */
+	public int getSourceIndex(final int row)
+	{
+		return indices[row];
+	}
+	
+	/**
+	 * @return Matrix this view refers to.
+	 */
+	public DistanceMatrix getSource()
+	{
+		return source;
+	}
+	
+	@Override
+	public int size()
+	{
+		return n;
+	}
+	
+	@Override
+	public double get(final int row, final int column)
+	{
+		return source.get(indices[row], indices[column]);
+	}
+}
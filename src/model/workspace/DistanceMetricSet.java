@@ -0,0 +1,193 @@
+package model.workspace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import model.topic.ITopicDistanceMetric;
+import model.topic.TopicDistance;
+import model.topic.TopicDistanceMetrics;
+
+/**
+ * Selection of topic distance metrics and dataset distance aggregations calculated together in one pass over all topic pairs.
+ * The first topic distance and the first dataset distance form the primary metric, whose results are stored in the main
+ * distance tables (and used for MDS and all views); every other combination is stored in a table of its own.
+ * Selections are passed in option sets as "topicDistance"/"datasetDistance" (ordinal of primary metric) and
+ * "topicDistances"/"datasetDistances" (bitmask of ordinals of all selected metrics).
+ * @author RM
+ *
+ */
+public class DistanceMetricSet
+{
+	/**
+	 * Selected topic distances, primary one first.
+	 */
+	private TopicDistance[] topicDistances;
+	/**
+	 * Selected dataset distances, primary one first.
+	 */
+	private DatasetDistance[] datasetDistances;
+	/**
+	 * Metrics registered for the selected topic distances at creation time.
+	 */
+	private ITopicDistanceMetric[] topicDistanceMetrics;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	/**
+	 * @param topicDistances Selected topic distances, primary one first. Duplicates are ignored.
+	 * @param datasetDistances Selected dataset distances, primary one first. Duplicates are ignored.
+	 */
+	public DistanceMetricSet(final List<TopicDistance> topicDistances, final List<DatasetDistance> datasetDistances)
+	{
+		if (topicDistances.isEmpty() || datasetDistances.isEmpty())
+			throw new IllegalArgumentException("At least one topic distance and one dataset distance have to be selected.");
+		
+		List<TopicDistance> uniqueTopicDistances		= new ArrayList<TopicDistance>();
+		List<DatasetDistance> uniqueDatasetDistances	= new ArrayList<DatasetDistance>();
+		for (TopicDistance topicDistance : topicDistances) {
+			if (!uniqueTopicDistances.contains(topicDistance))
+				uniqueTopicDistances.add(topicDistance);
+		}
+		for (DatasetDistance datasetDistance : datasetDistances) {
+			if (!uniqueDatasetDistances.contains(datasetDistance))
+				uniqueDatasetDistances.add(datasetDistance);
+		}
+		
+		this.topicDistances			= uniqueTopicDistances.toArray(new TopicDistance[uniqueTopicDistances.size()]);
+		this.datasetDistances		= uniqueDatasetDistances.toArray(new DatasetDistance[uniqueDatasetDistances.size()]);
+		this.topicDistanceMetrics	= TopicDistanceMetrics.get(this.topicDistances);
+	}
+	
+	/**
+	 * Creates set containing only the specified primary metric.
+	 * @param topicDistance
+	 * @param datasetDistance
+	 */
+	public DistanceMetricSet(final TopicDistance topicDistance, final DatasetDistance datasetDistance)
+	{
+		this(Arrays.asList(topicDistance), Arrays.asList(datasetDistance));
+	}
+	
+	/**
+	 * Reads selection from option set.
+	 * @param options May be null.
+	 * @param defaultTopicDistance Primary topic distance, if option set doesn't specify one.
+	 * @param defaultDatasetDistance Primary dataset distance, if option set doesn't specify one.
+	 * @return
+	 */
+	public static DistanceMetricSet fromOptions(final Map<String, Integer> options, final TopicDistance defaultTopicDistance, final DatasetDistance defaultDatasetDistance)
+	{
+		List<TopicDistance> topicDistances		= new ArrayList<TopicDistance>();
+		List<DatasetDistance> datasetDistances	= new ArrayList<DatasetDistance>();
+		
+		// Primary metrics first.
+		topicDistances.add(options != null && options.containsKey("topicDistance") ? TopicDistance.values()[options.get("topicDistance")] : defaultTopicDistance);
+		datasetDistances.add(options != null && options.containsKey("datasetDistance") ? DatasetDistance.values()[options.get("datasetDistance")] : defaultDatasetDistance);
+		
+		// Additional metrics in order of declaration.
+		final int topicDistanceMask		= options != null && options.containsKey("topicDistances") ? options.get("topicDistances") : 0;
+		final int datasetDistanceMask	= options != null && options.containsKey("datasetDistances") ? options.get("datasetDistances") : 0;
+		for (TopicDistance topicDistance : TopicDistance.values()) {
+			if ((topicDistanceMask & (1 << topicDistance.ordinal())) != 0)
+				topicDistances.add(topicDistance);
+		}
+		for (DatasetDistance datasetDistance : DatasetDistance.values()) {
+			if ((datasetDistanceMask & (1 << datasetDistance.ordinal())) != 0)
+				datasetDistances.add(datasetDistance);
+		}
+		
+		return new DistanceMetricSet(topicDistances, datasetDistances);
+	}
+	
+	/**
+	 * Reads selection from option set.
+	 * @param options May be null.
+	 * @param defaultMetrics Returned if option set doesn't specify any metric.
+	 * @return
+	 */
+	public static DistanceMetricSet fromOptions(final Map<String, Integer> options, final DistanceMetricSet defaultMetrics)
+	{
+		if (options == null || (!options.containsKey("topicDistance") && !options.containsKey("datasetDistance")))
+			return defaultMetrics;
+		
+		return fromOptions(options, defaultMetrics.getPrimaryTopicDistance(), defaultMetrics.getPrimaryDatasetDistance());
+	}
+	
+	/**
+	 * Writes selection to option set (see {@link DistanceMetricSet#fromOptions(Map, TopicDistance, DatasetDistance)}).
+	 * @param options
+	 */
+	public void addToOptionSet(final Map<String, Integer> options)
+	{
+		int topicDistanceMask	= 0;
+		int datasetDistanceMask	= 0;
+		for (TopicDistance topicDistance : topicDistances) {
+			topicDistanceMask |= 1 << topicDistance.ordinal();
+		}
+		for (DatasetDistance datasetDistance : datasetDistances) {
+			datasetDistanceMask |= 1 << datasetDistance.ordinal();
+		}
+		
+		options.put("topicDistance", topicDistances[0].ordinal());
+		options.put("datasetDistance", datasetDistances[0].ordinal());
+		options.put("topicDistances", topicDistanceMask);
+		options.put("datasetDistances", datasetDistanceMask);
+	}
+	
+	/**
+	 * @param topicDistanceIndex
+	 * @param datasetDistanceIndex
+	 * @return True, if the specified combination is the primary metric.
+	 */
+	public boolean isPrimary(final int topicDistanceIndex, final int datasetDistanceIndex)
+	{
+		return topicDistanceIndex == 0 && datasetDistanceIndex == 0;
+	}
+	
+	/**
+	 * @param metrics
+	 * @return True, if the specified set has the same primary metric and contains the same metrics as this one (in any order).
+	 */
+	public boolean containsSameMetrics(final DistanceMetricSet metrics)
+	{
+		return	getPrimaryTopicDistance() == metrics.getPrimaryTopicDistance() && getPrimaryDatasetDistance() == metrics.getPrimaryDatasetDistance() &&
+				EnumSet.copyOf(Arrays.asList(topicDistances)).equals(EnumSet.copyOf(Arrays.asList(metrics.topicDistances))) &&
+				EnumSet.copyOf(Arrays.asList(datasetDistances)).equals(EnumSet.copyOf(Arrays.asList(metrics.datasetDistances)));
+	}
+	
+	public TopicDistance getPrimaryTopicDistance()
+	{
+		return topicDistances[0];
+	}
+	
+	public DatasetDistance getPrimaryDatasetDistance()
+	{
+		return datasetDistances[0];
+	}
+	
+	public TopicDistance[] getTopicDistances()
+	{
+		return topicDistances;
+	}
+	
+	public DatasetDistance[] getDatasetDistances()
+	{
+		return datasetDistances;
+	}
+	
+	public ITopicDistanceMetric[] getTopicDistanceMetrics()
+	{
+		return topicDistanceMetrics;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return Arrays.toString(topicDistances) + " x " + Arrays.toString(datasetDistances);
+	}
+}
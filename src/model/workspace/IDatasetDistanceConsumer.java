@@ -0,0 +1,25 @@
+package model.workspace;
+
+import java.util.Map;
+
+import javafx.util.Pair;
+import model.LDAConfiguration;
+import model.topic.TopicDistance;
+
+/**
+ * Receives dataset distances from the distance engine as soon as a block of
+ * dataset pairs has been processed (e.g. to append them to the database).
+ * @author RM
+ *
+ */
+public interface IDatasetDistanceConsumer
+{
+	/**
+	 * Called once per calculated combination of topic distance metric and dataset distance aggregation and block.
+	 * @param topicDistance Metric used to calculate the underlying topic distances.
+	 * @param datasetDistance Aggregation used to derive the dataset distances.
+	 * @param datasetDistances Distances for the pairs of LDA configurations processed in one block.
+	 * @throws Exception If the dataset distances couldn't be consumed (e.g. saved); aborts the calculation.
+	 */
+	public void consumeDatasetDistances(TopicDistance topicDistance, DatasetDistance datasetDistance, Map<Pair<LDAConfiguration, LDAConfiguration>, Double> datasetDistances) throws Exception;
+}
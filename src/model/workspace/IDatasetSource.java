@@ -0,0 +1,18 @@
+package model.workspace;
+
+/**
+ * Source of raw topic model data which can be read in a streaming fashion.
+ * @author RM
+ *
+ */
+public interface IDatasetSource
+{
+	/**
+	 * Opens a cursor over all datasets whose LDA configuration IDs lie within the specified (closed) interval.
+	 * @param firstLDAConfigID
+	 * @param lastLDAConfigID
+	 * @return
+	 * @throws Exception
+	 */
+	public DatasetCursor openCursor(int firstLDAConfigID, int lastLDAConfigID) throws Exception;
+}
@@ -0,0 +1,24 @@
+package model.workspace;
+
+import java.util.Map;
+
+import javafx.util.Pair;
+import model.LDAConfiguration;
+import model.topic.TopicDistance;
+
+/**
+ * Receives topic distance matrices from the distance engine as soon as a block of
+ * dataset pairs has been processed (e.g. to persist and release them).
+ * @author RM
+ *
+ */
+public interface ITopicDistanceConsumer
+{
+	/**
+	 * Called once per calculated topic distance metric and block.
+	 * @param topicDistance Metric used to calculate the topic distances.
+	 * @param topicDistances Topic distance matrices for the pairs of LDA configurations processed in one block.
+	 * @throws Exception If the topic distances couldn't be consumed (e.g. saved); aborts the calculation.
+	 */
+	public void consumeTopicDistances(TopicDistance topicDistance, Map<Pair<LDAConfiguration, LDAConfiguration>, double[][]> topicDistances) throws Exception;
+}
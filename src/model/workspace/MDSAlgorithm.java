@@ -0,0 +1,6 @@
+package model.workspace;
+
+public enum MDSAlgorithm
+{
+	FullMDS, LandmarkMDS, PivotMDS
+}
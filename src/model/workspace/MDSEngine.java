@@ -0,0 +1,782 @@
+package model.workspace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import mdsj.ClassicalScaling;
+import model.workspace.tasks.IProgressReporter;
+
+/**
+ * Calculates MDS coordinates from a distance matrix.
+ * Besides classical (full) MDS via MDSJ, which operates on the complete N x N matrix, two
+ * approximations for large workspaces are offered. Both select L landmarks/pivots (max-min
+ * strategy) and only access the N x L distances to them:
+ *  - Landmark MDS (de Silva, Tenenbaum): Classical MDS on the landmarks, remaining datasets are placed by triangulation.
+ *  - Pivot MDS (Brandes, Pich): Uses the double-centered N x L matrix C of squared distances; coordinates are
+ *    derived from the dominant eigenvectors of C^T C.
+ * Eigenvectors are calculated by power iteration; matrix-vector products are split into chunks processed in parallel.
+ * @author RM
+ *
+ */
+public class MDSEngine
+{
+	/**
+	 * Default number of landmarks/pivots.
+	 */
+	public static final int DEFAULT_NUMBER_OF_LANDMARKS = 200;
+	/**
+	 * Up to this number of datasets, full MDS is used if no algorithm is specified explicitly.
+	 */
+	public static final int FULL_MDS_THRESHOLD = 1000;
+	/**
+	 * Max. number of power iterations per eigenvector.
+	 */
+	private static final int MAX_ITERATIONS = 1000;
+	/**
+	 * Power iteration stops once the eigenvector changes by less than this (Euclidean norm).
+	 */
+	private static final double TOLERANCE = 1e-9;
+	/**
+	 * Min. number of rows per chunk in parallel loops.
+	 */
+	private static final int MIN_CHUNK_SIZE = 256;
+	
+	/**
+	 * Executor processing the chunks.
+	 */
+	private ExecutorService executor;
+	/**
+	 * Indicates whether the executor was created by this engine (and hence has to be shut down by it).
+	 */
+	private boolean ownsExecutor;
+	/**
+	 * Number of chunks parallel loops are split into.
+	 */
+	private int numberOfChunks;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	/**
+	 * Creates engine with a dedicated ForkJoinPool.
+	 * @param numberOfThreads Number of worker threads. Values <= 0 select the number of available cores.
+	 */
+	public MDSEngine(int numberOfThreads)
+	{
+		numberOfThreads		= numberOfThreads > 0 ? numberOfThreads : Runtime.getRuntime().availableProcessors();
+		this.executor		= new ForkJoinPool(numberOfThreads);
+		this.ownsExecutor	= true;
+		this.numberOfChunks	= numberOfThreads * 4;
+	}
+	
+	/**
+	 * Chooses algorithm if none is specified: Full MDS for small, pivot MDS for large workspaces.
+	 * @param algorithm Requested algorithm. May be null.
+	 * @param numberOfDatasets
+	 * @return
+	 */
+	public static MDSAlgorithm resolveAlgorithm(final MDSAlgorithm algorithm, final int numberOfDatasets)
+	{
+		if (algorithm != null)
+			return algorithm;
+		
+		return numberOfDatasets <= FULL_MDS_THRESHOLD ? MDSAlgorithm.FullMDS : MDSAlgorithm.PivotMDS;
+	}
+	
+	/**
+	 * Calculates MDS coordinates.
+	 * @param distances
+	 * @param algorithm May be null, in which case it is chosen based on the number of datasets.
+	 * @param numberOfLandmarks Number of landmarks/pivots (ignored for full MDS). Values <= 0 select {@link MDSEngine#DEFAULT_NUMBER_OF_LANDMARKS}.
+	 * @param dimensions Number of dimensions of the embedding.
+	 * @param progressReporter Optional, may be null.
+	 * @return Coordinates as dimensions x N array (as returned by MDSJ).
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	public double[][] calculateCoordinates(	final DistanceMatrix distances, final MDSAlgorithm algorithm, final int numberOfLandmarks,
+											final int dimensions, final IProgressReporter progressReporter) throws InterruptedException, ExecutionException
+	{
+		final int n				= distances.size();
+		final int landmarks		= Math.min(n, numberOfLandmarks > 0 ? numberOfLandmarks : DEFAULT_NUMBER_OF_LANDMARKS);
+		
+		switch (resolveAlgorithm(algorithm, n)) {
+			case LandmarkMDS:
+				return calculateLandmarkMDS(distances, landmarks, dimensions, progressReporter);
+			
+			case PivotMDS:
+				return calculatePivotMDS(distances, landmarks, dimensions, progressReporter);
+			
+			default:
+				double[][] output = new double[dimensions][n];
+				// MDSJ operates on arrays (and seems to change the input matrix).
+				ClassicalScaling.fullmds(distances.toArray(), output);
+				
+				return output;
+		}
+	}
+	
+	/**
+	 * Landmark MDS: Classical MDS on landmarks, triangulation of all other datasets.
+	 * @param distances
+	 * @param numberOfLandmarks
+	 * @param dimensions
+	 * @param progressReporter
+	 * @return Coordinates as dimensions x N array.
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	public double[][] calculateLandmarkMDS(	final DistanceMatrix distances, final int numberOfLandmarks, final int dimensions,
+											final IProgressReporter progressReporter) throws InterruptedException, ExecutionException
+	{
+		final int n							= distances.size();
+		final int l							= numberOfLandmarks;
+		// Squared distances of landmarks (rows) to all datasets (columns).
+		final double[][] squaredDistances	= new double[l][];
+		final int[] landmarks				= selectLandmarks(distances, l, squaredDistances, progressReporter, l + 2);
+		
+		/* 1. Double-center squared distances between landmarks. */
+		final double[] means	= new double[l];
+		double grandMean		= 0;
+		for (int a = 0; a < l; a++) {
+			for (int b = 0; b < l; b++) {
+				means[a] += squaredDistances[a][landmarks[b]];
+			}
+			means[a]	/= l;
+			grandMean	+= means[a] / l;
+		}
+		
+		final double[][] b = new double[l][l];
+		for (int i = 0; i < l; i++) {
+			for (int j = 0; j < l; j++) {
+				b[i][j] = -0.5 * (squaredDistances[i][landmarks[j]] - means[i] - means[j] + grandMean);
+			}
+		}
+		
+		/*
+		 * 2. Dominant eigenvectors of landmark matrix. B is indefinite for non-Euclidean distances, hence power iteration
+		 * is applied to B + shift * I, with the shift bounding the spectral radius of B (Gershgorin): Otherwise, negative
+		 * eigenvalues of large magnitude would be found (and dropped) instead of the largest positive ones.
+		 */
+		double shift = 0;
+		for (int i = 0; i < l; i++) {
+			double rowSum = 0;
+			for (int j = 0; j < l; j++) {
+				rowSum += Math.abs(b[i][j]);
+			}
+			shift = Math.max(shift, rowSum);
+		}
+		
+		final double[] eigenvalues		= new double[dimensions];
+		final double[][] eigenvectors	= calculateEigenvectors(new IMatrixVectorProduct() {
+			@Override
+			public void multiply(final double[] v, final double[] result) throws InterruptedException, ExecutionException
+			{
+				parallelFor(l, new IRangeOperation() {
+					@Override
+					public void apply(int from, int to)
+					{
+						for (int i = from; i < to; i++) {
+							double sum = 0;
+							for (int j = 0; j < l; j++) {
+								sum += b[i][j] * v[j];
+							}
+							result[i] = sum;
+						}
+					}
+				});
+			}
+		}, l, dimensions, shift, eigenvalues);
+		
+		if (progressReporter != null)
+			progressReporter.updateTaskProgress(l + 1, l + 2);
+		
+		/* 3. Triangulation: Place every dataset by its squared distances to the landmarks. */
+		final double[][] coordinates = new double[dimensions][n];
+		for (int k = 0; k < dimensions; k++) {
+			// Eigenvectors of non-positive eigenvalues don't contribute (as in classical MDS).
+			if (eigenvalues[k] <= 0)
+				continue;
+			
+			final double[] pseudoInverseRow	= new double[l];
+			final double[] target			= coordinates[k];
+			for (int a = 0; a < l; a++) {
+				pseudoInverseRow[a] = eigenvectors[k][a] / Math.sqrt(eigenvalues[k]);
+			}
+			
+			parallelFor(n, new IRangeOperation() {
+				@Override
+				public void apply(int from, int to)
+				{
+					for (int i = from; i < to; i++) {
+						double sum = 0;
+						for (int a = 0; a < l; a++) {
+							sum += pseudoInverseRow[a] * (squaredDistances[a][i] - means[a]);
+						}
+						target[i] = -0.5 * sum;
+					}
+				}
+			});
+		}
+		
+		return coordinates;
+	}
+	
+	/**
+	 * Pivot MDS: Dominant eigenvectors of C^T C, where C is the double-centered N x L matrix of squared distances to the pivots.
+	 * C^T C is never formed; power iteration multiplies with C and C^T.
+	 * @param distances
+	 * @param numberOfPivots
+	 * @param dimensions
+	 * @param progressReporter
+	 * @return Coordinates as dimensions x N array.
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	public double[][] calculatePivotMDS(final DistanceMatrix distances, final int numberOfPivots, final int dimensions,
+										final IProgressReporter progressReporter) throws InterruptedException, ExecutionException
+	{
+		final int n				= distances.size();
+		final int l				= numberOfPivots;
+		// Squared distances of pivots (rows) to all datasets (columns); double-centered in place (yields C^T).
+		final double[][] c		= new double[l][];
+		final int[] pivots		= selectLandmarks(distances, l, c, progressReporter, l + 2);
+		
+		/* 1. Double-center. */
+		final double[] rowMeans		= new double[n];
+		final double[] columnMeans	= new double[l];
+		double grandMean			= 0;
+		for (int a = 0; a < l; a++) {
+			for (int i = 0; i < n; i++) {
+				rowMeans[i]		+= c[a][i] / l;
+				columnMeans[a]	+= c[a][i] / n;
+			}
+			grandMean += columnMeans[a] / l;
+		}
+		
+		final double finalGrandMean = grandMean;
+		parallelFor(l, new IRangeOperation() {
+			@Override
+			public void apply(int from, int to)
+			{
+				for (int a = from; a < to; a++) {
+					for (int i = 0; i < n; i++) {
+						c[a][i] = -0.5 * (c[a][i] - rowMeans[i] - columnMeans[a] + finalGrandMean);
+					}
+				}
+			}
+		});
+		
+		/* 2. Dominant eigenvectors of C^T C (positive semi-definite, hence no shift is required). */
+		final double[] temp				= new double[n];
+		final double[] eigenvalues		= new double[dimensions];
+		final double[][] eigenvectors	= calculateEigenvectors(new IMatrixVectorProduct() {
+			@Override
+			public void multiply(final double[] v, final double[] result) throws InterruptedException, ExecutionException
+			{
+				multiplyWithC(c, v, temp);
+				
+				// result = C^T * temp.
+				parallelFor(l, new IRangeOperation() {
+					@Override
+					public void apply(int from, int to)
+					{
+						for (int a = from; a < to; a++) {
+							double sum = 0;
+							for (int i = 0; i < n; i++) {
+								sum += c[a][i] * temp[i];
+							}
+							result[a] = sum;
+						}
+					}
+				});
+			}
+		}, l, dimensions, 0, eigenvalues);
+		
+		if (progressReporter != null)
+			progressReporter.updateTaskProgress(l + 1, l + 2);
+		
+		/* 3. Directions: Left singular vectors u_k = C * v_k / |C * v_k|. */
+		final double[][] directions = new double[dimensions][n];
+		for (int k = 0; k < dimensions; k++) {
+			if (eigenvalues[k] <= 0)
+				continue;
+			
+			multiplyWithC(c, eigenvectors[k], directions[k]);
+			orthonormalize(directions[k], directions, 0);
+		}
+		
+		/*
+		 * 4. Scaling: With coordinates Y = U * M, C = Y * Y_P^T (Y_P: pivot coordinates, centered at their mean).
+		 * Hence U^T * C = G * P^T with G = M * M^T and P = centered pivot rows of U. G is fitted by least squares;
+		 * its eigendecomposition G = Q * S * Q^T yields coordinates U * Q * S^(1/2).
+		 */
+		final double[][] uTc = new double[dimensions][l];
+		parallelFor(l, new IRangeOperation() {
+			@Override
+			public void apply(int from, int to)
+			{
+				for (int a = from; a < to; a++) {
+					for (int k = 0; k < dimensions; k++) {
+						double sum = 0;
+						for (int i = 0; i < n; i++) {
+							sum += directions[k][i] * c[a][i];
+						}
+						uTc[k][a] = sum;
+					}
+				}
+			}
+		});
+		
+		double[][] p = new double[l][dimensions];
+		for (int k = 0; k < dimensions; k++) {
+			double mean = 0;
+			for (int a = 0; a < l; a++) {
+				mean += directions[k][pivots[a]] / l;
+			}
+			for (int a = 0; a < l; a++) {
+				p[a][k] = directions[k][pivots[a]] - mean;
+			}
+		}
+		
+		// G = (U^T * C * P) * (P^T * P)^-1, symmetrized.
+		double[][] uTcP	= new double[dimensions][dimensions];
+		double[][] pTp	= new double[dimensions][dimensions];
+		for (int k = 0; k < dimensions; k++) {
+			for (int m = 0; m < dimensions; m++) {
+				for (int a = 0; a < l; a++) {
+					uTcP[k][m]	+= uTc[k][a] * p[a][m];
+					pTp[k][m]	+= p[a][k] * p[a][m];
+				}
+			}
+		}
+		double[][] g		= multiply(uTcP, invert(pTp));
+		for (int k = 0; k < dimensions; k++) {
+			for (int m = k + 1; m < dimensions; m++) {
+				g[k][m] = g[m][k] = (g[k][m] + g[m][k]) / 2;
+			}
+		}
+		
+		double[][] q		= new double[dimensions][dimensions];
+		double[] scales		= calculateSymmetricEigendecomposition(g, q);
+		
+		final double[][] coordinates = new double[dimensions][n];
+		for (int m = 0; m < dimensions; m++) {
+			final double scale = Math.sqrt(Math.max(scales[m], 0));
+			for (int k = 0; k < dimensions; k++) {
+				final double factor = q[k][m] * scale;
+				for (int i = 0; i < n; i++) {
+					coordinates[m][i] += directions[k][i] * factor;
+				}
+			}
+		}
+		
+		return coordinates;
+	}
+	
+	/**
+	 * Calculates result = C * v, with C stored column-wise (i.e. as C^T).
+	 * @param c
+	 * @param v
+	 * @param result
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private void multiplyWithC(final double[][] c, final double[] v, final double[] result) throws InterruptedException, ExecutionException
+	{
+		parallelFor(result.length, new IRangeOperation() {
+			@Override
+			public void apply(int from, int to)
+			{
+				for (int i = from; i < to; i++) {
+					double sum = 0;
+					for (int a = 0; a < c.length; a++) {
+						sum += c[a][i] * v[a];
+					}
+					result[i] = sum;
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Selects landmarks with the max-min strategy: Starts with the dataset farthest from the first one, then
+	 * repeatedly adds the dataset with the largest distance to its closest landmark. Requires N x L distance lookups.
+	 * @param distances
+	 * @param numberOfLandmarks
+	 * @param squaredDistances Array with numberOfLandmarks rows; row a is set to the squared distances of landmark a to all datasets.
+	 * @param progressReporter Optional, may be null. Is advanced by one for each landmark.
+	 * @param totalProgress Max. value reported to progressReporter.
+	 * @return Indices of landmarks.
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	public int[] selectLandmarks(	final DistanceMatrix distances, final int numberOfLandmarks, final double[][] squaredDistances,
+									final IProgressReporter progressReporter, final long totalProgress) throws InterruptedException, ExecutionException
+	{
+		final int n							= distances.size();
+		final int[] landmarks				= new int[numberOfLandmarks];
+		final boolean[] isLandmark			= new boolean[n];
+		// Distance of each dataset to its closest landmark.
+		final double[] minDistances			= new double[n];
+		
+		// Start with the dataset farthest from the first one.
+		int nextLandmark	= 0;
+		for (int i = 1; i < n; i++) {
+			nextLandmark = distances.get(0, i) > distances.get(0, nextLandmark) ? i : nextLandmark;
+		}
+		Arrays.fill(minDistances, Double.MAX_VALUE);
+		
+		for (int a = 0; a < numberOfLandmarks; a++) {
+			final int landmark		= nextLandmark;
+			final double[] row		= new double[n];
+			landmarks[a]			= landmark;
+			isLandmark[landmark]	= true;
+			squaredDistances[a]		= row;
+			
+			// Fetch distances to new landmark, update distances to closest landmark.
+			parallelFor(n, new IRangeOperation() {
+				@Override
+				public void apply(int from, int to)
+				{
+					for (int i = from; i < to; i++) {
+						final double distance	= distances.get(landmark, i);
+						row[i]					= distance * distance;
+						minDistances[i]			= Math.min(minDistances[i], distance);
+					}
+				}
+			});
+			
+			// Pick dataset farthest from all landmarks.
+			nextLandmark = -1;
+			for (int i = 0; i < n; i++) {
+				if (!isLandmark[i] && (nextLandmark < 0 || minDistances[i] > minDistances[nextLandmark]))
+					nextLandmark = i;
+			}
+			
+			if (progressReporter != null)
+				progressReporter.updateTaskProgress(a + 1, totalProgress);
+		}
+		
+		return landmarks;
+	}
+	
+	/**
+	 * Calculates eigenvectors of the largest eigenvalues of a symmetric matrix by power iteration with deflation
+	 * (each vector is kept orthogonal to the previously found ones).
+	 * @param product Multiplication with the matrix.
+	 * @param size Number of rows/columns of the matrix.
+	 * @param numberOfEigenvectors
+	 * @param shift Added to the diagonal during iteration. Has to be at least the magnitude of the smallest (negative) eigenvalue, 
+	 * so that the largest eigenvalues dominate; 0 for positive semi-definite matrices.
+	 * @param eigenvalues Array in which the corresponding eigenvalues (of the unshifted matrix) are stored.
+	 * @return Eigenvectors (normalized), one per row.
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private double[][] calculateEigenvectors(	final IMatrixVectorProduct product, final int size, final int numberOfEigenvectors,
+												final double shift, final double[] eigenvalues) throws InterruptedException, ExecutionException
+	{
+		final double[][] eigenvectors	= new double[numberOfEigenvectors][size];
+		final double[] next				= new double[size];
+		// Fixed seed: Repeated calculations yield the same coordinates.
+		final Random random				= new Random(42);
+		
+		for (int k = 0; k < numberOfEigenvectors; k++) {
+			double[] v = eigenvectors[k];
+			for (int i = 0; i < size; i++) {
+				v[i] = random.nextDouble() - 0.5;
+			}
+			orthonormalize(v, eigenvectors, k);
+			
+			for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+				product.multiply(v, next);
+				for (int i = 0; i < size; i++) {
+					next[i] += shift * v[i];
+				}
+				
+				// Rayleigh quotient (v is normalized).
+				double eigenvalue = 0;
+				for (int i = 0; i < size; i++) {
+					eigenvalue += v[i] * next[i];
+				}
+				eigenvalues[k] = eigenvalue - shift;
+				
+				if (orthonormalize(next, eigenvectors, k) == 0)
+					break;
+				
+				double change = 0;
+				for (int i = 0; i < size; i++) {
+					change	+= (next[i] - v[i]) * (next[i] - v[i]);
+					v[i]	= next[i];
+				}
+				
+				if (Math.sqrt(change) < TOLERANCE)
+					break;
+			}
+		}
+		
+		return eigenvectors;
+	}
+	
+	/**
+	 * Removes components of the first numberOfBasisVectors basis vectors from v and normalizes it.
+	 * @param v
+	 * @param basis
+	 * @param numberOfBasisVectors
+	 * @return Norm of v before normalization.
+	 */
+	private static double orthonormalize(final double[] v, final double[][] basis, final int numberOfBasisVectors)
+	{
+		for (int k = 0; k < numberOfBasisVectors; k++) {
+			double dotProduct = 0;
+			for (int i = 0; i < v.length; i++) {
+				dotProduct += v[i] * basis[k][i];
+			}
+			for (int i = 0; i < v.length; i++) {
+				v[i] -= dotProduct * basis[k][i];
+			}
+		}
+		
+		double norm = 0;
+		for (int i = 0; i < v.length; i++) {
+			norm += v[i] * v[i];
+		}
+		norm = Math.sqrt(norm);
+		
+		if (norm > 0) {
+			for (int i = 0; i < v.length; i++) {
+				v[i] /= norm;
+			}
+		}
+		
+		return norm;
+	}
+	
+	/**
+	 * @param a
+	 * @param b
+	 * @return a * b.
+	 */
+	private static double[][] multiply(final double[][] a, final double[][] b)
+	{
+		double[][] result = new double[a.length][b[0].length];
+		for (int i = 0; i < a.length; i++) {
+			for (int j = 0; j < b[0].length; j++) {
+				for (int k = 0; k < b.length; k++) {
+					result[i][j] += a[i][k] * b[k][j];
+				}
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Inverts a small matrix by Gauss-Jordan elimination with partial pivoting. Singular dimensions are mapped to 0.
+	 * @param matrix
+	 * @return
+	 */
+	private static double[][] invert(final double[][] matrix)
+	{
+		final int d			= matrix.length;
+		double[][] a		= new double[d][];
+		double[][] inverse	= new double[d][d];
+		for (int i = 0; i < d; i++) {
+			a[i]			= matrix[i].clone();
+			inverse[i][i]	= 1;
+		}
+		
+		for (int column = 0; column < d; column++) {
+			int pivot = column;
+			for (int row = column + 1; row < d; row++) {
+				pivot = Math.abs(a[row][column]) > Math.abs(a[pivot][column]) ? row : pivot;
+			}
+			
+			if (Math.abs(a[pivot][column]) < 1e-300) {
+				Arrays.fill(inverse[column], 0);
+				continue;
+			}
+			
+			double[] temp	= a[column];
+			a[column]		= a[pivot];
+			a[pivot]		= temp;
+			temp			= inverse[column];
+			inverse[column]	= inverse[pivot];
+			inverse[pivot]	= temp;
+			
+			final double factor = a[column][column];
+			for (int j = 0; j < d; j++) {
+				a[column][j]		/= factor;
+				inverse[column][j]	/= factor;
+			}
+			
+			for (int row = 0; row < d; row++) {
+				final double rowFactor = a[row][column];
+				if (row == column || rowFactor == 0)
+					continue;
+				
+				for (int j = 0; j < d; j++) {
+					a[row][j]		-= rowFactor * a[column][j];
+					inverse[row][j]	-= rowFactor * inverse[column][j];
+				}
+			}
+		}
+		
+		return inverse;
+	}
+	
+	/**
+	 * Eigendecomposition of a small symmetric matrix (cyclic Jacobi method).
+	 * @param matrix Is not modified.
+	 * @param eigenvectors Matrix in which the eigenvectors are stored as columns, ordered by descending eigenvalue.
+	 * @return Eigenvalues in descending order.
+	 */
+	private static double[] calculateSymmetricEigendecomposition(final double[][] matrix, final double[][] eigenvectors)
+	{
+		final int d		= matrix.length;
+		double[][] a	= new double[d][];
+		double[][] v	= new double[d][d];
+		for (int i = 0; i < d; i++) {
+			a[i]	= matrix[i].clone();
+			v[i][i]	= 1;
+		}
+		
+		for (int sweep = 0; sweep < 100; sweep++) {
+			double offDiagonal = 0;
+			for (int i = 0; i < d; i++) {
+				for (int j = i + 1; j < d; j++) {
+					offDiagonal += a[i][j] * a[i][j];
+				}
+			}
+			if (offDiagonal < 1e-30)
+				break;
+			
+			for (int p = 0; p < d; p++) {
+				for (int q = p + 1; q < d; q++) {
+					if (a[p][q] == 0)
+						continue;
+					
+					// Rotation annihilating a[p][q].
+					final double theta	= (a[q][q] - a[p][p]) / (2 * a[p][q]);
+					final double t		= Math.signum(theta == 0 ? 1 : theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+					final double cos	= 1 / Math.sqrt(t * t + 1);
+					final double sin	= t * cos;
+					
+					for (int k = 0; k < d; k++) {
+						final double akp	= a[k][p];
+						final double akq	= a[k][q];
+						a[k][p]				= cos * akp - sin * akq;
+						a[k][q]				= sin * akp + cos * akq;
+					}
+					for (int k = 0; k < d; k++) {
+						final double apk	= a[p][k];
+						final double aqk	= a[q][k];
+						a[p][k]				= cos * apk - sin * aqk;
+						a[q][k]				= sin * apk + cos * aqk;
+					}
+					for (int k = 0; k < d; k++) {
+						final double vkp	= v[k][p];
+						final double vkq	= v[k][q];
+						v[k][p]				= cos * vkp - sin * vkq;
+						v[k][q]				= sin * vkp + cos * vkq;
+					}
+				}
+			}
+		}
+		
+		// Sort by descending eigenvalue.
+		double[] eigenvalues	= new double[d];
+		boolean[] used			= new boolean[d];
+		for (int m = 0; m < d; m++) {
+			int largest = -1;
+			for (int i = 0; i < d; i++) {
+				if (!used[i] && (largest < 0 || a[i][i] > a[largest][largest]))
+					largest = i;
+			}
+			
+			used[largest]	= true;
+			eigenvalues[m]	= a[largest][largest];
+			for (int k = 0; k < d; k++) {
+				eigenvectors[k][m] = v[k][largest];
+			}
+		}
+		
+		return eigenvalues;
+	}
+	
+	/**
+	 * Splits range [0, n) into chunks and processes them in parallel. Blocks until all chunks are done.
+	 * @param n
+	 * @param operation
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private void parallelFor(final int n, final IRangeOperation operation) throws InterruptedException, ExecutionException
+	{
+		final int chunkSize = Math.max(MIN_CHUNK_SIZE, (n + numberOfChunks - 1) / numberOfChunks);
+		
+		// Small ranges: Not worth the overhead.
+		if (chunkSize >= n) {
+			operation.apply(0, n);
+			return;
+		}
+		
+		List<Callable<Void>> chunks = new ArrayList<Callable<Void>>();
+		for (int from = 0; from < n; from += chunkSize) {
+			final int chunkFrom	= from;
+			final int chunkTo	= Math.min(n, from + chunkSize);
+			
+			chunks.add(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception
+				{
+					operation.apply(chunkFrom, chunkTo);
+					return null;
+				}
+			});
+		}
+		
+		// Propagate exceptions.
+		for (Future<Void> chunk : executor.invokeAll(chunks)) {
+			chunk.get();
+		}
+	}
+	
+	/**
+	 * Shuts down executor, if it was created by this engine.
+	 */
+	public void shutdown()
+	{
+		if (ownsExecutor)
+			executor.shutdown();
+	}
+	
+	// -----------------------------------------------
+	// 				Auxiliary interfaces
+	// -----------------------------------------------
+	
+	/**
+	 * Operation on a range of rows.
+	 */
+	private interface IRangeOperation
+	{
+		void apply(int from, int to);
+	}
+	
+	/**
+	 * Multiplication of a (implicitly given) symmetric matrix with a vector.
+	 */
+	private interface IMatrixVectorProduct
+	{
+		void multiply(double[] v, double[] result) throws InterruptedException, ExecutionException;
+	}
+}
@@ -0,0 +1,71 @@
+package model.workspace;
+
+/**
+ * In-memory distance matrix. Stores only the strict upper triangle, packed row by row
+ * into a single float array - i.e. about an eighth of the memory of a quadratic double[][].
+ * @author RM
+ *
+ */
+public class PackedDistanceMatrix extends WritableDistanceMatrix
+{
+	/**
+	 * Number of rows/columns.
+	 */
+	private final int n;
+	/**
+	 * Packed strict upper triangle.
+	 */
+	private final float[] distances;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	/**
+	 * Creates matrix with n rows/columns and all distances set to 0.
+	 * @param n
+	 */
+	public PackedDistanceMatrix(final int n)
+	{
+		if (packedSize(n) > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("Distance matrix with " + n + " rows exceeds maximal array size.");
+		
+		this.n			= n;
+		this.distances	= new float[(int)packedSize(n)];
+	}
+	
+	/**
+	 * Creates matrix from upper triangle of specified quadratic array.
+	 * @param distances
+	 */
+	public PackedDistanceMatrix(final double[][] distances)
+	{
+		this(distances.length);
+		
+		int index = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				this.distances[index++] = (float)distances[i][j];
+			}
+		}
+	}
+	
+	@Override
+	public int size()
+	{
+		return n;
+	}
+	
+	@Override
+	public double get(final int row, final int column)
+	{
+		return row == column ? 0 : distances[(int)packedIndex(row, column, n)];
+	}
+	
+	@Override
+	public void set(final int row, final int column, final double distance)
+	{
+		if (row != column)
+			distances[(int)packedIndex(row, column, n)] = (float)distance;
+	}
+}
@@ -20,6 +20,7 @@ import java.util.Map;
 
 
 import database.DBManagement;
+import database.DBQueryService;
 import javafx.beans.property.DoubleProperty;
 import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextArea;
@@ -62,6 +63,10 @@ public class Workspace implements ITaskListener
 	 * Name of file containing already calculated MDS coordinates.
 	 */
 	public static final String FILENAME_MDSCOORDINATES	= "workspace.mds";
+	/**
+	 * Name of file containing the (binary, memory-mapped) distance matrix. Cache for table datasetDistances.
+	 */
+	public static final String FILENAME_DISTANCES		= "workspace.dis";
 	/**
 	 * Name of file containing parameters that have yet to be calculated.
 	 */
@@ -95,9 +100,9 @@ public class Workspace implements ITaskListener
 	 */
 	private double[][] mdsCoordinates;
 	/**
-	 * Contains pre-calculated distance values (between datasets). Read from .FILENAME_DISTANCES.
+	 * Contains pre-calculated distance values (between datasets). Mapped from .FILENAME_DISTANCES.
 	 */
-	private double[][] distances;
+	private DistanceMatrix distances;
 	
 	/**
 	 * Holds all (loaded) datasets from the specified directory.
@@ -175,6 +180,10 @@ public class Workspace implements ITaskListener
 	 * Database management.
 	 */
 	private DBManagement db;
+	/**
+	 * Asynchronous execution of database queries issued by the UI.
+	 */
+	private DBQueryService queryService;
 	
 	// -----------------------------------------------	
 	// -----------------------------------------------
@@ -543,12 +552,13 @@ public class Workspace implements ITaskListener
 	}
 	
 	/**
-	 * Adds specified line to the protocol panel.
+	 * Adds specified line to the protocol panel. Ignored if no protocol panel is set (e.g. in headless mode).
 	 * @param additionalLogString
 	 */
 	public void log(String additionalLogString)
 	{
-		log_protocol_textarea.setText(log_protocol_textarea.getText() + "\n" + additionalLogString);
+		if (log_protocol_textarea != null)
+			log_protocol_textarea.setText(log_protocol_textarea.getText() + "\n" + additionalLogString);
 	}
 	
 	/**
@@ -556,7 +566,8 @@ public class Workspace implements ITaskListener
 	 */
 	public void setProgressStatus(boolean isBusy)
 	{
-		log_protocol_progressindicator.setVisible(isBusy);		
+		if (log_protocol_progressindicator != null)
+			log_protocol_progressindicator.setVisible(isBusy);		
 	}
 	
 	// ------------------------------
@@ -584,8 +595,9 @@ public class Workspace implements ITaskListener
 		this.directory = directory;
 		
 		if (db == null) {
-			String dbPath	= directory + "\\" + Workspace.DBNAME;
+			String dbPath	= Paths.get(directory, Workspace.DBNAME).toString();
 			db				= new DBManagement(dbPath);
+			queryService	= new DBQueryService(db, DBQueryService.DEFAULT_NUMBER_OF_THREADS);
 			log("Successfully initiated database at " + dbPath + ".");
 			System.out.println("Successfully initiated database at " + dbPath + ".");
 		}
@@ -669,12 +681,12 @@ public class Workspace implements ITaskListener
 		this.appendToMDSCoordinateMatrix = appendToMDSCoordinateMatrix;
 	}
 
-	public double[][] getDistances()
+	public DistanceMatrix getDistances()
 	{
 		return distances;
 	}
 
-	public void setDistances(double[][] distances)
+	public void setDistances(DistanceMatrix distances)
 	{
 		this.distances = distances;
 	}
@@ -767,4 +779,9 @@ public class Workspace implements ITaskListener
 	{
 		return db;
 	}
+	
+	public DBQueryService getQueryService()
+	{
+		return queryService;
+	}
 }
@@ -0,0 +1,445 @@
+package model.workspace;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+import javafx.util.Pair;
+import database.DBManagement;
+import model.LDAConfiguration;
+import model.topic.SparseTopicDistanceKernels;
+import model.topic.TopicDistance;
+import model.topic.TopicDistanceMetrics;
+import model.workspace.tasks.IProgressReporter;
+
+/**
+ * Post-processing steps of a workspace: Collecting metadata, calculating and loading dataset distances, calculating MDS coordinates.
+ * Independent of the JavaFX toolkit, so that the steps can be executed both by the respective workspace tasks and headless
+ * (see application.BatchPostprocessor). Steps are executed synchronously; progress is reported to an {@link IProgressReporter}.
+ * @author RM
+ *
+ */
+public class WorkspacePipeline
+{
+	private Workspace workspace;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	public WorkspacePipeline(Workspace workspace)
+	{
+		this.workspace = workspace;
+	}
+	
+	/**
+	 * Reads integer option from option set.
+	 * @param options May be null.
+	 * @param key
+	 * @param defaultValue Returned if option set is not available or doesn't contain the specified key.
+	 * @return
+	 */
+	private static int getOption(final Map<String, Integer> options, final String key, final int defaultValue)
+	{
+		if (options == null || !options.containsKey(key))
+			return defaultValue;
+		
+		return options.get(key);
+	}
+	
+	/**
+	 * Builds derived keyword data and document index for new LDA configurations, then collects LDA configurations.
+	 * @param progressReporter
+	 * @return Number of LDA configurations in workspace.
+	 * @throws Exception
+	 */
+	public int collectMetadata(final IProgressReporter progressReporter) throws Exception
+	{
+		// Open connection to database.
+		DBManagement db									= workspace.getDatabaseManagement();
+		
+		// Rank keywords of newly generated LDA configurations.
+		db.buildDerivedKeywordData(progressReporter);
+		// Index newly added documents.
+		db.buildDocumentIndex(progressReporter);
+		
+		// Collect LDA configurations.
+		ArrayList<LDAConfiguration> ldaConfigurations	= db.loadLDAConfigurations(progressReporter);
+		
+		// Update task progress.
+		progressReporter.updateTaskProgress(1, 1);
+		
+		// Transfer LDA configuration collection.
+		workspace.setLDAConfigurations(ldaConfigurations);
+		
+		// Update number of datasets in workspace.
+		workspace.setNumberOfDatasetsInWS(ldaConfigurations.size());
+		
+		// Tell workspace that metadata was loaded.
+		workspace.setMetadataLoaded(true);
+		
+		return ldaConfigurations.size();
+	}
+	
+	/**
+	 * Calculates distances (requires loaded raw topic data, unless raw data is streamed).
+	 * Writes results to database and file (path as specified in @Workspace#directory + @Workspace#FILENAME_DISTANCES).
+	 * Supported options: "forceDistanceRecalculation" (0: only for LDA configurations without distances; default 1),
+	 * "topicDistance", "datasetDistance", "topicDistances" and "datasetDistances" (selected metrics, see @DistanceMetricSet;
+	 * default: metrics of the existing distances), "numberOfThreads" (0: number of available cores), "distanceTileSize" (0: default)
+	 * "rawDataWindowSize" (number of datasets streamed at once; 0: use preloaded raw data), "approximationMass" (approximate mode:
+	 * share of probability mass retained by sparse topics in parts per million, see @SparseTopicDistanceKernels; 0: exact distances;
+	 * default: approximation of the existing distances)
+	 * and "datasetDistancesOnly" (1: topic distances are not saved, Hausdorff distances are calculated from the needed topic pairs only,
+	 * see @DatasetDistanceEngine#setDatasetDistancesOnly; topic distances are recorded as incomplete; default 0).
+	 * If the selected metrics or the approximation differ from the ones the existing distances were calculated with, all distances are recalculated.
+	 * @param options May be null.
+	 * @param progressReporter
+	 * @return Number of dataset pairs whose distances were calculated.
+	 * @throws Exception
+	 */
+	public long calculateDistances(final Map<String, Integer> options, final IProgressReporter progressReporter) throws Exception
+	{
+		// Open connection to database.
+		final DBManagement db								= workspace.getDatabaseManagement();
+		// Get current dataset map.
+		final Map<LDAConfiguration, Dataset> datasetMap		= workspace.getDatasetMap();
+		// Get current LDA configuration list.
+		final ArrayList<LDAConfiguration> ldaConfigurations	= workspace.getLDAConfigurations();
+		
+		// Calculated distances (not allocated in incremental mode).
+		WritableDistanceMatrix distances					= null;
+		// Number of calculated dataset pairs.
+		long numberOfCalculatedPairs						= 0;
+		
+		// Update task progress.
+		progressReporter.updateTaskProgress(0, 1);
+		
+		// Fetch configuration IDs of all LDA configurations for which distances have not been calculated yet.
+		Set<Integer> listOfLDAConfigsWithoutDistances 		= db.loadLDAConfigIDsWithoutDistanceMatrixEntries();
+		
+		// Determine whether all distances should be calculated.
+		boolean calculateAllDistances = getOption(options, "forceDistanceRecalculation", 1) == 1;
+		
+		// Selected metrics. By default, the metrics of the existing distances are used.
+		final DistanceMetricSet storedMetrics	= db.loadDistanceMetricSet();
+		final DistanceMetricSet metrics			= DistanceMetricSet.fromOptions(options, storedMetrics);
+		
+		// Approximate mode: Compare sparse topics retaining the specified share of probability mass. Only available for some (default) metrics.
+		// By default, the approximation of the existing distances is used.
+		final double storedApproximationMass	= db.loadDistanceApproximationMass();
+		double approximationMass				= Math.min(getOption(options, "approximationMass", (int)Math.round(storedApproximationMass * 1000000)) / 1000000.0, 1);
+		if (approximationMass > 0 && (!SparseTopicDistanceKernels.isSupported(metrics.getTopicDistances()) || !TopicDistanceMetrics.areDefaultMetrics(metrics.getTopicDistanceMetrics()))) {
+			System.out.println("### ERROR ### Topic distances " + Arrays.toString(metrics.getTopicDistances()) + " can't be approximated, calculating exact distances.");
+			approximationMass = 0;
+		}
+		
+		// Dataset-only mode: Topic distances are neither saved nor (if possible) calculated completely. They are recorded as incomplete.
+		final boolean datasetDistancesOnly = getOption(options, "datasetDistancesOnly", 0) == 1;
+		
+		// Existing distances can't be extended with distances calculated with another metric.
+		if (!calculateAllDistances && (metrics.getPrimaryTopicDistance() != storedMetrics.getPrimaryTopicDistance() || metrics.getPrimaryDatasetDistance() != storedMetrics.getPrimaryDatasetDistance())) {
+			System.out.println("Metric changed from " + storedMetrics.getPrimaryTopicDistance() + "/" + storedMetrics.getPrimaryDatasetDistance() + ", recalculating all distances.");
+			calculateAllDistances = true;
+		}
+		
+		// Tables of the other metrics have to be completed as well, hence they have to match the ones of the existing distances.
+		if (!calculateAllDistances && !metrics.containsSameMetrics(storedMetrics)) {
+			System.out.println("Metrics changed from " + storedMetrics + " to " + metrics + ", recalculating all distances.");
+			calculateAllDistances = true;
+		}
+		
+		// Same for approximated and exact distances.
+		if (!calculateAllDistances && approximationMass != storedApproximationMass) {
+			System.out.println("Approximation changed from " + storedApproximationMass + ", recalculating all distances.");
+			calculateAllDistances = true;
+		}
+
+		// Number of worker threads and size of tiles used by the distance engine (0: use defaults).
+		final int numberOfThreads			= getOption(options, "numberOfThreads", 0);
+		final int tileSize					= getOption(options, "distanceTileSize", 0);
+		// Number of datasets held in memory at once if raw data is streamed from the database (0: use complete, preloaded raw data).
+		int rawDataWindowSize				= getOption(options, "rawDataWindowSize", 0);
+		
+		// Preloaded raw data may be incomplete, if recalculation was enforced by a changed metric: Stream it instead.
+		if (rawDataWindowSize == 0 && calculateAllDistances && datasetMap.size() < ldaConfigurations.size())
+			rawDataWindowSize = DatasetDistanceEngine.DEFAULT_WINDOW_SIZE;
+		
+		System.out.println("ldaConfigCount = " + ldaConfigurations.size());
+		System.out.println("without distances = " + listOfLDAConfigsWithoutDistances.size());
+		System.out.println("datasetMap.size = " + datasetMap.size());
+		System.out.println("calculateAllDistances = " + calculateAllDistances);
+		
+		// Adaptive distance calculation: Flag LDA configurations for which distances have to be calculated.
+		boolean[] mustCalculate = null;
+		if (!calculateAllDistances) {
+			mustCalculate = new boolean[ldaConfigurations.size()];
+			for (int i = 0; i < ldaConfigurations.size(); i++) {
+				mustCalculate[i] = listOfLDAConfigsWithoutDistances.contains(ldaConfigurations.get(i).getConfigurationID());
+			}
+		}
+		
+		// Streamed raw data is read directly from the database.
+		final IDatasetSource rawDataSource = new IDatasetSource() {
+			@Override
+			public DatasetCursor openCursor(int firstLDAConfigID, int lastLDAConfigID) throws Exception
+			{
+				return db.openRawDataCursor(firstLDAConfigID, lastLDAConfigID);
+			}
+		};
+		
+		// Topic distances are saved block by block, each metric in its own table.
+		final ITopicDistanceConsumer topicDistanceSaver = new ITopicDistanceConsumer() {
+			@Override
+			public void consumeTopicDistances(TopicDistance topicDistance, Map<Pair<LDAConfiguration, LDAConfiguration>, double[][]> blockTopicDistances) throws Exception
+			{
+				if (topicDistance == metrics.getPrimaryTopicDistance())
+					db.saveTopicDistances(blockTopicDistances, false, null);
+				else
+					db.saveTopicDistances(topicDistance, blockTopicDistances);
+			}
+		};
+		
+		// Dataset distances delivered by the engine are saved block by block, each metric in its own table.
+		final IDatasetDistanceConsumer datasetDistanceSaver = new IDatasetDistanceConsumer() {
+			@Override
+			public void consumeDatasetDistances(TopicDistance topicDistance, DatasetDistance datasetDistance, Map<Pair<LDAConfiguration, LDAConfiguration>, Double> blockDatasetDistances) throws Exception
+			{
+				if (topicDistance == metrics.getPrimaryTopicDistance() && datasetDistance == metrics.getPrimaryDatasetDistance())
+					db.saveDatasetDistances(blockDatasetDistances);
+				else
+					db.saveDatasetDistances(topicDistance, datasetDistance, blockDatasetDistances);
+			}
+		};
+		
+		// Topic distances are complete, if this run saves them for all pairs or extends complete ones.
+		final boolean topicDistancesComplete = !datasetDistancesOnly && (calculateAllDistances || db.loadTopicDistancesComplete());
+		
+		// Full recalculation: Remove topic distances and tables of other metrics, so that none of them is kept stale (e.g. if they aren't saved again).
+		// Until the calculation succeeded, the stored metrics reflect the cleared state: Existing dataset distances of the primary metric only.
+		if (calculateAllDistances) {
+			db.saveDistanceMetric(new DistanceMetricSet(storedMetrics.getPrimaryTopicDistance(), storedMetrics.getPrimaryDatasetDistance()), storedApproximationMass, false);
+			db.clearTopicAndSecondaryDistances();
+		}
+		
+		/*
+		 * Compare datasets with each other, calculate distances.
+		 */
+		DatasetDistanceEngine engine = new DatasetDistanceEngine(numberOfThreads, tileSize);
+		engine.setApproximationMass(approximationMass);
+		engine.setDatasetDistancesOnly(datasetDistancesOnly);
+		try {
+			// Incremental mode: Only compare new datasets with all datasets, append results to the database.
+			if (!calculateAllDistances && rawDataWindowSize > 0) {
+				numberOfCalculatedPairs = engine.calculateDistancesIncrementally(	rawDataSource, ldaConfigurations, listOfLDAConfigsWithoutDistances,
+																					metrics, rawDataWindowSize, datasetDistanceSaver, topicDistanceSaver, progressReporter);
+			}
+			
+			else {
+				distances = new PackedDistanceMatrix(ldaConfigurations.size());
+				
+				// Streaming mode: Read raw data window by window, save topic distances block by block.
+				if (rawDataWindowSize > 0) {
+					numberOfCalculatedPairs = engine.calculateDistances(rawDataSource, ldaConfigurations, metrics, mustCalculate, rawDataWindowSize, distances, topicDistanceSaver, datasetDistanceSaver, progressReporter);
+				}
+				
+				// Otherwise: Use preloaded raw data.
+				else {
+					numberOfCalculatedPairs = engine.calculateDistances(ldaConfigurations, datasetMap, metrics, mustCalculate, distances, topicDistanceSaver, datasetDistanceSaver, progressReporter);
+				}
+				
+				// Save dataset distances to database.
+				db.saveDatasetDistances(ldaConfigurations, distances, calculateAllDistances, listOfLDAConfigsWithoutDistances, progressReporter);
+			}
+			
+			// Remember metrics of distances in main tables and complete tables of other metrics.
+			db.saveDistanceMetric(metrics, approximationMass, topicDistancesComplete);
+		}
+		
+		// Errors are propagated to the caller (e.g. the task reporting them or the batch run's exit code).
+		finally {
+			engine.shutdown();
+		}
+		
+		
+		// Update task progress.
+		progressReporter.updateTaskProgress(1, 1);
+		
+		// Transfer distance data to workspace instance, if all distances were calculated. Otherwise distances
+		// have to be reloaded from database (which rebuilds the binary distance matrix file).
+		boolean isDistanceDataLoaded = false;
+		// Only reached if distances were saved successfully, so the file is never stamped with the state of an incomplete table.
+		if (calculateAllDistances && distances != null) {
+			try {
+				// Replaces the current file (which may still be mapped by the workspace) via a temporary file.
+				workspace.setDistances(DistanceMatrixFile.write(	Paths.get(workspace.getDirectory(), Workspace.FILENAME_DISTANCES),
+																	ldaConfigurations, db.readDatasetDistanceTableState(), distances));
+				isDistanceDataLoaded = true;
+			}
+			
+			// File can't be written or replaced: Keep packed matrix in memory.
+			catch (IOException | IllegalArgumentException e) {
+				e.printStackTrace();
+				
+				workspace.setDistances(distances);
+				isDistanceDataLoaded = true;
+			}
+		}
+		
+		// Notify workspace whether distance data is loaded.
+		workspace.setDistanceDataLoaded(isDistanceDataLoaded);
+		
+		// Clear raw data (don't wanna use memory without a good reason to).
+		workspace.getDatasetMap().clear();
+		
+		return numberOfCalculatedPairs;
+	}
+	
+	/**
+	 * Loads dataset distances. Maps binary distance matrix file, if it is consistent with the database; rebuilds it otherwise.
+	 * Requires loaded metadata.
+	 * @param progressReporter
+	 * @return Number of datasets in distance matrix.
+	 * @throws Exception
+	 */
+	public int loadDistances(final IProgressReporter progressReporter) throws Exception
+	{
+		// Open connection to database.
+		DBManagement db										= workspace.getDatabaseManagement();
+		// Assume integrity check was executed and LDA configurations are consistent with data in database.
+		final ArrayList<LDAConfiguration> ldaConfigurations	= workspace.getLDAConfigurations();
+		// Path to binary distance matrix file.
+		final Path path										= Paths.get(workspace.getDirectory(), Workspace.FILENAME_DISTANCES);
+		
+		// Progress is indeterminate until distances are read from database.
+		progressReporter.updateTaskProgress(-1, 1);
+		
+		// Read state of table datasetDistances (source of truth) to check whether binary file is up to date.
+		Pair<Long, Long> datasetDistanceTableState			= db.readDatasetDistanceTableState();
+		
+		// Map binary file, if it is consistent with database.
+		DistanceMatrix distances							= DistanceMatrixFile.open(path, ldaConfigurations, datasetDistanceTableState);
+		
+		// Otherwise: Rebuild binary file from database.
+		if (distances == null) {
+			System.out.println("Rebuilding " + Workspace.FILENAME_DISTANCES + " from database.");
+			
+			try {
+				DistanceMatrixFile distanceMatrixFile = DistanceMatrixFile.create(path, ldaConfigurations, datasetDistanceTableState);
+				db.loadDistances(ldaConfigurations, distanceMatrixFile, progressReporter);
+				distanceMatrixFile.force();
+				
+				distances = distanceMatrixFile;
+			}
+			
+			// File can't be written (e.g. still mapped by another process or too big): Keep distances in memory.
+			catch (IOException | IllegalArgumentException e) {
+				e.printStackTrace();
+				
+				PackedDistanceMatrix packedDistances = new PackedDistanceMatrix(ldaConfigurations.size());
+				db.loadDistances(ldaConfigurations, packedDistances, progressReporter);
+				
+				distances = packedDistances;
+			}
+		}
+		
+		// Transfer distances between datasets.
+		workspace.setDistances(distances);
+		
+		// Tell workspace that distance data was loaded.
+		workspace.setDistanceDataLoaded(true);
+		
+		// Update task progress.
+		progressReporter.updateTaskProgress(1, 1);
+		
+		return distances.size();
+	}
+	
+	/**
+	 * Calculates MDS coordinates (requires loaded distance data).
+	 * Writes results to file (path as specified in @Workspace#directory + @Workspace#FILENAME_MDSCOORDINATES.
+	 * Supported options: "mdsAlgorithm" (ordinal of @MDSAlgorithm; -1 or missing: choose by workspace size),
+	 * "mdsLandmarks" (number of landmarks/pivots; 0: default) and "numberOfThreads" (0: number of available cores).
+	 * @param options May be null.
+	 * @param progressReporter
+	 * @return Number of datasets.
+	 * @throws Exception
+	 */
+	public int calculateMDSCoordinates(final Map<String, Integer> options, final IProgressReporter progressReporter) throws Exception
+	{
+		// Get data from workspace.
+		final ArrayList<LDAConfiguration> ldaConfigurations	= workspace.getLDAConfigurations();
+		final DistanceMatrix distances						= workspace.getDistances();
+		
+		// Read options.
+		final int algorithmOrdinal							= getOption(options, "mdsAlgorithm", -1);
+		final MDSAlgorithm algorithm						= algorithmOrdinal >= 0 && algorithmOrdinal < MDSAlgorithm.values().length ? MDSAlgorithm.values()[algorithmOrdinal] : null;
+		final int numberOfLandmarks							= getOption(options, "mdsLandmarks", 0);
+		
+		// Apply MDS on topic distance matrix.
+		double[][] output									= null;
+		MDSEngine engine									= new MDSEngine(getOption(options, "numberOfThreads", 0));
+		
+		try {
+			output = engine.calculateCoordinates(distances, algorithm, numberOfLandmarks, 2, progressReporter);
+		}
+		
+		finally {
+			engine.shutdown();
+		}
+		
+		try {
+			String path				= Paths.get(workspace.getDirectory(), Workspace.FILENAME_MDSCOORDINATES).toString();
+			BufferedWriter writer	= Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8);
+			StringBuilder line		= new StringBuilder(output[0].length * 24);
+			
+			// Write LDA configurations above the respective columns.
+			for (int j = 0; j < output[0].length; j++) {
+				line.append(ldaConfigurations.get(j)).append(' ');
+			}
+			
+			writer.write(line.toString());
+			writer.newLine();
+			
+			// Output MDS coordinates.
+			for (int i = 0; i < output.length; i++) {
+				line.setLength(0);
+				for (int j = 0; j < output[i].length; j++) {
+					line.append(output[i][j]).append(' ');
+				}
+				writer.write(line.toString());
+				
+				if (i < output.length - 1)
+					writer.newLine();
+				
+				// Update task progress.
+				progressReporter.updateTaskProgress(i + 1, output.length);
+			}
+			
+			// Update task progress.
+			progressReporter.updateTaskProgress(1, 1);
+			
+			// Transfer MDS coordinate data to workspace intance.
+			workspace.setMDSCoordinates(output);
+			
+			// Signal that MDS data is available.
+			workspace.setMDSDataLoaded(true);
+			
+			// Close file writer.
+			writer.close();
+		}
+		
+		catch (Exception e) {
+			e.printStackTrace();
+		}
+		
+		return output[0].length;
+	}
+}
@@ -0,0 +1,18 @@
+package model.workspace;
+
+/**
+ * Distance matrix whose distances can be set, e.g. while they are calculated or loaded from the database.
+ * Read-only matrices and views only extend {@link DistanceMatrix}.
+ * @author RM
+ *
+ */
+public abstract class WritableDistanceMatrix extends DistanceMatrix
+{
+	/**
+	 * Sets distance (symmetrically). Distances of a dataset to itself are ignored.
+	 * @param row
+	 * @param column
+	 * @param distance
+	 */
+	public abstract void set(int row, int column, double distance);
+}
@@ -0,0 +1,12 @@
+package model.workspace.tasks;
+
+public interface IProgressReporter
+{
+	/**
+	 * Is called whenever progress was made on a (possibly long-running) operation.
+	 * May be called from arbitrary threads.
+	 * @param workDone
+	 * @param max
+	 */
+	void updateTaskProgress(long workDone, long max);
+}
@@ -1,11 +1,9 @@
 package model.workspace.tasks;
 
-import java.util.ArrayList;
 import java.util.Map;
 
-import database.DBManagement;
-import model.LDAConfiguration;
 import model.workspace.Workspace;
+import model.workspace.WorkspacePipeline;
 import model.workspace.TaskType;
 
 public class Task_CollectMetadata extends WorkspaceTask
@@ -18,25 +16,7 @@ public class Task_CollectMetadata extends WorkspaceTask
 	@Override
 	protected Integer call() throws Exception
 	{
-		// Open connection to database.
-		DBManagement db									= workspace.getDatabaseManagement();
-		
-		// Collect LDA configurations.
-		ArrayList<LDAConfiguration> ldaConfigurations	= db.loadLDAConfigurations(this);
-				
-		// Update task progress.
-		updateProgress(1, 1);
-		
-		// Transfer LDA configuration collection.
-		workspace.setLDAConfigurations(ldaConfigurations);
-		
-		// Update number of datasets in workspace.
-		workspace.setNumberOfDatasetsInWS(ldaConfigurations.size());
-		
-		// Tell workspace that metadata was loaded.
-		workspace.setMetadataLoaded(true);
-		
-		return ldaConfigurations.size();
+		return new WorkspacePipeline(workspace).collectMetadata(this);
 	}
 }
 
@@ -2,8 +2,8 @@ package model.workspace.tasks;
 
 import java.util.Map;
 
-import database.DBManagement;
 import model.workspace.Workspace;
+import model.workspace.WorkspacePipeline;
 import model.workspace.TaskType;
 
 public class Task_LoadDistanceData extends WorkspaceTask
@@ -16,30 +16,7 @@ public class Task_LoadDistanceData extends WorkspaceTask
 	@Override
 	protected Integer call() throws Exception
 	{
-		// Open connection to database.
-		DBManagement db										= workspace.getDatabaseManagement();
-		
-		// Assume integrity check was executed and LDA configurations are consistent with data in file.
-		double distances[][]								= null;
-		
-	    updateProgress(0, Double.MAX_VALUE);
-	    
-	    // Process distance data.
-	    distances											= db.loadDistances(workspace.getLDAConfigurations(), this);
-	    
-		// Update number of datasets in .dis file in workspace reference.
-//		workspace.setNumberOfDatasetsInDISTable(distances.length);
-		
-		// Transfer distances between datasets.
-		workspace.setDistances(distances);
-		
-		// Tell workspace that distance data was loaded.
-		workspace.setDistanceDataLoaded(true);
-		
-		// Update task progress.
-		updateProgress(1, 1);
-	    
-		return distances.length;
+		return new WorkspacePipeline(workspace).loadDistances(this);
 	}
 
 }
@@ -7,6 +7,7 @@ import java.util.Map;
 import javafx.util.Pair;
 import database.DBManagement;
 import model.LDAConfiguration;
+import model.topic.TopKeywords;
 import model.workspace.Dataset;
 import model.workspace.Workspace;
 import model.workspace.TaskType;
@@ -21,6 +22,10 @@ public class Task_LoadSpecificRawData extends WorkspaceTask
 	 * Key: Topic configuration, value: keyword/probability values.
 	 */
 	private Map<Pair<Integer, Integer>, ArrayList<Pair<String, Double>>> keywordProbabilities;
+	/**
+	 * Most relevant keywords per topic configuration.
+	 */
+	private Map<Pair<Integer, Integer>, TopKeywords> topKeywords;
 	
 	/**
 	 * Collections of topic configurations used.
@@ -62,10 +67,12 @@ public class Task_LoadSpecificRawData extends WorkspaceTask
 		// Update task progress.
 		updateProgress(0,  1);
 		
-		// Load n most relevant keyword/probability pairs.
-		keywordProbabilities = new LinkedHashMap<Pair<Integer, Integer>, ArrayList<Pair<String, Double>>>(topicConfigurations.size());
+		// Load n most relevant keyword/probability pairs for all topics at once.
+		topKeywords				= db.loadTopKeywords(topicConfigurations, numberOfKeywords);
+		keywordProbabilities	= new LinkedHashMap<Pair<Integer, Integer>, ArrayList<Pair<String, Double>>>(topicConfigurations.size());
 		for (Pair<Integer, Integer> topicConfig : this.topicConfigurations) {
-			keywordProbabilities.put( topicConfig, db.getRawDataForTopic(topicConfig.getKey(), topicConfig.getValue(), numberOfKeywords) );	
+			TopKeywords topicKeywords = topKeywords.get(topicConfig);
+			keywordProbabilities.put( topicConfig, topicKeywords != null ? topicKeywords.toKeywordProbabilityPairs() : new ArrayList<Pair<String, Double>>(0) );	
 		}
 		
 		// Update task progress.
@@ -78,4 +85,9 @@ public class Task_LoadSpecificRawData extends WorkspaceTask
 	{
 		return keywordProbabilities;
 	}
+	
+	public Map<Pair<Integer, Integer>, TopKeywords> getTopKeywords()
+	{
+		return topKeywords;
+	}
 }
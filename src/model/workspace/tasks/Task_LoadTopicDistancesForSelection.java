@@ -40,6 +40,11 @@ public class Task_LoadTopicDistancesForSelection extends WorkspaceTask
 	 */
 	private Pair<Double, Double> topicDistanceExtrema;
 	
+	/**
+	 * Indicates whether topic distances were saved for all pairs of topics (see @DBManagement#loadTopicDistancesComplete).
+	 */
+	private boolean topicDistancesComplete;
+	
 
 	/*
 	 * --------------------------------------------------------------
@@ -61,6 +66,9 @@ public class Task_LoadTopicDistancesForSelection extends WorkspaceTask
 		// Get DB.
 		DBManagement db = workspace.getDatabaseManagement();
 
+		// Check whether topic distances are complete.
+		this.topicDistancesComplete														= db.loadTopicDistancesComplete();
+		
 		// Load and store topic distance extrema.
 		this.topicDistanceExtrema														= db.loadTopicDistanceExtrema(); 
 
@@ -94,4 +102,9 @@ public class Task_LoadTopicDistancesForSelection extends WorkspaceTask
 	{
 		return topicDistanceExtrema;
 	}
+	
+	public boolean areTopicDistancesComplete()
+	{
+		return topicDistancesComplete;
+	}
 }
\ No newline at end of file
@@ -9,7 +9,7 @@ import javafx.concurrent.Task;
 import javafx.concurrent.WorkerStateEvent;
 import javafx.event.EventHandler;
 
-public abstract class WorkspaceTask extends Task<Integer>
+public abstract class WorkspaceTask extends Task<Integer> implements IProgressReporter
 {
 	protected Workspace workspace;
 	protected TaskType workspaceAction;
@@ -52,6 +52,21 @@ public abstract class WorkspaceTask extends Task<Integer>
 		listeners.remove(listener);
 	}
 	
+	/**
+	 * Reads integer option from additional option set.
+	 * @param key
+	 * @param defaultValue Returned if option set is not available or doesn't contain the specified key.
+	 * @return
+	 */
+	protected int getOption(String key, int defaultValue)
+	{
+		if (additionalOptionSet == null || !additionalOptionSet.containsKey(key))
+			return defaultValue;
+		
+		return additionalOptionSet.get(key);
+	}
+	
+	@Override
 	public void updateTaskProgress(long workDone, long max)
 	{
 		updateProgress(workDone, max);
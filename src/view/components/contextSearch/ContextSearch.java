@@ -9,7 +9,6 @@ import java.util.Set;
 import model.documents.DocumentForLookupTable;
 import model.documents.KeywordContext;
 import model.workspace.Workspace;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.event.Event;
@@ -44,11 +43,6 @@ public class ContextSearch extends VisualizationComponent
 	 */
 	private MenuItem jumpToMenuItem;
 	
-	/**
-	 * Define number of allowed words in context (both previous and afterwards).
-	 */
-	private static final int CONTEXT_WORD_COUNT = 3;
-	
 	/**
 	 * Currently examined topic's comprehensive ID.
 	 * Actually not neeeded in ContextSearch except to forward it to DocumentDetail.
@@ -228,30 +222,10 @@ public class ContextSearch extends VisualizationComponent
 			
 			// Check if KeywordContext contains search term.
 			if (kc.containsTerm(searchTerm)) {
-				/*
-				 * 1. Generate context information.
-				 */
-				
-				// Extract context strings.
-				Pair<String, String> contextStringsForDocument	= generateContextStrings(keyword, kc);
-				// Occurence count.
-				final int occurenceCount						= kc.countTermOccurances(keyword);
-				
-				/*
-				 * 2. Add context summaries for this document to collection.
-				 * 	  Count number of keyword's occurences. 
-				 */
-			
-				kc.setOriginalAbstract(new SimpleStringProperty(contextStringsForDocument.getKey()));
-				kc.setRefinedAbstract(new SimpleStringProperty(contextStringsForDocument.getValue()));
-				
-				/*
-				 * 3. Update table.  
-				 */
-				
+				// Update table. Context strings and occurence count were provided by the full-text index.
 				table.getItems().add(new KeywordContext(
 						kc.getDocumentID(), kc.getActiveKewyord(), kc.getKeywords(), this.documentRanksByID.get(kc.getDocumentID()), kc.getDocumentTitle(), 
-						occurenceCount, contextStringsForDocument.getKey(), contextStringsForDocument.getValue()
+						kc.getOccurenceCount(), kc.getOriginalAbstractContext(), kc.getRefinedAbstractContext()
 				));
 			}
 		}
@@ -260,117 +234,6 @@ public class ContextSearch extends VisualizationComponent
 		table.sort();
 	}
 	
-	/**
-	 * Generate string containing context in specified document.
-	 * @param keyword
-	 * @param keywordContext
-	 * @param searchTerm
-	 * @return
-	 */
-	private Pair<String, String> generateContextStrings(final String keyword, final KeywordContext keywordContext)
-	{
-		// Context string for original abstract.
-		String originalAbstractContextSummary	= "...";
-		// Context string for processed abstract.
-		String refinedAbstractContextSummary	= "...";
-		
-		// Index of found keyword.
-		int keywordIndex						= -1;
-		
-		/*
-		 * 1. Find indices of keyword's occurences in original abstract.
-		 */
-		
-		do {
-		     // If keyword was found:
-		     if (keywordIndex >= 0) {
-		    	 // Find delimiter positions in original abstract's neighbourhood.
-		    	 Pair<Integer, Integer> delimiterPositions = findNeighbourhoodDelimiterPositions(keywordIndex, keywordContext.originalAbstractProperty().get());
-		    	 
-		    	 // Add neighbourhood to context string.
-		    	 originalAbstractContextSummary += keywordContext.originalAbstractProperty().get().substring(delimiterPositions.getKey(), delimiterPositions.getValue()) + "...";
-		     }
-		     
-		     // Find next occurence.
-		     keywordIndex = keywordContext.originalAbstractProperty().get().toLowerCase().indexOf(keyword.toLowerCase(), keywordIndex + 1);
-		} while(keywordIndex >= 0);
-		
-		// Reset keyword index.
-		keywordIndex = -1;
-		
-		/*
-		 * 2. Find indices of keyword's occurences in processed abstract.
-		 */
-		
-		do {
-		     // If keyword was found:
-		     if (keywordIndex >= 0) {
-		    	 // Find delimiter positions in original abstract's neighbourhood.
-		    	 Pair<Integer, Integer> delimiterPositions = findNeighbourhoodDelimiterPositions(keywordIndex, keywordContext.refinedAbstractProperty().get());
-		    	 
-		    	 // Add neighbourhood to context string.
-		    	 refinedAbstractContextSummary += keywordContext.refinedAbstractProperty().get().substring(delimiterPositions.getKey(), delimiterPositions.getValue()) + "...";
-		     }
-		     
-		     // Find next occurence.
-		     keywordIndex = keywordContext.refinedAbstractProperty().get().toLowerCase().indexOf(keyword.toLowerCase(), keywordIndex + 1);
-		} while(keywordIndex >= 0);
-		
-		// Remove dots, if no results.
-		if (originalAbstractContextSummary.equals("..."))
-			originalAbstractContextSummary = "";
-		if (refinedAbstractContextSummary.equals("..."))
-			refinedAbstractContextSummary = "";				
-		
-		// Return results.
-		return new Pair<String,String>(originalAbstractContextSummary, refinedAbstractContextSummary);
-	}
-	
-	/**
-	 * Finds delimiter indices of currently specified index.
-	 * Used to find start and end of a keyword's neighbourhood inside a context. 
-	 * @param keywordIndex Start index of keyword.
-	 * @param target String to inspect.
-	 * @return
-	 */
-	private Pair<Integer, Integer> findNeighbourhoodDelimiterPositions(final int keywordIndex, final String target)
-	{
-		// Temporary storage for results.
-		int startIndex	= -1;
-		int endIndex	= -1;
-		
-		// Auxiliary variable used for counting spaces.
-		int spaceCount	= 0;
-		
-		 // Find first index from which to add to context neighbourhood:
-	   	 // Go backwards until the n-th space was found (-> n words before currently processed keyword occurence).
-	   	 for (startIndex = keywordIndex; startIndex > 0 && spaceCount <= ContextSearch.CONTEXT_WORD_COUNT; startIndex--) {
-	   		 // If space is found: Increase space count.
-	   		 if (target.charAt(startIndex) == ' ')
-	   			 spaceCount++;
-	   	 }
-   	 
-	   	 // Reset space count.
-	   	 spaceCount	= 0;
-			
-	   	 // Find last index from which to add to context neighbourhood:
-    	 // Go forward until the n-th space was found (-> n after before currently processed keyword occurence).
-    	 for (endIndex = keywordIndex; endIndex < target.length() && spaceCount <= ContextSearch.CONTEXT_WORD_COUNT; endIndex++) {
-    		 // If space is found: Increase space count.
-    		 if (target.charAt(endIndex) == ' ')
-    			 spaceCount++;
-    	 }
-    	 
-    	 // Wrap up.
-    	 if (startIndex > 0)
-	   		 startIndex++;
-	   	 if (endIndex < target.length() - 1)
-	   		 endIndex--;
-	   	 
-		// Return results.
-		return new Pair<Integer, Integer>(startIndex, endIndex);
-	}
-
 	@Override
 	public void initHoverEventListeners()
 	{	
@@ -2,9 +2,8 @@ package view.components.heatmap;
 
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
@@ -17,7 +16,6 @@ import view.components.DatapointIDMode;
 import view.components.VisualizationComponent;
 import view.components.VisualizationComponentType;
 import view.components.controls.colorLegend.ColorLegendDataset;
-import view.components.controls.colorLegend.ColorScale;
 import javafx.event.EventHandler;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
@@ -71,9 +69,31 @@ public class CategoricalHeatmap extends HeatMap
 	private Set<Pair<Integer, Integer>> highlightedLDAConfigIDs;
 	
 	/**
-	 * Map holding coordinates of LDA configuration matches.
+	 * Renders cells into an image. Changes in highlighting only re-tint affected LDA matches.
 	 */
-	private Map<Pair<Integer, Integer>, double[]> ldaMatchCoordinates;
+	private HeatmapImageRenderer renderer;
+	
+	/*
+	 * Flat lookup of LDA matches: Rows/columns are grouped into blocks (one per LDA configuration in order of
+	 * data.getAllLDAConfigurations()), cell i/j belongs to LDA match (configuration of block of i, configuration of block of j). 
+	 */
+	
+	/**
+	 * Dataset the block lookups were created for.
+	 */
+	private HeatmapDataset blockData;
+	/**
+	 * Block of each row/column; -1, if none.
+	 */
+	private int[] blockOfIndex;
+	/**
+	 * LDA configuration ID of each block.
+	 */
+	private int[] configurationIDsOfBlocks;
+	/**
+	 * Block of each LDA configuration ID.
+	 */
+	private Map<Integer, Integer> blocksOfConfigurationIDs;
 	
 	// -----------------------------------------------
 	//					Methods
@@ -85,8 +105,8 @@ public class CategoricalHeatmap extends HeatMap
 		super.initialize(location, resources);
 		
 		// Initialize collections for dealing with LDA matches.
-		ldaMatchCoordinates 	= new LinkedHashMap<Pair<Integer,Integer>, double[]>();
 		highlightedLDAConfigIDs	= new HashSet<Pair<Integer,Integer>>();
+		renderer				= new HeatmapImageRenderer();
 	}
 	
 	/**
@@ -203,37 +223,16 @@ public class CategoricalHeatmap extends HeatMap
 	 */
 	private Pair<Integer, Integer> resolveMousePositionToLDAMatch(double x, double y)
 	{
-		HeatmapDataset hData 							= (HeatmapDataset) this.data;
-		Pair<Integer, Integer> hoveredOverLDAConfigIDs 	= null;
+		if (this.data == null || blockOfIndex == null)
+			return null;
 		
-		if (hData != null) {
-		 	for (Map.Entry<Pair<Integer, Integer>, double[]> cellCoordinateEntry : cellsToCoordinates.entrySet()) {
-	    		double[] coordinates = cellCoordinateEntry.getValue();
-	    		
-	    		// Check if cell contains mouse event.
-	    		// minx, miny, maxx, maxy
-	    		if (x >= coordinates[0] && x <= coordinates[2]) {
-	    			if (y >= coordinates[1] && y <= coordinates[3]) {
-	    				// Store all values in list.
-	    				List<Integer> ldaConfigs = new ArrayList<Integer>(hData.getCellsToConfigurationIDs().get(cellCoordinateEntry.getKey()));
-	    				
-	    				// If only one LDA configuration ID: Match of one topic model vs. itself.
-	    				if (ldaConfigs.size() == 1)
-	    					hoveredOverLDAConfigIDs = new Pair<Integer, Integer>(ldaConfigs.get(0), ldaConfigs.get(0));
-	        			// Otherwise: Match of one topic model vs. another.
-	    				else if (ldaConfigs.size() == 2)
-	    					hoveredOverLDAConfigIDs = new Pair<Integer, Integer>(ldaConfigs.get(0), ldaConfigs.get(1));
-	    				else {
-	    					System.out.println("### ERROR ### More than two LDA configurations in CategoricalHeatmap entry detected.");
-	    					log("### ERROR ### More than two LDA configurations in CategoricalHeatmap entry detected.");
-	    				}
-	    				
-	    				// Return match.
-	    				return hoveredOverLDAConfigIDs;
-	        		}	
-	    		}
-	    	}
-		}
+		// Resolve position to cell.
+		final int column	= renderer.getColumnAt(x);
+		final int row		= renderer.getRowAt(y);
+		
+		// Resolve cell to LDA match.
+		if (column >= 0 && row >= 0 && blockOfIndex[column] >= 0 && blockOfIndex[row] >= 0)
+			return new Pair<Integer, Integer>(configurationIDsOfBlocks[blockOfIndex[column]], configurationIDsOfBlocks[blockOfIndex[row]]);
 	 	
 	 	return null;
 	}
@@ -272,15 +271,11 @@ public class CategoricalHeatmap extends HeatMap
 	/**
 	 * Update customized labels on both axes.
 	 * @param data
-	 * @param cellsToCoordinates 
+	 * @param xInterval Width of one topic on x-axis.
+	 * @param yInterval Height of one topic on y-axis.
 	 */
-	private void updateLabels(HeatmapDataset data, Map<Pair<Integer, Integer>, double[]> cellsToCoordinates)
+	private void updateLabels(HeatmapDataset data, final double xInterval, final double yInterval)
 	{
-		// Prepare for graphical seperation of LDA configurations.
-		GraphicsContext gc = canvas.getGraphicsContext2D();
-		gc.setStroke(Color.BLACK);
-		gc.setLineWidth(0.5);
-		
 		// Remove old labels.
     	for (Label label : xAxisLabels) {
     		parent_anchorpane.getChildren().remove(label);
@@ -291,24 +286,11 @@ public class CategoricalHeatmap extends HeatMap
     	xAxisLabels.clear();
     	yAxisLabels.clear();
     	
-    	// Get number of topics in total.
-    	int numberOfTopics = 0;
-    	for (LDAConfiguration ldaConfig : data.getAllLDAConfigurations()) {
-    		numberOfTopics += ldaConfig.getKappa();
-    	}
-    	
     	// Current position on x-axis.
     	double currXPos			= 0;
     	// Current position on y-axis.
     	double currYPos			= 0;
     	
-    	// Base interval per topic on x-axis.
-    	double[] defaultCell	= cellsToCoordinates.get(new Pair<Integer, Integer>(0, 0));
-    	final double xInterval 	= defaultCell[2] - defaultCell[0];
-    	// Base interval per topic on y-axis.
-    	final double yInterval 	= defaultCell[3] - defaultCell[1];
-    	
-//    	for (int i = data.getAllLDAConfigurations().size() - 1; i >= 0; i--) {
     	for (int i = 0; i < data.getAllLDAConfigurations().size(); i++) {
     		LDAConfiguration ldaConfig = data.getAllLDAConfigurations().get(i);  
     				
@@ -331,12 +313,6 @@ public class CategoricalHeatmap extends HeatMap
     		yLabel.setAlignment(Pos.CENTER_RIGHT);
     		yLabel.setFont(new Font(9));
     		
-    		// Draw separation line between LDA configurations.
-    		if (currXPos != 0) {
-	    		gc.strokeLine(currXPos, 0, currXPos, canvas.getHeight() - 2);
-	    		gc.strokeLine(0, currYPos, canvas.getWidth(), currYPos);
-    		}
-    		
     		// Update current positions on axes.
     		currXPos += xDiff;
     		currYPos += yDiff;
@@ -349,6 +325,36 @@ public class CategoricalHeatmap extends HeatMap
     	}
 	}
 	
+	/**
+	 * Draws separation lines between LDA configurations.
+	 * @param data
+	 * @param xInterval Width of one topic on x-axis.
+	 * @param yInterval Height of one topic on y-axis.
+	 */
+	private void drawSeparationLines(HeatmapDataset data, final double xInterval, final double yInterval)
+	{
+		GraphicsContext gc = canvas.getGraphicsContext2D();
+		gc.setStroke(Color.BLACK);
+		gc.setLineWidth(0.5);
+    	
+    	// Current position on x-axis.
+    	double currXPos			= 0;
+    	// Current position on y-axis.
+    	double currYPos			= 0;
+    	
+    	for (LDAConfiguration ldaConfig : data.getAllLDAConfigurations()) {
+    		// Draw separation line between LDA configurations.
+    		if (currXPos != 0) {
+	    		gc.strokeLine(currXPos, 0, currXPos, canvas.getHeight() - 2);
+	    		gc.strokeLine(0, currYPos, canvas.getWidth(), currYPos);
+    		}
+    		
+    		// Update current positions on axes.
+    		currXPos += xInterval * ldaConfig.getKappa();
+    		currYPos += yInterval * ldaConfig.getKappa();
+    	}
+	}
+	
 	/**
 	 * Clears canvas.
 	 */
@@ -384,15 +390,9 @@ public class CategoricalHeatmap extends HeatMap
 		// Cast option set.
     	HeatmapOptionset hOptions = (HeatmapOptionset)options;
     	
-    	// Prepare map for match coordinates.
-    	if (updateBlockCoordinates) {
-	    	ldaMatchCoordinates.clear();
-	    	for (LDAConfiguration lda1 : data.getAllLDAConfigurations()) {
-	    		for (LDAConfiguration lda2 : data.getAllLDAConfigurations()) {
-	        		ldaMatchCoordinates.put(new Pair<Integer, Integer>(lda1.getConfigurationID(), lda2.getConfigurationID()), null);
-	        	}	
-	    	}
-    	}
+    	// Prepare lookup of LDA matches.
+    	if (data != blockData)
+    		updateBlocks(data);
     	
     	// Prepare drawing.
     	GraphicsContext gc			= canvas.getGraphicsContext2D();
@@ -400,167 +400,113 @@ public class CategoricalHeatmap extends HeatMap
     	double minOccurenceCount	= data.getGlobalExtrema() == null ? data.getMinOccurenceCount() : data.getGlobalExtrema().getKey();
     	double maxOccurenceCount	= data.getGlobalExtrema() == null ? data.getMaxOccurenceCount() : data.getGlobalExtrema().getValue();
     	
-    	// Redraw color legend.
-    	colorLegend.refresh( new ColorLegendDataset(minOccurenceCount, maxOccurenceCount, 
-    												hOptions.getMinColor(), hOptions.getMaxColor(),
-    												binMatrix) );
-    	
-    	// Set stroke color.
-    	gc.setStroke(Color.BLACK);
-    	
-    	// Adjust tick values for both axes.
-    	if (hOptions.getShowAxes()) {
+    	// Redraw color legend (not necessary if only highlighting changed).
+    	if (updateBlockCoordinates) {
+	    	colorLegend.refresh( new ColorLegendDataset(minOccurenceCount, maxOccurenceCount, 
+	    												hOptions.getMinColor(), hOptions.getMaxColor(),
+	    												binMatrix) );
     	}
     	
-    	// Clear canvas.
-    	gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
-    	
 		// Calculate cell width and height (a quadratic matrix is assumed).
 		final double cellWidth	= canvas.getWidth() / binMatrix.length; 
 		final double cellHeight	= canvas.getHeight() / binMatrix.length;
 		
-		// Draw each cell in its corresponding place.
-		for (int i = 0; i < binMatrix.length; i++) {
-			for (int j = 0; j < binMatrix.length; j++) {	
-				// Remember cell indices.
-				Pair<Integer, Integer> cellIndices	= new Pair<Integer, Integer>(i, j); 
-				// Fetch LDA configurations involved in current cell.
-				Pair<Integer, Integer> ldaMatchID 	= getLDAMatchForCell(data, cellIndices);
-				
-				// Calculate cell coordinates (minX, minY, maxX, maxY).
-				double[] cellCoordinates	= new double[4];
-				cellCoordinates[0]			= cellWidth * i + 1;
-				cellCoordinates[1]			= cellHeight * j - 1;
-				cellCoordinates[2] 			= cellCoordinates[0] + cellWidth;
-				cellCoordinates[3] 			= cellCoordinates[1] + cellHeight;
-				
-				// Set color for this cell. Consider selected color extrema in color legend for this.
-				Pair<Double, Double> selectedValueExtrema 	= colorLegend.getSelectedExtrema();
-				
-				/*
-				 *  Determine color of cell.
-				 */
-				
-				Color cellColor = null;
-				
-				// If cell in diagonale (i.e. reflects distance 0): Use white.
-				if (i == j) {
-					cellColor = Color.WHITE;
-				}
-				
-				// Otherwise: Calculate color, then adjust opacity (dependent from whether cell is currently
-				// (cross.-vis.-)hovered over).
-				else {
-					cellColor = ColorScale.getColorForValue(binMatrix[i][j] == -1 ? 0 : binMatrix[i][j], 
-															selectedValueExtrema.getKey(), selectedValueExtrema.getValue(), 
-															hOptions.getMinColor(), hOptions.getMaxColor());
-					
-					// Adapt cell opacity to current hover events (i.e.: Lower opacity, if other LDA config. is hovered over). Ignore transparent cells.
-					cellColor = adjustCellOpacity(cellColor, ldaMatchID);
+		// Render cells, if data, size or color scale changed. Consider selected color extrema in color legend for this.
+		Pair<Double, Double> selectedValueExtrema = colorLegend.getSelectedExtrema();
+		renderer.update(	canvas.getWidth(), canvas.getHeight(), binMatrix, blockOfIndex, configurationIDsOfBlocks.length,
+							selectedValueExtrema.getKey(), selectedValueExtrema.getValue(), hOptions.getMinColor(), hOptions.getMaxColor(),
+							VisualizationComponent.DEFAULT_OPACITY_FACTOR	);
+		
+		// Adapt cell opacity to current hover events (i.e.: Higher opacity for LDA matches hovered over/selected).
+		renderer.setHighlightedBlockPairs(determineHighlightedLDAMatches());
+    	
+    	// Clear canvas, draw cells.
+    	gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+    	gc.drawImage(renderer.getImage(), 0, 0);
+		
+		// Draw borders, if this is desired.
+    	if (useBorders) {
+    		gc.setStroke(Color.BLACK);
+    		gc.setLineWidth(1);
+			
+			for (int i = 0; i < binMatrix.length; i++) {
+				for (int j = 0; j < binMatrix.length; j++) {
+					gc.strokeRect(cellWidth * i + 1, cellHeight * j, cellWidth - 1, cellHeight - 1);
 				}
-				
-	
-				// Set fill color.
-				gc.setFill(cellColor);
-				// Draw cell.
-				gc.fillRect(cellCoordinates[0], cellCoordinates[1], cellWidth, cellHeight);
-
-				// Draw borders, if this is desired and cell has content.
-				if (useBorders && cellColor != Color.TRANSPARENT)
-					gc.strokeRect(cellCoordinates[0], cellCoordinates[1] + 1, cellWidth - 1, cellHeight - 1);
-				
-				// Add coordinate metadata to collection.
-				cellsToCoordinates.put(cellIndices, cellCoordinates);
-				
-				// Update coordinates of LDA matches.
-				if (updateBlockCoordinates)
-					updateLDAMatchCoordinates(data, cellIndices); 
-			}	
-		}
+			}
+    	}
+		
+    	// Draw separation lines between LDA configurations.
+    	drawSeparationLines(data, cellWidth, cellHeight);
 		
 		// Update labels.
-    	updateLabels(data, cellsToCoordinates);
+    	if (updateBlockCoordinates)
+    		updateLabels(data, cellWidth, cellHeight);
 	}
 	
 	/**
-	 * Lowers/adjusts opacity for given cell. Used e.g. for highlighting of hovered over/selected cells.
-	 * @param cellColor
-	 * @param ldaMatchID
-	 * @return
+	 * Creates lookup of LDA matches for given dataset.
+	 * @param data
 	 */
-	private Color adjustCellOpacity(final Color cellColor, final Pair<Integer, Integer> ldaMatchID)
+	private void updateBlocks(HeatmapDataset data)
 	{
-		double opacity = VisualizationComponent.DEFAULT_OPACITY_FACTOR;
+		blockData					= data;
+		configurationIDsOfBlocks	= new int[data.getAllLDAConfigurations().size()];
+		blocksOfConfigurationIDs	= new HashMap<Integer, Integer>();
 		
-		// Adapt cell opacity to current hover events (i.e.: Higher opacity if other LDA config. is hovered over). Ignore transparent cells.
-		// If hover event is active: Set opacity to 1 if current cell is in set of hovered over datasets. 
-		if ( 	(hoveredOverLDAMatchID != null || highlightedLDAConfigIDs != null && isDisplayingExternalHoverEvent ) && 
-				cellColor != Color.TRANSPARENT) {
-			// Is data set in set of hovered over datasets? In this case: Use full opacity.
-			if (ldaMatchID.equals(hoveredOverLDAMatchID) || highlightedLDAConfigIDs.contains(ldaMatchID)) {
-				opacity = 1;
-			}
+		for (int block = 0; block < configurationIDsOfBlocks.length; block++) {
+			configurationIDsOfBlocks[block] = data.getAllLDAConfigurations().get(block).getConfigurationID();
+			blocksOfConfigurationIDs.put(configurationIDsOfBlocks[block], block);
+		}
+		
+		final int[] configurationIDsOfSpatialIDs	= data.getConfigurationIDsOfSpatialIDs();
+		blockOfIndex								= new int[configurationIDsOfSpatialIDs.length];
+		
+		for (int i = 0; i < blockOfIndex.length; i++) {
+			final Integer block	= blocksOfConfigurationIDs.get(configurationIDsOfSpatialIDs[i]);
+			blockOfIndex[i]		= block != null ? block : -1;
 		}
-
-		// Return cell with adjusted opacity.
-		return Color.hsb(cellColor.getHue(), cellColor.getSaturation(), cellColor.getBrightness(), opacity);
-	}
-	
-	@Override
-	protected void draw(HeatmapDataset data, boolean useBorders)
-	{
-		draw(data, useBorders, true);
 	}
 	
 	/**
-	 * Returns LDA match IDs as pair. 
-	 * @param data
-	 * @param cellIndices
-	 * @return
+	 * Determines which LDA matches are to be drawn with full opacity: Those hovered over or highlighted,
+	 * if a hover event is active.
+	 * @return Flag per pair of blocks (index blockI * numberOfBlocks + blockJ).
 	 */
-	private Pair<Integer, Integer> getLDAMatchForCell(HeatmapDataset data, Pair<Integer, Integer> cellIndices)
+	private boolean[] determineHighlightedLDAMatches()
 	{
-		// Fetch LDA configurations involved in match.
-		List<Integer> ldaConfigurationIDs 	= new ArrayList<Integer>(data.getCellsToConfigurationIDs().get(cellIndices));
-		// Convert to pair.
-		Pair<Integer, Integer> ldaMatchID	= null;
-		if (ldaConfigurationIDs.size() == 1)
-			ldaMatchID = new Pair<Integer, Integer>(ldaConfigurationIDs.get(0), ldaConfigurationIDs.get(0));
-		else if (ldaConfigurationIDs.size() == 2)
-			ldaMatchID = new Pair<Integer, Integer>(ldaConfigurationIDs.get(0), ldaConfigurationIDs.get(1));
+		final int numberOfBlocks		= configurationIDsOfBlocks.length;
+		boolean[] isHighlighted			= new boolean[numberOfBlocks * numberOfBlocks];
+		
+		if (hoveredOverLDAMatchID != null || highlightedLDAConfigIDs != null && isDisplayingExternalHoverEvent) {
+			if (hoveredOverLDAMatchID != null)
+				highlightLDAMatch(isHighlighted, hoveredOverLDAMatchID);
+			
+			for (Pair<Integer, Integer> ldaMatch : highlightedLDAConfigIDs) {
+				highlightLDAMatch(isHighlighted, ldaMatch);
+			}
+		}
 		
-		return ldaMatchID;
+		return isHighlighted;
 	}
 	
-	/**
-	 * Update coordinates of LDA match associated with particular cell.
-	 * @param cellIndices
-	 */
-	private void updateLDAMatchCoordinates(HeatmapDataset data, Pair<Integer, Integer> cellIndices)
+	private void highlightLDAMatch(boolean[] isHighlighted, Pair<Integer, Integer> ldaMatch)
 	{
-		// Convert to pair.
-		Pair<Integer, Integer> ldaMatchID	= getLDAMatchForCell(data, cellIndices);
+		// Ignore null entries (e.g. clicks without preceding hover).
+		if (ldaMatch == null)
+			return;
 		
-		// Get corresponding coordinates from map containing LDA match coordinates.
-		double[] matchCoordinates			= ldaMatchCoordinates.get(ldaMatchID);
-		// Get cell coordinates.
-		double[] cellCoordinates			= cellsToCoordinates.get(cellIndices);
-		
-		// If coordinates not set yet: Set coordinates of cell.
-		if (matchCoordinates == null) {
-			ldaMatchCoordinates.put(ldaMatchID, cellCoordinates);
-		}
+		final Integer blockI = blocksOfConfigurationIDs.get(ldaMatch.getKey());
+		final Integer blockJ = blocksOfConfigurationIDs.get(ldaMatch.getValue());
 		
-		// If not null: Compare coordinates to find maximum/minimum.
-		else {
-			double[] updateMatchCoordinates = new double[4];
-			updateMatchCoordinates[0] 		= matchCoordinates[0] > cellCoordinates[0] ? cellCoordinates[0] : matchCoordinates[0];
-			updateMatchCoordinates[1] 		= matchCoordinates[1] > cellCoordinates[1] ? cellCoordinates[1] : matchCoordinates[1];
-			updateMatchCoordinates[2] 		= matchCoordinates[2] < cellCoordinates[2] ? cellCoordinates[2] : matchCoordinates[2];
-			updateMatchCoordinates[3] 		= matchCoordinates[3] < cellCoordinates[3] ? cellCoordinates[3] : matchCoordinates[3];
-			
-			ldaMatchCoordinates.put(ldaMatchID, updateMatchCoordinates);
-		}
+		if (blockI != null && blockJ != null)
+			isHighlighted[blockI * configurationIDsOfBlocks.length + blockJ] = true;
+	}
+	
+	@Override
+	protected void draw(HeatmapDataset data, boolean useBorders)
+	{
+		draw(data, useBorders, true);
 	}
 	
 	/**
@@ -596,6 +542,10 @@ public class CategoricalHeatmap extends HeatMap
 		if (taskType == TaskType.LOAD_SPECIFIC_TOPIC_DISTANCES) {
 			log("Loaded topic distance data.");
 			
+			// Topic distances may be missing, if distances were calculated without them.
+			if (!topicDistanceLoadingTask.areTopicDistancesComplete())
+				log("### WARNING ### Topic distances are incomplete (distances were calculated without topic distances).");
+			
 			// Create dataset.
 			this.data = new HeatmapDataset(	topicDistanceLoadingTask.getLDAConfigurationsToLoad(), topicDistanceLoadingTask.getSpatialIDsForLDATopicConfiguration(), 
 											topicDistanceLoadingTask.getTopicDistances(), topicDistanceLoadingTask.getTopicDistanceExtrema(), (HeatmapOptionset)options);
@@ -1,8 +1,10 @@
 package view.components.heatmap;
 
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
@@ -22,6 +24,8 @@ import view.components.VisualizationComponent;
 import view.components.controls.colorLegend.ColorLegend;
 import view.components.controls.colorLegend.ColorScale;
 import view.components.rubberbandselection.RubberBandSelection;
+import view.components.spatialIndex.PointGrid;
+import view.components.spatialIndex.RectangleSelectionTracker;
 
 public abstract class HeatMap extends VisualizationComponent
 {
@@ -51,6 +55,14 @@ public abstract class HeatMap extends VisualizationComponent
 	 */
 	protected Set<Pair<Integer, Integer>> selectedCellsCoordinates;
 	
+	/**
+	 * Cells with content, indexed by their center for rubber band selection. Rebuilt with every draw operation.
+	 */
+	protected List<Pair<Integer, Integer>> indexedCells;
+	protected RectangleSelectionTracker cellSelection;
+	protected double cellHalfWidth;
+	protected double cellHalfHeight;
+	
 	/**
 	 * Flag indicating if new dataset differs from old one in terms of LDA configurations involved.
 	 */
@@ -73,6 +85,7 @@ public abstract class HeatMap extends VisualizationComponent
 		// Init metadata collections.
 		cellsToCoordinates					= new LinkedHashMap<Pair<Integer, Integer>, double[]>();
 		selectedCellsCoordinates			= new HashSet<Pair<Integer,Integer>>();
+		indexedCells						= new ArrayList<Pair<Integer,Integer>>();
 		
 		// Initialize axis settings.
 		initAxes();
@@ -179,6 +192,36 @@ public abstract class HeatMap extends VisualizationComponent
      */
 	protected abstract void draw(HeatmapDataset data, boolean useBorders, boolean updateBlockCoordinates);
 	
+	/**
+	 * Builds spatial index over cells with content after cellsToCoordinates has been updated.
+	 * Resets current selection.
+	 * @param data
+	 * @param cellWidth
+	 * @param cellHeight
+	 */
+	protected void indexCells(HeatmapDataset data, double cellWidth, double cellHeight)
+	{
+		indexedCells.clear();
+		selectedCellsCoordinates.clear();
+		
+		double[] centerX	= new double[cellsToCoordinates.size()];
+		double[] centerY	= new double[cellsToCoordinates.size()];
+		
+		for (Map.Entry<Pair<Integer, Integer>, double[]> cellCoordinateEntry : cellsToCoordinates.entrySet()) {
+			if (data.getCellsToConfigurationIDs().get(cellCoordinateEntry.getKey()) != null) {
+				final double[] coordinates = cellCoordinateEntry.getValue();
+				
+				centerX[indexedCells.size()] = (coordinates[0] + coordinates[2]) / 2;
+				centerY[indexedCells.size()] = (coordinates[1] + coordinates[3]) / 2;
+				indexedCells.add(cellCoordinateEntry.getKey());
+			}
+		}
+		
+		cellHalfWidth	= cellWidth / 2;
+		cellHalfHeight	= cellHeight / 2;
+		cellSelection	= new RectangleSelectionTracker(new PointGrid(centerX, centerY, indexedCells.size()));
+	}
+    
     /**
      * Manipulates heatmap's granularity information.
      * @param isGranularityDynamic
@@ -211,7 +254,7 @@ public abstract class HeatMap extends VisualizationComponent
 		HeatmapOptionset hOptions 	= (HeatmapOptionset)options;
 		HeatmapDataset hData		= (HeatmapDataset)data;
 		
-		if (hOptions.isSelectionEnabled()) {
+		if (hOptions.isSelectionEnabled() && cellSelection != null) {
 			// Get GraphicsContext for drawing.
 			GraphicsContext gc					= canvas.getGraphicsContext2D();
 			
@@ -224,53 +267,30 @@ public abstract class HeatMap extends VisualizationComponent
 			// Set highlight color (red for additional selection, blue for subtractive).
 			final Color highlightColor 	= isCtrlDown ? hOptions.getSubtractiveSelectionColor() : hOptions.getAdditiveSelectionColor(); 
 			
-			// Check which cells are in selected area, highlight them.
-			for (Map.Entry<Pair<Integer, Integer>, double[]> cellCoordinateEntry : cellsToCoordinates.entrySet()) {
-				double cellMinX = cellCoordinateEntry.getValue()[0];
-				double cellMinY = cellCoordinateEntry.getValue()[1];
-				double cellMaxX = cellCoordinateEntry.getValue()[2];
-				double cellMaxY = cellCoordinateEntry.getValue()[3];
-				
-				// Set color.
-				gc.setFill(highlightColor);
+			// Cells are indexed by their center: Shrink selected area by half a cell to select only fully contained cells.
+			cellSelection.update(minX + cellHalfWidth, minY + cellHalfHeight, maxX - cellHalfWidth, maxY - cellHalfHeight);
+			
+			// Highlight cells that entered selected area, add them to selection.
+			gc.setFill(highlightColor);
+			for (int i = 0; i < cellSelection.getNumberOfEnteredPoints(); i++) {
+				final Pair<Integer, Integer> cellCoordinates	= indexedCells.get(cellSelection.getEnteredPoint(i));
+				final double[] coordinates						= cellsToCoordinates.get(cellCoordinates);
 				
-				// Get cell ID/location.
-				final Pair<Integer, Integer> cellCoordinates = cellCoordinateEntry.getKey();
+				gc.fillRect(coordinates[0], coordinates[1], coordinates[2] - coordinates[0], coordinates[3] - coordinates[1]);
+				selectedCellsCoordinates.add(cellCoordinates);
+			}
+			
+			// Paint cells that left selected area in original color, remove them from selection.
+			for (int i = 0; i < cellSelection.getNumberOfLeftPoints(); i++) {
+				final Pair<Integer, Integer> cellCoordinates	= indexedCells.get(cellSelection.getLeftPoint(i));
+				final double[] coordinates						= cellsToCoordinates.get(cellCoordinates);
 				
-				if (	cellMinX > minX && cellMaxX < maxX &&
-						cellMinY > minY && cellMaxY < maxY) {
-					// Get cell's contents.
-					final Set<Integer> cellContentSet	= hData.getCellsToConfigurationIDs().get(cellCoordinateEntry.getKey()); 
-	
-					// Add cell content to collection (if there is any).
-					if (cellContentSet != null) {
-						// Check if cell('s content) was already selected. If not: Highlight it, add content to selection.  
-						if (!selectedCellsCoordinates.contains(cellCoordinates)) {
-							// Highlight cell.
-							gc.fillRect(cellMinX, cellMinY, cellMaxX - cellMinX, cellMaxY - cellMinY);
-							
-							// Add to collection of selected cells.
-							selectedCellsCoordinates.add(cellCoordinates);
-						}
-					}
-				}
+				// Calculate original color.
+				Color cellColor = ColorScale.getColorForValue(binMatrix[cellCoordinates.getKey()][cellCoordinates.getValue()], minOccurenceCount, maxOccurenceCount, hOptions.getMinColor(), hOptions.getMaxColor());
+				gc.setFill(cellColor);
 				
-				// If not in selected area anymore: Paint in original color, remove from selection.
-				else if (selectedCellsCoordinates.contains(cellCoordinates)) {
-					// Get row and column.
-					final int cellRow		= cellCoordinateEntry.getKey().getKey();
-					final int cellColumn 	= cellCoordinateEntry.getKey().getValue();
-					
-					// Calculate original color.
-					Color cellColor = ColorScale.getColorForValue(binMatrix[cellRow][cellColumn], minOccurenceCount, maxOccurenceCount, hOptions.getMinColor(), hOptions.getMaxColor());
-					gc.setFill(cellColor);
-					
-					// Paint cell in original color.
-					gc.fillRect(cellMinX, cellMinY, cellMaxX - cellMinX, cellMaxY - cellMinY);
-					
-					// Remove from selection.
-					selectedCellsCoordinates.remove(cellCoordinates);
-				}
+				gc.fillRect(coordinates[0], coordinates[1], coordinates[2] - coordinates[0], coordinates[3] - coordinates[1]);
+				selectedCellsCoordinates.remove(cellCoordinates);
 			}
 		}
 	}
@@ -1,6 +1,7 @@
 package view.components.heatmap;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -44,6 +45,11 @@ public class HeatmapDataset extends VisualizationComponentDataset
 	 * Stores index of an cell and the IDs of the corresponding/contained LDA and topic configuration.
 	 */
 	private Map<Pair<Integer, Integer>, Set<Pair<Integer, Integer>>> cellsToTopicConfigurationIDs;
+	/**
+	 * LDA configuration ID of the topic at each row/column (by spatial ID); -1, if none. 
+	 * Currently used for categorical heatmap only.
+	 */
+	private int[] configurationIDsOfSpatialIDs;
 	
 	/**
 	 * Global extrema. Optional, currently used for categorical heatmap only. 
@@ -281,10 +287,14 @@ public class HeatmapDataset extends VisualizationComponentDataset
 			}
 		}
 		
+		configurationIDsOfSpatialIDs = new int[binMatrix.length];
+		Arrays.fill(configurationIDsOfSpatialIDs, -1);
+		
 		// 	b. Map topic configurations to cells and cells to LDA configuration.
 		for (Pair<Integer, Integer> topicConfig : spatialIDs.keySet()) {
 			// Fetch spatial ID for this topic configuration ID.
 			int spatialID = spatialIDs.get(topicConfig);
+			configurationIDsOfSpatialIDs[spatialID] = topicConfig.getKey();
 
 			// Add configuration signature to entire row.
 			for (int j = 0; j < binMatrix.length; j++) {
@@ -396,6 +406,11 @@ public class HeatmapDataset extends VisualizationComponentDataset
 		return cellsToTopicConfigurationIDs;
 	}
 
+	public int[] getConfigurationIDsOfSpatialIDs()
+	{
+		return configurationIDsOfSpatialIDs;
+	}
+	
 	/**
 	 * Compares dataset to other dataset in terms of LDA configurations involved.
 	 * @param data
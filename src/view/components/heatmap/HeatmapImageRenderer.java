@@ -0,0 +1,357 @@
+package view.components.heatmap;
+
+import java.util.Arrays;
+
+import view.components.controls.colorLegend.ColorScale;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * Renders a square matrix of values into a {@link WritableImage}, one cell per value.
+ * Cell i/j (value at [i][j]) is drawn in column i, row j. Rows/columns are grouped into blocks
+ * (e.g. the topics of one LDA configuration); highlighting is assigned per pair of blocks.
+ * Colors are taken from a precomputed table holding a dimmed and a highlighted variant of each color,
+ * so that changes in highlighting only re-tint the cells of affected block pairs.
+ * @author RM
+ *
+ */
+public class HeatmapImageRenderer
+{
+	/**
+	 * Number of colors used for values within the color scale's extrema.
+	 */
+	private static final int COLOR_SCALE_STEPS		= 256;
+	/*
+	 * Positions of special colors in color table.
+	 */
+	private static final int TRANSPARENT_INDEX		= COLOR_SCALE_STEPS;
+	private static final int OUT_OF_RANGE_INDEX		= COLOR_SCALE_STEPS + 1;
+	private static final int DIAGONAL_INDEX			= COLOR_SCALE_STEPS + 2;
+	
+	private WritableImage image;
+	/**
+	 * Pixels of image (ARGB, row-major).
+	 */
+	private int[] pixels;
+	private int imageWidth;
+	private int imageHeight;
+	
+	/*
+	 * Input of current rendering.
+	 */
+	
+	private double width;
+	private double height;
+	private double[][] values;
+	private int[] blockOfIndex;
+	private int numberOfBlocks;
+	private double min;
+	private double max;
+	private Color minColor;
+	private Color maxColor;
+	private double opacity;
+	
+	/*
+	 * Precomputed rendering data.
+	 */
+	
+	/**
+	 * Color table (ARGB) for cells in blocks that are not highlighted.
+	 */
+	private int[] dimmedColors;
+	/**
+	 * Color table (ARGB) for cells in highlighted blocks.
+	 */
+	private int[] highlightedColors;
+	/**
+	 * Position of each cell's color in color tables (index i * n + j).
+	 */
+	private int[] cellColorIndices;
+	/**
+	 * First pixel of each column/row, one additional entry marking the end.
+	 */
+	private int[] columnStart;
+	private int[] rowStart;
+	/**
+	 * Row/column indices sorted by block, start offsets of blocks in another array.
+	 */
+	private int[] blockIndices;
+	private int[] blockStart;
+	/**
+	 * Highlighting of block pairs (index blockI * numberOfBlocks + blockJ).
+	 */
+	private boolean[] isBlockPairHighlighted;
+	
+	/**
+	 * Pixel region modified since last transfer to image.
+	 */
+	private int dirtyMinX;
+	private int dirtyMinY;
+	private int dirtyMaxX;
+	private int dirtyMaxY;
+	
+	// -----------------------------------------------
+	//					Methods
+	// -----------------------------------------------
+	
+	/**
+	 * Renders all cells (without highlighting), if any argument differs from the ones used for the current image.
+	 * Arrays are compared by reference.
+	 * @param width
+	 * @param height
+	 * @param values Square matrix. Must not be modified afterwards.
+	 * @param blockOfIndex Block of each row/column; -1, if none. Must not be modified afterwards.
+	 * @param numberOfBlocks
+	 * @param min Lower extremum of color scale.
+	 * @param max Upper extremum of color scale.
+	 * @param minColor
+	 * @param maxColor
+	 * @param opacity Opacity of cells that are not highlighted.
+	 * @return True, if image was rendered anew.
+	 */
+	public boolean update(	final double width, final double height, final double[][] values, final int[] blockOfIndex, final int numberOfBlocks,
+							final double min, final double max, final Color minColor, final Color maxColor, final double opacity)
+	{
+		if (	image != null && width == this.width && height == this.height && values == this.values && blockOfIndex == this.blockOfIndex &&
+				min == this.min && max == this.max && minColor.equals(this.minColor) && maxColor.equals(this.maxColor) && opacity == this.opacity	)
+			return false;
+		
+		this.width			= width;
+		this.height			= height;
+		this.values			= values;
+		this.blockOfIndex	= blockOfIndex;
+		this.numberOfBlocks	= numberOfBlocks;
+		this.min			= min;
+		this.max			= max;
+		this.minColor		= minColor;
+		this.maxColor		= maxColor;
+		this.opacity		= opacity;
+		
+		/* 1. Prepare image. */
+		final int newImageWidth		= Math.max(1, (int)Math.ceil(width));
+		final int newImageHeight	= Math.max(1, (int)Math.ceil(height));
+		if (image == null || newImageWidth != imageWidth || newImageHeight != imageHeight) {
+			imageWidth	= newImageWidth;
+			imageHeight	= newImageHeight;
+			image		= new WritableImage(imageWidth, imageHeight);
+			pixels		= new int[imageWidth * imageHeight];
+		}
+		
+		/* 2. Prepare color tables and cell layout. */
+		updateColorTables();
+		updateCellLayout();
+		
+		/* 3. Draw all cells. */
+		Arrays.fill(pixels, 0);
+		isBlockPairHighlighted = new boolean[numberOfBlocks * numberOfBlocks];
+		
+		final int n = values.length;
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				paintCell(i, j, false);
+			}
+		}
+		
+		dirtyMinX	= 0;
+		dirtyMinY	= 0;
+		dirtyMaxX	= imageWidth;
+		dirtyMaxY	= imageHeight;
+		transferPixels();
+		
+		return true;
+	}
+	
+	/**
+	 * Calculates dimmed and highlighted variant for each color on the color scale and for special colors.
+	 */
+	private void updateColorTables()
+	{
+		dimmedColors		= new int[COLOR_SCALE_STEPS + 3];
+		highlightedColors	= new int[COLOR_SCALE_STEPS + 3];
+		
+		for (int step = 0; step < COLOR_SCALE_STEPS; step++) {
+			double value = min + (max - min) * step / (COLOR_SCALE_STEPS - 1);
+			// Values 0 and -1 mark empty cells on the color scale.
+			if (value == 0 || value == -1)
+				value = Math.nextUp(value);
+			
+			setColor(step, ColorScale.getColorForValue(value, min, max, minColor, maxColor));
+		}
+		
+		setColor(TRANSPARENT_INDEX, Color.TRANSPARENT);
+		setColor(OUT_OF_RANGE_INDEX, Color.BLACK);
+		
+		// Diagonal (i.e. distance 0) is always drawn in opaque white.
+		dimmedColors[DIAGONAL_INDEX]		= toArgb(Color.WHITE);
+		highlightedColors[DIAGONAL_INDEX]	= toArgb(Color.WHITE);
+	}
+	
+	private void setColor(final int index, final Color color)
+	{
+		dimmedColors[index]			= toArgb(Color.hsb(color.getHue(), color.getSaturation(), color.getBrightness(), opacity));
+		// Transparent cells are not highlighted.
+		highlightedColors[index]	= color == Color.TRANSPARENT ? dimmedColors[index] : toArgb(Color.hsb(color.getHue(), color.getSaturation(), color.getBrightness(), 1));
+	}
+	
+	private static int toArgb(final Color color)
+	{
+		return	(int)Math.round(color.getOpacity() * 255) << 24 | (int)Math.round(color.getRed() * 255) << 16 |
+				(int)Math.round(color.getGreen() * 255) << 8 | (int)Math.round(color.getBlue() * 255);
+	}
+	
+	/**
+	 * Determines color of each cell and pixel boundaries of rows and columns; sorts rows/columns by block.
+	 */
+	private void updateCellLayout()
+	{
+		final int n 			= values.length;
+		final double cellWidth	= width / n;
+		final double cellHeight	= height / n;
+		
+		cellColorIndices = new int[n * n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				cellColorIndices[i * n + j] = getColorIndex(i, j);
+			}
+		}
+		
+		// Cells are shifted by one pixel (right and up) to leave space for the separation lines.
+		columnStart	= new int[n + 1];
+		rowStart	= new int[n + 1];
+		for (int i = 0; i <= n; i++) {
+			columnStart[i]	= Math.min(imageWidth, Math.max(0, (int)Math.round(cellWidth * i + 1)));
+			rowStart[i]		= Math.min(imageHeight, Math.max(0, (int)Math.round(cellHeight * i - 1)));
+		}
+		
+		blockStart = new int[numberOfBlocks + 1];
+		for (int i = 0; i < n; i++) {
+			if (blockOfIndex[i] >= 0)
+				blockStart[blockOfIndex[i] + 1]++;
+		}
+		for (int block = 0; block < numberOfBlocks; block++) {
+			blockStart[block + 1] += blockStart[block];
+		}
+		
+		blockIndices			= new int[blockStart[numberOfBlocks]];
+		int[] nextIndexInBlock	= Arrays.copyOf(blockStart, numberOfBlocks);
+		for (int i = 0; i < n; i++) {
+			if (blockOfIndex[i] >= 0)
+				blockIndices[nextIndexInBlock[blockOfIndex[i]]++] = i;
+		}
+	}
+	
+	private int getColorIndex(final int i, final int j)
+	{
+		if (i == j)
+			return DIAGONAL_INDEX;
+		
+		final double value = values[i][j];
+		if (value == 0 || value == -1)
+			return TRANSPARENT_INDEX;
+		if (!(value >= min && value <= max))
+			return OUT_OF_RANGE_INDEX;
+		if (!(max > min))
+			return 0;
+		
+		return (int)Math.round((value - min) / (max - min) * (COLOR_SCALE_STEPS - 1));
+	}
+	
+	/**
+	 * Re-tints cells of all block pairs whose highlighting changed.
+	 * @param isHighlighted Highlighting of block pairs (index blockI * numberOfBlocks + blockJ).
+	 */
+	public void setHighlightedBlockPairs(final boolean[] isHighlighted)
+	{
+		for (int blockPair = 0; blockPair < isBlockPairHighlighted.length; blockPair++) {
+			if (isHighlighted[blockPair] != isBlockPairHighlighted[blockPair]) {
+				isBlockPairHighlighted[blockPair] = isHighlighted[blockPair];
+				
+				final int blockI = blockPair / numberOfBlocks;
+				final int blockJ = blockPair % numberOfBlocks;
+				for (int k = blockStart[blockI]; k < blockStart[blockI + 1]; k++) {
+					for (int l = blockStart[blockJ]; l < blockStart[blockJ + 1]; l++) {
+						paintCell(blockIndices[k], blockIndices[l], isHighlighted[blockPair]);
+					}
+				}
+			}
+		}
+		
+		transferPixels();
+	}
+	
+	private void paintCell(final int i, final int j, final boolean isHighlighted)
+	{
+		final int color = (isHighlighted ? highlightedColors : dimmedColors)[cellColorIndices[i * values.length + j]];
+		
+		for (int y = rowStart[j]; y < rowStart[j + 1]; y++) {
+			Arrays.fill(pixels, y * imageWidth + columnStart[i], y * imageWidth + columnStart[i + 1], color);
+		}
+		
+		if (columnStart[i] < columnStart[i + 1] && rowStart[j] < rowStart[j + 1]) {
+			dirtyMinX = Math.min(dirtyMinX, columnStart[i]);
+			dirtyMinY = Math.min(dirtyMinY, rowStart[j]);
+			dirtyMaxX = Math.max(dirtyMaxX, columnStart[i + 1]);
+			dirtyMaxY = Math.max(dirtyMaxY, rowStart[j + 1]);
+		}
+	}
+	
+	/**
+	 * Writes modified pixel region to image.
+	 */
+	private void transferPixels()
+	{
+		if (dirtyMinX < dirtyMaxX && dirtyMinY < dirtyMaxY) {
+			image.getPixelWriter().setPixels(	dirtyMinX, dirtyMinY, dirtyMaxX - dirtyMinX, dirtyMaxY - dirtyMinY,
+												PixelFormat.getIntArgbInstance(), pixels, dirtyMinY * imageWidth + dirtyMinX, imageWidth	);
+		}
+		
+		dirtyMinX = imageWidth;
+		dirtyMinY = imageHeight;
+		dirtyMaxX = 0;
+		dirtyMaxY = 0;
+	}
+	
+	/**
+	 * @param x
+	 * @return Column at this position or -1, if none.
+	 */
+	public int getColumnAt(final double x)
+	{
+		return findCell(columnStart, x);
+	}
+	
+	/**
+	 * @param y
+	 * @return Row at this position or -1, if none.
+	 */
+	public int getRowAt(final double y)
+	{
+		return findCell(rowStart, y);
+	}
+	
+	private static int findCell(final int[] cellStart, final double position)
+	{
+		if (cellStart == null || cellStart.length < 2 || position < cellStart[0] || position >= cellStart[cellStart.length - 1])
+			return -1;
+		
+		// Find last cell starting at or before position.
+		int low		= 0;
+		int high	= cellStart.length - 2;
+		while (low < high) {
+			final int mid = (low + high + 1) >>> 1;
+			
+			if (cellStart[mid] <= position)
+				low = mid;
+			else
+				high = mid - 1;
+		}
+		
+		return low;
+	}
+	
+	public WritableImage getImage()
+	{
+		return image;
+	}
+}
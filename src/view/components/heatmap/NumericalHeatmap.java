@@ -131,6 +131,9 @@ public class NumericalHeatmap extends HeatMap
 				cellsToCoordinates.put(new Pair<Integer, Integer>(i, j), cellCoordinates);
 			}	
 		}
+		
+		// Update spatial index for selection.
+		indexCells(data, cellWidth, cellHeight);
     }
 	
 	@Override
@@ -3,6 +3,7 @@ package view.components.legacy.heatmap;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -13,6 +14,8 @@ import view.components.legacy.BinnedOccurenceEntity;
 import view.components.legacy.VisualizationComponent_Legacy;
 import view.components.rubberbandselection.ISelectableComponent;
 import view.components.rubberbandselection.RubberBandSelection;
+import view.components.spatialIndex.PointGrid;
+import view.components.spatialIndex.RectangleSelectionTracker;
 import model.LDAConfiguration;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
@@ -117,6 +120,13 @@ public class HeatMap extends VisualizationComponent_Legacy implements ISelectabl
 	 * Store which cells were selected.
 	 */
 	Set<Pair<Integer, Integer>> selectedCellsCoordinates;
+	/**
+	 * Cells with content, indexed by their center for rubber band selection. Rebuilt with every draw operation.
+	 */
+	private List<Pair<Integer, Integer>> indexedCells;
+	private RectangleSelectionTracker cellSelection;
+	private double cellHalfWidth;
+	private double cellHalfHeight;
 	
 	/**
 	 * Type of heatmap data used with this instance.
@@ -170,6 +180,7 @@ public class HeatMap extends VisualizationComponent_Legacy implements ISelectabl
 		cellsToConfigurationIDs				= new HashMap<Pair<Integer,Integer>, Set<Integer>>();
 		cellsToCoordinates					= new HashMap<Pair<Integer, Integer>, double[]>();
 		selectedCellsCoordinates			= new HashSet<Pair<Integer,Integer>>();
+		indexedCells						= new ArrayList<Pair<Integer,Integer>>();
 		
 		// Init axis settings.
 		initAxes();
@@ -490,8 +501,40 @@ public class HeatMap extends VisualizationComponent_Legacy implements ISelectabl
 				cellsToCoordinates.put(new Pair<Integer, Integer>(i, j), cellCoordinates);
 			}	
 		}
+		
+		// Update spatial index for selection.
+		indexCells(cellWidth, cellHeight);
     }
     
+	/**
+	 * Builds spatial index over cells with content after cellsToCoordinates has been updated.
+	 * Resets current selection.
+	 * @param cellWidth
+	 * @param cellHeight
+	 */
+	private void indexCells(double cellWidth, double cellHeight)
+	{
+		indexedCells.clear();
+		selectedCellsCoordinates.clear();
+		
+		double[] centerX	= new double[cellsToCoordinates.size()];
+		double[] centerY	= new double[cellsToCoordinates.size()];
+		
+		for (Map.Entry<Pair<Integer, Integer>, double[]> cellCoordinateEntry : cellsToCoordinates.entrySet()) {
+			if (cellsToConfigurationIDs.get(cellCoordinateEntry.getKey()) != null) {
+				final double[] coordinates = cellCoordinateEntry.getValue();
+				
+				centerX[indexedCells.size()] = (coordinates[0] + coordinates[2]) / 2;
+				centerY[indexedCells.size()] = (coordinates[1] + coordinates[3]) / 2;
+				indexedCells.add(cellCoordinateEntry.getKey());
+			}
+		}
+		
+		cellHalfWidth	= cellWidth / 2;
+		cellHalfHeight	= cellHeight / 2;
+		cellSelection	= new RectangleSelectionTracker(new PointGrid(centerX, centerY, indexedCells.size()));
+	}
+    
     public void setGranularityInformation(boolean adjustGranularityDynamically, int granularity, boolean update)
     {
     	this.adjustGranularityDynamically	= adjustGranularityDynamically;
@@ -511,6 +554,9 @@ public class HeatMap extends VisualizationComponent_Legacy implements ISelectabl
 	@Override
 	public void processSelectionManipulationRequest(double minX, double minY, double maxX, double maxY)
 	{	
+		if (cellSelection == null)
+			return;
+		
 		// Get GraphicsContext for drawing.
 		GraphicsContext gc					= canvas.getGraphicsContext2D();
 		
@@ -525,53 +571,30 @@ public class HeatMap extends VisualizationComponent_Legacy implements ISelectabl
 		final Color minColor 		= dataBinding == HeatmapDataBinding.FILTERED ? Color.LIGHTBLUE 	: Color.RED;
 		final Color maxColor 		= dataBinding == HeatmapDataBinding.FILTERED ? Color.DARKBLUE	: Color.DARKRED;
 		
-		// Check which cells are in selected area, highlight them.
-		for (Map.Entry<Pair<Integer, Integer>, double[]> cellCoordinateEntry : cellsToCoordinates.entrySet()) {
-			double cellMinX = cellCoordinateEntry.getValue()[0];
-			double cellMinY = cellCoordinateEntry.getValue()[1];
-			double cellMaxX = cellCoordinateEntry.getValue()[2];
-			double cellMaxY = cellCoordinateEntry.getValue()[3];
-			
-			// Set color.
-			gc.setFill(highlightColor);
+		// Cells are indexed by their center: Shrink selected area by half a cell to select only fully contained cells.
+		cellSelection.update(minX + cellHalfWidth, minY + cellHalfHeight, maxX - cellHalfWidth, maxY - cellHalfHeight);
+		
+		// Highlight cells that entered selected area, add them to selection.
+		gc.setFill(highlightColor);
+		for (int i = 0; i < cellSelection.getNumberOfEnteredPoints(); i++) {
+			final Pair<Integer, Integer> cellCoordinates	= indexedCells.get(cellSelection.getEnteredPoint(i));
+			final double[] coordinates						= cellsToCoordinates.get(cellCoordinates);
 			
-			// Get cell ID/location.
-			final Pair<Integer, Integer> cellCoordinates = cellCoordinateEntry.getKey();
+			gc.fillRect(coordinates[0], coordinates[1], coordinates[2] - coordinates[0], coordinates[3] - coordinates[1]);
+			selectedCellsCoordinates.add(cellCoordinates);
+		}
+		
+		// Paint cells that left selected area in original color, remove them from selection.
+		for (int i = 0; i < cellSelection.getNumberOfLeftPoints(); i++) {
+			final Pair<Integer, Integer> cellCoordinates	= indexedCells.get(cellSelection.getLeftPoint(i));
+			final double[] coordinates						= cellsToCoordinates.get(cellCoordinates);
 			
-			if (	cellMinX > minX && cellMaxX < maxX &&
-					cellMinY > minY && cellMaxY < maxY) {
-				// Get cell's contents.
-				final Set<Integer> cellContentSet	= cellsToConfigurationIDs.get(cellCoordinateEntry.getKey()); 
-
-				// Add cell content to collection (if there is any).
-				if (cellContentSet != null) {
-					// Check if cell('s content) was already selected. If not: Highlight it, add content to selection.  
-					if (!selectedCellsCoordinates.contains(cellCoordinates)) {
-						// Highlight cell.
-						gc.fillRect(cellMinX, cellMinY, cellMaxX - cellMinX, cellMaxY - cellMinY);
-						
-						// Add to collection of selected cells.
-						selectedCellsCoordinates.add(cellCoordinates);
-					}
-				}
-			}
+			// Calculate original color.
+			Color cellColor = ColorScale.getColorForValue(binMatrix[cellCoordinates.getKey()][cellCoordinates.getValue()], minOccurenceCount, maxOccurenceCount, minColor, maxColor);
+			gc.setFill(cellColor);
 			
-			// If not in selected area anymore: Paint in original color, remove from selection.
-			else if (selectedCellsCoordinates.contains(cellCoordinates)) {
-				// Get row and column.
-				final int cellRow		= cellCoordinateEntry.getKey().getKey();
-				final int cellColumn 	= cellCoordinateEntry.getKey().getValue();
-				
-				// Calculate original color.
-				Color cellColor = ColorScale.getColorForValue(binMatrix[cellRow][cellColumn], minOccurenceCount, maxOccurenceCount, minColor, maxColor);
-				gc.setFill(cellColor);
-				
-				// Paint cell in original color.
-				gc.fillRect(cellMinX, cellMinY, cellMaxX - cellMinX, cellMaxY - cellMinY);
-				
-				// Remove from selection.
-				selectedCellsCoordinates.remove(cellCoordinates);
-			}
+			gc.fillRect(coordinates[0], coordinates[1], coordinates[2] - coordinates[0], coordinates[3] - coordinates[1]);
+			selectedCellsCoordinates.remove(cellCoordinates);
 		}
 	}
 
@@ -12,13 +12,11 @@ import javafx.scene.Node;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.ScatterChart;
-import javafx.scene.chart.XYChart;
 import javafx.scene.chart.XYChart.Series;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.Slider;
-import javafx.scene.effect.DropShadow;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
@@ -35,6 +33,10 @@ import view.components.legacy.heatmap.HeatMap;
 import view.components.legacy.heatmap.HeatmapDataType;
 import view.components.rubberbandselection.ISelectableComponent;
 import view.components.rubberbandselection.RubberBandSelection;
+import view.components.scatterchart.DataPointState;
+import view.components.scatterchart.IScatterCanvasLayerListener;
+import view.components.scatterchart.ScatterCanvasLayer;
+import view.components.spatialIndex.RectangleSelectionTracker;
 
 @SuppressWarnings("restriction")
 enum SelectionMode
@@ -70,6 +72,11 @@ public class MDSScatterchart extends VisualizationComponent_Legacy implements IS
 	 */
 	private Map<String, Label> scatterchartLegendLabels;
 	
+	/**
+	 * Canvas layer drawing data points on top of scatterchart.
+	 */
+	private ScatterCanvasLayer scatterLayer;
+	
 	/**
 	 * Component enabling rubberband-type selection of points in scatterchart.
 	 */
@@ -146,9 +153,9 @@ public class MDSScatterchart extends VisualizationComponent_Legacy implements IS
 	private boolean changeInSelectionDetected_localScope;
 	
 	/**
-	 * Map storing all selected MDS chart points as values; their respective indices as keys.
+	 * Indices of all selected MDS chart points.
 	 */
-	private Map<Integer, XYChart.Data<Number, Number>> activeMDSPoints;
+	private Set<Integer> activeMDSPoints;
 	
 	/**
 	 * Global coordinate extrema on x axis (absolute; not filter- or selection-specific).
@@ -164,15 +171,15 @@ public class MDSScatterchart extends VisualizationComponent_Legacy implements IS
 	private double[] globalCoordinateExtrema;
 	
 	/**
-	 * Data series holding all discarded data points.
+	 * Data series for discarded data points. Empty, only used for legend.
 	 */
 	private Series<Number, Number> discardedDataSeries;
 	/**
-	 * Data series holding all filtered data points.
+	 * Data series for filtered data points. Empty, only used for legend.
 	 */
 	private Series<Number, Number> inactiveDataSeries;
 	/**
-	 * Data series holding all selected data points.
+	 * Data series for selected data points. Empty, only used for legend.
 	 */
 	private Series<Number, Number> activeDataSeries;
 	
@@ -254,7 +261,7 @@ public class MDSScatterchart extends VisualizationComponent_Legacy implements IS
 		this.dhmMaxColor						= dhmMaxColor;
 		
 		// Init collection of selected data points in the MDS scatterchart.
-		activeMDSPoints							= new HashMap<Integer, XYChart.Data<Number, Number>>();
+		activeMDSPoints							= new HashSet<Integer>();
 		globalCoordinateExtrema_X				= new Pair<Double, Double>(Double.MAX_VALUE, Double.MIN_VALUE);
 		globalCoordinateExtrema_Y				= new Pair<Double, Double>(Double.MAX_VALUE, Double.MIN_VALUE);
 		globalCoordinateExtrema					= new double[4];
@@ -365,6 +372,9 @@ public class MDSScatterchart extends VisualizationComponent_Legacy implements IS
         // Init automatic update of references to labels in legend.
         updateLegendLabels();
         
+        // Add canvas layer for data points.
+        initScatterLayer();
+        
         // Add rubberband selection tool.
         rubberbandSelection = new RubberBandSelection((Pane) scatterchart.getParent(), this);
         
@@ -373,79 +383,58 @@ public class MDSScatterchart extends VisualizationComponent_Legacy implements IS
 	}
 	
 	/**
-	 * Marks reference topic model.
+	 * Initializes canvas layer drawing the data points. Handles hover and single selection mode.
 	 */
-	private void markReferenceTM()
+	private void initScatterLayer()
 	{
-		XYChart.Data<Number, Number> referenceData 	= null;
-		boolean isActive							= false;
-		
-		for (XYChart.Data<Number, Number> data : activeDataSeries.getData()) {
-			if (referenceTMIndex == (int) data.getExtraValue() ) {
-				referenceData 	= data;
-				isActive		= true; 
-				break;
-			}
-		}
-		for (XYChart.Data<Number, Number> data : inactiveDataSeries.getData()) {
-			if (referenceTMIndex == (int) data.getExtraValue() ) {
-				referenceData 	= data;
-				isActive		= false;
-				break;
+		scatterLayer = new ScatterCanvasLayer(scatterchart, new IScatterCanvasLayerListener() {
+			@Override
+			public void processPointEntered(int point)
+			{
+	        	// Highlight data point.
+	        	highlightHoveredOverDataPoint(scatterLayer.getID(point), DatapointIDMode.INDEX);
+	        	
+	        	// Notify AnalysisController about hover action.
+	        	analysisController.highlightDataPoints(scatterLayer.getID(point), DatapointIDMode.INDEX, VisualizationComponentType.GLOBAL_SCATTERCHART);
 			}
-		}
-		
-		if (referenceData != null) {
-			 // Setting the uniform variable for the glow width and height
-			final int depth 			= 20;
-			final double scaleFactor	= 2.5;
-			Color color					= isActive ? Color.BLUE : Color.GREY;
-			
-			referenceData.getNode().setScaleX(scaleFactor);
-			referenceData.getNode().setScaleY(scaleFactor);
-			
-			DropShadow borderGlow = new DropShadow();
-			borderGlow.setOffsetY(0f);
-			borderGlow.setOffsetX(0f);
 			
-			borderGlow.setRadius(50);
-			borderGlow.setColor(color);
-			borderGlow.setWidth(depth);
-			borderGlow.setHeight(depth); 
+			@Override
+			public void processPointExited(int point)
+			{
+		    	// Remove highlighting.
+	        	removeHoverHighlighting();	        	
+	        	
+	        	// Notify AnalysisController about end of hover action.
+	        	analysisController.removeHighlighting(VisualizationComponentType.GLOBAL_SCATTERCHART);
+			}
 			
-			// Apply the borderGlow effect to the JavaFX node.
-			referenceData.getNode().setEffect(borderGlow);
-		}
+			@Override
+			public void processPointClicked(int point, MouseEvent event)
+			{
+				processSingleSelection(point, event.isControlDown());
+			}
+		});
 	}
-
+	
 	/**
-	 * Highlights one particular LDA configuration.
+	 * Marks reference topic model, if it's active or inactive.
+	 */
+	private void markReferenceTM()
+	{
+		final int point = scatterLayer.indexOf(referenceTMIndex);
+		
+		scatterLayer.setReferencePoint(point >= 0 && scatterLayer.getState(point) != DataPointState.DISCARDED ? point : -1);
+	}
+	
+	/**
+	 * Highlights one particular LDA configuration, if it's active.
 	 * @param index 
 	 */
 	public void highlightLDAConfiguration(int index)
 	{
-		for (XYChart.Data<Number, Number> data : activeDataSeries.getData()) {
-			if (index == ((int) data.getExtraValue()) ) {
-				 // Setting the uniform variable for the glow width and height
-				int depth = 20;
-				
-				DropShadow borderGlow = new DropShadow();
-				borderGlow.setOffsetY(0f);
-				borderGlow.setOffsetX(0f);
-				
-				borderGlow.setRadius(5);
-				borderGlow.setColor(Color.RED);
-				borderGlow.setWidth(depth);
-				borderGlow.setHeight(depth); 
-				
-				// Apply the borderGlow effect to the JavaFX node.
-				data.getNode().setEffect(borderGlow);
-			}
-			
-			else {
-				data.getNode().setEffect(null);
-			}
-		}
+		final int point = scatterLayer.indexOf(index);
+		
+		scatterLayer.setMarkedPoint(point >= 0 && scatterLayer.getState(point) == DataPointState.ACTIVE ? point : -1);
 	}
 	
 	private void initHeatmap()
@@ -723,22 +712,16 @@ public class MDSScatterchart extends VisualizationComponent_Legacy implements IS
 		
 		// Clear scatterchart.
 		scatterchart.getData().clear();
-		discardedDataSeries.getData().clear();
-		inactiveDataSeries.getData().clear();
-		activeDataSeries.getData().clear();
 		pointsManipulatedInCurrSelectionStep.clear();
 		activeMDSPoints.clear();
 		
+		// Hand data points to canvas layer.
+		updateScatterLayer();
+		
 		// Draw only if heatmap is currently not shown. 
+		scatterLayer.setVisible(!heatmap_canvas.isVisible());
 		if (!heatmap_canvas.isVisible()) {
-	        // Add discarded data points (greyed out) to scatterchart.
-	        addDiscardedDataPoints();
-	        // Add filtered points points to scatterchart.
-	        addInactiveDataPoints();
-	        // Add active data points to scatterchart.
-	        addActiveDataPoints();
-
-	        // Add data in scatterchart.
+	        // Add (empty) data series for legend.
 	        scatterchart.getData().add(0, discardedDataSeries);
 	        scatterchart.getData().add(0, inactiveDataSeries);
 	        scatterchart.getData().add(0, activeDataSeries);
@@ -746,9 +729,6 @@ public class MDSScatterchart extends VisualizationComponent_Legacy implements IS
 	        // Redraw scatterchart.
 	        scatterchart.layout();
 	        scatterchart.applyCss();
-	        
-	        // Add mouse listeners.
-	        addMouseListenersToMDSScatterchart();
 		}    
 		
         // Update heatmap.
@@ -760,9 +740,6 @@ public class MDSScatterchart extends VisualizationComponent_Legacy implements IS
         // Highlight reference topic model.
         markReferenceTM();
         
-        // Add hover event listener to all relevant nodes.
-        initHoverEventListeners();
-        
         // Lower opacity for all data points.
         removeHoverHighlighting();
 	}
@@ -776,292 +753,136 @@ public class MDSScatterchart extends VisualizationComponent_Legacy implements IS
 	}
 	
 	/**
-	 * Auxiliary method to add filtered data points to data series in scatterchart.
-	 * @param dataSeries
-	 * @param activeDataSeries
+	 * Collects discarded, inactive and active data points (in this order) and hands them to the canvas layer.
 	 */
-	private void addInactiveDataPoints()
+	private void updateScatterLayer()
 	{
-        int count = 0;
-
-        // Add filtered data points.
-        for (int index : inactiveIndices) {
+		final int capacity			= discardedIndices.size() + inactiveIndices.size() + activeIndices.size();
+		double[] x					= new double[capacity];
+		double[] y					= new double[capacity];
+		int[] ids					= new int[capacity];
+		DataPointState[] states		= new DataPointState[capacity];
+		int size					= 0;
+		
+		// Add discarded data points.
+		int count = 0;
+		for (int index : discardedIndices) {
+			x[size]			= discardedCoordinates[0][count];
+			y[size]			= discardedCoordinates[1][count];
+			ids[size]		= index;
+			states[size++]	= DataPointState.DISCARDED;
+			
+			count++;
+		}
+		
+		// Add filtered data points.
+		count = 0;
+		for (int index : inactiveIndices) {
         	// Add point only if it's not part of the set of selected indices.
-        	if (!activeIndices.contains(index)) {
-	        	XYChart.Data<Number, Number> dataPoint = new XYChart.Data<Number, Number>(inactiveCoordinates[0][count], inactiveCoordinates[1][count]);
-	        	dataPoint.setExtraValue(index);
-	        	inactiveDataSeries.getData().add(dataPoint);
-        	}
-        	
-        	count++;
-        }
-	}
-	
-	/**
-	 * Auxiliary method to add selected data points to data series in scatterchart.
-	 * @param dataSeries
-	 * @param activeDataSeries
-	 */
-	private void addActiveDataPoints()
-	{
-        int count = 0;
-        
-        // Add selected data points.
-        count = 0;
-        for (int index : activeIndices) {
-    		XYChart.Data<Number, Number> dataPoint = new XYChart.Data<Number, Number>(activeCoordinates[0][count], activeCoordinates[1][count]);
-        	dataPoint.setExtraValue(index);
-        	activeDataSeries.getData().add(dataPoint);
-        	activeMDSPoints.put(index, dataPoint);
-    	
-        	count++;
-        }
-	}
-	/**
-	 * Adds discarded data points to data series.
-	 * @param discardedDataSeries
-	 */
-	private void addDiscardedDataPoints()
-	{
-        int count = 0;
-        for (int index : discardedIndices) {
-        	// Add point.
-        	XYChart.Data<Number, Number> dataPoint = new XYChart.Data<Number, Number>(discardedCoordinates[0][count], discardedCoordinates[1][count]);
-        	dataPoint.setExtraValue(index);
-	        discardedDataSeries.getData().add(dataPoint);
-	        
-	        count++;
-        }
-	}
-	
-	/**
-	 * Assigns mouse listener for single selection node to data point's node.
-	 * @param dataPoint
-	 */
-	private void addSingleSelectionModeMouseListenerToNode(XYChart.Data<Number, Number> dataPoint, DataPointState state)
-	{
-		switch (state)
-		{
-			case INACTIVE:
-				dataPoint.getNode().setOnMouseClicked(new EventHandler<MouseEvent>()
-				{
-				    @Override
-				    public void handle(MouseEvent mouseEvent)
-				    {       
-				    	// If control is not down: Add to selection.
-				    	if (!mouseEvent.isControlDown()) {
-					    	if (!activeMDSPoints.containsKey(dataPoint.getExtraValue())) {
-					    		// Update collection of selected points.
-								activeMDSPoints.put((int)dataPoint.getExtraValue(), dataPoint);
-
-								// Change data point selection status.
-								changeDataPointSelectionStatus(dataPoint, true);
-					    		
-								// Refresh other charts.
-								Set<Integer> selectedIndices = new HashSet<Integer>();
-								if (isCtrlDown) {
-									selectedIndices.addAll(activeMDSPoints.keySet());
-									selectedIndices.addAll(inactiveIndices);
-								}
-								// Otherwise: Consider only datapoints selected in the current step.
-								else {
-									selectedIndices.addAll(pointsManipulatedInCurrSelectionStep);
-								}
-								
-								// Integration selection.
-								analysisController.integrateSelectionOfDataPoints(selectedIndices, isCtrlDown, DatapointIDMode.INDEX, true);
-					    	}
-				    	}
-				    	else
-				    		System.out.println("blub");
-				    }
-				});
-			break;
+			if (!activeIndices.contains(index)) {
+				x[size]			= inactiveCoordinates[0][count];
+				y[size]			= inactiveCoordinates[1][count];
+				ids[size]		= index;
+				states[size++]	= DataPointState.INACTIVE;
+			}
 			
-			case ACTIVE:
-	        	dataPoint.getNode().setOnMouseClicked(new EventHandler<MouseEvent>()
-    			{
-    			    @Override
-    			    public void handle(MouseEvent mouseEvent)
-    			    {       
-    			    	System.out.println("in event");
-    			    	// If control is down: Remove from selection.
-    			    	if (isCtrlDown || mouseEvent.isControlDown()) {
-				    		// Update collection of selected points.
-				    		activeMDSPoints.remove(dataPoint.getExtraValue());
-							
-							// Change data point selection status.
-							changeDataPointSelectionStatus(dataPoint, false);
-							
-							// Refresh other charts.
-							Set<Integer> selectedIndices = new HashSet<Integer>();
-							if (isCtrlDown) {
-								selectedIndices.addAll(activeMDSPoints.keySet());
-								selectedIndices.addAll(inactiveIndices);
-							}
-							// Otherwise: Consider only datapoints selected in the current step.
-							else {
-								selectedIndices.addAll(pointsManipulatedInCurrSelectionStep);
-							}
-							
-							// Integration selection.
-							analysisController.integrateSelectionOfDataPoints(selectedIndices, isCtrlDown, DatapointIDMode.INDEX, true);
-    			    	}
-    			    }
-    			});
-			break;
+			count++;
+		}
+		
+		// Add selected data points.
+		count = 0;
+		for (int index : activeIndices) {
+			x[size]			= activeCoordinates[0][count];
+			y[size]			= activeCoordinates[1][count];
+			ids[size]		= index;
+			states[size++]	= DataPointState.ACTIVE;
+			activeMDSPoints.add(index);
 			
-			// Selection of discarded data points not supported.
-			case DISCARDED:
-			break;
+			count++;
 		}
+		
+		scatterLayer.setData(x, y, ids, states, size);
 	}
 	
 	/**
-	 * Adds mouse event listeners handling single-point requests.
-	 * @todo Adapt to new selection handling method.
+	 * Processes click on a data point in single selection mode: Inactive points are added to the selection, 
+	 * active points are removed from it if CTRL is down.
+	 * @param point
+	 * @param isControlDown
 	 */
-	private void addMouseListenersToMDSScatterchart()
+	private void processSingleSelection(int point, boolean isControlDown)
 	{
-        // Add mouse event listeners to points in all data series.
+		final int index = scatterLayer.getID(point);
 		
-        for (XYChart.Data<Number, Number> dataPoint : inactiveDataSeries.getData()) {
-        	addSingleSelectionModeMouseListenerToNode(dataPoint, DataPointState.INACTIVE);
-        }
+		if (scatterLayer.getState(point) == DataPointState.INACTIVE && !isControlDown) {
+			activeMDSPoints.add(index);
+			scatterLayer.setState(point, DataPointState.ACTIVE);
+		}
 		
-		// Add mouse listeners for selected data points.
-        for (XYChart.Data<Number, Number> dataPoint : activeDataSeries.getData()) {
-        	addSingleSelectionModeMouseListenerToNode(dataPoint, DataPointState.ACTIVE);
-        }
-	}
-	
-	/**
-	 * Checks if node is positioned within specified bounds.
-	 * @param node
-	 * @param minX
-	 * @param minY
-	 * @param maxX
-	 * @param maxY
-	 * @return
-	 */
-	private boolean isNodeWithinBounds(Node node, double minX, double minY, double maxX, double maxY)
-	{
-		boolean nodeXWithinBounds = node.getLayoutX() <= maxX && node.getLayoutX() >= minX;
-		boolean nodeYWithinBounds = node.getLayoutY() <= maxY && node.getLayoutY() >= minY;
+		else if (scatterLayer.getState(point) == DataPointState.ACTIVE && (isCtrlDown || isControlDown)) {
+			activeMDSPoints.remove(index);
+			scatterLayer.setState(point, DataPointState.INACTIVE);
+		}
+		
+		// Selection of discarded data points not supported.
+		else {
+			return;
+		}
+		
+		pointsManipulatedInCurrSelectionStep.add(index);
+		updateLegendLabels();
 		
-		return nodeXWithinBounds && nodeYWithinBounds;
+		// Refresh other charts.
+		integrateIntoDataspace(isCtrlDown);
+		pointsManipulatedInCurrSelectionStep.clear();
 	}
 	
 	@Override
 	public void processSelectionManipulationRequest(double minX, double minY, double maxX, double maxY)
 	{
-		// Set of data points to add to selection. 
-		Set<XYChart.Data<Number, Number>> pointsToAddToSelection		= new HashSet<XYChart.Data<Number,Number>>();
-		// Set of data points to remove from selection.
-		Set<XYChart.Data<Number, Number>> pointsToRemoveFromSelection	= new HashSet<XYChart.Data<Number,Number>>();
+		final RectangleSelectionTracker selection = scatterLayer.updateSelectionRectangle(minX, minY, maxX, maxY);
 		
-		// Iterate over all filtered points.
-		for (XYChart.Data<Number, Number> datapoint : inactiveDataSeries.getData()) {
-			// Point was selected - add to sets of selected indices and selected points.
-			if (	isNodeWithinBounds(datapoint.getNode(), minX, minY, maxX, maxY) &&
-					!activeMDSPoints.containsKey((int)datapoint.getExtraValue())
-				) {
+		// Add inactive points that entered selected area to selection.
+		for (int i = 0; i < selection.getNumberOfEnteredPoints(); i++) {
+			final int point = selection.getEnteredPoint(i);
+			
+			if (scatterLayer.getState(point) == DataPointState.INACTIVE) {
 				// Set dirty flags.
 				changeInSelectionDetected				= true;
 				changeInSelectionDetected_localScope	= true;
 				
 				// Update collection of selected points.
-				activeMDSPoints.put((int)datapoint.getExtraValue(), datapoint);
-				
-				// Update set of values added to selection in this action.
-				pointsToAddToSelection.add(datapoint);
+				activeMDSPoints.add(scatterLayer.getID(point));
+				scatterLayer.setState(point, DataPointState.ACTIVE);
 				
 				// Mark data point as manipulated in this step.
-				pointsManipulatedInCurrSelectionStep.add((int) datapoint.getExtraValue());
+				pointsManipulatedInCurrSelectionStep.add(scatterLayer.getID(point));
 			}
 		}
-
-		// Iterate over all selected points; remove, if not in selected area anymore.
-		for (XYChart.Data<Number, Number> datapoint : activeDataSeries.getData()) {
-			if (	!isNodeWithinBounds(datapoint.getNode(), minX, minY, maxX, maxY) 	&&
-					activeMDSPoints.containsKey((int)datapoint.getExtraValue())			&&
-					pointsManipulatedInCurrSelectionStep.contains((int) datapoint.getExtraValue())
-				) {
+		
+		// Remove points selected in this step, if they left selected area.
+		for (int i = 0; i < selection.getNumberOfLeftPoints(); i++) {
+			final int point = selection.getLeftPoint(i);
+			
+			final int index	= scatterLayer.getID(point);
+			
+			if (scatterLayer.getState(point) == DataPointState.ACTIVE && pointsManipulatedInCurrSelectionStep.contains(index)) {
 				// Set dirty flags.
 				changeInSelectionDetected				= true;
 				changeInSelectionDetected_localScope	= true;
 				
 				// Update collection of selected points.
-				activeMDSPoints.remove((int)datapoint.getExtraValue());
-				
-				// Update set of values removed from selection in this action.
-				pointsToRemoveFromSelection.add(datapoint);
+				activeMDSPoints.remove(index);
+				scatterLayer.setState(point, DataPointState.INACTIVE);
 			}
 		}
 			
-		// Incorporate identified selection changes into data point's series associations.
 		if (changeInSelectionDetected) {
-			// Add newly selected data points to selection.
-			for (XYChart.Data<Number, Number> newlySelectedDataPoint : pointsToAddToSelection) {
-				// Change selection status.
-				changeDataPointSelectionStatus(newlySelectedDataPoint, true);
-				
-				// Update collection of selected points.
-				activeMDSPoints.put((int)newlySelectedDataPoint.getExtraValue(), newlySelectedDataPoint);
-			}
-			
-			// Remove newly de-selected data points to selection.
-			for (XYChart.Data<Number, Number> newlyDeselectedDataPoint : pointsToRemoveFromSelection) {
-				// Change selection status.
-				changeDataPointSelectionStatus(newlyDeselectedDataPoint, false);
-			}
-    		
     		// Reset flag.
     		changeInSelectionDetected = false;
     		
     		// Update data series names with number of datasets.
     		updateLegendLabels();
-    		
-    		// Highlight reference TM.
-    		markReferenceTM();
-		}
-	}
-	
-	/**
-	 * Changes selection status of a point in filtered/selected data series.
-	 * @param data
-	 * @param selected Indicates that data point should be selected, if this is true.
-	 */
-	private void changeDataPointSelectionStatus(XYChart.Data<Number, Number> data, boolean selected)
-	{
-		// Copy data point in question.
-		XYChart.Data<Number, Number> dataCopy = new XYChart.Data<Number, Number>(data.getXValue(), data.getYValue());
-		dataCopy.setExtraValue(data.getExtraValue());
-		
-		if (selected) {
-			// Remove from filteredDataSeries.
-			inactiveDataSeries.getData().remove(data);
-			
-			// Add copy to selectedDataSeries.
-			if (!activeDataSeries.getData().contains(data)) {
-				activeDataSeries.getData().add(dataCopy);
-
-				// Add listener for single selection mode.
-	    		addSingleSelectionModeMouseListenerToNode(dataCopy, DataPointState.ACTIVE);
-			}
-		}
-		
-		else {
-			// Remove from selectedDataSeries.
-			activeDataSeries.getData().remove(data);
-			
-			// Add copy to filteredDataSeries.
-			if (!inactiveDataSeries.getData().contains(data)) {
-				inactiveDataSeries.getData().add(dataCopy);
-				
-				// Add listener for single selection mode.
-	    		addSingleSelectionModeMouseListenerToNode(dataCopy, DataPointState.INACTIVE);
-			}
 		}
 	}
 	
@@ -1078,12 +899,9 @@ public class MDSScatterchart extends VisualizationComponent_Legacy implements IS
 		// Integrate into dataspace.
 		integrateIntoDataspace(isCtrlDown);		
 		
-		// Add event listeners to active and inactive data series (may contain new members).
-		initHoverEventListeners(activeDataSeries);
-		initHoverEventListeners(inactiveDataSeries);
-		
 		// Clear selection-step-dependent data collections.
 		pointsManipulatedInCurrSelectionStep.clear();
+		scatterLayer.resetSelectionRectangle();
 	}
 	
 	/**
@@ -1097,12 +915,12 @@ public class MDSScatterchart extends VisualizationComponent_Legacy implements IS
 		
 		// If CTRL is down: Consider all currently selected datapoints.
 		if (inclusiveMode) {
-			selectedIndices.addAll(activeMDSPoints.keySet());
+			selectedIndices.addAll(activeMDSPoints);
 		}
 		// Otherwise: Consider only datapoints selected in the current step.
 		else {
 			selectedIndices.addAll(pointsManipulatedInCurrSelectionStep);
-			selectedIndices.retainAll(activeMDSPoints.keySet());
+			selectedIndices.retainAll(activeMDSPoints);
 		}
 		
 		// Integration selection.
@@ -1110,10 +928,13 @@ public class MDSScatterchart extends VisualizationComponent_Legacy implements IS
 	}
 	
 	
+	/**
+	 * Selection rectangle is processed in coordinates of the scatterchart's parent pane (see {@link ScatterCanvasLayer#updateSelectionRectangle(double, double, double, double)}).
+	 */
 	@Override
 	public Pair<Integer, Integer> provideOffsets()
 	{
-		return new Pair<Integer, Integer>(55, 24);
+		return new Pair<Integer, Integer>(0, 0);
 	}
 	
 	/**
@@ -1152,7 +973,7 @@ public class MDSScatterchart extends VisualizationComponent_Legacy implements IS
 	 */
 	public Set<Integer> getSelectedIndices()
 	{
-		return activeMDSPoints.keySet();
+		return activeMDSPoints;
 	}
 
 	/**
@@ -1175,11 +996,7 @@ public class MDSScatterchart extends VisualizationComponent_Legacy implements IS
 		heatmap_canvas.setVisible(selected);
 		
 		// Hide data points.
-		for (Series<Number, Number> dataSeries : scatterchart.getData()) {
-			for (XYChart.Data<Number, Number> dataPoint : dataSeries.getData()) {
-				dataPoint.getNode().setVisible(!selected);
-			}
-		}
+		scatterLayer.setVisible(!selected);
 		
 		// Update heatmap position/indentation.
 		updateHeatmapPosition();
@@ -1219,29 +1036,22 @@ public class MDSScatterchart extends VisualizationComponent_Legacy implements IS
 		scrollPane.setOnKeyReleased(scrollPaneKEHandler);
 	}
 	
+	/**
+	 * Hover is detected by canvas layer, no listeners on single nodes needed.
+	 */
 	@Override
 	public void initHoverEventListeners()
 	{
-		// Add hover event listener to all nodes.
-		if (scatterchart != null) {
-			for (XYChart.Series<Number, Number> dataSeries : scatterchart.getData()) {
-				for (XYChart.Data<Number, Number> dataPoint : dataSeries.getData()) {
-					addHoverEventListenersToNode(dataPoint);
-				}
-			}
-		}
 	}
 	
 	@Override
 	public void highlightHoveredOverDataPoints(Set<Integer> dataPointIDs, DatapointIDMode idMode)
 	{
 		if (idMode == DatapointIDMode.INDEX) {
-			for (XYChart.Series<Number, Number> dataSeries : scatterchart.getData()) {
-				for (XYChart.Data<Number, Number> dataPoint : dataSeries.getData()) {
-					if ( dataPointIDs.contains((int)dataPoint.getExtraValue()) ) {
-						dataPoint.getNode().setOpacity(1);
-					}
-				}
+			for (int dataPointID : dataPointIDs) {
+				final int point = scatterLayer.indexOf(dataPointID);
+				if (point >= 0)
+					scatterLayer.highlight(point);
 			}
 		}
 		
@@ -1253,55 +1063,6 @@ public class MDSScatterchart extends VisualizationComponent_Legacy implements IS
 	@Override
 	public void removeHoverHighlighting()
 	{
-		for (XYChart.Series<Number, Number> dataSeries : scatterchart.getData()) {
-			for (XYChart.Data<Number, Number> dataPoint : dataSeries.getData()) {
-				dataPoint.getNode().setOpacity(VisualizationComponent.DEFAULT_OPACITY_FACTOR);
-			}
-		}
-	}
-
-	/**
-	 * Adds hover event listener to all relevant nodes.
-	 * @param dataSeries Adds listener only to specific series.
-	 */
-	private void initHoverEventListeners(XYChart.Series<Number, Number> dataSeries)
-	{
-		if (dataSeries != null) {
-			for (XYChart.Data<Number, Number> dataPoint : dataSeries.getData())
-				addHoverEventListenersToNode(dataPoint);
-		}
-	}
-	
-	/**
-	 * Add hover event listener to single node.
-	 * @param dataPoint
-	 */
-	private void addHoverEventListenersToNode(XYChart.Data<Number, Number> dataPoint)
-	{
-		dataPoint.getNode().setOnMouseEntered(new EventHandler<MouseEvent>()
-		{
-		    @Override
-		    public void handle(MouseEvent event)
-		    {       
-	        	// Highlight data point.
-	        	highlightHoveredOverDataPoint((int)dataPoint.getExtraValue(), DatapointIDMode.INDEX);
-	        	
-	        	// Notify AnalysisController about hover action.
-	        	analysisController.highlightDataPoints((int)dataPoint.getExtraValue(), DatapointIDMode.INDEX, VisualizationComponentType.GLOBAL_SCATTERCHART);
-		    }
-		});
-		
-		dataPoint.getNode().setOnMouseExited(new EventHandler<MouseEvent>()
-		{
-		    @Override
-		    public void handle(MouseEvent event)
-		    {       
-		    	// Remove highlighting.
-	        	removeHoverHighlighting();	        	
-	        	
-	        	// Notify AnalysisController about end of hover action.
-	        	analysisController.removeHighlighting(VisualizationComponentType.GLOBAL_SCATTERCHART);
-		    }
-		});
+		scatterLayer.removeHighlighting();
 	}
 }
\ No newline at end of file
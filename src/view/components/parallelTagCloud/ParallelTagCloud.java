@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import model.workspace.TaskType;
 import javafx.beans.value.ChangeListener;
@@ -727,10 +728,14 @@ public class ParallelTagCloud extends VisualizationComponent
 			    			}
 			        	}
 			        	
-			        	// List relevant documents, fetch results.
-		            	Map<Integer, Integer> documentRanksByID = analysisController.listRelevantDocuments(new Pair<Integer, Integer>(ldaConfigID, topicID), false, keyword);
-		            	// Show keyword context (provide rank results to keyword context component).
-		            	analysisController.showKeywordContext(label.getText(), documentRanksByID, ldaConfigID, topicID);
+			        	// List relevant documents, then show keyword context (provide rank results to keyword context component).
+		            	analysisController.listRelevantDocuments(new Pair<Integer, Integer>(ldaConfigID, topicID), false, keyword).thenAccept(new Consumer<Map<Integer, Integer>>() {
+		            		@Override
+		            		public void accept(Map<Integer, Integer> documentRanksByID)
+		            		{
+		            			analysisController.showKeywordContext(label.getText(), documentRanksByID, ldaConfigID, topicID);
+		            		}
+		            	});
 		            	
 		            	// Stop event's propagation.
 		            	event.consume();
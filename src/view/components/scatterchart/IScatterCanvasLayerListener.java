@@ -0,0 +1,31 @@
+package view.components.scatterchart;
+
+import javafx.scene.input.MouseEvent;
+
+/**
+ * Receives mouse interactions with points drawn by a {@link ScatterCanvasLayer}.
+ * Points are identified by their position in the layer's data.
+ * @author RM
+ *
+ */
+public interface IScatterCanvasLayerListener
+{
+	/**
+	 * Cursor moved onto point.
+	 * @param point
+	 */
+	public void processPointEntered(int point);
+	
+	/**
+	 * Cursor left point.
+	 * @param point
+	 */
+	public void processPointExited(int point);
+	
+	/**
+	 * Point was clicked (without dragging).
+	 * @param point
+	 * @param event
+	 */
+	public void processPointClicked(int point, MouseEvent event);
+}
@@ -8,16 +8,11 @@ import java.util.ResourceBundle;
 import model.LDAConfiguration;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.scene.Node;
-import javafx.scene.chart.XYChart;
-import javafx.scene.chart.XYChart.Data;
-import javafx.scene.chart.XYChart.Series;
 import javafx.scene.control.ComboBox;
 import javafx.scene.paint.Color;
 import javafx.util.Pair;
 import view.components.heatmap.HeatmapDataset;
 import view.components.heatmap.HeatmapOptionset;
-import view.components.legacy.mdsScatterchart.DataPointState;
 
 public class ParameterSpaceScatterchart extends Scatterchart
 {
@@ -74,10 +69,13 @@ public class ParameterSpaceScatterchart extends Scatterchart
 		densityHeatmap.getRoot().setVisible(options.showDensityHeatmap());
 	}
 
+	/**
+	 * Selection rectangle is processed in coordinates of the scatterchart's parent pane (see {@link ScatterCanvasLayer#updateSelectionRectangle(double, double, double, double)}).
+	 */
 	@Override
 	public Pair<Integer, Integer> provideOffsets()
 	{
-		return new Pair<Integer, Integer>(50, 15);
+		return new Pair<Integer, Integer>(0, 0);
 	}
 
 	@Override
@@ -91,32 +89,19 @@ public class ParameterSpaceScatterchart extends Scatterchart
 		activeDataSeries.setName("Active (" + data.getActiveLDAConfigurations().size() + ")");
 		
 		// Clear scatterchart.
-		discardedDataSeries.getData().clear();
-		inactiveDataSeries.getData().clear();
-		activeDataSeries.getData().clear();
 		pointsManipulatedInCurrSelectionStep.clear();
 		activePoints.clear();
 		inactivePoints.clear();
 		
+		// Hand data points (using parameters chosen for x- respectively y-axis) to canvas layer.
+		updateScatterLayer(paramX_combobox.getValue(), paramY_combobox.getValue());
+		
 		// If density heatmap is not to be shown: Draw scatterchart.
+		scatterLayer.setVisible(!options.showDensityHeatmap());
 		if (!options.showDensityHeatmap()) {
 			scatterchart.getData().clear();
 			
-			/*
-			 * Add data to scatterchart. 
-			 */
-			
-			// Get parameter chosen for x- respectively y-axis.
-			final String xParam = paramX_combobox.getValue();
-			final String yParam = paramY_combobox.getValue();
-			
-	        addDataPoints(discardedDataSeries, data.getDiscardedLDAConfigurations(), xParam, yParam, DataPointState.DISCARDED);
-	        // Add filtered points points to scatterchart.
-	        addDataPoints(inactiveDataSeries, data.getInactiveLDAConfigurations(), xParam, yParam, DataPointState.INACTIVE);
-	        // Add active data points to scatterchart.
-	        addDataPoints(activeDataSeries, data.getActiveLDAConfigurations(), xParam, yParam, DataPointState.ACTIVE);
-	
-	        // Add data in scatterchart.
+	        // Add (empty) data series for legend.
 	        scatterchart.getData().add(0, discardedDataSeries);
 	        scatterchart.getData().add(0, inactiveDataSeries);
 	        scatterchart.getData().add(0, activeDataSeries);
@@ -124,9 +109,6 @@ public class ParameterSpaceScatterchart extends Scatterchart
 	        // Redraw scatterchart.
 	        scatterchart.layout();
 	        scatterchart.applyCss();
-	        
-	        // Add mouse listeners.
-	//        addMouseListenersToMDSScatterchart();
 		}
 		
 		// Otherwise: Draw heatmap.
@@ -160,32 +142,11 @@ public class ParameterSpaceScatterchart extends Scatterchart
         // Mark reference TM.
         markReferenceTM();
         
-        // Init hover event listeners.
-        initHoverEventListeners();
-        
         // Lower opacity for all data points.
         removeHoverHighlighting();
 	}
 	
 	
-	/**
-	 * Adds mouse event listeners handling single-point requests.
-	 * @todo Adapt to new selection handling method.
-	 */
-	private void addMouseListenersToScatterchart()
-	{
-        // @todo Add single choice mouse event listeners to points in all data series.
-		
-//        for (XYChart.Data<Number, Number> dataPoint : inactiveDataSeries.getData()) {
-//        	addSingleSelectionModeMouseListenerToNode(dataPoint, DataPointState.INACTIVE);
-//        }
-//		
-//		// Add mouse listeners for selected data points.
-//        for (XYChart.Data<Number, Number> dataPoint : activeDataSeries.getData()) {
-//        	addSingleSelectionModeMouseListenerToNode(dataPoint, DataPointState.ACTIVE);
-//        }
-	}
-	
 	/**
 	 * Updates x- and y-range of the MDS scatterchart.
 	 * @param inactiveCoordinates
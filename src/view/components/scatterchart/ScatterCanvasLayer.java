@@ -0,0 +1,764 @@
+package view.components.scatterchart;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.event.EventHandler;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.ScatterChart;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import view.components.VisualizationComponent;
+import view.components.spatialIndex.PointGrid;
+import view.components.spatialIndex.RectangleSelectionTracker;
+
+/**
+ * Draws the points of a scatterchart on a canvas laid over the chart, instead of using one chart node
+ * (with its own listeners) per data point. The chart itself only provides axes, grid lines and legend.
+ * Points are kept in flat arrays and indexed by a {@link PointGrid} in data coordinates, which is used for
+ * hit-testing (hover, click) and rectangle queries (rubber band selection).
+ * Changes of state or highlighting only redraw the canvas tiles covered by the affected points; redraws are
+ * coalesced and executed once per batch of changes on the FX application thread.
+ * @author RM
+ *
+ */
+public class ScatterCanvasLayer
+{
+	/**
+	 * Radius of point symbols in px.
+	 */
+	private static final double POINT_RADIUS				= 4;
+	/**
+	 * Scale factor for symbol of reference point.
+	 */
+	private static final double REFERENCE_SCALE_FACTOR		= 2.5;
+	/**
+	 * Extent of glow around reference and marked points in px.
+	 */
+	private static final double GLOW_EXTENT				= 12;
+	/**
+	 * Maximal distance between cursor and point center in px for hit-testing.
+	 */
+	private static final double PICKING_RADIUS				= 5;
+	/**
+	 * Edge length of tiles used for tracking dirty regions in px.
+	 */
+	private static final int TILE_SIZE						= 64;
+	/**
+	 * Maximal width and height of canvas in px. Larger (zoomed) charts are drawn partially.
+	 */
+	private static final double MAX_CANVAS_EXTENT			= 8192;
+	
+	private static final Color DISCARDED_COLOR				= Color.LIGHTGREY;
+	private static final Color INACTIVE_COLOR				= Color.DARKGREY;
+	private static final Color ACTIVE_COLOR					= Color.BLUE;
+	
+	/*
+	 * GUI elements.
+	 */
+	
+	private ScatterChart<Number, Number> chart;
+	private NumberAxis xAxis;
+	private NumberAxis yAxis;
+	private Canvas canvas;
+	
+	private IScatterCanvasLayerListener listener;
+	
+	/*
+	 * Data.
+	 */
+	
+	private int size;
+	private double[] x;
+	private double[] y;
+	/**
+	 * Data point IDs (indices or configuration IDs, depending on component).
+	 */
+	private int[] ids;
+	private DataPointState[] states;
+	/**
+	 * Position of point in arrays by data point ID.
+	 */
+	private Map<Integer, Integer> pointsByID;
+	/**
+	 * Number of points per state (by ordinal).
+	 */
+	private int[] stateCounts;
+	private PointGrid grid;
+	/**
+	 * Points within current rubber band selection.
+	 */
+	private RectangleSelectionTracker selectionTracker;
+	
+	/**
+	 * Points drawn with full opacity.
+	 */
+	private BitSet highlightedPoints;
+	/**
+	 * Point drawn enlarged and with glow. -1, if none.
+	 */
+	private int referencePoint;
+	/**
+	 * Point drawn with red glow. -1, if none.
+	 */
+	private int markedPoint;
+	/**
+	 * Point currently under cursor. -1, if none.
+	 */
+	private int hoveredPoint;
+	
+	private DropShadow referenceGlow;
+	private DropShadow markedGlow;
+	
+	/*
+	 * Transformation from data to canvas coordinates.
+	 */
+	
+	private double scaleX;
+	private double translateX;
+	private double scaleY;
+	private double translateY;
+	
+	/*
+	 * Redraw state.
+	 */
+	
+	private int tileColumns;
+	private int tileRows;
+	private boolean[] dirtyTiles;
+	private int numberOfDirtyTiles;
+	private boolean isFullRedrawRequired;
+	private boolean isRedrawScheduled;
+	/**
+	 * Default opacity used for last full redraw.
+	 */
+	private double drawnOpacity;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	/**
+	 * Creates canvas and adds it to the chart's parent pane, directly above the chart.
+	 * @param chart Has to use number axes and to be a child of a pane.
+	 * @param listener
+	 */
+	public ScatterCanvasLayer(final ScatterChart<Number, Number> chart, final IScatterCanvasLayerListener listener)
+	{
+		this.chart				= chart;
+		this.xAxis				= (NumberAxis) chart.getXAxis();
+		this.yAxis				= (NumberAxis) chart.getYAxis();
+		this.listener			= listener;
+		
+		this.size				= 0;
+		this.x					= new double[0];
+		this.y					= new double[0];
+		this.ids				= new int[0];
+		this.states				= new DataPointState[0];
+		this.pointsByID			= new HashMap<Integer, Integer>();
+		this.stateCounts		= new int[DataPointState.values().length];
+		this.grid				= new PointGrid(x, y, 0);
+		this.selectionTracker	= new RectangleSelectionTracker(grid);
+		this.highlightedPoints	= new BitSet();
+		this.referencePoint		= -1;
+		this.markedPoint		= -1;
+		this.hoveredPoint		= -1;
+		this.dirtyTiles			= new boolean[0];
+		this.isFullRedrawRequired	= true;
+		
+		initGlowEffects();
+		initCanvas();
+		initListeners();
+	}
+	
+	private void initGlowEffects()
+	{
+		final int depth = 20;
+		
+		referenceGlow = new DropShadow();
+		referenceGlow.setOffsetX(0f);
+		referenceGlow.setOffsetY(0f);
+		referenceGlow.setRadius(50);
+		referenceGlow.setWidth(depth);
+		referenceGlow.setHeight(depth);
+		
+		markedGlow = new DropShadow();
+		markedGlow.setOffsetX(0f);
+		markedGlow.setOffsetY(0f);
+		markedGlow.setRadius(5);
+		markedGlow.setColor(Color.RED);
+		markedGlow.setWidth(depth);
+		markedGlow.setHeight(depth);
+	}
+	
+	private void initCanvas()
+	{
+		canvas = new Canvas();
+		// Mouse events are handled by the chart, so that rubber band selection and zoom keep working.
+		canvas.setMouseTransparent(true);
+		canvas.setManaged(false);
+		
+		Pane parent = (Pane) chart.getParent();
+		parent.getChildren().add(parent.getChildren().indexOf(chart) + 1, canvas);
+	}
+	
+	/**
+	 * Redraws completely on changes of chart position, size or axis ranges; forwards mouse interactions with points to listener.
+	 */
+	private void initListeners()
+	{
+		ChangeListener<Object> layoutListener = new ChangeListener<Object>() {
+			@Override
+			public void changed(ObservableValue<? extends Object> observable, Object oldValue, Object newValue)
+			{
+				requestFullRedraw();
+			}
+		};
+		
+		chart.boundsInParentProperty().addListener(layoutListener);
+		xAxis.boundsInParentProperty().addListener(layoutListener);
+		yAxis.boundsInParentProperty().addListener(layoutListener);
+		xAxis.lowerBoundProperty().addListener(layoutListener);
+		xAxis.upperBoundProperty().addListener(layoutListener);
+		yAxis.lowerBoundProperty().addListener(layoutListener);
+		yAxis.upperBoundProperty().addListener(layoutListener);
+		
+		chart.addEventHandler(MouseEvent.MOUSE_MOVED, new EventHandler<MouseEvent>() {
+			@Override
+			public void handle(MouseEvent event)
+			{
+				updateHoveredPoint(pick(event.getSceneX(), event.getSceneY()));
+			}
+		});
+		
+		chart.addEventHandler(MouseEvent.MOUSE_EXITED, new EventHandler<MouseEvent>() {
+			@Override
+			public void handle(MouseEvent event)
+			{
+				updateHoveredPoint(-1);
+			}
+		});
+		
+		chart.addEventHandler(MouseEvent.MOUSE_CLICKED, new EventHandler<MouseEvent>() {
+			@Override
+			public void handle(MouseEvent event)
+			{
+				if (event.isStillSincePress()) {
+					final int point = pick(event.getSceneX(), event.getSceneY());
+					if (point >= 0)
+						listener.processPointClicked(point, event);
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Replaces all points. Highlighting, reference and marked point are reset.
+	 * @param x Must not be modified afterwards.
+	 * @param y Must not be modified afterwards.
+	 * @param ids Must not be modified afterwards.
+	 * @param states Must not be modified afterwards.
+	 * @param size Number of points (arrays may be larger).
+	 */
+	public void setData(final double[] x, final double[] y, final int[] ids, final DataPointState[] states, final int size)
+	{
+		this.size	= size;
+		this.x		= x;
+		this.y		= y;
+		this.ids	= ids;
+		this.states	= states;
+		
+		pointsByID = new HashMap<Integer, Integer>(size * 2);
+		stateCounts = new int[DataPointState.values().length];
+		for (int i = 0; i < size; i++) {
+			pointsByID.put(ids[i], i);
+			stateCounts[states[i].ordinal()]++;
+		}
+		
+		grid				= new PointGrid(x, y, size);
+		selectionTracker	= new RectangleSelectionTracker(grid);
+		
+		highlightedPoints.clear();
+		referencePoint	= -1;
+		markedPoint		= -1;
+		hoveredPoint	= -1;
+		
+		requestFullRedraw();
+	}
+	
+	/**
+	 * @return Number of points.
+	 */
+	public int size()
+	{
+		return size;
+	}
+	
+	/**
+	 * @param id
+	 * @return Point with this data point ID or -1, if not available.
+	 */
+	public int indexOf(final int id)
+	{
+		Integer point = pointsByID.get(id);
+		
+		return point != null ? point : -1;
+	}
+	
+	/**
+	 * @param point
+	 * @return Data point ID of point.
+	 */
+	public int getID(final int point)
+	{
+		return ids[point];
+	}
+	
+	public DataPointState getState(final int point)
+	{
+		return states[point];
+	}
+	
+	/**
+	 * @param state
+	 * @return Number of points in this state.
+	 */
+	public int getNumberOfPoints(final DataPointState state)
+	{
+		return stateCounts[state.ordinal()];
+	}
+	
+	public void setState(final int point, final DataPointState state)
+	{
+		if (states[point] == state)
+			return;
+		
+		stateCounts[states[point].ordinal()]--;
+		stateCounts[state.ordinal()]++;
+		states[point] = state;
+		
+		markDirty(point);
+	}
+	
+	/**
+	 * Draws point with full instead of default opacity.
+	 * @param point
+	 */
+	public void highlight(final int point)
+	{
+		if (!highlightedPoints.get(point)) {
+			highlightedPoints.set(point);
+			markDirty(point);
+		}
+	}
+	
+	/**
+	 * Draws all points with default opacity again.
+	 */
+	public void removeHighlighting()
+	{
+		// Default opacity may have been changed in the meantime.
+		if (drawnOpacity != VisualizationComponent.DEFAULT_OPACITY_FACTOR)
+			requestFullRedraw();
+		
+		for (int point = highlightedPoints.nextSetBit(0); point >= 0; point = highlightedPoints.nextSetBit(point + 1)) {
+			markDirty(point);
+		}
+		
+		highlightedPoints.clear();
+	}
+	
+	/**
+	 * @param point Point to draw enlarged and with glow; -1 for none.
+	 */
+	public void setReferencePoint(final int point)
+	{
+		if (point == referencePoint)
+			return;
+		
+		markDirty(referencePoint);
+		referencePoint = point;
+		markDirty(referencePoint);
+	}
+	
+	/**
+	 * @param point Point to draw with red glow; -1 for none.
+	 */
+	public void setMarkedPoint(final int point)
+	{
+		if (point == markedPoint)
+			return;
+		
+		markDirty(markedPoint);
+		markedPoint = point;
+		markDirty(markedPoint);
+	}
+	
+	/**
+	 * Shows or hides points. Hidden points can't be hovered over or clicked.
+	 * @param isVisible
+	 */
+	public void setVisible(final boolean isVisible)
+	{
+		canvas.setVisible(isVisible);
+		
+		if (isVisible)
+			requestFullRedraw();
+		else
+			updateHoveredPoint(-1);
+	}
+	
+	/**
+	 * Moves selection rectangle. Points whose center entered or left the rectangle since the last call are available via the returned tracker.
+	 * @param minX
+	 * @param minY
+	 * @param maxX
+	 * @param maxY
+	 * @return Tracker of points within selection rectangle (in coordinates of the chart's parent pane).
+	 */
+	public RectangleSelectionTracker updateSelectionRectangle(final double minX, final double minY, final double maxX, final double maxY)
+	{
+		final Point2D min			= canvas.parentToLocal(minX, minY);
+		final Point2D max			= canvas.parentToLocal(maxX, maxY);
+		final double[] rectangle	= toDataRectangle(min.getX(), min.getY(), max.getX(), max.getY());
+		
+		selectionTracker.update(rectangle[0], rectangle[1], rectangle[2], rectangle[3]);
+		
+		return selectionTracker;
+	}
+	
+	/**
+	 * Discards selection rectangle after selection has been finished.
+	 */
+	public void resetSelectionRectangle()
+	{
+		selectionTracker.reset();
+	}
+	
+	/**
+	 * @param minX
+	 * @param minY
+	 * @param maxX
+	 * @param maxY
+	 * @return Points with center within this rectangle (in canvas coordinates).
+	 */
+	private int[] queryCanvasRectangle(final double minX, final double minY, final double maxX, final double maxY)
+	{
+		final double[] rectangle = toDataRectangle(minX, minY, maxX, maxY);
+		
+		return grid.query(rectangle[0], rectangle[1], rectangle[2], rectangle[3]);
+	}
+	
+	/**
+	 * @param minX
+	 * @param minY
+	 * @param maxX
+	 * @param maxY
+	 * @return Rectangle in canvas coordinates converted to data coordinates as [minX, minY, maxX, maxY].
+	 */
+	private double[] toDataRectangle(final double minX, final double minY, final double maxX, final double maxY)
+	{
+		// Degenerated axis range: All points are drawn at the same position.
+		if (scaleX == 0 || scaleY == 0)
+			return new double[] {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+		
+		final double dataX1 = (minX - translateX) / scaleX;
+		final double dataX2 = (maxX - translateX) / scaleX;
+		final double dataY1 = (minY - translateY) / scaleY;
+		final double dataY2 = (maxY - translateY) / scaleY;
+		
+		return new double[] {Math.min(dataX1, dataX2), Math.min(dataY1, dataY2), Math.max(dataX1, dataX2), Math.max(dataY1, dataY2)};
+	}
+	
+	/**
+	 * @param sceneX
+	 * @param sceneY
+	 * @return Point closest to this position within picking radius or -1, if none. Ties are resolved in favour of points drawn on top.
+	 */
+	private int pick(final double sceneX, final double sceneY)
+	{
+		if (size == 0 || !canvas.isVisible())
+			return -1;
+		
+		final Point2D position	= canvas.sceneToLocal(sceneX, sceneY);
+		final int[] candidates	= queryCanvasRectangle(	position.getX() - PICKING_RADIUS, position.getY() - PICKING_RADIUS,
+														position.getX() + PICKING_RADIUS, position.getY() + PICKING_RADIUS);
+		
+		int closestPoint		= -1;
+		double closestDistance	= PICKING_RADIUS * PICKING_RADIUS;
+		for (int point : candidates) {
+			final double dx			= toCanvasX(x[point]) - position.getX();
+			final double dy			= toCanvasY(y[point]) - position.getY();
+			final double distance	= dx * dx + dy * dy;
+			
+			if (distance < closestDistance || (distance == closestDistance && closestPoint >= 0 && states[point].ordinal() > states[closestPoint].ordinal())) {
+				closestPoint	= point;
+				closestDistance	= distance;
+			}
+		}
+		
+		return closestPoint;
+	}
+	
+	private void updateHoveredPoint(final int point)
+	{
+		if (point == hoveredPoint)
+			return;
+		
+		final int previouslyHoveredPoint = hoveredPoint;
+		hoveredPoint = point;
+		
+		if (previouslyHoveredPoint >= 0)
+			listener.processPointExited(previouslyHoveredPoint);
+		if (point >= 0)
+			listener.processPointEntered(point);
+	}
+	
+	private double toCanvasX(final double value)
+	{
+		return translateX + scaleX * value;
+	}
+	
+	private double toCanvasY(final double value)
+	{
+		return translateY + scaleY * value;
+	}
+	
+	// -----------------------------------------------
+	// 					Rendering
+	// -----------------------------------------------
+	
+	/**
+	 * Marks tiles covered by this point's symbol as dirty and schedules redraw.
+	 * @param point Ignored, if -1.
+	 */
+	private void markDirty(final int point)
+	{
+		if (point < 0 || point >= size)
+			return;
+		
+		if (!isFullRedrawRequired) {
+			final double extent	= (point == referencePoint || point == markedPoint ? POINT_RADIUS * REFERENCE_SCALE_FACTOR + GLOW_EXTENT : POINT_RADIUS) + 1;
+			final double canvasX	= toCanvasX(x[point]);
+			final double canvasY	= toCanvasY(y[point]);
+			
+			final int firstColumn	= Math.max(0, (int)Math.floor((canvasX - extent) / TILE_SIZE));
+			final int lastColumn	= Math.min(tileColumns - 1, (int)Math.floor((canvasX + extent) / TILE_SIZE));
+			final int firstRow		= Math.max(0, (int)Math.floor((canvasY - extent) / TILE_SIZE));
+			final int lastRow		= Math.min(tileRows - 1, (int)Math.floor((canvasY + extent) / TILE_SIZE));
+			
+			for (int row = firstRow; row <= lastRow; row++) {
+				for (int column = firstColumn; column <= lastColumn; column++) {
+					if (!dirtyTiles[row * tileColumns + column]) {
+						dirtyTiles[row * tileColumns + column] = true;
+						numberOfDirtyTiles++;
+					}
+				}
+			}
+			
+			// Redrawing most of the tiles separately is more expensive than one full redraw.
+			if (numberOfDirtyTiles > dirtyTiles.length / 2)
+				isFullRedrawRequired = true;
+		}
+		
+		scheduleRedraw();
+	}
+	
+	private void requestFullRedraw()
+	{
+		isFullRedrawRequired = true;
+		scheduleRedraw();
+	}
+	
+	/**
+	 * Schedules one redraw for all changes made until then.
+	 */
+	private void scheduleRedraw()
+	{
+		if (isRedrawScheduled)
+			return;
+		
+		isRedrawScheduled = true;
+		Platform.runLater(new Runnable() {
+			@Override
+			public void run()
+			{
+				redraw();
+			}
+		});
+	}
+	
+	private void redraw()
+	{
+		isRedrawScheduled = false;
+		
+		if (!canvas.isVisible())
+			return;
+		
+		if (isFullRedrawRequired || drawnOpacity != VisualizationComponent.DEFAULT_OPACITY_FACTOR)
+			redrawAll();
+		else if (numberOfDirtyTiles > 0)
+			redrawDirtyTiles();
+	}
+	
+	/**
+	 * Adapts canvas to chart bounds, updates transformation and draws all points.
+	 */
+	private void redrawAll()
+	{
+		updateCanvasBounds();
+		updateTransformation();
+		
+		GraphicsContext gc = canvas.getGraphicsContext2D();
+		gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+		drawnOpacity = VisualizationComponent.DEFAULT_OPACITY_FACTOR;
+		
+		drawPoints(gc, null);
+		drawSpecialPoints(gc);
+		gc.setGlobalAlpha(1);
+		
+		isFullRedrawRequired	= false;
+		numberOfDirtyTiles		= 0;
+	}
+	
+	/**
+	 * Clears and redraws dirty tiles only, each clipped to its bounds.
+	 */
+	private void redrawDirtyTiles()
+	{
+		GraphicsContext gc = canvas.getGraphicsContext2D();
+		// Points whose symbol overlaps a tile.
+		final double margin = POINT_RADIUS + 1;
+		
+		for (int tile = 0; tile < dirtyTiles.length; tile++) {
+			if (!dirtyTiles[tile])
+				continue;
+			
+			final double tileX = (tile % tileColumns) * TILE_SIZE;
+			final double tileY = (tile / tileColumns) * TILE_SIZE;
+			
+			gc.save();
+			gc.beginPath();
+			gc.rect(tileX, tileY, TILE_SIZE, TILE_SIZE);
+			gc.clip();
+			gc.clearRect(tileX, tileY, TILE_SIZE, TILE_SIZE);
+			
+			drawPoints(gc, queryCanvasRectangle(tileX - margin, tileY - margin, tileX + TILE_SIZE + margin, tileY + TILE_SIZE + margin));
+			drawSpecialPoints(gc);
+			
+			gc.restore();
+			dirtyTiles[tile] = false;
+		}
+		
+		gc.setGlobalAlpha(1);
+		numberOfDirtyTiles = 0;
+	}
+	
+	private void updateCanvasBounds()
+	{
+		final Bounds chartBounds = chart.getBoundsInParent();
+		
+		canvas.setLayoutX(chartBounds.getMinX());
+		canvas.setLayoutY(chartBounds.getMinY());
+		canvas.setWidth(Math.min(chart.getWidth(), MAX_CANVAS_EXTENT));
+		canvas.setHeight(Math.min(chart.getHeight(), MAX_CANVAS_EXTENT));
+		
+		tileColumns	= (int)Math.ceil(canvas.getWidth() / TILE_SIZE);
+		tileRows	= (int)Math.ceil(canvas.getHeight() / TILE_SIZE);
+		dirtyTiles	= new boolean[tileColumns * tileRows];
+	}
+	
+	/**
+	 * Derives transformation from data to canvas coordinates from axis positions and ranges (both axes are linear).
+	 */
+	private void updateTransformation()
+	{
+		final Point2D xAxisOrigin	= canvas.sceneToLocal(xAxis.localToScene(0, 0));
+		final Point2D yAxisOrigin	= canvas.sceneToLocal(yAxis.localToScene(0, 0));
+		final double xRange			= xAxis.getUpperBound() - xAxis.getLowerBound();
+		final double yRange			= yAxis.getUpperBound() - yAxis.getLowerBound();
+		
+		scaleX		= xRange != 0 ? xAxis.getWidth() / xRange : 0;
+		translateX	= xAxisOrigin.getX() - xAxis.getLowerBound() * scaleX;
+		// Vertical axis: Lower bound at bottom.
+		scaleY		= yRange != 0 ? -yAxis.getHeight() / yRange : 0;
+		translateY	= yAxisOrigin.getY() + yAxis.getHeight() - yAxis.getLowerBound() * scaleY;
+	}
+	
+	/**
+	 * Draws regular points ordered by state (discarded, inactive, active on top).
+	 * @param gc
+	 * @param points Points to draw; all, if null.
+	 */
+	private void drawPoints(final GraphicsContext gc, final int[] points)
+	{
+		final int count = points != null ? points.length : size;
+		
+		for (DataPointState state : DataPointState.values()) {
+			for (int i = 0; i < count; i++) {
+				final int point = points != null ? points[i] : i;
+				
+				if (states[point] == state && point != referencePoint && point != markedPoint)
+					drawPoint(gc, point, POINT_RADIUS);
+			}
+		}
+	}
+	
+	/**
+	 * Draws reference and marked point on top of all other points.
+	 * @param gc
+	 */
+	private void drawSpecialPoints(final GraphicsContext gc)
+	{
+		if (referencePoint >= 0) {
+			referenceGlow.setColor(states[referencePoint] == DataPointState.ACTIVE ? Color.BLUE : Color.GREY);
+			gc.setEffect(referenceGlow);
+			drawPoint(gc, referencePoint, POINT_RADIUS * REFERENCE_SCALE_FACTOR);
+			gc.setEffect(null);
+		}
+		
+		if (markedPoint >= 0 && markedPoint != referencePoint) {
+			gc.setEffect(markedGlow);
+			drawPoint(gc, markedPoint, POINT_RADIUS);
+			gc.setEffect(null);
+		}
+	}
+	
+	private void drawPoint(final GraphicsContext gc, final int point, final double radius)
+	{
+		final double canvasX = toCanvasX(x[point]);
+		final double canvasY = toCanvasY(y[point]);
+		
+		gc.setGlobalAlpha(highlightedPoints.get(point) ? 1 : drawnOpacity);
+		
+		switch (states[point])
+		{
+			// Hollow circle.
+			case DISCARDED:
+				gc.setStroke(DISCARDED_COLOR);
+				gc.setLineWidth(radius / 2);
+				gc.strokeOval(canvasX - radius * 0.75, canvasY - radius * 0.75, radius * 1.5, radius * 1.5);
+			break;
+			
+			case INACTIVE:
+				gc.setFill(INACTIVE_COLOR);
+				gc.fillOval(canvasX - radius, canvasY - radius, radius * 2, radius * 2);
+			break;
+			
+			case ACTIVE:
+				gc.setFill(ACTIVE_COLOR);
+				gc.fillOval(canvasX - radius, canvasY - radius, radius * 2, radius * 2);
+			break;
+		}
+	}
+}
@@ -1,7 +1,6 @@
 package view.components.scatterchart;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -18,13 +17,11 @@ import javafx.fxml.FXML;
 import javafx.scene.Node;
 import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.ScatterChart;
-import javafx.scene.chart.XYChart;
 import javafx.scene.chart.XYChart.Series;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextArea;
-import javafx.scene.effect.DropShadow;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
@@ -37,8 +34,8 @@ import view.components.VisualizationComponent;
 import view.components.VisualizationComponentType;
 import view.components.heatmap.HeatmapOptionset;
 import view.components.heatmap.NumericalHeatmap;
-import view.components.legacy.mdsScatterchart.DataPointState;
 import view.components.rubberbandselection.RubberBandSelection;
+import view.components.spatialIndex.RectangleSelectionTracker;
 
 @SuppressWarnings("restriction")
 public abstract class Scatterchart extends VisualizationComponent
@@ -62,6 +59,11 @@ public abstract class Scatterchart extends VisualizationComponent
 	protected @FXML NumberAxis xAxis_numberaxis;
 	protected @FXML NumberAxis yAxis_numberaxis;
 	
+	/**
+	 * Canvas layer drawing data points on top of scatterchart.
+	 */
+	protected ScatterCanvasLayer scatterLayer;
+	
 	/**
 	 * Density heatmap. Used as overlay when requested; not shown otherwise.
 	 */
@@ -104,30 +106,30 @@ public abstract class Scatterchart extends VisualizationComponent
 	protected boolean changeInSelectionDetected_localScope;
 	
 	/**
-	 * Map storing all active chart points as values; their respective indices as keys.
+	 * Set storing configuration IDs of all active chart points.
 	 * Used to track changes over time when user manipulates the current selection.
 	 */
-	protected Map<Integer, XYChart.Data<Number, Number>> activePoints;
+	protected Set<Integer> activePoints;
 	/**
-	 * Map storing all chart points whose status was changed as values; their respective indices as keys.
+	 * Set storing configuration IDs of chart points whose status was changed.
 	 * Used to track changes over time when user manipulates the current selection.
 	 */
-	protected Map<Integer, XYChart.Data<Number, Number>> inactivePoints;
+	protected Set<Integer> inactivePoints;
 	
 	/*
 	 * Data series for scatterchart.
 	 */
 	
 	/**
-	 * Data series holding all discarded data points.
+	 * Data series for discarded data points. Empty, only used for legend.
 	 */
 	protected Series<Number, Number> discardedDataSeries;
 	/**
-	 * Data series holding all filtered data points.
+	 * Data series for filtered data points. Empty, only used for legend.
 	 */
 	protected Series<Number, Number> inactiveDataSeries;
 	/**
-	 * Data series holding all selected data points.
+	 * Data series for selected data points. Empty, only used for legend.
 	 */
 	protected Series<Number, Number> activeDataSeries;
 	
@@ -171,6 +173,9 @@ public abstract class Scatterchart extends VisualizationComponent
 		// Initialize data series.
 		initDataSeries();
 		
+		// Initialize canvas layer for data points.
+		initScatterLayer();
+		
 		// Initialize selection.
 		initSelection();
 		
@@ -206,8 +211,42 @@ public abstract class Scatterchart extends VisualizationComponent
 		inactiveDataSeries.setName("Inactive");
 		activeDataSeries.setName("Active");
 		
-		activePoints							= new HashMap<Integer, XYChart.Data<Number, Number>>();
-		inactivePoints							= new HashMap<Integer, XYChart.Data<Number, Number>>();
+		activePoints							= new HashSet<Integer>();
+		inactivePoints							= new HashSet<Integer>();
+	}
+	
+	/**
+	 * Initializes canvas layer drawing the data points. Handles hover and single selection mode.
+	 */
+	private void initScatterLayer()
+	{
+		scatterLayer = new ScatterCanvasLayer(scatterchart, new IScatterCanvasLayerListener() {
+			@Override
+			public void processPointEntered(int point)
+			{
+	        	// Highlight data point.
+	        	highlightHoveredOverDataPoint(scatterLayer.getID(point), DatapointIDMode.CONFIG_ID);
+	        	
+	        	// Notify AnalysisController about hover action.
+	        	analysisController.highlightDataPoints(scatterLayer.getID(point), DatapointIDMode.CONFIG_ID, VisualizationComponentType.PARAMSPACE_SCATTERCHART);
+			}
+			
+			@Override
+			public void processPointExited(int point)
+			{
+		    	// Remove highlighting.
+	        	removeHoverHighlighting();
+	        	
+	        	// Notify AnalysisController about end of hover action.
+	        	analysisController.removeHighlighting(VisualizationComponentType.PARAMSPACE_SCATTERCHART);
+			}
+			
+			@Override
+			public void processPointClicked(int point, MouseEvent event)
+			{
+				processSingleSelection(point, event.isControlDown());
+			}
+		});
 	}
 
 	/**
@@ -377,247 +416,87 @@ public abstract class Scatterchart extends VisualizationComponent
 		return extrema;
 	}
 	
-	/**
-	 * Checks if node is positioned within specified bounds.
-	 * @param node
-	 * @param minX
-	 * @param minY
-	 * @param maxX
-	 * @param maxY
-	 * @return
-	 */
-	protected boolean isNodeWithinBounds(Node node, double minX, double minY, double maxX, double maxY)
-	{
-		boolean nodeXWithinBounds = node.getLayoutX() <= maxX && node.getLayoutX() >= minX;
-		boolean nodeYWithinBounds = node.getLayoutY() <= maxY && node.getLayoutY() >= minY;
-		
-		return nodeXWithinBounds && nodeYWithinBounds;
-	}
-	
 	@Override
 	public void processSelectionManipulationRequest(double minX, double minY, double maxX, double maxY)
 	{
-		// Set of data points to add to selection. 
-		Set<XYChart.Data<Number, Number>> pointsToAddToSelection		= new HashSet<XYChart.Data<Number,Number>>();
-		// Set of data points to remove from selection.
-		Set<XYChart.Data<Number, Number>> pointsToRemoveFromSelection	= new HashSet<XYChart.Data<Number,Number>>();
-		
-		// If control is not down: Ignore selected points, add all non-selected in chosen area.
-		//if (!isCtrlDown) {
-			// Iterate over all filtered points.
-			for (XYChart.Data<Number, Number> datapoint : inactiveDataSeries.getData()) {
-				
-				// Point was selected - add to sets of selected indices and selected points.
-				if (	isNodeWithinBounds(datapoint.getNode(), minX, minY, maxX, maxY) &&
-						!activePoints.containsKey((int)datapoint.getExtraValue())
-					) {
-					// Set dirty flags.
-					changeInSelectionDetected				= true;
-					changeInSelectionDetected_localScope	= true;
-					
-					// Update collection of selected points.
-					activePoints.put((int)datapoint.getExtraValue(), datapoint);
-					inactivePoints.remove((int)datapoint.getExtraValue());
-					
-					// Update set of values added to selection in this action.
-					pointsToAddToSelection.add(datapoint);
-					
-					// Mark data point as manipulated in this step.
-					pointsManipulatedInCurrSelectionStep.add((int) datapoint.getExtraValue());
-				}
-			}
-
-			// Iterate over all selected points.
-			for (XYChart.Data<Number, Number> datapoint : activeDataSeries.getData()) {
-				if (	!isNodeWithinBounds(datapoint.getNode(), minX, minY, maxX, maxY) 	&&
-						activePoints.containsKey((int)datapoint.getExtraValue())			&&
-						pointsManipulatedInCurrSelectionStep.contains((int) datapoint.getExtraValue())
-					) {
-					// Set dirty flags.
-					changeInSelectionDetected				= true;
-					changeInSelectionDetected_localScope	= true;
-					
-					// Update collection of selected points.
-					activePoints.remove((int)datapoint.getExtraValue());
-					
-					// Update set of values removed from selection in this action.
-					pointsToRemoveFromSelection.add(datapoint);
-				}
-			}
-//		}
-//		
-//		// Else if control is down: Remove selected points in chose area from selection (in data series 0).
-//		else {
-//			// Iterate over selected points.
-//			for (XYChart.Data<Number, Number> datapoint : activeDataSeries.getData()) {
-//				// Point was deselected - remove from of selected points and selected indices.
-//				if (isNodeWithinBounds(datapoint.getNode(), minX, minY, maxX, maxY) &&
-//					activePoints.containsKey((int)datapoint.getExtraValue())
-//				) {
-//					// Set dirty flags.
-//					changeInSelectionDetected				= true;
-//					changeInSelectionDetected_localScope	= true;
-//					
-//					// Update collection of selected points.
-//					inactivePoints.put((int)datapoint.getExtraValue(), datapoint);
-//					activePoints.remove((int)datapoint.getExtraValue());
-//					
-//					// Update set of values removed from selection in this action.
-//					pointsToRemoveFromSelection.add(datapoint);			
-//					
-//					// Mark data point as manipulated in this step.
-//					pointsManipulatedInCurrSelectionStep.add((int) datapoint.getExtraValue());
-//				}
-//			}
-//			
-//			// Iterate over all filtered points.
-//			for (XYChart.Data<Number, Number> datapoint : inactiveDataSeries.getData()) {
-//				// Point was deselected - remove from of selected points and selected indices.
-//				if (!isNodeWithinBounds(datapoint.getNode(), minX, minY, maxX, maxY)	&&
-//					!activePoints.containsKey((int)datapoint.getExtraValue())			&&
-//					pointsManipulatedInCurrSelectionStep.contains((int) datapoint.getExtraValue())
-//				) {
-//					// Set dirty flags.
-//					changeInSelectionDetected				= true;
-//					changeInSelectionDetected_localScope	= true;
-//					
-//					// Update collection of selected points.
-//					activePoints.remove((int)datapoint.getExtraValue());
-//					inactivePoints.remove((int)datapoint.getExtraValue());
-//					
-//					// Update set of values removed from selection in this action.
-//					pointsToAddToSelection.add(datapoint);						
-//				}
-//			}
-//		}
-		
-		// Incorporate identified selection changes into data point's series associations.
-		if (changeInSelectionDetected) {
-			// Add newly selected data points to selection.
-			for (XYChart.Data<Number, Number> newlySelectedDataPoint : pointsToAddToSelection) {
-				// Change selection status.
-				changeDataPointSelectionStatus(newlySelectedDataPoint, true);
+		final RectangleSelectionTracker selection = scatterLayer.updateSelectionRectangle(minX, minY, maxX, maxY);
+		
+		// Add inactive points that entered selected area to selection.
+		for (int i = 0; i < selection.getNumberOfEnteredPoints(); i++) {
+			final int point = selection.getEnteredPoint(i);
+			
+			if (scatterLayer.getState(point) == DataPointState.INACTIVE) {
+				// Set dirty flags.
+				changeInSelectionDetected				= true;
+				changeInSelectionDetected_localScope	= true;
 				
 				// Update collection of selected points.
-				activePoints.put((int)newlySelectedDataPoint.getExtraValue(), newlySelectedDataPoint);
+				activePoints.add(scatterLayer.getID(point));
+				inactivePoints.remove(scatterLayer.getID(point));
+				scatterLayer.setState(point, DataPointState.ACTIVE);
+				
+				// Mark data point as manipulated in this step.
+				pointsManipulatedInCurrSelectionStep.add(scatterLayer.getID(point));
 			}
+		}
+		
+		// Remove points selected in this step, if they left selected area.
+		for (int i = 0; i < selection.getNumberOfLeftPoints(); i++) {
+			final int point = selection.getLeftPoint(i);
 			
-			// Remove newly de-selected data points to selection.
-			for (XYChart.Data<Number, Number> newlyDeselectedDataPoint : pointsToRemoveFromSelection) {
-				// Change selection status.
-				changeDataPointSelectionStatus(newlyDeselectedDataPoint, false);
-			}
+			final int configID	= scatterLayer.getID(point);
 			
+			if (scatterLayer.getState(point) == DataPointState.ACTIVE && pointsManipulatedInCurrSelectionStep.contains(configID)) {
+				// Set dirty flags.
+				changeInSelectionDetected				= true;
+				changeInSelectionDetected_localScope	= true;
+				
+				// Update collection of selected points.
+				activePoints.remove(configID);
+				scatterLayer.setState(point, DataPointState.INACTIVE);
+			}
+		}
+		
+		if (changeInSelectionDetected) {
     		// Reset flag.
     		changeInSelectionDetected = false;
     		
-    		// Clear set of active points.
-//    		pointsManipulatedInCurrSelectionStep.clear();
-//    		activePoints.clear();
-    		
     		// Update data series names with number of datasets.
     		updateLegendLabels();
 		}
 	}
 	
 	/**
-	 * Changes selection status of a point in filtered/selected data series.
-	 * @param data
-	 * @param selected Indicates that data point should be selected, if this is true.
+	 * Processes click on a data point in single selection mode: Inactive points are added to the selection, 
+	 * active points are removed from it if CTRL is down.
+	 * @param point
+	 * @param isControlDown
 	 */
-	private void changeDataPointSelectionStatus(XYChart.Data<Number, Number> data, boolean selected)
+	private void processSingleSelection(int point, boolean isControlDown)
 	{
-		// Copy data point in question.
-		XYChart.Data<Number, Number> dataCopy = new XYChart.Data<Number, Number>(data.getXValue(), data.getYValue());
-		dataCopy.setExtraValue(data.getExtraValue());
+		final int configID = scatterLayer.getID(point);
 		
-		if (selected) {
-			// Remove from filteredDataSeries.
-			inactiveDataSeries.getData().remove(data);
-			
-			// Add copy to selectedDataSeries.
-			if (!activeDataSeries.getData().contains(data)) {
-				activeDataSeries.getData().add(dataCopy);
-
-				// Add listener for single selection mode.
-	    		addSingleSelectionModeMouseListenerToNode(dataCopy, DataPointState.ACTIVE);
-			}
+		if (scatterLayer.getState(point) == DataPointState.INACTIVE && !isControlDown) {
+			activePoints.add(configID);
+			scatterLayer.setState(point, DataPointState.ACTIVE);
 		}
 		
-		else {
-			// Remove from selectedDataSeries.
-			activeDataSeries.getData().remove(data);
-			
-			// Add copy to filteredDataSeries.
-			if (!inactiveDataSeries.getData().contains(data)) {
-				inactiveDataSeries.getData().add(dataCopy);
-				
-				// Add listener for single selection mode.
-	    		addSingleSelectionModeMouseListenerToNode(dataCopy, DataPointState.INACTIVE);
-			}
+		else if (scatterLayer.getState(point) == DataPointState.ACTIVE && (isCtrlDown || isControlDown)) {
+			activePoints.remove(configID);
+			scatterLayer.setState(point, DataPointState.INACTIVE);
 		}
-	}
-	
-	
-	/**
-	 * Assigns mouse listener for single selection node to data point's node.
-	 * @param dataPoint
-	 */
-	private void addSingleSelectionModeMouseListenerToNode(XYChart.Data<Number, Number> dataPoint, DataPointState state)
-	{
-		switch (state)
-		{
-			case INACTIVE:
-				dataPoint.getNode().setOnMouseClicked(new EventHandler<MouseEvent>()
-				{
-				    @Override
-				    public void handle(MouseEvent mouseEvent)
-				    {       
-				    	// If control is not down: Add to selection.
-				    	if (!mouseEvent.isControlDown()) {
-					    	if (!activePoints.containsKey(dataPoint.getExtraValue())) {
-					    		// Update collection of selected points.
-								activePoints.put((int)dataPoint.getExtraValue(), dataPoint);
-
-								// Change data point selection status.
-								changeDataPointSelectionStatus(dataPoint, true);
-					    		
-								// Refresh other charts.
-								integrateIntoDataspace(isCtrlDown);
-					    	}
-				    	}
-				    	else
-				    		System.out.println("blub");
-				    }
-				});
-			break;
-			
-			case ACTIVE:
-	        	dataPoint.getNode().setOnMouseClicked(new EventHandler<MouseEvent>()
-    			{
-    			    @Override
-    			    public void handle(MouseEvent mouseEvent)
-    			    {       
-    			    	System.out.println("in event");
-    			    	// If control is down: Remove from selection.
-    			    	if (isCtrlDown || mouseEvent.isControlDown()) {
-				    		// Update collection of selected points.
-				    		activePoints.remove(dataPoint.getExtraValue());
-							
-							// Change data point selection status.
-							changeDataPointSelectionStatus(dataPoint, false);
-							
-							// Refresh other charts.
-							integrateIntoDataspace(isCtrlDown);
-    			    	}
-    			    }
-    			});
-			break;
-			
-			// Selection of discarded datapoints not supported.
-			case DISCARDED:
-			break;
+		
+		// Selection of discarded datapoints not supported.
+		else {
+			return;
 		}
+		
+		pointsManipulatedInCurrSelectionStep.add(configID);
+		updateLegendLabels();
+		
+		// Refresh other charts.
+		integrateIntoDataspace(isCtrlDown);
+		pointsManipulatedInCurrSelectionStep.clear();
 	}
 	
 	/**
@@ -654,12 +533,9 @@ public abstract class Scatterchart extends VisualizationComponent
 		// Mark reference topic model.
 		markReferenceTM();
 		
-		// Add event listeners to active and inactive data series (may contain new members).
-		initHoverEventListeners(activeDataSeries);
-		initHoverEventListeners(inactiveDataSeries);
-		
 		// Clear selection-step-dependent data collections.
 		pointsManipulatedInCurrSelectionStep.clear();
+		scatterLayer.resetSelectionRectangle();
 	}
 	
 	/**
@@ -673,12 +549,12 @@ public abstract class Scatterchart extends VisualizationComponent
 		
 		// If CTRL is down: Consider all currently selected datapoints.
 		if (inclusiveMode) {
-			selectedIndices.addAll(activePoints.keySet());
+			selectedIndices.addAll(activePoints);
 		}
 		// Otherwise: Consider only datapoints selected in the current step.
 		else {
 			selectedIndices.addAll(pointsManipulatedInCurrSelectionStep);
-			selectedIndices.retainAll(activePoints.keySet());
+			selectedIndices.retainAll(activePoints);
 		}
 		
 		// Integration selection.
@@ -730,71 +606,60 @@ public abstract class Scatterchart extends VisualizationComponent
 	}
 	
 	/**
-	 * Highlights reference topic model.
+	 * Highlights reference topic model, if it's active or inactive.
 	 */
 	protected void markReferenceTM()
 	{
-		XYChart.Data<Number, Number> referenceData 	= null;
-		boolean isActive							= false;
-		
-		for (XYChart.Data<Number, Number> data : activeDataSeries.getData()) {
-			if (LDAConfiguration.REFERENCE_TOPICMODEL_CONFIGID == (int) data.getExtraValue() ) {
-				referenceData 	= data;
-				isActive		= true; 
-				break;
-			}
-		}
-		for (XYChart.Data<Number, Number> data : inactiveDataSeries.getData()) {
-			if (LDAConfiguration.REFERENCE_TOPICMODEL_CONFIGID == (int) data.getExtraValue() ) {
-				referenceData 	= data;
-				isActive		= false;
-				break;
-			}
-		}
+		final int point = scatterLayer.indexOf(LDAConfiguration.REFERENCE_TOPICMODEL_CONFIGID);
 		
-		if (referenceData != null) {
-			 // Setting the uniform variable for the glow width and height
-			final int depth 			= 20;
-			final double scaleFactor	= 2.5;
-			Color color					= isActive ? Color.BLUE : Color.GREY;
-			
-			referenceData.getNode().setScaleX(scaleFactor);
-			referenceData.getNode().setScaleY(scaleFactor);
-			
-			DropShadow borderGlow = new DropShadow();
-			borderGlow.setOffsetY(0f);
-			borderGlow.setOffsetX(0f);
-			
-			borderGlow.setRadius(50);
-			borderGlow.setColor(color);
-			borderGlow.setWidth(depth);
-			borderGlow.setHeight(depth); 
-			
-			// Apply the borderGlow effect to the JavaFX node.
-			referenceData.getNode().setEffect(borderGlow);
-		}
+		scatterLayer.setReferencePoint(point >= 0 && scatterLayer.getState(point) != DataPointState.DISCARDED ? point : -1);
 	}
 
 	/**
-	 * Auxiliary method to add selected data points to an arbitrary data series in scatterchart. 
-	 * @param dataSeries
-	 * @param ldaConfigurations
+	 * Collects discarded, inactive and active data points (in this order) and hands them to the canvas layer.
 	 * @param xParam
 	 * @param yParam
-	 * @param isActive
 	 */
-	protected void addDataPoints(	XYChart.Series<Number, Number> dataSeries, ArrayList<LDAConfiguration> ldaConfigurations,
-									String xParam, String yParam, DataPointState state)
+	protected void updateScatterLayer(String xParam, String yParam)
 	{
-        // Add selected data points.
-        for (LDAConfiguration ldaConfig : ldaConfigurations) {
-    		XYChart.Data<Number, Number> dataPoint = new XYChart.Data<Number, Number>(ldaConfig.getParameter(xParam), ldaConfig.getParameter(yParam));
-        	dataPoint.setExtraValue(ldaConfig.getConfigurationID());
-        	
-        	dataSeries.getData().add(dataPoint);
-        	if (state == DataPointState.ACTIVE)
-        		activePoints.put(ldaConfig.getConfigurationID(), dataPoint);
-        }
+		final int capacity			= data.getDiscardedLDAConfigurations().size() + data.getInactiveLDAConfigurations().size() + data.getActiveLDAConfigurations().size();
+		double[] x					= new double[capacity];
+		double[] y					= new double[capacity];
+		int[] ids					= new int[capacity];
+		DataPointState[] states		= new DataPointState[capacity];
+		int size					= 0;
+		
+		Set<Integer> activeConfigIDs = new HashSet<Integer>();
+		for (LDAConfiguration ldaConfig : data.getActiveLDAConfigurations()) {
+			activeConfigIDs.add(ldaConfig.getConfigurationID());
+		}
+		
+		for (LDAConfiguration ldaConfig : data.getDiscardedLDAConfigurations()) {
+			x[size]			= ldaConfig.getParameter(xParam);
+			y[size]			= ldaConfig.getParameter(yParam);
+			ids[size]		= ldaConfig.getConfigurationID();
+			states[size++]	= DataPointState.DISCARDED;
+		}
+		
+		// Add inactive point only if it's not active.
+		for (LDAConfiguration ldaConfig : data.getInactiveLDAConfigurations()) {
+			if (!activeConfigIDs.contains(ldaConfig.getConfigurationID())) {
+				x[size]			= ldaConfig.getParameter(xParam);
+				y[size]			= ldaConfig.getParameter(yParam);
+				ids[size]		= ldaConfig.getConfigurationID();
+				states[size++]	= DataPointState.INACTIVE;
+			}
+		}
+		
+		for (LDAConfiguration ldaConfig : data.getActiveLDAConfigurations()) {
+			x[size]			= ldaConfig.getParameter(xParam);
+			y[size]			= ldaConfig.getParameter(yParam);
+			ids[size]		= ldaConfig.getConfigurationID();
+			states[size++]	= DataPointState.ACTIVE;
+			activePoints.add(ldaConfig.getConfigurationID());
+		}
+		
+		scatterLayer.setData(x, y, ids, states, size);
 	}
 	
 	/**
@@ -829,28 +694,22 @@ public abstract class Scatterchart extends VisualizationComponent
 		zoomContainer_scrollpane.setOnKeyReleased(scrollPaneKEHandler);
 	}
 	
+	/**
+	 * Hover is detected by canvas layer, no listeners on single nodes needed.
+	 */
 	@Override
 	public void initHoverEventListeners()
 	{
-		// Add hover event listener to all nodes.
-		if (scatterchart != null) {
-			for (XYChart.Series<Number, Number> dataSeries : scatterchart.getData()) {
-				for (XYChart.Data<Number, Number> dataPoint : dataSeries.getData()) {
-					addHoverEventListenersToNode(dataPoint);
-				}
-			}
-		}
 	}
 	
 	@Override
 	public void highlightHoveredOverDataPoints(Set<Integer> dataPointIDs, DatapointIDMode idMode)
 	{
 		if (idMode == DatapointIDMode.CONFIG_ID) {
-			for (XYChart.Series<Number, Number> dataSeries : scatterchart.getData()) {
-				for (XYChart.Data<Number, Number> dataPoint : dataSeries.getData()) {
-					if ( dataPointIDs.contains((int)dataPoint.getExtraValue()) )
-						dataPoint.getNode().setOpacity(1);
-				}
+			for (int dataPointID : dataPointIDs) {
+				final int point = scatterLayer.indexOf(dataPointID);
+				if (point >= 0)
+					scatterLayer.highlight(point);
 			}
 		}
 		
@@ -863,55 +722,6 @@ public abstract class Scatterchart extends VisualizationComponent
 	@Override
 	public void removeHoverHighlighting()
 	{
-		for (XYChart.Series<Number, Number> dataSeries : scatterchart.getData()) {
-			for (XYChart.Data<Number, Number> dataPoint : dataSeries.getData()) {
-				dataPoint.getNode().setOpacity(VisualizationComponent.DEFAULT_OPACITY_FACTOR);
-			}
-		}
-	}
-	
-	/**
-	 * Adds hover event listener to all relevant nodes.
-	 * @param dataSeries Adds listener only to specific series.
-	 */
-	private void initHoverEventListeners(XYChart.Series<Number, Number> dataSeries)
-	{
-		if (dataSeries != null) {
-			for (XYChart.Data<Number, Number> dataPoint : dataSeries.getData())
-				addHoverEventListenersToNode(dataPoint);
-		}
-	}
-	
-	/**
-	 * Add hover event listener to single node.
-	 * @param dataPoint
-	 */
-	private void addHoverEventListenersToNode(XYChart.Data<Number, Number> dataPoint)
-	{
-		dataPoint.getNode().setOnMouseEntered(new EventHandler<MouseEvent>()
-		{
-		    @Override
-		    public void handle(MouseEvent event)
-		    {       
-	        	// Highlight data point.
-	        	highlightHoveredOverDataPoint((int)dataPoint.getExtraValue(), DatapointIDMode.CONFIG_ID);
-	        	
-	        	// Notify AnalysisController about hover action.
-	        	analysisController.highlightDataPoints((int)dataPoint.getExtraValue(), DatapointIDMode.CONFIG_ID, VisualizationComponentType.PARAMSPACE_SCATTERCHART);
-		    }
-		});
-		
-		dataPoint.getNode().setOnMouseExited(new EventHandler<MouseEvent>()
-		{
-		    @Override
-		    public void handle(MouseEvent event)
-		    {       
-		    	// Remove highlighting.
-	        	removeHoverHighlighting();
-	        	
-	        	// Notify AnalysisController about end of hover action.
-	        	analysisController.removeHighlighting(VisualizationComponentType.PARAMSPACE_SCATTERCHART);
-		    }
-		});
+		scatterLayer.removeHighlighting();
 	}
-}
+}
\ No newline at end of file
@@ -0,0 +1,208 @@
+package view.components.spatialIndex;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid over a set of 2D points for rectangle queries.
+ * Cells are stored in compressed form: Point indices sorted by cell in one array, start offsets of cells in another.
+ * Built once per data refresh; query costs are proportional to the number of points in the touched cells.
+ * Points with non-finite coordinates are not indexed.
+ * @author RM
+ *
+ */
+public class PointGrid
+{
+	/**
+	 * Targeted average number of points per cell.
+	 */
+	private static final int POINTS_PER_CELL	= 4;
+	
+	private double[] x;
+	private double[] y;
+	private int size;
+	
+	/**
+	 * Extent of indexed points.
+	 */
+	private double minX;
+	private double minY;
+	private double maxX;
+	private double maxY;
+	
+	private int columns;
+	private int rows;
+	private double cellWidth;
+	private double cellHeight;
+	
+	/**
+	 * Offset of each cell's first point in cellPoints (row-major, one additional entry marking the end).
+	 */
+	private int[] cellStart;
+	/**
+	 * Point indices, sorted by cell.
+	 */
+	private int[] cellPoints;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	/**
+	 * Builds grid over points 0 to size - 1.
+	 * @param x Must not be modified afterwards.
+	 * @param y Must not be modified afterwards.
+	 * @param size
+	 */
+	public PointGrid(final double[] x, final double[] y, final int size)
+	{
+		this.x		= x;
+		this.y		= y;
+		this.size	= size;
+		
+		/* 1. Determine extent. */
+		minX = Double.POSITIVE_INFINITY;
+		minY = Double.POSITIVE_INFINITY;
+		maxX = Double.NEGATIVE_INFINITY;
+		maxY = Double.NEGATIVE_INFINITY;
+		
+		for (int i = 0; i < size; i++) {
+			if (isIndexable(i)) {
+				minX = Math.min(minX, x[i]);
+				minY = Math.min(minY, y[i]);
+				maxX = Math.max(maxX, x[i]);
+				maxY = Math.max(maxY, y[i]);
+			}
+		}
+		
+		/* 2. Choose cell layout according to aspect ratio of extent. */
+		final int numberOfCells	= Math.max(1, size / POINTS_PER_CELL);
+		final double width		= maxX - minX;
+		final double height		= maxY - minY;
+		
+		if (!(width > 0) && !(height > 0)) {
+			columns	= 1;
+			rows	= 1;
+		}
+		
+		else if (!(width > 0)) {
+			columns	= 1;
+			rows	= numberOfCells;
+		}
+		
+		else if (!(height > 0)) {
+			columns	= numberOfCells;
+			rows	= 1;
+		}
+		
+		else {
+			columns	= (int)Math.max(1, Math.min(numberOfCells, Math.round(Math.sqrt(numberOfCells * width / height))));
+			rows	= Math.max(1, numberOfCells / columns);
+		}
+		
+		cellWidth	= width > 0 ? width / columns : 1;
+		cellHeight	= height > 0 ? height / rows : 1;
+		
+		/* 3. Count points per cell, then sort point indices by cell. */
+		cellStart			= new int[columns * rows + 1];
+		int[] cellOfPoint	= new int[size];
+		
+		for (int i = 0; i < size; i++) {
+			cellOfPoint[i] = isIndexable(i) ? row(y[i]) * columns + column(x[i]) : -1;
+			if (cellOfPoint[i] >= 0)
+				cellStart[cellOfPoint[i] + 1]++;
+		}
+		
+		for (int cell = 0; cell < columns * rows; cell++) {
+			cellStart[cell + 1] += cellStart[cell];
+		}
+		
+		cellPoints				= new int[cellStart[columns * rows]];
+		int[] nextPointInCell	= Arrays.copyOf(cellStart, columns * rows);
+		
+		for (int i = 0; i < size; i++) {
+			if (cellOfPoint[i] >= 0)
+				cellPoints[nextPointInCell[cellOfPoint[i]]++] = i;
+		}
+	}
+	
+	private boolean isIndexable(final int point)
+	{
+		return !Double.isNaN(x[point]) && !Double.isInfinite(x[point]) && !Double.isNaN(y[point]) && !Double.isInfinite(y[point]);
+	}
+	
+	private int column(final double value)
+	{
+		final int column = (int)((value - minX) / cellWidth);
+		
+		return column < 0 ? 0 : (column >= columns ? columns - 1 : column);
+	}
+	
+	private int row(final double value)
+	{
+		final int row = (int)((value - minY) / cellHeight);
+		
+		return row < 0 ? 0 : (row >= rows ? rows - 1 : row);
+	}
+	
+	/**
+	 * @return Number of points (including those that are not indexed).
+	 */
+	public int size()
+	{
+		return size;
+	}
+	
+	/**
+	 * @param queryMinX
+	 * @param queryMinY
+	 * @param queryMaxX
+	 * @param queryMaxY
+	 * @return Indices of all points within this rectangle (bounds inclusive), ordered by cell.
+	 */
+	public int[] query(final double queryMinX, final double queryMinY, final double queryMaxX, final double queryMaxY)
+	{
+		if (cellPoints.length == 0 || queryMaxX < minX || queryMinX > maxX || queryMaxY < minY || queryMinY > maxY)
+			return new int[0];
+		
+		final int firstColumn	= column(queryMinX);
+		final int lastColumn	= column(queryMaxX);
+		final int firstRow		= row(queryMinY);
+		final int lastRow		= row(queryMaxY);
+		
+		int[] result	= new int[16];
+		int count		= 0;
+		
+		for (int row = firstRow; row <= lastRow; row++) {
+			for (int column = firstColumn; column <= lastColumn; column++) {
+				final int cell = row * columns + column;
+				// Cells in the interior of the queried range are contained completely.
+				final boolean isInterior = row > firstRow && row < lastRow && column > firstColumn && column < lastColumn;
+				
+				for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+					final int point = cellPoints[i];
+					
+					if (isInterior || (x[point] >= queryMinX && x[point] <= queryMaxX && y[point] >= queryMinY && y[point] <= queryMaxY)) {
+						if (count == result.length)
+							result = Arrays.copyOf(result, count * 2);
+						result[count++] = point;
+					}
+				}
+			}
+		}
+		
+		return Arrays.copyOf(result, count);
+	}
+	
+	/**
+	 * @param point
+	 * @param queryMinX
+	 * @param queryMinY
+	 * @param queryMaxX
+	 * @param queryMaxY
+	 * @return True, if point lies within this rectangle (bounds inclusive).
+	 */
+	public boolean contains(final int point, final double queryMinX, final double queryMinY, final double queryMaxX, final double queryMaxY)
+	{
+		return x[point] >= queryMinX && x[point] <= queryMaxX && y[point] >= queryMinY && y[point] <= queryMaxY;
+	}
+}
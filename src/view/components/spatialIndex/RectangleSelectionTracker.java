@@ -0,0 +1,140 @@
+package view.components.spatialIndex;
+
+import java.util.Arrays;
+
+/**
+ * Tracks which points of a {@link PointGrid} lie within a rectangle that is modified step by step (e.g. by rubber band selection).
+ * Each update yields the points that entered and left the rectangle since the previous update, at cost proportional to the number of
+ * points within the old and the new rectangle instead of the number of indexed points.
+ * @author RM
+ *
+ */
+public class RectangleSelectionTracker
+{
+	private PointGrid grid;
+	
+	/**
+	 * Points within current rectangle.
+	 */
+	private int[] members;
+	private int numberOfMembers;
+	private boolean[] isMember;
+	
+	/**
+	 * Changes caused by the last update.
+	 */
+	private int[] enteredPoints;
+	private int numberOfEnteredPoints;
+	private int[] leftPoints;
+	private int numberOfLeftPoints;
+	
+	// -----------------------------------------------
+	// 					Methods
+	// -----------------------------------------------
+	
+	public RectangleSelectionTracker(final PointGrid grid)
+	{
+		this.grid				= grid;
+		this.members			= new int[16];
+		this.isMember			= new boolean[grid.size()];
+		this.enteredPoints		= new int[16];
+		this.leftPoints			= new int[16];
+	}
+	
+	/**
+	 * Moves rectangle to new position. Changes are available via getEnteredPoint() and getLeftPoint() afterwards.
+	 * @param minX
+	 * @param minY
+	 * @param maxX
+	 * @param maxY
+	 */
+	public void update(final double minX, final double minY, final double maxX, final double maxY)
+	{
+		numberOfEnteredPoints	= 0;
+		numberOfLeftPoints		= 0;
+		
+		/* 1. Remove members outside of new rectangle. */
+		int numberOfRemainingMembers = 0;
+		for (int i = 0; i < numberOfMembers; i++) {
+			final int point = members[i];
+			
+			if (grid.contains(point, minX, minY, maxX, maxY))
+				members[numberOfRemainingMembers++] = point;
+			
+			else {
+				isMember[point] = false;
+				leftPoints		= append(leftPoints, numberOfLeftPoints++, point);
+			}
+		}
+		numberOfMembers = numberOfRemainingMembers;
+		
+		/* 2. Add points that are new in rectangle. */
+		for (int point : grid.query(minX, minY, maxX, maxY)) {
+			if (!isMember[point]) {
+				isMember[point]	= true;
+				members			= append(members, numberOfMembers++, point);
+				enteredPoints	= append(enteredPoints, numberOfEnteredPoints++, point);
+			}
+		}
+	}
+	
+	private static int[] append(int[] array, final int count, final int value)
+	{
+		if (count == array.length)
+			array = Arrays.copyOf(array, count * 2);
+		array[count] = value;
+		
+		return array;
+	}
+	
+	/**
+	 * Forgets current rectangle without reporting any changes.
+	 */
+	public void reset()
+	{
+		for (int i = 0; i < numberOfMembers; i++) {
+			isMember[members[i]] = false;
+		}
+		
+		numberOfMembers			= 0;
+		numberOfEnteredPoints	= 0;
+		numberOfLeftPoints		= 0;
+	}
+	
+	/**
+	 * @param point
+	 * @return True, if point lies within current rectangle.
+	 */
+	public boolean contains(final int point)
+	{
+		return isMember[point];
+	}
+	
+	public int getNumberOfEnteredPoints()
+	{
+		return numberOfEnteredPoints;
+	}
+	
+	/**
+	 * @param index
+	 * @return Point that entered rectangle with last update.
+	 */
+	public int getEnteredPoint(final int index)
+	{
+		return enteredPoints[index];
+	}
+	
+	public int getNumberOfLeftPoints()
+	{
+		return numberOfLeftPoints;
+	}
+	
+	/**
+	 * @param index
+	 * @return Point that left rectangle with last update.
+	 */
+	public int getLeftPoint(final int index)
+	{
+		return leftPoints[index];
+	}
+}